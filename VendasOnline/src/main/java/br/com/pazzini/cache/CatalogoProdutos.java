@@ -0,0 +1,263 @@
+/**
+ * A classe CatalogoProdutos mantém em memória, para toda a aplicação, o catálogo de produtos usado na tela de
+ * vendas. O catálogo é pequeno e quase só lido, então as consultas por código e o autocomplete por nome são
+ * respondidos sem acessar o banco de dados.
+ *
+ * O catálogo guarda cópias dos produtos, indexadas pelo id, pelo código e, na TrieNomes, pelo nome normalizado
+ * (TextoUtils.normalizar). Quem recebe um produto do catálogo também recebe uma cópia, de modo que alterações
+ * feitas nas telas não alteram o catálogo compartilhado. As cópias levam a versão do produto, para que uma cópia
+ * usada em uma venda represente o produto como está no banco.
+ *
+ * O carregamento e as atualizações são feitos pelo ProdutoService: o catálogo é carregado na primeira busca e,
+ * depois disso, atualizado produto a produto quando um cadastro, alteração ou exclusão é confirmado (commit).
+ * O carregamento sob demanda lê os produtos com o bloqueio de escrita do catálogo: buscas simultâneas esperam
+ * uma única leitura, e uma atualização confirmada durante a leitura espera o fim do carregamento e é aplicada
+ * depois dele, em vez de ser sobrescrita pela lista lida antes do commit. Pelo mesmo motivo, atualizar compara a
+ * versão (@Version) do produto com a do catálogo e descarta versões mais antigas: um produto lido do banco por uma
+ * consulta lenta não substitui a versão gravada por uma alteração confirmada depois da leitura.
+ *
+ * Métodos:
+ * - carregar(Collection<Produto> produtos): substitui o conteúdo do catálogo.
+ * - carregarSeNecessario(Carga<E> carga): carrega o catálogo uma única vez, lendo os produtos pela carga.
+ * - invalidar(): descarta o conteúdo; o próximo acesso recarrega o catálogo.
+ * - atualizar(Produto produto): aplica um produto lido ou gravado, se ele não for mais antigo que o do catálogo.
+ * - remover(Produto produto): aplica a exclusão confirmada de um produto.
+ * - consultarPorCodigo(String codigo): retorna o produto do código, ou null se ele não estiver no catálogo.
+ * - buscarPorNome(String termo, int limite): busca por nome com a mesma ordenação de ProdutoDAO.buscarPorNome,
+ *   ou retorna null se o catálogo não estiver carregado.
+ * - getAcertos() / getFalhas() / getTaxaAcerto() / getTamanho(): métricas do catálogo.
+ */
+package br.com.pazzini.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Named;
+
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.utils.TextoUtils;
+
+@Named
+@ApplicationScoped
+public class CatalogoProdutos {
+
+    private static final Comparator<Produto> ORDEM_NOME =
+            Comparator.comparing(Produto::getNomeBusca).thenComparing(Produto::getId);
+
+    private final Map<Long, Produto> porId = new HashMap<>();
+
+    private final Map<String, Long> idPorCodigo = new HashMap<>();
+
+    private final TrieNomes nomes = new TrieNomes();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder acertos = new LongAdder();
+
+    private final LongAdder falhas = new LongAdder();
+
+    private volatile boolean carregado;
+
+    /**
+     * Leitura dos produtos de um carregamento.
+     */
+    @FunctionalInterface
+    public interface Carga<E extends Exception> {
+
+        Collection<Produto> buscar() throws E;
+    }
+
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    public void carregar(Collection<Produto> produtos) {
+        lock.writeLock().lock();
+        try {
+            limpar();
+            produtos.forEach(this::indexar);
+            carregado = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carrega o catálogo se ele ainda não estiver carregado. A carga é executada com o bloqueio de escrita, de modo
+     * que só um carregamento lê os produtos e nenhuma atualização é aplicada no meio dele.
+     *
+     * @param carga leitura dos produtos
+     * @return true se o catálogo foi carregado por esta chamada
+     * @throws E se a leitura falhar; o catálogo continua não carregado
+     */
+    public <E extends Exception> boolean carregarSeNecessario(Carga<E> carga) throws E {
+        if (carregado) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (carregado) {
+                return false;
+            }
+            Collection<Produto> produtos = carga.buscar();
+            limpar();
+            produtos.forEach(this::indexar);
+            carregado = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidar() {
+        lock.writeLock().lock();
+        try {
+            limpar();
+            carregado = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Coloca o produto no catálogo, a menos que o catálogo já tenha uma versão mais nova dele.
+     *
+     * @param produto produto lido ou gravado
+     * @return true se o catálogo passou a ter o produto informado
+     */
+    public boolean atualizar(Produto produto) {
+        lock.writeLock().lock();
+        try {
+            Produto atual = porId.get(produto.getId());
+            if (atual != null && atual.getVersao() > produto.getVersao()) {
+                return false;
+            }
+            desindexar(produto.getId());
+            indexar(produto);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Produto produto) {
+        lock.writeLock().lock();
+        try {
+            desindexar(produto.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Produto consultarPorCodigo(String codigo) {
+        lock.readLock().lock();
+        try {
+            Long id = idPorCodigo.get(codigo);
+            if (id == null) {
+                falhas.increment();
+                return null;
+            }
+            acertos.increment();
+            return copiar(porId.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca os produtos pelo nome: primeiro os nomes que começam pelo termo, pela trie; se não completarem o
+     * limite, os nomes que contêm o termo em outra posição, percorrendo o catálogo.
+     *
+     * @param termo texto digitado pelo usuário
+     * @param limite quantidade máxima de produtos
+     * @return produtos encontrados, ou null se o catálogo não estiver carregado
+     */
+    public List<Produto> buscarPorNome(String termo, int limite) {
+        if (!carregado) {
+            falhas.increment();
+            return null;
+        }
+        String normalizado = TextoUtils.normalizar(termo);
+        lock.readLock().lock();
+        try {
+            List<Produto> produtos = nomes.buscar(normalizado, limite).stream()
+                    .map(porId::get)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (produtos.size() < limite && !normalizado.isEmpty()) {
+                porId.values().stream()
+                        .filter(p -> p.getNomeBusca().contains(normalizado) && !p.getNomeBusca().startsWith(normalizado))
+                        .sorted(ORDEM_NOME)
+                        .limit(limite - produtos.size())
+                        .forEach(produtos::add);
+            }
+            acertos.increment();
+            return produtos.stream().map(CatalogoProdutos::copiar).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    public double getTaxaAcerto() {
+        long acertos = getAcertos();
+        long total = acertos + getFalhas();
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+
+    public int getTamanho() {
+        lock.readLock().lock();
+        try {
+            return porId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexar(Produto produto) {
+        Produto copia = copiar(produto);
+        porId.put(copia.getId(), copia);
+        idPorCodigo.put(copia.getCodigo(), copia.getId());
+        nomes.adicionar(copia.getNomeBusca(), copia.getId());
+    }
+
+    private void desindexar(Long id) {
+        Produto anterior = porId.remove(id);
+        if (anterior != null) {
+            idPorCodigo.remove(anterior.getCodigo());
+            nomes.remover(anterior.getNomeBusca(), id);
+        }
+    }
+
+    private void limpar() {
+        porId.clear();
+        idPorCodigo.clear();
+        nomes.limpar();
+    }
+
+    private static Produto copiar(Produto produto) {
+        Produto copia = new Produto();
+        copia.setId(produto.getId());
+        copia.setCodigo(produto.getCodigo());
+        copia.setNome(produto.getNome());
+        copia.setDescricao(produto.getDescricao());
+        copia.setValor(produto.getValor());
+        copia.setVersao(produto.getVersao());
+        return copia;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * A classe TrieNomes é uma árvore de prefixos (trie) que associa nomes normalizados aos ids dos registros,
+ * usada pelo CatalogoProdutos para responder às buscas por início de nome sem percorrer o catálogo inteiro.
+ *
+ * Os filhos de cada nó são mantidos em ordem alfabética, de modo que a busca devolve os ids já ordenados pelo
+ * nome (e pelo id, entre nomes iguais). A classe não é thread-safe; o acesso concorrente é controlado pelo
+ * CatalogoProdutos.
+ *
+ * Métodos:
+ * - adicionar(String nome, Long id): associa o id ao nome.
+ * - remover(String nome, Long id): desfaz a associação, removendo os nós que ficarem vazios.
+ * - buscar(String prefixo, int limite): retorna até limite ids cujos nomes começam pelo prefixo.
+ * - limpar(): remove todos os nomes.
+ */
+package br.com.pazzini.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+class TrieNomes {
+
+    private static class No {
+        private final Map<Character, No> filhos = new TreeMap<>();
+        private final TreeSet<Long> ids = new TreeSet<>();
+
+        private boolean isVazio() {
+            return filhos.isEmpty() && ids.isEmpty();
+        }
+    }
+
+    private No raiz = new No();
+
+    void adicionar(String nome, Long id) {
+        No no = raiz;
+        for (int i = 0; i < nome.length(); i++) {
+            no = no.filhos.computeIfAbsent(nome.charAt(i), c -> new No());
+        }
+        no.ids.add(id);
+    }
+
+    void remover(String nome, Long id) {
+        remover(raiz, nome, 0, id);
+    }
+
+    private boolean remover(No no, String nome, int posicao, Long id) {
+        if (posicao == nome.length()) {
+            no.ids.remove(id);
+        } else {
+            No filho = no.filhos.get(nome.charAt(posicao));
+            if (filho != null && remover(filho, nome, posicao + 1, id)) {
+                no.filhos.remove(nome.charAt(posicao));
+            }
+        }
+        return no.isVazio();
+    }
+
+    List<Long> buscar(String prefixo, int limite) {
+        List<Long> ids = new ArrayList<>();
+        No no = raiz;
+        for (int i = 0; i < prefixo.length() && no != null; i++) {
+            no = no.filhos.get(prefixo.charAt(i));
+        }
+        if (no != null) {
+            coletar(no, ids, limite);
+        }
+        return ids;
+    }
+
+    private void coletar(No no, List<Long> ids, int limite) {
+        for (Long id : no.ids) {
+            if (ids.size() >= limite) {
+                return;
+            }
+            ids.add(id);
+        }
+        for (No filho : no.filhos.values()) {
+            if (ids.size() >= limite) {
+                return;
+            }
+            coletar(filho, ids, limite);
+        }
+    }
+
+    void limpar() {
+        raiz = new No();
+    }
+}
@@ -5,13 +5,14 @@
  * da visualização JSF.
  * Utiliza o serviço IClienteService para interagir com a camada de serviço.
  * Os métodos desta classe realizam operações como adicionar, editar, excluir e listar clientes.
+ * A listagem é feita por um GenericLazyDataModel, que carrega do banco apenas a página exibida na tabela.
  * Adicionalmente, faz uso da classe ReplaceUtils para remover caracteres inválidos dos campos de CPF e telefone.
  *
  * @see Named
  * @see ViewScoped
  * @see Serializable
  * @see Cliente
- * @see Collection
+ * @see GenericLazyDataModel
  * @see IClienteService
  * @see FacesContext
  * @see FacesMessage
@@ -23,7 +24,6 @@
 package br.com.pazzini.controller;
 
 import java.io.Serializable;
-import java.util.Collection;
 
 import javax.annotation.PostConstruct;
 import javax.faces.application.FacesMessage;
@@ -32,7 +32,9 @@ import javax.faces.view.ViewScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import br.com.pazzini.datamodel.GenericLazyDataModel;
 import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.exceptions.AlteracaoConcorrenteException;
 import br.com.pazzini.service.IClienteService;
 import br.com.pazzini.utils.ReplaceUtils;
 
@@ -44,7 +46,7 @@ public class ClienteController implements Serializable {
 
     private Cliente cliente;
 
-    private Collection<Cliente> clientes;
+    private GenericLazyDataModel<Cliente> clientes;
 
     @Inject
     private IClienteService clienteService;
@@ -56,7 +58,7 @@ public class ClienteController implements Serializable {
     private String telMask;
 
     /**
-     * Inicializa o controlador, atribuindo valores iniciais e carregando a lista de clientes.
+     * Inicializa o controlador, atribuindo valores iniciais e criando o modelo paginado da lista de clientes.
      * Em caso de erro, exibe uma mensagem de erro utilizando o FacesContext.
      */
     @PostConstruct
@@ -64,7 +66,7 @@ public class ClienteController implements Serializable {
         try {
             this.isUpdate = false;
             this.cliente = new Cliente();
-            this.clientes = clienteService.buscarTodos();
+            this.clientes = new GenericLazyDataModel<>(clienteService);
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar listar os clientes"));
         }
@@ -107,14 +109,13 @@ public class ClienteController implements Serializable {
     public void delete(Cliente cliente) {
         try {
             clienteService.excluir(cliente);
-            clientes.remove(cliente);
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar excluir o cliente"));
         }
     }
 
     /**
-     * Adiciona um novo cliente, limpando os campos e atualizando a lista de clientes.
+     * Adiciona um novo cliente e limpa os campos. A tabela recarrega a página exibida ao ser atualizada.
      * Em caso de erro, exibe uma mensagem de erro utilizando o FacesContext.
      */
     public void add() {
@@ -122,7 +123,6 @@ public class ClienteController implements Serializable {
             removerCaracteresInvalidos();
             limparCampos();
             clienteService.cadastrar(cliente);
-            this.clientes = clienteService.buscarTodos();
             this.cliente = new Cliente();
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar criar o cliente"));
@@ -139,6 +139,8 @@ public class ClienteController implements Serializable {
             clienteService.alterar(this.cliente);
             cancel();
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Cliente Atualizado com sucesso"));
+        } catch (AlteracaoConcorrenteException e) {
+            FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("O cliente foi alterado por outro usuário. Recarregue o cliente e refaça a alteração"));
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar atualizar o cliente"));
         }
@@ -153,8 +155,6 @@ public class ClienteController implements Serializable {
         return "/index.xhtml";
     }
 
-    // Getters e Setters omitidos para brevidade
-
     /**
      * Remove caracteres inválidos dos campos de CPF e telefone.
      */
@@ -174,5 +174,43 @@ public class ClienteController implements Serializable {
         setTelMask(null);
     }
 
-    // Getters e Setters omitidos para brevidade
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    public void setCliente(Cliente cliente) {
+        this.cliente = cliente;
+    }
+
+    public GenericLazyDataModel<Cliente> getClientes() {
+        return clientes;
+    }
+
+    public void setClientes(GenericLazyDataModel<Cliente> clientes) {
+        this.clientes = clientes;
+    }
+
+    public Boolean getIsUpdate() {
+        return isUpdate;
+    }
+
+    public void setIsUpdate(Boolean isUpdate) {
+        this.isUpdate = isUpdate;
+    }
+
+    public String getCpfMask() {
+        return cpfMask;
+    }
+
+    public void setCpfMask(String cpfMask) {
+        this.cpfMask = cpfMask;
+    }
+
+    public String getTelMask() {
+        return telMask;
+    }
+
+    public void setTelMask(String telMask) {
+        this.telMask = telMask;
+    }
 }
@@ -4,6 +4,7 @@
  * Esta classe é anotada como @Named para ser reconhecida pelo CDI (Contexts and Dependency Injection),
  * permitindo a injeção de dependências, e como @ViewScoped para definir o escopo da instância como o ciclo de vida
  * da visualização JSF.
+ * A listagem é feita por um GenericLazyDataModel, que carrega do banco apenas a página exibida na tabela.
  *
  * @see Named
  * @see ViewScoped
@@ -13,7 +14,6 @@
 package br.com.pazzini.controller;
 
 import java.io.Serializable;
-import java.util.Collection;
 
 import javax.annotation.PostConstruct;
 import javax.faces.application.FacesMessage;
@@ -22,7 +22,9 @@ import javax.faces.view.ViewScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import br.com.pazzini.datamodel.GenericLazyDataModel;
 import br.com.pazzini.domain.Produto;
+import br.com.pazzini.exceptions.AlteracaoConcorrenteException;
 import br.com.pazzini.service.IProdutoService;
 
 @Named
@@ -32,7 +34,7 @@ public class ProdutoController implements Serializable {
     private static final long serialVersionUID = 367088063926303823L;
 
     private Produto produto;
-    private Collection<Produto> produtos;
+    private GenericLazyDataModel<Produto> produtos;
 
     @Inject
     private IProdutoService produtoService;
@@ -40,14 +42,14 @@ public class ProdutoController implements Serializable {
     private Boolean isUpdate;
 
     /**
-     * Inicializa o controlador, populando a lista de produtos e configurando o estado inicial.
+     * Inicializa o controlador, criando o modelo paginado da lista de produtos e configurando o estado inicial.
      */
     @PostConstruct
     public void init() {
         try {
             this.isUpdate = false;
             this.produto = new Produto();
-            this.produtos = produtoService.buscarTodos();
+            this.produtos = new GenericLazyDataModel<>(produtoService);
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar listar os produtos"));
         }
@@ -87,7 +89,6 @@ public class ProdutoController implements Serializable {
     public void delete(Produto produto) {
         try {
             produtoService.excluir(produto);
-            produtos.remove(produto);
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar excluir o produto"));
         }
@@ -99,7 +100,6 @@ public class ProdutoController implements Serializable {
     public void add() {
         try {
             produtoService.cadastrar(produto);
-            this.produtos = produtoService.buscarTodos();
             this.produto = new Produto();
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar criar o produto"));
@@ -114,6 +114,8 @@ public class ProdutoController implements Serializable {
             produtoService.alterar(this.produto);
             cancel();
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Produto Atualizado com sucesso"));
+        } catch (AlteracaoConcorrenteException e) {
+            FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("O produto foi alterado por outro usuário. Recarregue o produto e refaça a alteração"));
         } catch (Exception e) {
             FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar atualizar o produto"));
         }
@@ -128,5 +130,27 @@ public class ProdutoController implements Serializable {
         return "/index.xhtml";
     }
 
-    // Getters e Setters omitidos para brevidade.
+    public Produto getProduto() {
+        return produto;
+    }
+
+    public void setProduto(Produto produto) {
+        this.produto = produto;
+    }
+
+    public GenericLazyDataModel<Produto> getProdutos() {
+        return produtos;
+    }
+
+    public void setProdutos(GenericLazyDataModel<Produto> produtos) {
+        this.produtos = produtos;
+    }
+
+    public Boolean getIsUpdate() {
+        return isUpdate;
+    }
+
+    public void setIsUpdate(Boolean isUpdate) {
+        this.isUpdate = isUpdate;
+    }
 }
@@ -4,14 +4,15 @@
 package br.com.pazzini.controller;
 
 import java.io.Serializable;
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.faces.application.FacesMessage;
@@ -22,13 +23,22 @@ import javax.inject.Named;
 
 import org.primefaces.event.RowEditEvent;
 
+import br.com.pazzini.datamodel.GenericLazyDataModel;
 import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Dinheiro;
 import br.com.pazzini.domain.Produto;
 import br.com.pazzini.domain.ProdutoQuantidade;
 import br.com.pazzini.domain.Venda;
+import br.com.pazzini.dto.ClienteResumo;
+import br.com.pazzini.exceptions.AlteracaoConcorrenteException;
+import br.com.pazzini.exceptions.EstoqueInsuficienteException;
+import br.com.pazzini.exceptions.FilaCheiaException;
+import br.com.pazzini.exceptions.VendaDuplicadaException;
+import br.com.pazzini.service.FinalizacaoAssincrona;
 import br.com.pazzini.service.IClienteService;
 import br.com.pazzini.service.IProdutoService;
 import br.com.pazzini.service.IVendaService;
+import br.com.pazzini.service.PedidoFinalizacao;
 
 /**
  * @author diego.pazzini
@@ -42,7 +52,7 @@ public class VendaController implements Serializable {
 	
 	private Venda venda;
 	
-	private Collection<Venda> vendas;
+	private GenericLazyDataModel<Venda> vendas;
 	
 	@Inject
 	private IVendaService vendaService;
@@ -53,6 +63,11 @@ public class VendaController implements Serializable {
 	@Inject
 	private IProdutoService produtoService;
 	
+	@Inject
+	private FinalizacaoAssincrona finalizacao;
+	
+	private Map<String, String> finalizacoes = new LinkedHashMap<>();
+	
 	private Boolean isUpdate;
 	
 	private LocalDate dataVenda;
@@ -63,7 +78,7 @@ public class VendaController implements Serializable {
 	
 	private Produto produtoSelecionado;
 	
-	private BigDecimal valorTotal; 
+	private Dinheiro valorTotal; 
 	
 	@PostConstruct
     public void init() {
@@ -71,8 +86,8 @@ public class VendaController implements Serializable {
 			this.isUpdate = false;
 			this.venda = new Venda();
 			this.produtos = new HashSet<>();
-			this.vendas = vendaService.buscarTodos();
-			this.valorTotal = BigDecimal.ZERO;
+			this.vendas = new GenericLazyDataModel<>(vendaService);
+			this.valorTotal = Dinheiro.ZERO;
 		} catch (Exception e) {
 			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar listar as vendas"));
 		}
@@ -83,7 +98,7 @@ public class VendaController implements Serializable {
 			this.isUpdate = false;
 			this.venda = new Venda();
 			this.produtos = new HashSet<>();
-			this.valorTotal = BigDecimal.ZERO;
+			this.valorTotal = Dinheiro.ZERO;
 			this.dataVenda = null;
 		} catch (Exception e) {
 			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar cancelar ação"));
@@ -107,7 +122,9 @@ public class VendaController implements Serializable {
 	
 	public void delete(Venda venda) {
 		try {
-			vendaService.cancelarVenda(venda);
+			if (!vendaService.cancelarVenda(venda)) {
+				FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("A venda já foi finalizada ou cancelada"));
+			}
 			cancel();
 		} catch (Exception e) {
 			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar cancelar a venda"));
@@ -117,20 +134,54 @@ public class VendaController implements Serializable {
 	
 	public void finalizar(Venda venda) {
 		try {
-			vendaService.finalizarVenda(venda);
+			if (finalizacao.isAtiva()) {
+				PedidoFinalizacao pedido = finalizacao.enfileirar(venda.getId());
+				finalizacoes.put(pedido.getId(), venda.getCodigo());
+				FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Finalização da venda " + venda.getCodigo() + " em andamento"));
+			} else if (!vendaService.finalizarVenda(venda)) {
+				FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("A venda já foi finalizada ou cancelada"));
+			}
 			cancel();
+		} catch (FilaCheiaException e) {
+			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Muitas finalizações em andamento. Tente novamente em instantes"));
 		} catch (Exception e) {
 			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar finalizar a venda"));
 		}
 		
     } 
 	
+	public void verificarFinalizacoes() {
+		Iterator<Map.Entry<String, String>> it = finalizacoes.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, String> pedido = it.next();
+			PedidoFinalizacao.Situacao situacao = finalizacao.consultarSituacao(pedido.getKey());
+			if (situacao == PedidoFinalizacao.Situacao.PENDENTE) {
+				continue;
+			}
+			if (situacao == PedidoFinalizacao.Situacao.FINALIZADA) {
+				FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Venda " + pedido.getValue() + " finalizada"));
+			} else if (situacao == PedidoFinalizacao.Situacao.IGNORADA) {
+				FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("A venda " + pedido.getValue() + " já foi finalizada ou cancelada"));
+			} else if (situacao == PedidoFinalizacao.Situacao.ERRO) {
+				FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar finalizar a venda " + pedido.getValue()));
+			}
+			it.remove();
+		}
+	}
+	
+	public boolean isFinalizando() {
+		return !finalizacoes.isEmpty();
+	}
+	
 	public void add() {
 		try {
 			venda.setDataVenda(dataVenda.atStartOfDay(ZoneId.systemDefault()).toInstant());
 			vendaService.cadastrar(venda);
-			this.vendas = vendaService.buscarTodos();
 			cancel();
+		} catch (EstoqueInsuficienteException e) {
+			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Estoque insuficiente para os produtos " + e.getIdsProdutos()));
+		} catch (VendaDuplicadaException e) {
+			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Já existe outra venda com o código " + e.getCodigo()));
 		} catch (Exception e) {
 			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar cadastrar a venda"));
 		}
@@ -139,55 +190,39 @@ public class VendaController implements Serializable {
 	public void update() {
     	try {
     		vendaService.alterar(this.venda);
-    		this.vendas = vendaService.buscarTodos();
 			cancel();
 			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Venda atualiada com sucesso"));
+		} catch (AlteracaoConcorrenteException e) {
+			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("A venda foi alterada por outro usuário. Recarregue a venda e refaça a alteração"));
+		} catch (EstoqueInsuficienteException e) {
+			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Estoque insuficiente para os produtos " + e.getIdsProdutos()));
 		} catch (Exception e) {
 			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar atualizar a venda"));
 		}
         
     }
 	
+	// As alterações de linhas passam pela Venda, que atualiza o total somando apenas a diferença da linha.
+	// O produto é lido do catálogo pelo código, com o preço atual, e não da sugestão guardada pelo autocomplete.
 	public void adicionarProduto() {
-		Optional<ProdutoQuantidade> prodOp = 
-				this.venda.getProdutos().stream().filter(prodF -> prodF.getProduto().getCodigo().equals(this.produtoSelecionado.getCodigo())).findFirst();
-
-		if (prodOp.isPresent()) {
-			ProdutoQuantidade prod = prodOp.get();
-			prod.adicionar(this.quantidadeProduto);
-		} else {
-			ProdutoQuantidade prod = new ProdutoQuantidade();
-			prod.setProduto(this.produtoSelecionado);
-			prod.adicionar(this.quantidadeProduto);
-			prod.setVenda(this.venda);
-			this.venda.getProdutos().add(prod);
+		Produto produto = this.produtoService.consultarPorCodigo(this.produtoSelecionado.getCodigo());
+		if (produto == null) {
+			FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Produto não encontrado"));
+			return;
 		}
-		this.venda.recalcularValorTotalVenda();
+		this.venda.adicionarProduto(produto, this.quantidadeProduto);
 		this.produtos = this.venda.getProdutos();
 		this.valorTotal = this.venda.getValorTotal();
 	}
 	
 	public void removerProduto() {
-		Optional<ProdutoQuantidade> prodOp = 
-				this.venda.getProdutos().stream().filter(prodF -> prodF.getProduto().getCodigo().equals(this.produtoSelecionado.getCodigo())).findFirst();
-
-		if (prodOp.isPresent()) {
-			ProdutoQuantidade prod = prodOp.get();
-			prod.remover(this.quantidadeProduto);
-			if (prod.getQuantidade() == 0 || prod.getQuantidade() < 0) {
-				this.venda.getProdutos().remove(prod);
-			}
-			this.venda.recalcularValorTotalVenda();
-			this.produtos = this.venda.getProdutos();
-			this.valorTotal = this.venda.getValorTotal();
-		}
-		
+		this.venda.removerProduto(this.produtoSelecionado, this.quantidadeProduto);
+		this.produtos = this.venda.getProdutos();
+		this.valorTotal = this.venda.getValorTotal();
 	}
 	
 	public void removerProduto(ProdutoQuantidade produto) {
-		
-		this.venda.getProdutos().remove(produto);
-		this.venda.recalcularValorTotalVenda();
+		this.venda.removerProduto(produto.getProduto(), produto.getQuantidade());
 		this.produtos = this.venda.getProdutos();
 		this.valorTotal = this.venda.getValorTotal();
 	}
@@ -206,19 +241,19 @@ public class VendaController implements Serializable {
     	if (prod.getQuantidade() != this.quantidadeProduto) {
     		int quantidade =  this.quantidadeProduto - prod.getQuantidade();
     		if (quantidade > 0) {
-    			prod.adicionar(quantidade);
+    			this.venda.adicionarProduto(prod.getProduto(), quantidade);
     		} else {
-    			this.produtos.remove(prod);
+    			this.venda.removerProduto(prod.getProduto(), prod.getQuantidade());
     		}
-    		this.valorTotal = BigDecimal.ZERO;
-    		this.produtos.forEach(pro -> {
-    			this.valorTotal = this.valorTotal.add(pro.getValorTotal());
-    		});
+    		this.valorTotal = this.venda.getValorTotal();
     	}
     }
 	
+	// O autocomplete recebe apenas id, nome e CPF; a venda grava somente a referência ao cliente.
 	public List<Cliente> filtrarClientes(String query) {
-		return this.clienteService.filtrarClientes(query);
+		return this.clienteService.filtrarClientes(query).stream()
+				.map(ClienteResumo::paraCliente)
+				.collect(Collectors.toList());
 	}
 	
 	public List<Produto> filtrarProdutos(String query) {
@@ -237,11 +272,11 @@ public class VendaController implements Serializable {
 		this.venda = venda;
 	}
 
-	public Collection<Venda> getVendas() {
+	public GenericLazyDataModel<Venda> getVendas() {
 		return vendas;
 	}
 
-	public void setVendas(Collection<Venda> vendas) {
+	public void setVendas(GenericLazyDataModel<Venda> vendas) {
 		this.vendas = vendas;
 	}
 
@@ -285,11 +320,11 @@ public class VendaController implements Serializable {
 		this.produtoSelecionado = produtoSelecionado;
 	}
 
-	public BigDecimal getValorTotal() {
+	public Dinheiro getValorTotal() {
 		return valorTotal;
 	}
 
-	public void setValorTotal(BigDecimal valorTotal) {
+	public void setValorTotal(Dinheiro valorTotal) {
 		this.valorTotal = valorTotal;
 	}
 	
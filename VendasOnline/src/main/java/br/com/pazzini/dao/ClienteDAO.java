@@ -3,21 +3,27 @@
  * Estende a classe genérica GenericDAO e implementa a interface IClienteDAO.
  * 
  * Os métodos específicos incluem:
- * - filtrarClientes: realiza uma consulta filtrada por nome de cliente.
+ * - buscarResumos: realiza a busca do autocomplete, por início do nome ou do CPF, retornando projeções ClienteResumo.
  * 
  * A classe é parametrizada com a entidade Cliente e o tipo da chave primária Long.
  */
 package br.com.pazzini.dao;
 
+import java.math.BigInteger;
 import java.util.List;
 
-import javax.persistence.TypedQuery;
-
 import br.com.pazzini.dao.generic.GenericDAO;
 import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.dto.ClienteResumo;
+import br.com.pazzini.utils.ReplaceUtils;
+import br.com.pazzini.utils.TextoUtils;
 
 public class ClienteDAO extends GenericDAO<Cliente, Long> implements IClienteDAO {
 
+    public static final int LIMITE_SUGESTOES = 10;
+
+    private static final int DIGITOS_CPF = 11;
+
     /**
      * Construtor padrão que chama o construtor da classe pai (GenericDAO) passando a classe da entidade Cliente.
      */
@@ -26,16 +32,35 @@ public class ClienteDAO extends GenericDAO<Cliente, Long> implements IClienteDAO
     }
 
     /**
-     * Método específico para filtrar clientes com base no nome.
+     * Método específico para buscar clientes pelo início do nome ou do CPF.
+     * 
+     * Termos formados apenas por dígitos (com ou sem a pontuação do CPF) são buscados como início do CPF. Como o
+     * CPF é numérico, o prefixo vira um intervalo (ex: "123" busca de 12300000000 a 12399999999), atendido pelo
+     * índice único da coluna. Os demais termos são buscados como início de NOME_BUSCA, atendido pelo índice
+     * (NOME_BUSCA, id). Nos dois casos a ordenação segue o índice e a consulta para no limite, então o tempo de
+     * resposta não depende do tamanho da tabela.
      *
-     * @param query string de consulta para filtrar clientes por nome
-     * @return lista de clientes filtrados
+     * @param termo texto digitado pelo usuário
+     * @param limite quantidade máxima de clientes
+     * @return projeções dos clientes encontrados
      */
     @Override
-    public List<Cliente> filtrarClientes(String query) {
-        TypedQuery<Cliente> typedQuery =
-                this.entityManager.createNamedQuery("Cliente.findByNome", this.persistenteClass);
-        typedQuery.setParameter("nome", "%" + query + "%");
-        return typedQuery.getResultList();
+    public List<ClienteResumo> buscarResumos(String termo, int limite) {
+        String digitos = ReplaceUtils.replace(termo == null ? "" : termo.trim(), ".", "-");
+        if (!digitos.isEmpty() && digitos.length() <= DIGITOS_CPF && digitos.chars().allMatch(Character::isDigit)) {
+            BigInteger escala = BigInteger.TEN.pow(DIGITOS_CPF - digitos.length());
+            BigInteger inicio = new BigInteger(digitos).multiply(escala);
+            return this.entityManager
+                    .createNamedQuery("Cliente.buscarResumosPorCpf", ClienteResumo.class)
+                    .setParameter("inicio", inicio.longValue())
+                    .setParameter("fim", inicio.add(escala).longValue() - 1)
+                    .setMaxResults(limite)
+                    .getResultList();
+        }
+        return this.entityManager
+                .createNamedQuery("Cliente.buscarResumosPorNome", ClienteResumo.class)
+                .setParameter("prefixo", escaparLike(TextoUtils.normalizar(termo)) + "%")
+                .setMaxResults(limite)
+                .getResultList();
     }
 }
@@ -0,0 +1,213 @@
+/**
+ * Implementação da interface IEstoqueDAO.
+ * 
+ * As reservas, liberações e confirmações são UPDATEs condicionais por produto, enviados ao banco em um único batch
+ * JDBC (Session.doWork). Nenhum deles lê o estoque antes de alterá-lo: o banco soma ou subtrai a quantidade sobre o
+ * valor atual da linha, de modo que vendas concorrentes do mesmo produto não perdem alterações, e a condição
+ * DISPONIVEL >= q impede que o disponível fique negativo. O único bloqueio é o da própria linha do estoque, mantido
+ * até o fim da transação; os produtos são alterados em ordem de id, para que duas vendas com os mesmos produtos os
+ * bloqueiem na mesma ordem, sem deadlock.
+ * 
+ * A quantidade de linhas alteradas por cada comando do batch indica se a reserva foi feita. Quando um comando não
+ * altera nenhuma linha, o produto ou não tem estoque suficiente ou não tem controle de estoque; só nesse caso é feita
+ * uma consulta para distinguir os dois.
+ * 
+ * As liberações e confirmações calculam as quantidades a partir das linhas das vendas no banco, com uma consulta
+ * agrupada por produto.
+ */
+package br.com.pazzini.dao;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.Session;
+
+import br.com.pazzini.domain.Estoque;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.EstoqueInsuficienteException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+public class EstoqueDAO implements IEstoqueDAO {
+
+    private static final int MAXIMO_IDS_POR_COMANDO = 1000;
+
+    private static final String SQL_RESERVAR =
+            "UPDATE TB_ESTOQUE SET DISPONIVEL = DISPONIVEL - ?, RESERVADO = RESERVADO + ? "
+            + "WHERE produto_id = ? AND DISPONIVEL >= ?";
+
+    private static final String SQL_LIBERAR =
+            "UPDATE TB_ESTOQUE SET DISPONIVEL = DISPONIVEL + ?, RESERVADO = RESERVADO - ? WHERE produto_id = ?";
+
+    private static final String SQL_CONFIRMAR =
+            "UPDATE TB_ESTOQUE SET RESERVADO = RESERVADO - ? WHERE produto_id = ?";
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Override
+    public void reservar(Map<Long, Long> quantidadePorProduto) throws DAOException {
+        Map<Long, Long> ordenado = new TreeMap<>(quantidadePorProduto);
+        ordenado.values().removeIf(quantidade -> quantidade <= 0);
+        if (ordenado.isEmpty()) {
+            return;
+        }
+        List<Long> naoReservados = new ArrayList<>();
+        try {
+            entityManager.unwrap(Session.class).doWork(conexao -> {
+                try (PreparedStatement comando = conexao.prepareStatement(SQL_RESERVAR)) {
+                    for (Map.Entry<Long, Long> item : ordenado.entrySet()) {
+                        comando.setLong(1, item.getValue());
+                        comando.setLong(2, item.getValue());
+                        comando.setLong(3, item.getKey());
+                        comando.setLong(4, item.getValue());
+                        comando.addBatch();
+                    }
+                    int[] alteradas = comando.executeBatch();
+                    int i = 0;
+                    for (Long idProduto : ordenado.keySet()) {
+                        if (alteradas[i++] == 0) {
+                            naoReservados.add(idProduto);
+                        }
+                    }
+                }
+            });
+            if (!naoReservados.isEmpty()) {
+                List<Long> semEstoque = entityManager.createQuery(
+                        "SELECT e.idProduto FROM Estoque e WHERE e.idProduto IN :ids ORDER BY e.idProduto", Long.class)
+                        .setParameter("ids", naoReservados)
+                        .getResultList();
+                if (!semEstoque.isEmpty()) {
+                    throw new EstoqueInsuficienteException(semEstoque);
+                }
+            }
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO RESERVANDO ESTOQUE ", e);
+        }
+    }
+
+    @Override
+    public void liberar(Collection<Long> idsVendas) throws DAOException {
+        alterar(SQL_LIBERAR, idsVendas, true);
+    }
+
+    @Override
+    public void confirmar(Collection<Long> idsVendas) throws DAOException {
+        alterar(SQL_CONFIRMAR, idsVendas, false);
+    }
+
+    private void alterar(String sql, Collection<Long> idsVendas, boolean devolverDisponivel) throws DAOException {
+        if (idsVendas.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, Long> quantidades = getQuantidadesPorProduto(idsVendas);
+            if (quantidades.isEmpty()) {
+                return;
+            }
+            entityManager.unwrap(Session.class).doWork(conexao -> {
+                try (PreparedStatement comando = conexao.prepareStatement(sql)) {
+                    for (Map.Entry<Long, Long> item : quantidades.entrySet()) {
+                        int parametro = 1;
+                        comando.setLong(parametro++, item.getValue());
+                        if (devolverDisponivel) {
+                            comando.setLong(parametro++, item.getValue());
+                        }
+                        comando.setLong(parametro, item.getKey());
+                        comando.addBatch();
+                    }
+                    comando.executeBatch();
+                }
+            });
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO ALTERANDO ESTOQUE ", e);
+        }
+    }
+
+    /**
+     * Soma as quantidades das linhas das vendas por produto, em ordem de id do produto.
+     */
+    private Map<Long, Long> getQuantidadesPorProduto(Collection<Long> idsVendas) {
+        List<Long> lista = new ArrayList<>(new HashSet<>(idsVendas));
+        Map<Long, Long> quantidades = new TreeMap<>();
+        for (int i = 0; i < lista.size(); i += MAXIMO_IDS_POR_COMANDO) {
+            List<Object[]> linhas = entityManager.createQuery(
+                    "SELECT l.produto.id, SUM(l.quantidade) FROM ProdutoQuantidade l "
+                    + "WHERE l.venda.id IN :ids GROUP BY l.produto.id", Object[].class)
+                    .setParameter("ids", lista.subList(i, Math.min(i + MAXIMO_IDS_POR_COMANDO, lista.size())))
+                    .getResultList();
+            for (Object[] linha : linhas) {
+                quantidades.merge((Long) linha[0], ((Number) linha[1]).longValue(), Long::sum);
+            }
+        }
+        return quantidades;
+    }
+
+    @Override
+    public Estoque consultar(Long idProduto) throws DAOException {
+        try {
+            return entityManager.find(Estoque.class, idProduto);
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO CONSULTANDO ESTOQUE ", e);
+        }
+    }
+
+    @Override
+    public Estoque definir(Long idProduto, long disponivel) throws DAOException {
+        if (disponivel < 0) {
+            throw new IllegalArgumentException("ESTOQUE DISPONÍVEL NEGATIVO: " + disponivel);
+        }
+        try {
+            Estoque atual = entityManager.find(Estoque.class, idProduto, LockModeType.PESSIMISTIC_WRITE);
+            if (atual != null) {
+                entityManager.createQuery("UPDATE Estoque e SET e.disponivel = :disponivel WHERE e.idProduto = :id")
+                        .setParameter("disponivel", disponivel)
+                        .setParameter("id", idProduto)
+                        .executeUpdate();
+                entityManager.refresh(atual);
+                return atual;
+            }
+            Long reservado = entityManager.createQuery(
+                    "SELECT COALESCE(SUM(l.quantidade), 0) FROM ProdutoQuantidade l "
+                    + "WHERE l.produto.id = :id AND l.venda.status = :status", Long.class)
+                    .setParameter("id", idProduto)
+                    .setParameter("status", Venda.Status.INICIADA)
+                    .getSingleResult();
+            Estoque estoque = new Estoque(idProduto, disponivel, reservado);
+            entityManager.persist(estoque);
+            entityManager.flush();
+            return estoque;
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO DEFININDO ESTOQUE ", e);
+        }
+    }
+
+    @Override
+    public boolean repor(Long idProduto, long quantidade) throws DAOException {
+        if (quantidade <= 0) {
+            throw new IllegalArgumentException("QUANTIDADE DE REPOSIÇÃO INVÁLIDA: " + quantidade);
+        }
+        try {
+            return entityManager.createQuery(
+                    "UPDATE Estoque e SET e.disponivel = e.disponivel + :quantidade WHERE e.idProduto = :id")
+                    .setParameter("quantidade", quantidade)
+                    .setParameter("id", idProduto)
+                    .executeUpdate() == 1;
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO REPONDO ESTOQUE ", e);
+        }
+    }
+}
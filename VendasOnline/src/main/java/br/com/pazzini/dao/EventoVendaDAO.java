@@ -0,0 +1,94 @@
+/**
+ * Implementação da interface IEventoVendaDAO.
+ * 
+ * O registro é um único INSERT ... SELECT para até MAXIMO_IDS_POR_COMANDO vendas: o banco copia da venda os dados do
+ * evento e obtém o id da sequência sq_evento_venda, de modo que registrar os eventos de uma transição em massa custa
+ * um comando, e não um por venda. Como o comando nativo não passa pelo contexto de persistência, as alterações
+ * pendentes (a venda recém persistida) são enviadas ao banco antes dele.
+ * 
+ * A busca dos pendentes usa bloqueio pessimista (SELECT ... FOR UPDATE), que impede duas publicações concorrentes
+ * de entregar os mesmos eventos fora de ordem.
+ */
+package br.com.pazzini.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.hibernate.query.NativeQuery;
+
+import br.com.pazzini.domain.EventoVenda;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+public class EventoVendaDAO implements IEventoVendaDAO {
+
+    private static final int MAXIMO_IDS_POR_COMANDO = 1000;
+
+    private static final String SQL_REGISTRAR =
+            "INSERT INTO TB_EVENTO_VENDA (ID, ID_VENDA, CODIGO_VENDA, TIPO, ID_CLIENTE, VALOR_TOTAL, DATA_EVENTO) "
+            + "SELECT nextval('sq_evento_venda'), v.id, v.CODIGO, :tipo, v.id_cliente_fk, v.VALOR_TOTAL, "
+            + "       CURRENT_TIMESTAMP "
+            + "FROM TB_VENDA v "
+            + "WHERE v.id IN (:ids)";
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Override
+    public void registrar(Collection<Long> idsVendas, EventoVenda.Tipo tipo) throws DAOException {
+        if (idsVendas.isEmpty()) {
+            return;
+        }
+        List<Long> lista = new ArrayList<>(idsVendas);
+        try {
+            entityManager.flush();
+            for (int i = 0; i < lista.size(); i += MAXIMO_IDS_POR_COMANDO) {
+                Query query = entityManager.createNativeQuery(SQL_REGISTRAR);
+                query.unwrap(NativeQuery.class).addSynchronizedEntityClass(EventoVenda.class);
+                query.setParameter("tipo", tipo.name())
+                        .setParameter("ids", lista.subList(i, Math.min(i + MAXIMO_IDS_POR_COMANDO, lista.size())))
+                        .executeUpdate();
+            }
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO REGISTRANDO EVENTOS DE VENDA ", e);
+        }
+    }
+
+    @Override
+    public List<EventoVenda> buscarPendentes(int limite) throws DAOException {
+        try {
+            return entityManager.createQuery("SELECT e FROM EventoVenda e ORDER BY e.id", EventoVenda.class)
+                    .setMaxResults(limite)
+                    .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                    .getResultList();
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO BUSCANDO EVENTOS DE VENDA PENDENTES ", e);
+        }
+    }
+
+    @Override
+    public void remover(Collection<EventoVenda> eventos) throws DAOException {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(eventos.size());
+        eventos.forEach(evento -> ids.add(evento.getId()));
+        try {
+            for (int i = 0; i < ids.size(); i += MAXIMO_IDS_POR_COMANDO) {
+                entityManager.createQuery("DELETE FROM EventoVenda e WHERE e.id IN :ids")
+                        .setParameter("ids", ids.subList(i, Math.min(i + MAXIMO_IDS_POR_COMANDO, ids.size())))
+                        .executeUpdate();
+            }
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO REMOVENDO EVENTOS DE VENDA PUBLICADOS ", e);
+        }
+    }
+}
@@ -3,7 +3,7 @@
  * Estende a interface genérica IGenericDAO, parametrizando com a entidade Cliente e o tipo da chave primária Long.
  * 
  * Os métodos específicos incluem:
- * - filtrarClientes: utilizado para filtrar clientes por nome.
+ * - buscarResumos: utilizado para buscar clientes pelo início do nome ou do CPF, retornando apenas id, nome e CPF.
  */
 package br.com.pazzini.dao;
 
@@ -11,15 +11,18 @@ import java.util.List;
 
 import br.com.pazzini.dao.generic.IGenericDAO;
 import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.dto.ClienteResumo;
 
 public interface IClienteDAO extends IGenericDAO<Cliente, Long> {
 
     /**
-     * Método específico para filtrar clientes com base no nome.
+     * Método específico para buscar clientes pelo início do nome (sem diferenciar maiúsculas e acentos) ou,
+     * quando o termo contém apenas dígitos, pelo início do CPF.
      *
-     * @param query string de consulta para filtrar clientes por nome
-     * @return lista de clientes filtrados
+     * @param termo texto digitado pelo usuário
+     * @param limite quantidade máxima de clientes retornados
+     * @return projeções dos clientes encontrados, ordenadas por nome ou por CPF
      */
-    List<Cliente> filtrarClientes(String query);
+    List<ClienteResumo> buscarResumos(String termo, int limite);
 
 }
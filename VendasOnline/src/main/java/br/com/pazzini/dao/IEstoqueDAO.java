@@ -0,0 +1,82 @@
+/**
+ * Interface que define as operações de persistência do estoque dos produtos (TB_ESTOQUE).
+ * 
+ * As reservas, liberações e confirmações alteram o estoque com UPDATEs condicionais enviados em um único batch JDBC
+ * por chamada, sem ler o estoque antes e sem bloquear o produto. Devem ser chamadas na mesma transação que grava a
+ * venda ou a transição de status. Produtos sem linha em TB_ESTOQUE não têm controle de estoque e são ignorados.
+ * 
+ * Os métodos específicos incluem:
+ * - reservar: passa as quantidades vendidas do disponível para o reservado, se houver disponível suficiente.
+ * - liberar: devolve ao disponível o reservado pelas linhas das vendas (cancelamento).
+ * - confirmar: retira do reservado as quantidades das linhas das vendas (finalização).
+ * - consultar / definir / repor: consultam e ajustam o estoque de um produto.
+ */
+package br.com.pazzini.dao;
+
+import java.util.Collection;
+import java.util.Map;
+
+import br.com.pazzini.domain.Estoque;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.EstoqueInsuficienteException;
+
+public interface IEstoqueDAO {
+
+    /**
+     * Reserva as quantidades informadas. Cada produto é reservado com
+     * UPDATE ... SET DISPONIVEL = DISPONIVEL - q WHERE DISPONIVEL >= q; se algum produto com controle de estoque
+     * não tiver disponível suficiente, nenhuma reserva deve ser mantida: a exceção desfaz a transação.
+     *
+     * @param quantidadePorProduto quantidade de cada produto, pelo id do produto
+     * @throws EstoqueInsuficienteException se algum produto com controle de estoque não tiver disponível suficiente
+     * @throws DAOException
+     */
+    void reservar(Map<Long, Long> quantidadePorProduto) throws DAOException;
+
+    /**
+     * Devolve ao disponível as quantidades reservadas pelas linhas das vendas informadas.
+     *
+     * @param idsVendas identificadores das vendas canceladas
+     * @throws DAOException
+     */
+    void liberar(Collection<Long> idsVendas) throws DAOException;
+
+    /**
+     * Retira do reservado as quantidades das linhas das vendas informadas, que saem do estoque.
+     *
+     * @param idsVendas identificadores das vendas finalizadas
+     * @throws DAOException
+     */
+    void confirmar(Collection<Long> idsVendas) throws DAOException;
+
+    /**
+     * Consulta o estoque de um produto.
+     *
+     * @param idProduto identificador do produto
+     * @return o estoque, ou null se o produto não tem controle de estoque
+     * @throws DAOException
+     */
+    Estoque consultar(Long idProduto) throws DAOException;
+
+    /**
+     * Define o disponível de um produto, passando a controlar o estoque dele se ainda não controlava. Ao iniciar o
+     * controle, o reservado é calculado a partir das vendas INICIADAS do produto, para que o cancelamento ou a
+     * finalização delas não desequilibre o estoque.
+     *
+     * @param idProduto identificador do produto
+     * @param disponivel quantidade disponível
+     * @return o estoque do produto
+     * @throws DAOException
+     */
+    Estoque definir(Long idProduto, long disponivel) throws DAOException;
+
+    /**
+     * Soma a quantidade ao disponível de um produto (entrada de mercadoria).
+     *
+     * @param idProduto identificador do produto
+     * @param quantidade quantidade recebida
+     * @return false se o produto não tem controle de estoque
+     * @throws DAOException
+     */
+    boolean repor(Long idProduto, long quantidade) throws DAOException;
+}
@@ -0,0 +1,48 @@
+/**
+ * Interface que define as operações de persistência da caixa de saída de eventos de venda (TB_EVENTO_VENDA).
+ * 
+ * Os eventos são gravados a partir das vendas no banco, sem carregá-las, e devem ser gravados na mesma transação
+ * que altera as vendas, para que a alteração e o evento sejam confirmados ou desfeitos juntos.
+ * 
+ * Os métodos específicos incluem:
+ * - registrar: grava um evento do tipo informado para cada venda.
+ * - buscarPendentes: lê e bloqueia os eventos mais antigos, em ordem de id.
+ * - remover: apaga os eventos já publicados.
+ */
+package br.com.pazzini.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import br.com.pazzini.domain.EventoVenda;
+import br.com.pazzini.exceptions.DAOException;
+
+public interface IEventoVendaDAO {
+
+    /**
+     * Grava um evento do tipo informado para cada venda, com o código, o cliente e o valor total atuais da venda.
+     *
+     * @param idsVendas identificadores das vendas
+     * @param tipo tipo do evento
+     * @throws DAOException
+     */
+    void registrar(Collection<Long> idsVendas, EventoVenda.Tipo tipo) throws DAOException;
+
+    /**
+     * Busca os eventos mais antigos, em ordem de id, bloqueando-os até o fim da transação. Outra transação que tente
+     * publicar os mesmos eventos espera a primeira terminar.
+     *
+     * @param limite quantidade máxima de eventos
+     * @return eventos pendentes
+     * @throws DAOException
+     */
+    List<EventoVenda> buscarPendentes(int limite) throws DAOException;
+
+    /**
+     * Apaga os eventos informados.
+     *
+     * @param eventos eventos já publicados
+     * @throws DAOException
+     */
+    void remover(Collection<EventoVenda> eventos) throws DAOException;
+}
@@ -3,7 +3,9 @@
  * Estende a interface genérica IGenericDAO, parametrizando com a entidade Produto e o tipo da chave primária String.
  * 
  * Os métodos específicos incluem:
- * - filtrarProdutos: utilizado para filtrar produtos por nome.
+ * - filtrarProdutos: utilizado para filtrar produtos por nome no autocomplete.
+ * - consultarPorCodigo: utilizado para consultar um produto pelo código.
+ * - buscarPorNome: utilizado para buscar produtos por nome, sem diferenciar maiúsculas e acentos.
  */
 package br.com.pazzini.dao;
 
@@ -22,4 +24,22 @@ public interface IProdutoDAO extends IGenericDAO<Produto, String> {
      */
     List<Produto> filtrarProdutos(String query);
 
+    /**
+     * Método específico para buscar produtos por nome, sem diferenciar maiúsculas e acentos.
+     * Os produtos cujo nome começa pelo termo vêm antes dos que apenas o contêm.
+     *
+     * @param termo texto a ser buscado no nome
+     * @param limite quantidade máxima de produtos retornados
+     * @return lista de produtos encontrados
+     */
+    List<Produto> buscarPorNome(String termo, int limite);
+
+    /**
+     * Método específico para consultar um produto pelo código.
+     *
+     * @param codigo código do produto
+     * @return produto encontrado, ou null se não existir
+     */
+    Produto consultarPorCodigo(String codigo);
+
 }
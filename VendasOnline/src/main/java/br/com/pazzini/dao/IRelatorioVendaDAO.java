@@ -0,0 +1,91 @@
+/**
+ * Interface que define as consultas agregadas do relatório de vendas.
+ * 
+ * Todas as consultas agrupam no banco de dados (GROUP BY) e retornam apenas as linhas do relatório, nunca vendas
+ * ou linhas de venda. O período é o intervalo [inicio, fim) da data da venda.
+ * 
+ * Os métodos específicos incluem:
+ * - receitaPorPeriodo: soma das vendas por dia ou por mês.
+ * - receitaPorCliente: soma das vendas por cliente, dos maiores para os menores.
+ * - receitaPorProduto: soma das linhas de venda por produto, dos maiores para os menores. A versão por dias lê o
+ *   resumo diário (TB_RESUMO_VENDA_DIA) em vez das linhas de venda.
+ * - receitaPorStatus: quantidade e soma das vendas por status.
+ */
+package br.com.pazzini.dao;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.dto.ReceitaCliente;
+import br.com.pazzini.dto.ReceitaPeriodo;
+import br.com.pazzini.dto.ReceitaProduto;
+import br.com.pazzini.dto.ReceitaStatus;
+import br.com.pazzini.exceptions.DAOException;
+
+public interface IRelatorioVendaDAO {
+
+    /**
+     * Soma as vendas com o status informado por dia ou por mês.
+     *
+     * @param agrupamento granularidade do período
+     * @param status status das vendas consideradas
+     * @param inicio início do período (inclusive)
+     * @param fim fim do período (exclusive)
+     * @return uma linha por período com vendas, em ordem cronológica
+     * @throws DAOException
+     */
+    List<ReceitaPeriodo> receitaPorPeriodo(ReceitaPeriodo.Agrupamento agrupamento, Venda.Status status,
+            Instant inicio, Instant fim) throws DAOException;
+
+    /**
+     * Soma as vendas com o status informado por cliente.
+     *
+     * @param status status das vendas consideradas
+     * @param inicio início do período (inclusive)
+     * @param fim fim do período (exclusive)
+     * @param limite quantidade máxima de clientes
+     * @return clientes com maior soma no período, em ordem decrescente
+     * @throws DAOException
+     */
+    List<ReceitaCliente> receitaPorCliente(Venda.Status status, Instant inicio, Instant fim, int limite)
+            throws DAOException;
+
+    /**
+     * Soma as linhas das vendas com o status informado por produto.
+     *
+     * @param status status das vendas consideradas
+     * @param inicio início do período (inclusive)
+     * @param fim fim do período (exclusive)
+     * @param limite quantidade máxima de produtos
+     * @return produtos com maior soma no período, em ordem decrescente
+     * @throws DAOException
+     */
+    List<ReceitaProduto> receitaPorProduto(Venda.Status status, Instant inicio, Instant fim, int limite)
+            throws DAOException;
+
+    /**
+     * Conta e soma as vendas por status.
+     *
+     * @param inicio início do período (inclusive)
+     * @param fim fim do período (exclusive)
+     * @return uma linha por status com vendas no período
+     * @throws DAOException
+     */
+    List<ReceitaStatus> receitaPorStatus(Instant inicio, Instant fim) throws DAOException;
+
+    /**
+     * Soma o resumo diário por produto, nos dias informados, para as vendas com o status informado. O custo depende
+     * da quantidade de dias e produtos do período, e não da quantidade de vendas.
+     *
+     * @param status status das vendas consideradas
+     * @param inicio primeiro dia do período (inclusive)
+     * @param fim último dia do período (inclusive)
+     * @param limite quantidade máxima de produtos
+     * @return produtos em ordem decrescente de receita
+     * @throws DAOException
+     */
+    List<ReceitaProduto> receitaPorProduto(Venda.Status status, LocalDate inicio, LocalDate fim, int limite)
+            throws DAOException;
+}
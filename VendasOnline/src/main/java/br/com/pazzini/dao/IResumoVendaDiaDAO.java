@@ -0,0 +1,51 @@
+/**
+ * Interface que define as gravações do resumo diário de vendas (TB_RESUMO_VENDA_DIA).
+ * 
+ * O resumo é alterado por diferenças calculadas no banco de dados a partir das linhas das vendas informadas, sem
+ * carregar as vendas. As gravações devem ser feitas na mesma transação que grava as vendas, para que o resumo e as
+ * vendas sejam confirmados ou desfeitos juntos.
+ * 
+ * Os métodos específicos incluem:
+ * - somar(ids, sinal): soma (sinal 1) ou subtrai (sinal -1) as linhas das vendas no resumo do status atual delas.
+ * - somar(ids, status, sinal): o mesmo, no resumo do status informado; usado para retirar as vendas do status anterior
+ *   depois de uma transição.
+ * - reconstruir: recalcula o resumo de um dia a partir das vendas.
+ */
+package br.com.pazzini.dao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.exceptions.DAOException;
+
+public interface IResumoVendaDiaDAO {
+
+    /**
+     * Soma ou subtrai as linhas das vendas informadas no resumo do dia, do produto e do status atual de cada venda.
+     *
+     * @param idsVendas identificadores das vendas
+     * @param sinal 1 para somar ou -1 para subtrair
+     * @throws DAOException
+     */
+    void somar(Collection<Long> idsVendas, int sinal) throws DAOException;
+
+    /**
+     * Soma ou subtrai as linhas das vendas informadas no resumo do dia e do produto, no status informado.
+     *
+     * @param idsVendas identificadores das vendas
+     * @param status status do resumo alterado, independente do status atual das vendas
+     * @param sinal 1 para somar ou -1 para subtrair
+     * @throws DAOException
+     */
+    void somar(Collection<Long> idsVendas, Venda.Status status, int sinal) throws DAOException;
+
+    /**
+     * Apaga o resumo do dia e o recalcula a partir das vendas do dia.
+     *
+     * @param dia dia reconstruído
+     * @return quantidade de linhas do resumo gravadas
+     * @throws DAOException
+     */
+    int reconstruir(LocalDate dia) throws DAOException;
+}
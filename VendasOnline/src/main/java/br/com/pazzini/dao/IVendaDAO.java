@@ -3,13 +3,19 @@
  * Estende a interface genérica IGenericDAO, parametrizando com a entidade Venda e o tipo da chave primária Long.
  * 
  * Os métodos específicos incluem:
- * - finalizarVenda: utilizado para finalizar uma venda, realizando as operações necessárias.
- * - cancelarVenda: utilizado para cancelar uma venda, realizando as operações necessárias.
+ * - finalizarVenda: utilizado para finalizar uma venda, se ela ainda estiver INICIADA.
+ * - cancelarVenda: utilizado para cancelar uma venda, se ela ainda estiver INICIADA.
+ * - finalizarVendas / cancelarVendas: utilizados para finalizar ou cancelar várias vendas pelo id em um único comando,
+ *   informando quais vendas tiveram o status alterado.
  * - consultarComCollection: utilizado para evitar a exception LazyInitializationException,
  *   buscando todos os dados de objetos que tenham coleções lazy.
+ * - consultarPorCodigo: utilizado para encontrar a venda já cadastrada quando uma venda é enviada de novo.
  */
 package br.com.pazzini.dao;
 
+import java.util.Collection;
+import java.util.List;
+
 import br.com.pazzini.dao.generic.IGenericDAO;
 import br.com.pazzini.domain.Venda;
 import br.com.pazzini.exceptions.DAOException;
@@ -18,22 +24,43 @@ import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
 public interface IVendaDAO extends IGenericDAO<Venda, Long> {
 
     /**
-     * Método específico para finalizar uma venda.
+     * Método específico para finalizar uma venda. A transição só é aplicada se a venda estiver INICIADA.
      *
      * @param venda a ser finalizada
+     * @return true se a venda foi finalizada
      * @throws TipoChaveNaoEncontradaException
      * @throws DAOException
      */
-    void finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
+    boolean finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
 
     /**
-     * Método específico para cancelar uma venda.
+     * Método específico para cancelar uma venda. A transição só é aplicada se a venda estiver INICIADA.
      *
      * @param venda a ser cancelada
+     * @return true se a venda foi cancelada
      * @throws TipoChaveNaoEncontradaException
      * @throws DAOException
      */
-    void cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
+    boolean cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
+
+    /**
+     * Método para finalizar várias vendas de uma vez (ex: fechamento do dia). Vendas que não estão INICIADAS
+     * são ignoradas.
+     *
+     * @param ids identificadores das vendas
+     * @return identificadores das vendas finalizadas
+     * @throws DAOException
+     */
+    List<Long> finalizarVendas(Collection<Long> ids) throws DAOException;
+
+    /**
+     * Método para cancelar várias vendas de uma vez. Vendas que não estão INICIADAS são ignoradas.
+     *
+     * @param ids identificadores das vendas
+     * @return identificadores das vendas canceladas
+     * @throws DAOException
+     */
+    List<Long> cancelarVendas(Collection<Long> ids) throws DAOException;
 
     /**
      * Método utilizado para evitar a exceção LazyInitializationException.
@@ -41,10 +68,22 @@ public interface IVendaDAO extends IGenericDAO<Venda, Long> {
      * 
      * OBS: Não é uma boa prática utilizar FetchType.EAGER, pois ele sempre traz todos os objetos da coleção,
      * mesmo sem precisar utilizá-los.
+     * Carrega o cliente, as linhas e os produtos de cada linha em uma única consulta, pelo plano de carga
+     * Venda.GRAFO_COMPLETO. Para carregar menos, utilize consultar(id, planoCarga) com outro plano.
      *
      * @param id identificador da venda
      * @return venda com coleções inicializadas
+     * @throws DAOException
+     */
+    Venda consultarComCollection(Long id) throws DAOException;
+
+    /**
+     * Consulta a venda pelo código, com o cliente, as linhas e os produtos (Venda.GRAFO_COMPLETO).
+     *
+     * @param codigo código da venda
+     * @return venda com coleções inicializadas, ou null se não existir
+     * @throws DAOException
      */
-    Venda consultarComCollection(Long id);
+    Venda consultarPorCodigo(String codigo) throws DAOException;
 
 }
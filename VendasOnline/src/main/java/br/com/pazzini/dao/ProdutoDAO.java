@@ -3,19 +3,24 @@
  * Responsável por operações de persistência específicas para a entidade Produto.
  * 
  * Métodos implementados incluem:
- * - filtrarProdutos: realiza uma consulta filtrada por nome de produto.
+ * - filtrarProdutos: realiza a busca por nome de produto do autocomplete, limitada a LIMITE_SUGESTOES resultados.
+ * - buscarPorNome: realiza a busca por nome sem diferenciar maiúsculas e acentos, com os nomes que começam pelo
+ *   termo antes dos que apenas o contêm.
+ * - consultarPorCodigo: realiza a consulta de um produto pelo código.
  */
 package br.com.pazzini.dao;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import javax.persistence.TypedQuery;
-
 import br.com.pazzini.dao.generic.GenericDAO;
 import br.com.pazzini.domain.Produto;
+import br.com.pazzini.utils.TextoUtils;
 
 public class ProdutoDAO extends GenericDAO<Produto, String> implements IProdutoDAO {
 
+    public static final int LIMITE_SUGESTOES = 10;
+
     /**
      * Construtor que chama o construtor da classe pai, informando a classe da entidade Produto.
      */
@@ -31,10 +36,51 @@ public class ProdutoDAO extends GenericDAO<Produto, String> implements IProdutoD
      */
     @Override
     public List<Produto> filtrarProdutos(String query) {
-        TypedQuery<Produto> tpQuery = 
-                this.entityManager.createNamedQuery("Produto.findByNome", this.persistenteClass);
-        tpQuery.setParameter("nome", "%" + query + "%");
-        return tpQuery.getResultList();
+        return buscarPorNome(query, LIMITE_SUGESTOES);
+    }
+
+    /**
+     * Busca os produtos pela coluna NOME_BUSCA, já normalizada. Primeiro são buscados os nomes que começam pelo
+     * termo; se não completarem o limite, os nomes que contêm o termo em outra posição. As duas consultas são
+     * atendidas pelo índice da coluna (trigram no PostgreSQL) e retornam no máximo o limite informado.
+     *
+     * @param termo texto digitado pelo usuário
+     * @param limite quantidade máxima de produtos
+     * @return produtos encontrados, ordenados por relevância e nome
+     */
+    @Override
+    public List<Produto> buscarPorNome(String termo, int limite) {
+        String normalizado = escaparLike(TextoUtils.normalizar(termo));
+        List<Produto> produtos = new ArrayList<>(this.entityManager
+                .createNamedQuery("Produto.buscarPorNomePrefixo", this.persistenteClass)
+                .setParameter("prefixo", normalizado + "%")
+                .setMaxResults(limite)
+                .getResultList());
+        if (produtos.size() < limite && !normalizado.isEmpty()) {
+            produtos.addAll(this.entityManager
+                    .createNamedQuery("Produto.buscarPorNomeContem", this.persistenteClass)
+                    .setParameter("trecho", "%" + normalizado + "%")
+                    .setParameter("prefixo", normalizado + "%")
+                    .setMaxResults(limite - produtos.size())
+                    .getResultList());
+        }
+        return produtos;
+    }
+
+    /**
+     * Método específico para consultar um produto pelo código.
+     *
+     * @param codigo código do produto
+     * @return produto encontrado, ou null se não existir
+     */
+    @Override
+    public Produto consultarPorCodigo(String codigo) {
+        List<Produto> produtos = this.entityManager
+                .createNamedQuery("Produto.buscarPorCodigo", this.persistenteClass)
+                .setParameter("codigo", codigo)
+                .setMaxResults(1)
+                .getResultList();
+        return produtos.isEmpty() ? null : produtos.get(0);
     }
 
 }
@@ -0,0 +1,188 @@
+/**
+ * Implementação da interface IRelatorioVendaDAO com consultas SQL nativas do PostgreSQL.
+ * 
+ * As consultas são nativas porque o agrupamento por dia ou mês usa date_trunc, e porque a soma é feita sobre as
+ * colunas NUMERIC diretamente, sem passar pelo DinheiroConverter. Cada consulta filtra primeiro pela data e pelo
+ * status (índice idx_venda_status_data), agrupa pelas chaves estrangeiras e só depois junta o nome do cliente ou
+ * do produto, de modo que a junção é feita apenas com as linhas do resultado.
+ * 
+ * O relatório por produto em dias inteiros lê o resumo diário (TB_RESUMO_VENDA_DIA, mantido pelo VendaService), que
+ * já traz os totais de cada dia, produto e status, sem percorrer as linhas de venda.
+ * 
+ * Índices usados (ver db/migracao/004_indices_relatorio_vendas.sql):
+ * - idx_venda_status_data (STATUS_VENDA, DATA_VENDA): período e status, em todos os relatórios de receita.
+ * - idx_venda_data (DATA_VENDA): período, no relatório por status.
+ * - idx_venda_cliente (id_cliente_fk): junção e agrupamento por cliente.
+ * - idx_prod_qtd_venda (id_venda_fk): linhas das vendas selecionadas, no relatório por produto.
+ * - idx_resumo_status_dia (STATUS_VENDA, DIA): dias do período, no relatório por produto a partir do resumo.
+ */
+package br.com.pazzini.dao;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import br.com.pazzini.domain.Dinheiro;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.dto.ReceitaCliente;
+import br.com.pazzini.dto.ReceitaPeriodo;
+import br.com.pazzini.dto.ReceitaProduto;
+import br.com.pazzini.dto.ReceitaStatus;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+public class RelatorioVendaDAO implements IRelatorioVendaDAO {
+
+    private static final String SQL_POR_PERIODO =
+            "SELECT date_trunc('%1$s', v.DATA_VENDA), COUNT(*), SUM(v.VALOR_TOTAL) "
+            + "FROM TB_VENDA v "
+            + "WHERE v.STATUS_VENDA = ?1 AND v.DATA_VENDA >= ?2 AND v.DATA_VENDA < ?3 "
+            + "GROUP BY date_trunc('%1$s', v.DATA_VENDA) ORDER BY 1";
+
+    private static final String SQL_POR_CLIENTE =
+            "SELECT c.id, c.NOME, r.vendas, r.valor "
+            + "FROM (SELECT v.id_cliente_fk, COUNT(*) AS vendas, SUM(v.VALOR_TOTAL) AS valor "
+            + "      FROM TB_VENDA v "
+            + "      WHERE v.STATUS_VENDA = ?1 AND v.DATA_VENDA >= ?2 AND v.DATA_VENDA < ?3 "
+            + "      GROUP BY v.id_cliente_fk "
+            + "      ORDER BY valor DESC, v.id_cliente_fk "
+            + "      LIMIT ?4) r "
+            + "JOIN TB_CLIENTE c ON c.id = r.id_cliente_fk "
+            + "ORDER BY r.valor DESC, c.id";
+
+    private static final String SQL_POR_PRODUTO =
+            "SELECT p.id, p.codigo, p.NOME, r.quantidade, r.valor "
+            + "FROM (SELECT pq.produto_id, SUM(pq.quantidade) AS quantidade, SUM(pq.valor_total) AS valor "
+            + "      FROM TB_VENDA v "
+            + "      JOIN TB_PRODUTO_QUANTIDADE pq ON pq.id_venda_fk = v.id "
+            + "      WHERE v.STATUS_VENDA = ?1 AND v.DATA_VENDA >= ?2 AND v.DATA_VENDA < ?3 "
+            + "      GROUP BY pq.produto_id "
+            + "      ORDER BY valor DESC, pq.produto_id "
+            + "      LIMIT ?4) r "
+            + "JOIN TB_PRODUTO p ON p.id = r.produto_id "
+            + "ORDER BY r.valor DESC, p.id";
+
+    private static final String SQL_POR_PRODUTO_RESUMO =
+            "SELECT p.id, p.codigo, p.NOME, r.quantidade, r.valor "
+            + "FROM (SELECT rv.produto_id, SUM(rv.QUANTIDADE) AS quantidade, SUM(rv.VALOR_TOTAL) AS valor "
+            + "      FROM TB_RESUMO_VENDA_DIA rv "
+            + "      WHERE rv.STATUS_VENDA = ?1 AND rv.DIA >= ?2 AND rv.DIA <= ?3 "
+            + "      GROUP BY rv.produto_id "
+            + "      HAVING SUM(rv.VENDAS) > 0 "
+            + "      ORDER BY valor DESC, rv.produto_id "
+            + "      LIMIT ?4) r "
+            + "JOIN TB_PRODUTO p ON p.id = r.produto_id "
+            + "ORDER BY r.valor DESC, p.id";
+
+    private static final String SQL_POR_STATUS =
+            "SELECT v.STATUS_VENDA, COUNT(*), SUM(v.VALOR_TOTAL) "
+            + "FROM TB_VENDA v "
+            + "WHERE v.DATA_VENDA >= ?1 AND v.DATA_VENDA < ?2 "
+            + "GROUP BY v.STATUS_VENDA "
+            + "ORDER BY v.STATUS_VENDA";
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Override
+    public List<ReceitaPeriodo> receitaPorPeriodo(ReceitaPeriodo.Agrupamento agrupamento, Venda.Status status,
+            Instant inicio, Instant fim) throws DAOException {
+        Query query = entityManager.createNativeQuery(String.format(SQL_POR_PERIODO, agrupamento.getUnidade()))
+                .setParameter(1, status.name())
+                .setParameter(2, Timestamp.from(inicio))
+                .setParameter(3, Timestamp.from(fim));
+        List<ReceitaPeriodo> receitas = new ArrayList<>();
+        for (Object[] linha : executar(query)) {
+            receitas.add(new ReceitaPeriodo(((Timestamp) linha[0]).toLocalDateTime().toLocalDate(),
+                    inteiro(linha[1]), centavos(linha[2])));
+        }
+        return receitas;
+    }
+
+    @Override
+    public List<ReceitaCliente> receitaPorCliente(Venda.Status status, Instant inicio, Instant fim, int limite)
+            throws DAOException {
+        Query query = entityManager.createNativeQuery(SQL_POR_CLIENTE)
+                .setParameter(1, status.name())
+                .setParameter(2, Timestamp.from(inicio))
+                .setParameter(3, Timestamp.from(fim))
+                .setParameter(4, limite);
+        List<ReceitaCliente> receitas = new ArrayList<>();
+        for (Object[] linha : executar(query)) {
+            receitas.add(new ReceitaCliente(inteiro(linha[0]), (String) linha[1], inteiro(linha[2]),
+                    centavos(linha[3])));
+        }
+        return receitas;
+    }
+
+    @Override
+    public List<ReceitaProduto> receitaPorProduto(Venda.Status status, Instant inicio, Instant fim, int limite)
+            throws DAOException {
+        Query query = entityManager.createNativeQuery(SQL_POR_PRODUTO)
+                .setParameter(1, status.name())
+                .setParameter(2, Timestamp.from(inicio))
+                .setParameter(3, Timestamp.from(fim))
+                .setParameter(4, limite);
+        return paraReceitasProduto(executar(query));
+    }
+
+    @Override
+    public List<ReceitaProduto> receitaPorProduto(Venda.Status status, LocalDate inicio, LocalDate fim, int limite)
+            throws DAOException {
+        Query query = entityManager.createNativeQuery(SQL_POR_PRODUTO_RESUMO)
+                .setParameter(1, status.name())
+                .setParameter(2, Date.valueOf(inicio))
+                .setParameter(3, Date.valueOf(fim))
+                .setParameter(4, limite);
+        return paraReceitasProduto(executar(query));
+    }
+
+    @Override
+    public List<ReceitaStatus> receitaPorStatus(Instant inicio, Instant fim) throws DAOException {
+        Query query = entityManager.createNativeQuery(SQL_POR_STATUS)
+                .setParameter(1, Timestamp.from(inicio))
+                .setParameter(2, Timestamp.from(fim));
+        List<ReceitaStatus> receitas = new ArrayList<>();
+        for (Object[] linha : executar(query)) {
+            receitas.add(new ReceitaStatus(Venda.Status.valueOf((String) linha[0]), inteiro(linha[1]),
+                    centavos(linha[2])));
+        }
+        return receitas;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> executar(Query query) throws DAOException {
+        try {
+            return query.getResultList();
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO CONSULTANDO O RELATÓRIO DE VENDAS ", e);
+        }
+    }
+
+    private static List<ReceitaProduto> paraReceitasProduto(List<Object[]> linhas) {
+        List<ReceitaProduto> receitas = new ArrayList<>();
+        for (Object[] linha : linhas) {
+            receitas.add(new ReceitaProduto(inteiro(linha[0]), (String) linha[1], (String) linha[2],
+                    inteiro(linha[3]), centavos(linha[4])));
+        }
+        return receitas;
+    }
+
+    private static long inteiro(Object valor) {
+        return ((Number) valor).longValue();
+    }
+
+    private static long centavos(Object valor) {
+        return valor == null ? 0 : Dinheiro.centavos((BigDecimal) valor);
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Implementação da interface IResumoVendaDiaDAO com comandos SQL nativos do PostgreSQL.
+ * 
+ * Cada alteração é um único INSERT ... SELECT ... ON CONFLICT DO UPDATE: o banco agrupa as linhas das vendas por
+ * dia, produto e status e soma cada grupo à linha existente do resumo, ou a cria. As linhas são gravadas em ordem
+ * de chave, de modo que duas transações que alteram os mesmos produtos bloqueiam as linhas na mesma ordem, sem
+ * deadlock. Linhas que chegam a zero não são apagadas; a reconstrução do dia as remove.
+ * 
+ * A reconstrução bloqueia o resumo em SHARE ROW EXCLUSIVE, que conflita com as alterações incrementais mas não
+ * com as leituras. Ela espera as transações que já alteraram o resumo terminarem e faz as próximas esperarem por
+ * ela; como o resumo é sempre alterado depois da venda, uma venda gravada durante a reconstrução ou já está
+ * confirmada e é contada pela reconstrução, ou soma a sua diferença depois dela, nunca as duas coisas.
+ * 
+ * Os comandos nativos não passam pelo contexto de persistência, por isso as alterações pendentes (a venda e as
+ * linhas recém persistidas) são enviadas ao banco antes de cada comando.
+ */
+package br.com.pazzini.dao;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.hibernate.query.NativeQuery;
+
+import br.com.pazzini.domain.ResumoVendaDia;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+public class ResumoVendaDiaDAO implements IResumoVendaDiaDAO {
+
+    private static final int MAXIMO_IDS_POR_COMANDO = 1000;
+
+    private static final String SQL_SOMAR =
+            "INSERT INTO TB_RESUMO_VENDA_DIA AS r (DIA, produto_id, STATUS_VENDA, VENDAS, QUANTIDADE, VALOR_TOTAL) "
+            + "SELECT CAST(v.DATA_VENDA AS DATE), pq.produto_id, %s, "
+            + "       :sinal * COUNT(*), :sinal * SUM(pq.quantidade), :sinal * SUM(pq.valor_total) "
+            + "FROM TB_VENDA v "
+            + "JOIN TB_PRODUTO_QUANTIDADE pq ON pq.id_venda_fk = v.id "
+            + "WHERE v.id IN (:ids) "
+            + "GROUP BY 1, 2, 3 "
+            + "ORDER BY 1, 2, 3 "
+            + "ON CONFLICT (DIA, produto_id, STATUS_VENDA) DO UPDATE SET "
+            + "VENDAS = r.VENDAS + EXCLUDED.VENDAS, "
+            + "QUANTIDADE = r.QUANTIDADE + EXCLUDED.QUANTIDADE, "
+            + "VALOR_TOTAL = r.VALOR_TOTAL + EXCLUDED.VALOR_TOTAL";
+
+    private static final String SQL_BLOQUEAR = "LOCK TABLE TB_RESUMO_VENDA_DIA IN SHARE ROW EXCLUSIVE MODE";
+
+    private static final String SQL_APAGAR_DIA = "DELETE FROM TB_RESUMO_VENDA_DIA WHERE DIA = :dia";
+
+    private static final String SQL_RECONSTRUIR_DIA =
+            "INSERT INTO TB_RESUMO_VENDA_DIA (DIA, produto_id, STATUS_VENDA, VENDAS, QUANTIDADE, VALOR_TOTAL) "
+            + "SELECT CAST(v.DATA_VENDA AS DATE), pq.produto_id, v.STATUS_VENDA, "
+            + "       COUNT(*), SUM(pq.quantidade), SUM(pq.valor_total) "
+            + "FROM TB_VENDA v "
+            + "JOIN TB_PRODUTO_QUANTIDADE pq ON pq.id_venda_fk = v.id "
+            + "WHERE v.DATA_VENDA >= :inicio AND v.DATA_VENDA < :fim "
+            + "GROUP BY 1, 2, 3";
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    @Override
+    public void somar(Collection<Long> idsVendas, int sinal) throws DAOException {
+        somar(idsVendas, "v.STATUS_VENDA", null, sinal);
+    }
+
+    @Override
+    public void somar(Collection<Long> idsVendas, Venda.Status status, int sinal) throws DAOException {
+        somar(idsVendas, ":status", status, sinal);
+    }
+
+    private void somar(Collection<Long> idsVendas, String expressaoStatus, Venda.Status status, int sinal)
+            throws DAOException {
+        if (idsVendas.isEmpty()) {
+            return;
+        }
+        List<Long> lista = new ArrayList<>(idsVendas);
+        String sql = String.format(SQL_SOMAR, expressaoStatus);
+        try {
+            entityManager.flush();
+            for (int i = 0; i < lista.size(); i += MAXIMO_IDS_POR_COMANDO) {
+                Query query = comando(sql)
+                        .setParameter("sinal", sinal)
+                        .setParameter("ids", lista.subList(i, Math.min(i + MAXIMO_IDS_POR_COMANDO, lista.size())));
+                if (status != null) {
+                    query.setParameter("status", status.name());
+                }
+                query.executeUpdate();
+            }
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO ATUALIZANDO O RESUMO DIÁRIO DE VENDAS ", e);
+        }
+    }
+
+    @Override
+    public int reconstruir(LocalDate dia) throws DAOException {
+        try {
+            comando(SQL_BLOQUEAR).executeUpdate();
+            comando(SQL_APAGAR_DIA)
+                    .setParameter("dia", Date.valueOf(dia))
+                    .executeUpdate();
+            return comando(SQL_RECONSTRUIR_DIA)
+                    .setParameter("inicio", Timestamp.valueOf(dia.atStartOfDay()))
+                    .setParameter("fim", Timestamp.valueOf(dia.plusDays(1).atStartOfDay()))
+                    .executeUpdate();
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO RECONSTRUINDO O RESUMO DIÁRIO DE VENDAS ", e);
+        }
+    }
+
+    /**
+     * Cria o comando nativo declarando que ele só altera o resumo. Sem essa declaração, o Hibernate não sabe quais
+     * tabelas o comando altera e invalida todas as regiões do cache de segundo nível (clientes e produtos) a cada
+     * venda gravada.
+     */
+    private Query comando(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(ResumoVendaDia.class);
+        return query;
+    }
+}
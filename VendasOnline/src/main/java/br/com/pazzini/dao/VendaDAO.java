@@ -3,28 +3,38 @@
  * Responsável por operações de persistência específicas para a entidade Venda.
  * 
  * Métodos implementados incluem:
- * - finalizarVenda: realiza a finalização de uma venda.
- * - cancelarVenda: realiza o cancelamento de uma venda.
+ * - finalizarVenda / cancelarVenda: finalizam ou cancelam uma venda com um UPDATE condicional ao status INICIADA.
+ * - finalizarVendas / cancelarVendas: bloqueiam as vendas INICIADAS entre os ids e alteram o status delas com um
+ *   UPDATE em massa, devolvendo os ids alterados.
  * - excluir: sobrescrito para lançar UnsupportedOperationException.
- * - cadastrar: realiza o cadastro de uma venda, atualizando as associações com Cliente e Produto.
- * - consultarComCollection: consulta uma venda incluindo as coleções associadas (cliente e produtos).
+ * - cadastrar: realiza o cadastro de uma venda, referenciando Cliente e Produto pelo id, sem consultá-los nem alterá-los.
+ * - consultarComCollection: consulta uma venda com o cliente, as linhas e os produtos, pelo plano de carga Venda.GRAFO_COMPLETO.
+ * - consultarPorCodigo: consulta uma venda pelo código (índice único), com o mesmo plano de carga.
+ * - buscarLote: sobrescrito para carregar, em cada lote do cursor, o cliente e os produtos das vendas.
  */
 package br.com.pazzini.dao;
 
-import javax.persistence.TypedQuery;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
 
 import br.com.pazzini.dao.generic.GenericDAO;
-import br.com.pazzini.domain.Cliente;
-import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.ProdutoQuantidade;
 import br.com.pazzini.domain.Venda;
+import br.com.pazzini.domain.Venda.Status;
 import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.MaisDeUmRegistroException;
+import br.com.pazzini.exceptions.TableException;
 import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
 
 public class VendaDAO extends GenericDAO<Venda, Long> implements IVendaDAO {
 
+    private static final int MAXIMO_IDS_POR_COMANDO = 1000;
+
     /**
      * Construtor que chama o construtor da classe pai, informando a classe da entidade Venda.
      */
@@ -33,27 +43,118 @@ public class VendaDAO extends GenericDAO<Venda, Long> implements IVendaDAO {
     }
 
     /**
-     * Realiza a finalização de uma venda.
+     * Realiza a finalização de uma venda, apenas se ela ainda estiver INICIADA.
      *
      * @param venda a ser finalizada
+     * @return true se a venda foi finalizada, false se ela não estava mais INICIADA
      * @throws TipoChaveNaoEncontradaException
      * @throws DAOException
      */
     @Override
-    public void finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
-        super.alterar(venda);
+    public boolean finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
+        return alterarStatus(Collections.singletonList(venda.getId()), Status.CONCLUIDA) == 1;
     }
 
     /**
-     * Realiza o cancelamento de uma venda.
+     * Realiza o cancelamento de uma venda, apenas se ela ainda estiver INICIADA.
      *
      * @param venda a ser cancelada
+     * @return true se a venda foi cancelada, false se ela não estava mais INICIADA
      * @throws TipoChaveNaoEncontradaException
      * @throws DAOException
      */
     @Override
-    public void cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
-        super.alterar(venda);
+    public boolean cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
+        return alterarStatus(Collections.singletonList(venda.getId()), Status.CANCELADA) == 1;
+    }
+
+    /**
+     * Finaliza todas as vendas INICIADAS entre os ids informados.
+     *
+     * @param ids identificadores das vendas
+     * @return identificadores das vendas finalizadas
+     * @throws DAOException
+     */
+    @Override
+    public List<Long> finalizarVendas(Collection<Long> ids) throws DAOException {
+        return alterarStatusEmMassa(ids, Status.CONCLUIDA);
+    }
+
+    /**
+     * Cancela todas as vendas INICIADAS entre os ids informados.
+     *
+     * @param ids identificadores das vendas
+     * @return identificadores das vendas canceladas
+     * @throws DAOException
+     */
+    @Override
+    public List<Long> cancelarVendas(Collection<Long> ids) throws DAOException {
+        return alterarStatusEmMassa(ids, Status.CANCELADA);
+    }
+
+    /**
+     * Altera o status das vendas com um UPDATE em massa, condicionado ao status INICIADA, sem carregar as vendas,
+     * o cliente ou as linhas. A versão das vendas é incrementada, de modo que uma edição feita sobre a venda lida
+     * antes da transição é recusada por conflito em vez de sobrescrever o status. O UPDATE não passa pelo contexto
+     * de persistência, portanto vendas já carregadas na mesma transação não refletem o novo status.
+     *
+     * @param ids identificadores das vendas
+     * @param novoStatus status de destino
+     * @return quantidade de vendas alteradas
+     * @throws DAOException
+     */
+    private int alterarStatus(Collection<Long> ids, Status novoStatus) throws DAOException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Long> lista = new ArrayList<>(ids);
+        int alteradas = 0;
+        try {
+            for (int i = 0; i < lista.size(); i += MAXIMO_IDS_POR_COMANDO) {
+                alteradas += entityManager.createQuery(
+                        "UPDATE Venda v SET v.status = :novoStatus, v.versao = v.versao + 1 "
+                        + "WHERE v.id IN :ids AND v.status = :statusAtual")
+                        .setParameter("novoStatus", novoStatus)
+                        .setParameter("ids", lista.subList(i, Math.min(i + MAXIMO_IDS_POR_COMANDO, lista.size())))
+                        .setParameter("statusAtual", Status.INICIADA)
+                        .executeUpdate();
+            }
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO ALTERANDO STATUS DAS VENDAS ", e);
+        }
+        return alteradas;
+    }
+
+    /**
+     * Altera o status das vendas INICIADAS entre os ids informados, devolvendo quais foram alteradas. As vendas de
+     * cada grupo de ids são primeiro bloqueadas (SELECT ... FOR UPDATE, em ordem de id) e só então alteradas pelo
+     * UPDATE em massa; assim os ids devolvidos são exatamente os alterados, mesmo com outras transações finalizando
+     * ou cancelando as mesmas vendas.
+     *
+     * @param ids identificadores das vendas
+     * @param novoStatus status de destino
+     * @return identificadores das vendas alteradas
+     * @throws DAOException
+     */
+    private List<Long> alterarStatusEmMassa(Collection<Long> ids, Status novoStatus) throws DAOException {
+        List<Long> lista = new ArrayList<>(ids);
+        List<Long> alteradas = new ArrayList<>();
+        try {
+            for (int i = 0; i < lista.size(); i += MAXIMO_IDS_POR_COMANDO) {
+                List<Long> bloqueadas = entityManager.createQuery(
+                        "SELECT v.id FROM Venda v WHERE v.id IN :ids AND v.status = :statusAtual ORDER BY v.id",
+                        Long.class)
+                        .setParameter("ids", lista.subList(i, Math.min(i + MAXIMO_IDS_POR_COMANDO, lista.size())))
+                        .setParameter("statusAtual", Status.INICIADA)
+                        .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                        .getResultList();
+                alteradas.addAll(bloqueadas);
+                alterarStatus(bloqueadas, novoStatus);
+            }
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO ALTERANDO STATUS DAS VENDAS ", e);
+        }
+        return alteradas;
     }
 
     /**
@@ -68,7 +169,13 @@ public class VendaDAO extends GenericDAO<Venda, Long> implements IVendaDAO {
     }
 
     /**
-     * Realiza o cadastro de uma venda, atualizando as associações com Cliente e Produto.
+     * Realiza o cadastro de uma venda. O cliente e os produtos entram apenas como chave estrangeira, a partir do id
+     * das instâncias da venda: as associações não propagam operações, portanto o Hibernate não consulta nem altera
+     * os cadastros (nem por SELECT, nem por merge), e a existência deles é garantida pelas chaves estrangeiras. As
+     * instâncias não são trocadas por referências (getReference), para que a venda do chamador continue com o
+     * cliente e os produtos já carregados depois do fim da transação.
+     * A venda e suas linhas são inseridas no flush, com as linhas agrupadas em batch JDBC, de modo que o número de
+     * comandos enviados ao banco não cresce com uma consulta por produto.
      *
      * @param entity a ser cadastrada
      * @return a venda cadastrada
@@ -78,12 +185,9 @@ public class VendaDAO extends GenericDAO<Venda, Long> implements IVendaDAO {
     @Override
     public Venda cadastrar(Venda entity) throws TipoChaveNaoEncontradaException, DAOException {
         try {
-            entity.getProdutos().forEach(prod -> {
-                Produto prodJpa = entityManager.merge(prod.getProduto());
-                prod.setProduto(prodJpa);
-            });
-            Cliente cliente = entityManager.merge(entity.getCliente());
-            entity.setCliente(cliente);
+            for (ProdutoQuantidade prod : entity.getProdutos()) {
+                prod.setVenda(entity);
+            }
             entityManager.persist(entity);
             return entity;
         } catch (Exception e) {
@@ -92,21 +196,70 @@ public class VendaDAO extends GenericDAO<Venda, Long> implements IVendaDAO {
     }
 
     /**
-     * Consulta uma venda incluindo as coleções associadas (cliente e produtos).
+     * Consulta uma venda incluindo o cliente, as linhas e o produto de cada linha, pelo plano de carga
+     * Venda.GRAFO_COMPLETO. Tudo é carregado em uma única consulta, sem uma consulta extra por linha.
      *
      * @param id identificador da venda
-     * @return a venda consultada
+     * @return a venda consultada, ou null se não existir
+     * @throws DAOException
+     */
+    @Override
+    public Venda consultarComCollection(Long id) throws DAOException {
+        try {
+            return consultar(id, Venda.GRAFO_COMPLETO);
+        } catch (MaisDeUmRegistroException | TableException e) {
+            throw new DAOException("ERRO CONSULTANDO VENDA ", e);
+        }
+    }
+
+    /**
+     * Consulta a venda pelo código incluindo o cliente, as linhas e o produto de cada linha, pelo plano de carga
+     * Venda.GRAFO_COMPLETO.
+     *
+     * @param codigo código da venda
+     * @return a venda consultada, ou null se não existir
+     * @throws DAOException
      */
     @Override
-    public Venda consultarComCollection(Long id) {
-        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Venda> query = builder.createQuery(Venda.class);
-        Root<Venda> root = query.from(Venda.class);
-        root.fetch("cliente");
-        root.fetch("produtos");
-        query.select(root).where(builder.equal(root.get("id"), id));
-        TypedQuery<Venda> tpQuery = entityManager.createQuery(query);
-        Venda venda = tpQuery.getSingleResult(); 
-        return venda;
+    public Venda consultarPorCodigo(String codigo) throws DAOException {
+        try {
+            List<Venda> vendas = entityManager.createQuery("SELECT v FROM Venda v WHERE v.codigo = :codigo", Venda.class)
+                    .setParameter("codigo", codigo)
+                    .setHint(HINT_GRAFO_CARGA, entityManager.getEntityGraph(Venda.GRAFO_COMPLETO))
+                    .getResultList();
+            return vendas.isEmpty() ? null : vendas.get(0);
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO CONSULTANDO VENDA PELO CÓDIGO ", e);
+        }
+    }
+
+    /**
+     * Busca um lote de vendas para o cursor já com o cliente e as linhas de produtos carregados.
+     * São feitas duas consultas por lote: uma paginada com o cliente (associação para um) e outra, sem paginação,
+     * que inicializa as coleções de produtos das vendas do lote. Assim o número de consultas não depende da
+     * quantidade de linhas de cada venda.
+     *
+     * @param ultimoId id da última venda do lote anterior, ou null para o primeiro lote
+     * @param tamanhoLote quantidade máxima de vendas do lote
+     * @return vendas do lote
+     */
+    @Override
+    protected List<Venda> buscarLote(Long ultimoId, int tamanhoLote) {
+        List<Venda> vendas = entityManager.createQuery(
+                "SELECT v FROM Venda v JOIN FETCH v.cliente WHERE v.id > :ultimoId ORDER BY v.id", Venda.class)
+                .setParameter("ultimoId", ultimoId == null ? Long.MIN_VALUE : ultimoId)
+                .setMaxResults(tamanhoLote)
+                .setHint(HINT_FETCH_SIZE, tamanhoLote)
+                .setHint(HINT_SOMENTE_LEITURA, true)
+                .getResultList();
+        if (!vendas.isEmpty()) {
+            entityManager.createQuery(
+                    "SELECT DISTINCT v FROM Venda v LEFT JOIN FETCH v.produtos p LEFT JOIN FETCH p.produto "
+                    + "WHERE v IN :vendas", Venda.class)
+                    .setParameter("vendas", vendas)
+                    .setHint(HINT_SOMENTE_LEITURA, true)
+                    .getResultList();
+        }
+        return vendas;
     }
 }
@@ -0,0 +1,49 @@
+/**
+ * A classe Filtro representa uma restrição aplicada a um atributo da entidade nas consultas paginadas.
+ *
+ * Tipos de filtro:
+ * - IGUAL: o atributo deve ser igual ao valor (o valor é convertido para o tipo do atributo).
+ * - COMECA_COM: o texto do atributo deve começar com o valor, sem diferenciar maiúsculas de minúsculas.
+ * - CONTEM: o texto do atributo deve conter o valor, sem diferenciar maiúsculas de minúsculas.
+ *
+ * Atributos:
+ * - campo: atributo da entidade, podendo navegar em associações (ex: "cliente.nome").
+ * - valor: valor a ser comparado.
+ * - tipo: tipo de comparação.
+ */
+package br.com.pazzini.dao.generic;
+
+import java.io.Serializable;
+
+public class Filtro implements Serializable {
+
+    private static final long serialVersionUID = 5127604328457361905L;
+
+    public enum Tipo {
+        IGUAL, COMECA_COM, CONTEM;
+    }
+
+    private final String campo;
+
+    private final Object valor;
+
+    private final Tipo tipo;
+
+    public Filtro(String campo, Object valor, Tipo tipo) {
+        this.campo = campo;
+        this.valor = valor;
+        this.tipo = tipo;
+    }
+
+    public String getCampo() {
+        return campo;
+    }
+
+    public Object getValor() {
+        return valor;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+}
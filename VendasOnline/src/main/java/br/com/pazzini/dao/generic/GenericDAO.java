@@ -18,25 +18,76 @@
  * 
  * Para buscar todos os registros, é construída uma consulta JPQL simples que seleciona todos os registros da entidade
  * persistente armazenada na variável persistenteClass.
+ * 
+ * Para buscar uma página, é construída uma consulta Criteria ordenada e limitada ao tamanho da página. No modo
+ * OFFSET o id é usado como critério de desempate para que a ordem seja estável entre as páginas; no modo CHAVE
+ * a consulta filtra pelos ids depois do último id lido, evitando que o banco percorra as linhas já paginadas.
+ * Os filtros da paginação são aplicados na própria consulta, de modo que apenas as linhas da página saiam do banco.
+ * 
+ * Para percorrer a tabela inteira (exportações, conciliações), os registros são lidos em lotes ordenados por id,
+ * com fetch size JDBC e entidades somente leitura. Entre um lote e outro o contexto de persistência é limpo, de modo
+ * que a memória utilizada depende do tamanho do lote e não do tamanho da tabela. Por isso esses métodos devem ser
+ * chamados em transações dedicadas, que não dependam de outras entidades gerenciadas pelo mesmo EntityManager.
+ * 
+ * Os cadastros e alterações em lote seguem a mesma ideia: a cada hibernate.jdbc.batch_size registros o contexto é
+ * sincronizado (flush), enviando os comandos em um único batch JDBC, e depois limpo (clear).
+ * 
+ * Nas entidades com @Version, o merge das alterações compara a versão do registro recebido com a do banco, e o
+ * UPDATE só é aplicado se a versão não mudou. As alterações são sincronizadas dentro do próprio DAO, de modo que um
+ * conflito aparece como AlteracaoConcorrenteException na chamada de alterar, e não no commit da transação.
+ * 
+ * A anotação @Medido, herdada por todos os DAOs, registra as chamadas, os erros e a latência de cada método no
+ * RegistroMetricas.
  */
 package br.com.pazzini.dao.generic;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import javax.persistence.EntityGraph;
 import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 
 import br.com.pazzini.dao.generic.IGenericDAO;
 import br.com.pazzini.domain.Persistente;
+import br.com.pazzini.exceptions.AlteracaoConcorrenteException;
 import br.com.pazzini.exceptions.DAOException;
 import br.com.pazzini.exceptions.MaisDeUmRegistroException;
 import br.com.pazzini.exceptions.TableException;
 import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
+import br.com.pazzini.metricas.Medido;
 
+@Medido
 public class GenericDAO<T extends Persistente, E extends Serializable> implements IGenericDAO<T, E> {
 
+    protected static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+    protected static final String HINT_GRAFO_CARGA = "javax.persistence.loadgraph";
+
+    protected static final String HINT_SOMENTE_LEITURA = "org.hibernate.readOnly";
+
+    protected static final String PROPRIEDADE_TAMANHO_BATCH = "hibernate.jdbc.batch_size";
+
+    protected static final int TAMANHO_BATCH_PADRAO = 50;
+
     protected Class<T> persistenteClass;
 
     @PersistenceContext
@@ -66,8 +117,55 @@ public class GenericDAO<T extends Persistente, E extends Serializable> implement
 
     @Override
     public T alterar(T entity) throws TipoChaveNaoEncontradaException, DAOException {
-        entity = entityManager.merge(entity);
-        return entity;
+        try {
+            entity = entityManager.merge(entity);
+            entityManager.flush();
+            return entity;
+        } catch (OptimisticLockException e) {
+            throw new AlteracaoConcorrenteException("REGISTRO ALTERADO POR OUTRA TRANSAÇÃO ", e);
+        }
+    }
+
+    @Override
+    public List<T> cadastrarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        List<T> cadastradas = new ArrayList<>(entities.size());
+        int tamanhoBatch = getTamanhoBatch();
+        try {
+            for (T entity : entities) {
+                cadastradas.add(cadastrar(entity));
+                if (cadastradas.size() % tamanhoBatch == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO CADASTRANDO LOTE ", e);
+        }
+        return cadastradas;
+    }
+
+    @Override
+    public List<T> alterarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        List<T> alteradas = new ArrayList<>(entities.size());
+        int tamanhoBatch = getTamanhoBatch();
+        try {
+            for (T entity : entities) {
+                alteradas.add(entityManager.merge(entity));
+                if (alteradas.size() % tamanhoBatch == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } catch (OptimisticLockException e) {
+            throw new AlteracaoConcorrenteException("REGISTRO DO LOTE ALTERADO POR OUTRA TRANSAÇÃO ", e);
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO ALTERANDO LOTE ", e);
+        }
+        return alteradas;
     }
 
     @Override
@@ -76,12 +174,240 @@ public class GenericDAO<T extends Persistente, E extends Serializable> implement
         return entity;
     }
 
+    @Override
+    public T consultar(E valor, String planoCarga) throws MaisDeUmRegistroException, TableException, DAOException {
+        try {
+            EntityGraph<?> grafo = entityManager.getEntityGraph(planoCarga);
+            return entityManager.find(this.persistenteClass, valor, Collections.singletonMap(HINT_GRAFO_CARGA, grafo));
+        } catch (IllegalArgumentException | PersistenceException e) {
+            throw new DAOException("ERRO CONSULTANDO COM O PLANO DE CARGA " + planoCarga + " ", e);
+        }
+    }
+
     @Override
     public Collection<T> buscarTodos() throws DAOException {
         List<T> list = entityManager.createQuery(getSelectSql(), this.persistenteClass).getResultList();
         return list;
     }
 
+    @Override
+    public Pagina<T> buscarPagina(Paginacao paginacao) throws DAOException {
+        try {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<T> query = builder.createQuery(this.persistenteClass);
+            Root<T> root = query.from(this.persistenteClass);
+            Path<Long> id = root.get("id");
+            List<Predicate> predicados = getPredicados(builder, root, paginacao.getFiltros());
+            if (paginacao.isPorChave()) {
+                if (paginacao.getCampoOrdenacao() != null && !"id".equals(paginacao.getCampoOrdenacao())) {
+                    throw new IllegalArgumentException("PAGINAÇÃO POR CHAVE SÓ PODE SER ORDENADA POR ID");
+                }
+                if (paginacao.getUltimoId() != null) {
+                    predicados.add(paginacao.isCrescente()
+                            ? builder.greaterThan(id, paginacao.getUltimoId())
+                            : builder.lessThan(id, paginacao.getUltimoId()));
+                }
+                query.orderBy(ordem(builder, id, paginacao.isCrescente()));
+            } else if (paginacao.getCampoOrdenacao() == null) {
+                query.orderBy(ordem(builder, id, paginacao.isCrescente()));
+            } else {
+                Path<?> campo = getCaminho(root, paginacao.getCampoOrdenacao());
+                query.orderBy(ordem(builder, campo, paginacao.isCrescente()), builder.asc(id));
+            }
+            query.select(root).where(predicados.toArray(new Predicate[0]));
+            TypedQuery<T> tpQuery = entityManager.createQuery(query);
+            tpQuery.setFirstResult(paginacao.getPrimeiroRegistro());
+            tpQuery.setMaxResults(paginacao.getTamanho());
+            List<T> conteudo = tpQuery.getResultList();
+            Long total = paginacao.isContarTotal() ? contar(paginacao.getFiltros()) : null;
+            return new Pagina<>(conteudo, total, paginacao);
+        } catch (IllegalArgumentException e) {
+            throw new DAOException("PARÂMETROS DE PAGINAÇÃO INVÁLIDOS ", e);
+        }
+    }
+
+    @Override
+    public Long contar() throws DAOException {
+        return contar(Collections.emptyList());
+    }
+
+    @Override
+    public Long contar(List<Filtro> filtros) throws DAOException {
+        try {
+            CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> query = builder.createQuery(Long.class);
+            Root<T> root = query.from(this.persistenteClass);
+            query.select(builder.count(root)).where(getPredicados(builder, root, filtros).toArray(new Predicate[0]));
+            return entityManager.createQuery(query).getSingleResult();
+        } catch (IllegalArgumentException e) {
+            throw new DAOException("FILTROS INVÁLIDOS ", e);
+        }
+    }
+
+    @Override
+    public void percorrer(int tamanhoLote, Consumer<T> consumidor) throws DAOException {
+        try {
+            buscarTodosComoStream(tamanhoLote).forEach(consumidor);
+        } catch (PersistenceException e) {
+            throw new DAOException("ERRO PERCORRENDO OS REGISTROS ", e);
+        }
+    }
+
+    @Override
+    public Stream<T> buscarTodosComoStream(int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("TAMANHO DO LOTE DEVE SER MAIOR QUE ZERO");
+        }
+        Spliterator<T> cursor = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+
+            private Iterator<T> lote = Collections.emptyIterator();
+
+            private Long ultimoId;
+
+            private boolean ultimoLote;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!lote.hasNext()) {
+                    if (ultimoLote) {
+                        return false;
+                    }
+                    if (ultimoId != null) {
+                        entityManager.clear();
+                    }
+                    List<T> registros = buscarLote(ultimoId, tamanhoLote);
+                    ultimoLote = registros.size() < tamanhoLote;
+                    if (registros.isEmpty()) {
+                        return false;
+                    }
+                    ultimoId = registros.get(registros.size() - 1).getId();
+                    lote = registros.iterator();
+                }
+                action.accept(lote.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(cursor, false);
+    }
+
+    /**
+     * Busca o próximo lote de registros depois do último id lido, em ordem de id.
+     * As entidades são carregadas como somente leitura, o que dispensa a verificação de alterações no flush.
+     * Subclasses podem sobrescrever este método para carregar junto as associações necessárias ao processamento.
+     *
+     * @param ultimoId id do último registro do lote anterior, ou null para o primeiro lote
+     * @param tamanhoLote quantidade máxima de registros do lote
+     * @return registros do lote
+     */
+    protected List<T> buscarLote(Long ultimoId, int tamanhoLote) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(this.persistenteClass);
+        Root<T> root = query.from(this.persistenteClass);
+        Path<Long> id = root.get("id");
+        query.select(root).orderBy(builder.asc(id));
+        if (ultimoId != null) {
+            query.where(builder.greaterThan(id, ultimoId));
+        }
+        return entityManager.createQuery(query)
+                .setMaxResults(tamanhoLote)
+                .setHint(HINT_FETCH_SIZE, tamanhoLote)
+                .setHint(HINT_SOMENTE_LEITURA, true)
+                .getResultList();
+    }
+
+    /**
+     * Retorna a quantidade de registros enviados em cada batch JDBC, configurada em hibernate.jdbc.batch_size.
+     * Os métodos em lote sincronizam e limpam o contexto de persistência nesse mesmo intervalo.
+     *
+     * @return tamanho do batch JDBC
+     */
+    protected int getTamanhoBatch() {
+        Object valor = entityManager.getEntityManagerFactory().getProperties().get(PROPRIEDADE_TAMANHO_BATCH);
+        if (valor == null) {
+            return TAMANHO_BATCH_PADRAO;
+        }
+        try {
+            int tamanho = Integer.parseInt(valor.toString().trim());
+            return tamanho > 0 ? tamanho : TAMANHO_BATCH_PADRAO;
+        } catch (NumberFormatException e) {
+            return TAMANHO_BATCH_PADRAO;
+        }
+    }
+
+    /**
+     * Monta as restrições da consulta a partir dos filtros informados.
+     * Filtros de texto usam LIKE sobre o valor em minúsculas; os demais comparam por igualdade, convertendo o
+     * valor para o tipo do atributo.
+     *
+     * @param builder construtor de critérios
+     * @param root raiz da consulta
+     * @param filtros filtros a serem aplicados
+     * @return lista mutável de predicados
+     */
+    protected List<Predicate> getPredicados(CriteriaBuilder builder, Root<T> root, List<Filtro> filtros) {
+        List<Predicate> predicados = new ArrayList<>();
+        for (Filtro filtro : filtros) {
+            Path<?> campo = getCaminho(root, filtro.getCampo());
+            if (Filtro.Tipo.IGUAL.equals(filtro.getTipo()) || !String.class.equals(campo.getJavaType())) {
+                predicados.add(builder.equal(campo, converterValor(campo.getJavaType(), filtro.getValor())));
+            } else {
+                String valor = escaparLike(filtro.getValor().toString().toLowerCase());
+                String padrao = Filtro.Tipo.COMECA_COM.equals(filtro.getTipo()) ? valor + "%" : "%" + valor + "%";
+                predicados.add(builder.like(builder.lower(campo.as(String.class)), padrao, '\\'));
+            }
+        }
+        return predicados;
+    }
+
+    /**
+     * Resolve um atributo da entidade, navegando pelas associações separadas por ponto (ex: "cliente.nome").
+     * Atributos inexistentes resultam em IllegalArgumentException, o que impede ordenar por texto arbitrário.
+     *
+     * @param root raiz da consulta
+     * @param campo nome do atributo
+     * @return caminho do atributo na consulta
+     */
+    protected Path<?> getCaminho(Root<T> root, String campo) {
+        Path<?> caminho = root;
+        for (String parte : campo.split("\\.")) {
+            caminho = caminho.get(parte);
+        }
+        return caminho;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Object converterValor(Class<?> tipo, Object valor) {
+        if (valor == null || tipo.isInstance(valor)) {
+            return valor;
+        }
+        String texto = valor.toString().trim();
+        if (Long.class.equals(tipo)) {
+            return Long.valueOf(texto);
+        } else if (Integer.class.equals(tipo)) {
+            return Integer.valueOf(texto);
+        } else if (BigDecimal.class.equals(tipo)) {
+            return new BigDecimal(texto);
+        } else if (tipo.isEnum()) {
+            return Enum.valueOf((Class<Enum>) tipo, texto);
+        }
+        throw new IllegalArgumentException("TIPO DE FILTRO NÃO SUPORTADO: " + tipo.getSimpleName());
+    }
+
+    /**
+     * Escapa os curingas do LIKE (% e _) e o próprio caractere de escape, para uso com ESCAPE '\'.
+     *
+     * @param valor texto digitado pelo usuário
+     * @return texto que casa apenas literalmente
+     */
+    protected String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private Order ordem(CriteriaBuilder builder, Path<?> campo, boolean crescente) {
+        return crescente ? builder.asc(campo) : builder.desc(campo);
+    }
+
     private String getSelectSql() {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT obj FROM ");
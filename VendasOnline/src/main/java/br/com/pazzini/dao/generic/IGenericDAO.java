@@ -10,8 +10,12 @@
  * - cadastrar: para persistir um novo registro no banco de dados.
  * - excluir: para remover um registro do banco de dados.
  * - alterar: para atualizar um registro no banco de dados.
- * - consultar: para buscar um registro com base na chave primária.
+ * - cadastrarEmLote / alterarEmLote: para persistir ou atualizar muitos registros usando batches JDBC.
+ * - consultar: para buscar um registro com base na chave primária, opcionalmente com um plano de carga (entity graph).
  * - buscarTodos: para recuperar todos os registros da entidade.
+ * - buscarPagina: para recuperar uma página ordenada de registros, por offset ou por chave (keyset).
+ * - contar: para contar os registros da entidade, opcionalmente restritos por filtros.
+ * - percorrer / buscarTodosComoStream: para processar todos os registros em lotes, sem carregar a tabela inteira em memória.
  * 
  * As exceções lançadas incluem:
  * - TipoChaveNaoEncontradaException: quando o tipo da chave não é encontrado.
@@ -23,8 +27,12 @@ package br.com.pazzini.dao.generic;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import br.com.pazzini.domain.Persistente;
+import br.com.pazzini.exceptions.AlteracaoConcorrenteException;
 import br.com.pazzini.exceptions.DAOException;
 import br.com.pazzini.exceptions.MaisDeUmRegistroException;
 import br.com.pazzini.exceptions.TableException;
@@ -51,15 +59,39 @@ public interface IGenericDAO<T extends Persistente, E extends Serializable> {
     public void excluir(T entity) throws DAOException;
 
     /**
-     * Método para alterar um registro no banco de dados.
+     * Método para alterar um registro no banco de dados. Em entidades com @Version, a alteração só é gravada se o
+     * registro não foi alterado por outra transação desde que foi lido.
      *
      * @param entity a ser atualizada
      * @return retorna o objeto salvo
      * @throws TipoChaveNaoEncontradaException
+     * @throws AlteracaoConcorrenteException se a versão do registro no banco é diferente da versão recebida
      * @throws DAOException
      */
     public T alterar(T entity) throws TipoChaveNaoEncontradaException, DAOException;
 
+    /**
+     * Método para cadastrar muitos registros de uma vez. Os registros são enviados ao banco em batches JDBC,
+     * e o contexto de persistência é sincronizado e limpo a cada batch, mantendo a memória constante.
+     *
+     * @param entities registros a serem cadastrados
+     * @return registros cadastrados, já desanexados do contexto de persistência
+     * @throws TipoChaveNaoEncontradaException
+     * @throws DAOException
+     */
+    public List<T> cadastrarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException;
+
+    /**
+     * Método para alterar muitos registros de uma vez. Os registros são enviados ao banco em batches JDBC,
+     * e o contexto de persistência é sincronizado e limpo a cada batch, mantendo a memória constante.
+     *
+     * @param entities registros a serem atualizados
+     * @return registros atualizados, já desanexados do contexto de persistência
+     * @throws TipoChaveNaoEncontradaException
+     * @throws DAOException
+     */
+    public List<T> alterarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException;
+
     /**
      * Método para consultar um registro no banco de dados.
      *
@@ -71,6 +103,20 @@ public interface IGenericDAO<T extends Persistente, E extends Serializable> {
      */
     public T consultar(E id) throws MaisDeUmRegistroException, TableException, DAOException;
 
+    /**
+     * Método para consultar um registro no banco de dados carregando as associações definidas em um plano de
+     * carga (@NamedEntityGraph da entidade). As associações do plano são buscadas junto com o registro; as demais
+     * seguem o mapeamento da entidade.
+     *
+     * @param id chave única do registro a ser consultado
+     * @param planoCarga nome do @NamedEntityGraph a ser utilizado
+     * @return registro encontrado
+     * @throws MaisDeUmRegistroException
+     * @throws TableException
+     * @throws DAOException quando o plano de carga não existe ou a consulta falha
+     */
+    public T consultar(E id, String planoCarga) throws MaisDeUmRegistroException, TableException, DAOException;
+
     /**
      * Método que retorna todos os registros do banco de dados da entidade.
      *
@@ -78,4 +124,51 @@ public interface IGenericDAO<T extends Persistente, E extends Serializable> {
      * @throws DAOException
      */
     public Collection<T> buscarTodos() throws DAOException;
+
+    /**
+     * Método que retorna uma página ordenada de registros da entidade.
+     * No modo CHAVE a ordenação é sempre pelo id, e a página começa depois do ultimoId informado.
+     *
+     * @param paginacao parâmetros da página (modo, posição, tamanho, ordenação e contagem)
+     * @return página encontrada, com o total de registros quando solicitado
+     * @throws DAOException
+     */
+    public Pagina<T> buscarPagina(Paginacao paginacao) throws DAOException;
+
+    /**
+     * Método que retorna a quantidade de registros da entidade.
+     *
+     * @return quantidade de registros
+     * @throws DAOException
+     */
+    public Long contar() throws DAOException;
+
+    /**
+     * Método que retorna a quantidade de registros da entidade que atendem aos filtros.
+     *
+     * @param filtros restrições aplicadas aos registros
+     * @return quantidade de registros
+     * @throws DAOException
+     */
+    public Long contar(List<Filtro> filtros) throws DAOException;
+
+    /**
+     * Método que entrega todos os registros da entidade ao consumidor, em ordem de id, lendo-os em lotes.
+     * O contexto de persistência é limpo entre os lotes, portanto o consumidor não deve manter referências
+     * às entidades recebidas esperando que continuem gerenciadas.
+     *
+     * @param tamanhoLote quantidade de registros lidos por consulta
+     * @param consumidor processamento aplicado a cada registro
+     * @throws DAOException
+     */
+    public void percorrer(int tamanhoLote, Consumer<T> consumidor) throws DAOException;
+
+    /**
+     * Método que retorna um Stream sobre todos os registros da entidade, em ordem de id, lidos em lotes sob demanda.
+     * O Stream deve ser consumido dentro da mesma transação em que foi criado.
+     *
+     * @param tamanhoLote quantidade de registros lidos por consulta
+     * @return Stream com os registros da entidade
+     */
+    public Stream<T> buscarTodosComoStream(int tamanhoLote);
 }
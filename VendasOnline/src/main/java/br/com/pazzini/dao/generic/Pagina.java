@@ -0,0 +1,87 @@
+/**
+ * A classe Pagina representa o resultado de uma consulta paginada feita pelo método buscarPagina do IGenericDAO.
+ *
+ * Atributos:
+ * - conteudo: registros da página, na ordem solicitada.
+ * - total: total de registros da entidade, ou null quando a contagem não foi solicitada.
+ * - paginacao: parâmetros utilizados para buscar esta página.
+ *
+ * Métodos:
+ * - getUltimoId(): id do último registro da página, utilizado para buscar a próxima página no modo CHAVE.
+ * - getProxima(): paginação que busca a página seguinte, no mesmo modo, com a mesma ordenação e os mesmos filtros.
+ */
+package br.com.pazzini.dao.generic;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import br.com.pazzini.domain.Persistente;
+
+public class Pagina<T extends Persistente> implements Serializable {
+
+    private static final long serialVersionUID = 2207313462961207470L;
+
+    private final List<T> conteudo;
+
+    private final Long total;
+
+    private final Paginacao paginacao;
+
+    public Pagina(List<T> conteudo, Long total, Paginacao paginacao) {
+        this.conteudo = Collections.unmodifiableList(conteudo);
+        this.total = total;
+        this.paginacao = paginacao;
+    }
+
+    public List<T> getConteudo() {
+        return conteudo;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public Paginacao getPaginacao() {
+        return paginacao;
+    }
+
+    public boolean isVazia() {
+        return conteudo.isEmpty();
+    }
+
+    /**
+     * Indica se a página veio completa, ou seja, se pode existir uma próxima página.
+     *
+     * @return true se a página tem o tamanho solicitado
+     */
+    public boolean isCompleta() {
+        return conteudo.size() == paginacao.getTamanho();
+    }
+
+    /**
+     * Retorna o id do último registro da página.
+     *
+     * @return id do último registro, ou o ultimoId da paginação quando a página está vazia
+     */
+    public Long getUltimoId() {
+        if (conteudo.isEmpty()) {
+            return paginacao.getUltimoId();
+        }
+        return conteudo.get(conteudo.size() - 1).getId();
+    }
+
+    /**
+     * Monta a paginação da página seguinte, mantendo o modo, a ordenação e os filtros.
+     *
+     * @return paginação da próxima página
+     */
+    public Paginacao getProxima() {
+        Paginacao proxima = paginacao.isPorChave()
+                ? Paginacao.porChave(getUltimoId(), paginacao.getTamanho())
+                : Paginacao.porOffset(paginacao.getPrimeiroRegistro() + conteudo.size(), paginacao.getTamanho());
+        proxima.ordenarPor(paginacao.getCampoOrdenacao(), paginacao.isCrescente());
+        paginacao.getFiltros().forEach(f -> proxima.filtrarPor(f.getCampo(), f.getValor(), f.getTipo()));
+        return proxima;
+    }
+}
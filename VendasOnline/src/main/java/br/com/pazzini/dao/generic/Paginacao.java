@@ -0,0 +1,159 @@
+/**
+ * A classe Paginacao descreve qual fatia de registros deve ser buscada pelo método buscarPagina do IGenericDAO.
+ *
+ * Modos de paginação:
+ * - OFFSET: pula primeiroRegistro registros e traz os próximos tamanho registros, ordenados por campoOrdenacao.
+ *   Permite saltar para qualquer página, mas o banco precisa percorrer todas as linhas puladas.
+ * - CHAVE: busca os registros com id depois de ultimoId (keyset / seek), ordenados por id.
+ *   O custo de cada página é constante, independente de quantas páginas já foram percorridas.
+ *
+ * Atributos:
+ * - modo: modo de paginação (OFFSET ou CHAVE).
+ * - primeiroRegistro: posição do primeiro registro da página (apenas no modo OFFSET).
+ * - ultimoId: id do último registro da página anterior, ou null para a primeira página (apenas no modo CHAVE).
+ * - tamanho: quantidade máxima de registros da página.
+ * - campoOrdenacao: atributo da entidade usado na ordenação (ex: "nome" ou "cliente.nome"); null ordena por id.
+ * - crescente: indica se a ordenação é crescente ou decrescente.
+ * - contarTotal: indica se a consulta de contagem também deve ser executada.
+ * - filtros: restrições aplicadas aos registros antes da paginação.
+ */
+package br.com.pazzini.dao.generic;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class Paginacao implements Serializable {
+
+    private static final long serialVersionUID = -4381207342953672409L;
+
+    public enum Modo {
+        OFFSET, CHAVE;
+    }
+
+    private final Modo modo;
+
+    private final int primeiroRegistro;
+
+    private final Long ultimoId;
+
+    private final int tamanho;
+
+    private String campoOrdenacao;
+
+    private boolean crescente;
+
+    private boolean contarTotal;
+
+    private final List<Filtro> filtros;
+
+    private Paginacao(Modo modo, int primeiroRegistro, Long ultimoId, int tamanho) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("TAMANHO DA PÁGINA DEVE SER MAIOR QUE ZERO");
+        }
+        if (primeiroRegistro < 0) {
+            throw new IllegalArgumentException("PRIMEIRO REGISTRO NÃO PODE SER NEGATIVO");
+        }
+        this.modo = modo;
+        this.primeiroRegistro = primeiroRegistro;
+        this.ultimoId = ultimoId;
+        this.tamanho = tamanho;
+        this.crescente = true;
+        this.filtros = new ArrayList<>();
+    }
+
+    /**
+     * Cria uma paginação por deslocamento (OFFSET/LIMIT).
+     *
+     * @param primeiroRegistro posição do primeiro registro da página
+     * @param tamanho quantidade máxima de registros da página
+     * @return paginação no modo OFFSET
+     */
+    public static Paginacao porOffset(int primeiroRegistro, int tamanho) {
+        return new Paginacao(Modo.OFFSET, primeiroRegistro, null, tamanho);
+    }
+
+    /**
+     * Cria uma paginação por chave (keyset), continuando a partir do último id já lido.
+     *
+     * @param ultimoId id do último registro da página anterior, ou null para a primeira página
+     * @param tamanho quantidade máxima de registros da página
+     * @return paginação no modo CHAVE
+     */
+    public static Paginacao porChave(Long ultimoId, int tamanho) {
+        return new Paginacao(Modo.CHAVE, 0, ultimoId, tamanho);
+    }
+
+    /**
+     * Define o atributo e a direção da ordenação.
+     *
+     * @param campoOrdenacao atributo da entidade, podendo navegar em associações (ex: "cliente.nome")
+     * @param crescente true para ordem crescente, false para decrescente
+     * @return a própria paginação
+     */
+    public Paginacao ordenarPor(String campoOrdenacao, boolean crescente) {
+        this.campoOrdenacao = campoOrdenacao;
+        this.crescente = crescente;
+        return this;
+    }
+
+    /**
+     * Solicita que o total de registros seja contado junto com a página.
+     *
+     * @return a própria paginação
+     */
+    public Paginacao comTotal() {
+        this.contarTotal = true;
+        return this;
+    }
+
+    /**
+     * Adiciona uma restrição aos registros da página.
+     *
+     * @param campo atributo da entidade, podendo navegar em associações (ex: "cliente.nome")
+     * @param valor valor a ser comparado
+     * @param tipo tipo de comparação
+     * @return a própria paginação
+     */
+    public Paginacao filtrarPor(String campo, Object valor, Filtro.Tipo tipo) {
+        this.filtros.add(new Filtro(campo, valor, tipo));
+        return this;
+    }
+
+    public boolean isPorChave() {
+        return Modo.CHAVE.equals(this.modo);
+    }
+
+    public Modo getModo() {
+        return modo;
+    }
+
+    public int getPrimeiroRegistro() {
+        return primeiroRegistro;
+    }
+
+    public Long getUltimoId() {
+        return ultimoId;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    public String getCampoOrdenacao() {
+        return campoOrdenacao;
+    }
+
+    public boolean isCrescente() {
+        return crescente;
+    }
+
+    public boolean isContarTotal() {
+        return contarTotal;
+    }
+
+    public List<Filtro> getFiltros() {
+        return Collections.unmodifiableList(filtros);
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * A classe GenericLazyDataModel é um LazyDataModel do PrimeFaces que carrega os registros de uma p:dataTable
+ * sob demanda, através do método buscarPagina do IGenericService.
+ *
+ * Em vez de manter toda a tabela no estado da view, o modelo guarda apenas a página exibida. A paginação, a
+ * ordenação e os filtros das colunas são repassados ao banco de dados, de modo que o custo de cada requisição
+ * depende do tamanho da página e não do tamanho da tabela.
+ *
+ * Os nomes dos campos de ordenação e filtro são os atributos da entidade informados em sortBy/filterBy
+ * das colunas (ex: "nome" ou "cliente.nome").
+ *
+ * Métodos:
+ * - count(Map<String, FilterMeta> filterBy): conta os registros que atendem aos filtros das colunas.
+ * - load(int first, int pageSize, Map<String, SortMeta> sortBy, Map<String, FilterMeta> filterBy): carrega a página exibida.
+ * - getRowKey(T entity) / getRowData(String rowKey): identificam as linhas pelo id da entidade.
+ */
+package br.com.pazzini.datamodel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.faces.application.FacesMessage;
+import javax.faces.context.FacesContext;
+
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.MatchMode;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
+
+import br.com.pazzini.dao.generic.Filtro;
+import br.com.pazzini.dao.generic.Paginacao;
+import br.com.pazzini.domain.Persistente;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.services.generic.IGenericService;
+
+public class GenericLazyDataModel<T extends Persistente> extends LazyDataModel<T> {
+
+    private static final long serialVersionUID = -1842267145904178833L;
+
+    private final IGenericService<T, ?> service;
+
+    public GenericLazyDataModel(IGenericService<T, ?> service) {
+        this.service = service;
+    }
+
+    @Override
+    public int count(Map<String, FilterMeta> filterBy) {
+        try {
+            return service.contar(getFiltros(filterBy)).intValue();
+        } catch (DAOException e) {
+            adicionarErro();
+            return 0;
+        }
+    }
+
+    @Override
+    public List<T> load(int first, int pageSize, Map<String, SortMeta> sortBy, Map<String, FilterMeta> filterBy) {
+        Paginacao paginacao = Paginacao.porOffset(first, pageSize);
+        sortBy.values().stream()
+                .filter(sort -> sort.isActive() && sort.getField() != null)
+                .sorted()
+                .findFirst()
+                .ifPresent(sort -> paginacao.ordenarPor(sort.getField(), !SortOrder.DESCENDING.equals(sort.getOrder())));
+        getFiltros(filterBy).forEach(f -> paginacao.filtrarPor(f.getCampo(), f.getValor(), f.getTipo()));
+        try {
+            return service.buscarPagina(paginacao).getConteudo();
+        } catch (DAOException e) {
+            adicionarErro();
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public String getRowKey(T entity) {
+        return entity.getId() == null ? null : entity.getId().toString();
+    }
+
+    @Override
+    public T getRowData(String rowKey) {
+        for (T entity : getWrappedData()) {
+            if (rowKey.equals(getRowKey(entity))) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private List<Filtro> getFiltros(Map<String, FilterMeta> filterBy) {
+        List<Filtro> filtros = new ArrayList<>();
+        for (FilterMeta meta : filterBy.values()) {
+            if (!meta.isActive() || meta.isGlobalFilter() || meta.getField() == null) {
+                continue;
+            }
+            filtros.add(new Filtro(meta.getField(), meta.getFilterValue(), getTipo(meta.getMatchMode())));
+        }
+        return filtros;
+    }
+
+    private Filtro.Tipo getTipo(MatchMode matchMode) {
+        if (MatchMode.STARTS_WITH.equals(matchMode)) {
+            return Filtro.Tipo.COMECA_COM;
+        } else if (MatchMode.CONTAINS.equals(matchMode)) {
+            return Filtro.Tipo.CONTEM;
+        }
+        return Filtro.Tipo.IGUAL;
+    }
+
+    private void adicionarErro() {
+        FacesContext.getCurrentInstance().addMessage("growl", new FacesMessage("Erro ao tentar carregar os registros"));
+    }
+}
@@ -4,15 +4,24 @@
  * Anotações:
  * - @Entity: Indica que a classe é uma entidade JPA e será mapeada para uma tabela no banco de dados.
  * - @Table: Especifica o nome da tabela no banco de dados.
- * - @NamedQuery: Define uma consulta nomeada que pode ser usada para recuperar clientes por nome.
+ * - @NamedQuery: Define as consultas do autocomplete, que retornam projeções ClienteResumo: Cliente.buscarResumosPorNome
+ *   (início do nome) e Cliente.buscarResumosPorCpf (intervalo de CPF).
+ * - @Cacheable: Mantém os clientes no cache de segundo nível (região "cliente" do standalone.xml), usado por
+ *   consultar(id) e pelas associações das vendas. As consultas do autocomplete não usam o cache de consultas: os
+ *   termos variam muito e cada cadastro de cliente invalidaria todas as entradas.
+ * - @Index: Cria o índice (NOME_BUSCA, id), que atende à busca por início do nome já na ordem do resultado.
  * - @Id: Indica que o atributo é a chave primária da entidade.
  * - @GeneratedValue: Especifica a estratégia de geração de valores para a chave primária.
- * - @SequenceGenerator: Define um gerador de sequência para a estratégia de geração.
+ * - @SequenceGenerator: Define um gerador de sequência para a estratégia de geração. Os ids são reservados em
+ *   blocos de 20 (otimizador pooled-lo), evitando uma chamada à sequência a cada cliente cadastrado.
  * - @Column: Especifica detalhes da coluna no banco de dados.
+ * - @Version: Indica a versão usada no controle de concorrência otimista: alterar só grava o cliente se a versão
+ *   lida ainda for a do banco.
  * 
  * Atributos:
  * - id: Identificador único do cliente (chave primária).
  * - nome: Nome do cliente.
+ * - nomeBusca: Nome normalizado (minúsculas, sem acentos), mantido por setNome e utilizado na busca por nome.
  * - cpf: Número de CPF do cliente (único).
  * - tel: Número de telefone do cliente.
  * - email: Endereço de e-mail do cliente.
@@ -20,36 +29,58 @@
  * - numero: Número do endereço do cliente.
  * - cidade: Cidade do endereço do cliente.
  * - estado: Estado do endereço do cliente.
+ * - versao: Versão do cliente, incrementada a cada alteração (controle de concorrência otimista).
  * 
  * Getters e Setters: Métodos para acessar e modificar os atributos da classe.
  */
 package br.com.pazzini.domain;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import br.com.pazzini.utils.TextoUtils;
 
 @Entity
-@Table(name = "TB_CLIENTE")
-@NamedQuery(name = "Cliente.findByNome", query = "SELECT c FROM Cliente c WHERE c.nome LIKE :nome")
+@Cacheable
+@Table(name = "TB_CLIENTE", indexes = @Index(name = "idx_cliente_nome_busca", columnList = "NOME_BUSCA, id"))
+@NamedQueries({
+	@NamedQuery(name = "Cliente.buscarResumosPorNome",
+		query = "SELECT NEW br.com.pazzini.dto.ClienteResumo(c.id, c.nome, c.cpf) FROM Cliente c "
+			+ "WHERE c.nomeBusca LIKE :prefixo ESCAPE '\\' ORDER BY c.nomeBusca, c.id"),
+	@NamedQuery(name = "Cliente.buscarResumosPorCpf",
+		query = "SELECT NEW br.com.pazzini.dto.ClienteResumo(c.id, c.nome, c.cpf) FROM Cliente c "
+			+ "WHERE c.cpf BETWEEN :inicio AND :fim ORDER BY c.cpf")
+})
 public class Cliente implements Persistente {
 	
 	@Id
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="cliente_seq")
-	@SequenceGenerator(name="cliente_seq", sequenceName="sq_cliente", initialValue = 1, allocationSize = 1)
+	@SequenceGenerator(name="cliente_seq", sequenceName="sq_cliente", initialValue = 1, allocationSize = 20)
 	private Long id;
 	
 	@Column(name = "NOME", nullable = false, length = 50)
 	private String nome;
 	
+	@Column(name = "NOME_BUSCA", length = 50)
+	private String nomeBusca;
+	
 	@Column(name = "CPF", nullable = false, unique = true)
     private Long cpf;
     
+	@Version
+	@Column(name = "VERSAO", nullable = false)
+	private long versao;
+    
 	@Column(name = "TEL", nullable = false)
     private Long tel;
 	
@@ -74,6 +105,11 @@ public class Cliente implements Persistente {
 	
 	public void setNome(String nome) {
 		this.nome = nome;
+		this.nomeBusca = TextoUtils.normalizar(nome);
+	}
+	
+	public String getNomeBusca() {
+		return nomeBusca;
 	}
 	
 	public Long getCpf() {
@@ -131,6 +167,14 @@ public class Cliente implements Persistente {
 	public void setId(Long id) {
 		this.id = id;
 	}
+
+	public long getVersao() {
+		return versao;
+	}
+
+	public void setVersao(long versao) {
+		this.versao = versao;
+	}
 	
 	public String getEmail() {
 		return email;
@@ -0,0 +1,109 @@
+/**
+ * A classe Dinheiro representa um valor monetário em reais, guardado como um long em centavos.
+ * 
+ * As entidades guardam os valores monetários em campos long (centavos), convertidos para as colunas NUMERIC pelo
+ * DinheiroConverter. Assim, somar ou subtrair o valor de uma linha no total da venda é uma operação com long, sem
+ * criar objetos. A classe Dinheiro é usada para expor esses valores fora das entidades (telas, CSV) e estende
+ * Number para funcionar com f:convertNumber.
+ * 
+ * Atributos:
+ * - centavos: Valor em centavos.
+ * 
+ * Métodos:
+ * - deCentavos(long centavos) / de(BigDecimal valor): Criam um Dinheiro.
+ * - centavos(BigDecimal valor): Converte um valor em reais para centavos, arredondando para 2 casas (HALF_EVEN).
+ * - paraBigDecimal(long centavos): Converte um valor em centavos para reais, com 2 casas.
+ * - somar(Dinheiro outro) / multiplicar(long quantidade): Operações aritméticas, com verificação de overflow.
+ * - getCentavos(): Retorna o valor em centavos.
+ */
+package br.com.pazzini.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Dinheiro extends Number implements Comparable<Dinheiro> {
+
+	private static final long serialVersionUID = -6043178862539412508L;
+
+	private static final int ESCALA = 2;
+
+	public static final Dinheiro ZERO = new Dinheiro(0);
+
+	private final long centavos;
+
+	private Dinheiro(long centavos) {
+		this.centavos = centavos;
+	}
+
+	public static Dinheiro deCentavos(long centavos) {
+		return centavos == 0 ? ZERO : new Dinheiro(centavos);
+	}
+
+	public static Dinheiro de(BigDecimal valor) {
+		return deCentavos(centavos(valor));
+	}
+
+	public static long centavos(BigDecimal valor) {
+		return valor.setScale(ESCALA, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+	}
+
+	public static BigDecimal paraBigDecimal(long centavos) {
+		return BigDecimal.valueOf(centavos, ESCALA);
+	}
+
+	public long getCentavos() {
+		return centavos;
+	}
+
+	public BigDecimal paraBigDecimal() {
+		return paraBigDecimal(centavos);
+	}
+
+	public Dinheiro somar(Dinheiro outro) {
+		return deCentavos(Math.addExact(centavos, outro.centavos));
+	}
+
+	public Dinheiro multiplicar(long quantidade) {
+		return deCentavos(Math.multiplyExact(centavos, quantidade));
+	}
+
+	@Override
+	public int intValue() {
+		return (int) longValue();
+	}
+
+	@Override
+	public long longValue() {
+		return centavos / 100;
+	}
+
+	@Override
+	public float floatValue() {
+		return (float) doubleValue();
+	}
+
+	@Override
+	public double doubleValue() {
+		return centavos / 100.0;
+	}
+
+	@Override
+	public int compareTo(Dinheiro outro) {
+		return Long.compare(centavos, outro.centavos);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof Dinheiro && ((Dinheiro) obj).centavos == centavos;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(centavos);
+	}
+
+	@Override
+	public String toString() {
+		return paraBigDecimal().toPlainString();
+	}
+}
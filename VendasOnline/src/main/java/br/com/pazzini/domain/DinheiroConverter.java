@@ -0,0 +1,29 @@
+/**
+ * A classe DinheiroConverter converte os campos monetários das entidades, guardados em centavos (long), para as
+ * colunas NUMERIC do banco de dados e vice-versa. O formato das colunas não muda: 10,50 continua gravado como
+ * 10.50.
+ * 
+ * Métodos:
+ * - convertToDatabaseColumn(Long centavos): Converte centavos para o valor da coluna.
+ * - convertToEntityAttribute(BigDecimal valor): Converte o valor da coluna para centavos.
+ */
+package br.com.pazzini.domain;
+
+import java.math.BigDecimal;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class DinheiroConverter implements AttributeConverter<Long, BigDecimal> {
+
+	@Override
+	public BigDecimal convertToDatabaseColumn(Long centavos) {
+		return centavos == null ? null : Dinheiro.paraBigDecimal(centavos);
+	}
+
+	@Override
+	public Long convertToEntityAttribute(BigDecimal valor) {
+		return valor == null ? null : Dinheiro.centavos(valor);
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * A classe Estoque representa o estoque de um produto com controle de estoque.
+ * 
+ * O estoque fica em uma tabela própria, e não em Produto, por dois motivos: as reservas das vendas alteram o
+ * estoque a cada venda, e em Produto cada alteração invalidaria o produto no cache de segundo nível e seria
+ * sobrescrita pelo merge do cadastro de produtos. Produtos sem linha em TB_ESTOQUE não têm controle de estoque e
+ * podem ser vendidos sem limite.
+ * 
+ * As quantidades são alteradas apenas pelo IEstoqueDAO, com UPDATEs condicionais que somam ou subtraem a quantidade
+ * no próprio banco, sem ler o estoque antes: duas vendas do mesmo produto nunca perdem a alteração uma da outra.
+ * 
+ * Atributos:
+ * - idProduto: Identificador do produto (chave primária).
+ * - disponivel: Quantidade que ainda pode ser vendida. Nunca fica negativa.
+ * - reservado: Quantidade reservada por vendas INICIADAS, que sai do estoque quando a venda é finalizada e volta
+ *   para o disponível quando ela é cancelada.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * 
+ * Anotações:
+ * - @Entity: Indica que a classe é uma entidade JPA, ou seja, pode ser persistida no banco de dados.
+ * - @Table: Especifica o nome da tabela no banco de dados que será associada à entidade.
+ * - @Id: Indica o atributo que representa a chave primária.
+ * - @Column: Permite a especificação de propriedades adicionais para o mapeamento de colunas no banco de dados.
+ */
+package br.com.pazzini.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "TB_ESTOQUE")
+public class Estoque {
+
+	@Id
+	@Column(name = "produto_id")
+	private Long idProduto;
+
+	@Column(name = "DISPONIVEL", nullable = false)
+	private long disponivel;
+
+	@Column(name = "RESERVADO", nullable = false)
+	private long reservado;
+
+	public Estoque() {
+	}
+
+	public Estoque(Long idProduto, long disponivel, long reservado) {
+		this.idProduto = idProduto;
+		this.disponivel = disponivel;
+		this.reservado = reservado;
+	}
+
+	public Long getIdProduto() {
+		return idProduto;
+	}
+
+	public long getDisponivel() {
+		return disponivel;
+	}
+
+	public long getReservado() {
+		return reservado;
+	}
+}
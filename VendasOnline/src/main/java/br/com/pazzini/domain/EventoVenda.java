@@ -0,0 +1,125 @@
+/**
+ * A classe EventoVenda representa um evento do ciclo de vida de uma venda (cadastro, finalização ou cancelamento)
+ * aguardando publicação na caixa de saída TB_EVENTO_VENDA.
+ * 
+ * Os eventos são gravados pelo IEventoVendaDAO na mesma transação que altera a venda, de modo que um evento existe se
+ * e somente se a alteração foi confirmada. O PublicadorEventosVenda lê os eventos em ordem de id, entrega cada lote a
+ * um IDestinoEventos e apaga o lote na mesma transação da leitura. Os ids vêm de uma sequência do banco, consumida
+ * dentro do próprio INSERT, e os eventos de uma venda são gravados por transações que esperam a anterior terminar;
+ * por isso a ordem dos ids é a ordem dos eventos de cada venda.
+ * 
+ * Atributos:
+ * - id: Identificador do evento, crescente por venda.
+ * - idVenda: Identificador da venda. Não há chave estrangeira com TB_VENDA: o evento descreve a venda no momento em
+ *   que foi gravado e não depende dela depois disso.
+ * - codigoVenda: Código da venda.
+ * - tipo: Tipo do evento.
+ * - idCliente: Identificador do cliente da venda.
+ * - valorTotal: Valor total da venda no momento do evento, em centavos.
+ * - dataEvento: Data e hora da transação que gravou o evento.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * 
+ * Anotações:
+ * - @Entity: Indica que a classe é uma entidade JPA, ou seja, pode ser persistida no banco de dados.
+ * - @Table: Especifica o nome da tabela no banco de dados que será associada à entidade.
+ * - @Id: Indica o atributo que representa a chave primária.
+ * - @SequenceGenerator: Cria a sequência sq_evento_venda com incremento 1; os ids são obtidos pelo próprio INSERT,
+ *   e não pelo Hibernate.
+ * - @Convert: Converte o valor total em centavos para a coluna NUMERIC.
+ * - @Enumerated: Especifica o tipo de enumeração para o atributo tipo.
+ */
+package br.com.pazzini.domain;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "TB_EVENTO_VENDA")
+public class EventoVenda {
+
+	/**
+	 * Tipo do evento.
+	 */
+	public enum Tipo {
+		CADASTRADA, FINALIZADA, CANCELADA
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_venda_seq")
+	@SequenceGenerator(name = "evento_venda_seq", sequenceName = "sq_evento_venda", initialValue = 1, allocationSize = 1)
+	private Long id;
+
+	@Column(name = "ID_VENDA", nullable = false)
+	private Long idVenda;
+
+	@Column(name = "CODIGO_VENDA", nullable = false)
+	private String codigoVenda;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "TIPO", nullable = false)
+	private Tipo tipo;
+
+	@Column(name = "ID_CLIENTE", nullable = false)
+	private Long idCliente;
+
+	@Convert(converter = DinheiroConverter.class)
+	@Column(name = "VALOR_TOTAL", nullable = false)
+	private long valorTotal;
+
+	@Column(name = "DATA_EVENTO", nullable = false)
+	private Instant dataEvento;
+
+	public EventoVenda() {
+	}
+
+	public EventoVenda(Long id, Long idVenda, String codigoVenda, Tipo tipo, Long idCliente, Dinheiro valorTotal,
+			Instant dataEvento) {
+		this.id = id;
+		this.idVenda = idVenda;
+		this.codigoVenda = codigoVenda;
+		this.tipo = tipo;
+		this.idCliente = idCliente;
+		this.valorTotal = valorTotal.getCentavos();
+		this.dataEvento = dataEvento;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getIdVenda() {
+		return idVenda;
+	}
+
+	public String getCodigoVenda() {
+		return codigoVenda;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public Long getIdCliente() {
+		return idCliente;
+	}
+
+	public Dinheiro getValorTotal() {
+		return Dinheiro.deCentavos(valorTotal);
+	}
+
+	public Instant getDataEvento() {
+		return dataEvento;
+	}
+}
@@ -6,41 +6,83 @@
  * - codigo: Código identificador único do produto, deve ser único para cada produto.
  * - nome: Nome do produto.
  * - descricao: Descrição do produto.
- * - valor: Valor do produto.
+ * - valor: Valor do produto, em centavos (gravado na coluna NUMERIC pelo DinheiroConverter).
+ * - nomeBusca: Nome normalizado (minúsculas, sem acentos), mantido por setNome e utilizado nas buscas por nome.
+ * - versao: Versão do produto, incrementada a cada alteração (controle de concorrência otimista).
  * 
  * Métodos:
- * - Getters e Setters para todos os atributos.
+ * - Getters e Setters para todos os atributos (nomeBusca possui apenas getter). getValor/setValor usam BigDecimal,
+ *   para os formulários; getValorCentavos retorna o valor em centavos.
  * 
  * Anotações:
  * - @Entity: Indica que a classe é uma entidade JPA, ou seja, pode ser persistida no banco de dados.
  * - @Table: Especifica o nome da tabela no banco de dados que será associada à entidade.
- * - @NamedQuery: Define uma consulta nomeada que pode ser usada posteriormente em consultas JPA.
+ * - @NamedQuery: Define as consultas nomeadas Produto.buscarPorCodigo e as da busca por nome:
+ *   Produto.buscarPorNomePrefixo (nomes que começam com o termo) e Produto.buscarPorNomeContem (nomes que contêm
+ *   o termo em outra posição).
+ * - @Cacheable: Mantém os produtos no cache de segundo nível (região "produto" do standalone.xml). As consultas
+ *   nomeadas também são guardadas no cache de consultas (região "consulta-produto"), que é invalidado a cada
+ *   alteração em TB_PRODUTO.
+ * - @Index: Cria o índice da coluna NOME_BUSCA. No PostgreSQL, o índice trigram que atende às buscas por
+ *   trecho do nome é criado por db/migracao/002_busca_produto.sql.
  * - @Id: Indica o atributo que representa a chave primária.
  * - @GeneratedValue: Especifica a estratégia de geração de valores para a chave primária.
- * - @SequenceGenerator: Define o gerador de sequência associado à estratégia de geração de valores.
+ * - @SequenceGenerator: Define o gerador de sequência associado à estratégia de geração de valores, reservando
+ *   ids em blocos de 20 (otimizador pooled-lo).
+ * - @Convert: Converte o valor em centavos para a coluna NUMERIC.
  * - @Column: Permite a especificação de propriedades adicionais para o mapeamento de colunas no banco de dados.
+ * - @Version: Indica a versão usada no controle de concorrência otimista: alterar só grava o produto se a versão
+ *   lida ainda for a do banco.
  */
 package br.com.pazzini.domain;
 
 import java.math.BigDecimal;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.QueryHint;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import br.com.pazzini.utils.TextoUtils;
 
 @Entity
-@Table(name = "TB_PRODUTO")
-@NamedQuery(name = "Produto.findByNome", query = "SELECT c FROM Produto c WHERE c.nome LIKE :nome") 
+@Cacheable
+@Table(name = "TB_PRODUTO", indexes = @Index(name = "idx_produto_nome_busca", columnList = "NOME_BUSCA"))
+@NamedQueries({
+	@NamedQuery(name = "Produto.buscarPorCodigo", query = "SELECT p FROM Produto p WHERE p.codigo = :codigo",
+		hints = {
+			@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = "consulta-produto")
+		}),
+	@NamedQuery(name = "Produto.buscarPorNomePrefixo",
+		query = "SELECT p FROM Produto p WHERE p.nomeBusca LIKE :prefixo ESCAPE '\\' ORDER BY p.nomeBusca, p.id",
+		hints = {
+			@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = "consulta-produto")
+		}),
+	@NamedQuery(name = "Produto.buscarPorNomeContem",
+		query = "SELECT p FROM Produto p WHERE p.nomeBusca LIKE :trecho ESCAPE '\\' "
+			+ "AND p.nomeBusca NOT LIKE :prefixo ESCAPE '\\' ORDER BY p.nomeBusca, p.id",
+		hints = {
+			@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+			@QueryHint(name = "org.hibernate.cacheRegion", value = "consulta-produto")
+		})
+})
 public class Produto implements Persistente {
 	
 	@Id
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="prod_seq")
-	@SequenceGenerator(name="prod_seq", sequenceName="sq_produto", initialValue = 1, allocationSize = 1)
+	@SequenceGenerator(name="prod_seq", sequenceName="sq_produto", initialValue = 1, allocationSize = 20)
 	private Long id;
 
 	@Column(name = "codigo", nullable = false, length = 10, unique = true)
@@ -49,11 +91,19 @@ public class Produto implements Persistente {
 	@Column(name = "NOME", nullable = false, length = 50)
 	private String nome;
 	
+	@Column(name = "NOME_BUSCA", length = 50)
+	private String nomeBusca;
+	
 	@Column(name = "DESCRICAO", nullable = false, length = 50)
 	private String descricao;
 	
+	@Convert(converter = DinheiroConverter.class)
 	@Column(name = "valor", nullable = false)
-	private BigDecimal valor;
+	private long valor;
+	
+	@Version
+	@Column(name = "VERSAO", nullable = false)
+	private long versao;
 
 	public String getCodigo() {
 		return codigo;
@@ -69,6 +119,11 @@ public class Produto implements Persistente {
 
 	public void setNome(String nome) {
 		this.nome = nome;
+		this.nomeBusca = TextoUtils.normalizar(nome);
+	}
+
+	public String getNomeBusca() {
+		return nomeBusca;
 	}
 
 	public String getDescricao() {
@@ -80,11 +135,15 @@ public class Produto implements Persistente {
 	}
 
 	public BigDecimal getValor() {
-		return valor;
+		return Dinheiro.paraBigDecimal(valor);
 	}
 
 	public void setValor(BigDecimal valor) {
-		this.valor = valor;
+		this.valor = valor == null ? 0 : Dinheiro.centavos(valor);
+	}
+
+	public long getValorCentavos() {
+		return valor;
 	}
 
 	public Long getId() {
@@ -94,4 +153,12 @@ public class Produto implements Persistente {
 	public void setId(Long id) {
 		this.id = id;
 	}
+
+	public long getVersao() {
+		return versao;
+	}
+
+	public void setVersao(long versao) {
+		this.versao = versao;
+	}
 }
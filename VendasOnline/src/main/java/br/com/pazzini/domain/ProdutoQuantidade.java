@@ -5,57 +5,65 @@
  * - id: Identificador único da entidade (chave primária no banco de dados).
  * - produto: Objeto do tipo Produto associado à quantidade.
  * - quantidade: Quantidade do produto associado à venda.
- * - valorTotal: Valor total calculado com base na quantidade e no valor unitário do produto.
+ * - valorTotal: Valor total calculado com base na quantidade e no valor unitário do produto, em centavos.
  * - venda: Objeto do tipo Venda associado à quantidade.
  * 
  * Métodos:
  * - Getters e Setters para todos os atributos.
- * - adicionar(Integer quantidade): Atualiza a quantidade e o valor total ao adicionar mais unidades do produto.
- * - remover(Integer quantidade): Atualiza a quantidade e o valor total ao remover unidades do produto.
+ * - adicionar(int quantidade): Atualiza a quantidade e o valor total ao adicionar mais unidades do produto,
+ *   retornando o valor acrescentado em centavos.
+ * - remover(int quantidade): Atualiza a quantidade e o valor total ao remover unidades do produto, retornando o
+ *   valor retirado em centavos.
  * 
  * Anotações:
  * - @Entity: Indica que a classe é uma entidade JPA, ou seja, pode ser persistida no banco de dados.
  * - @Table: Especifica o nome da tabela no banco de dados que será associada à entidade.
+ * - @Index: Cria o índice da coluna id_venda_fk, usado para carregar as linhas de uma venda e para somar as linhas
+ *   das vendas de um período no relatório de receita por produto.
  * - @Id: Indica o atributo que representa a chave primária.
  * - @GeneratedValue: Especifica a estratégia de geração de valores para a chave primária.
- * - @SequenceGenerator: Define o gerador de sequência associado à estratégia de geração de valores.
- * - @ManyToOne: Estabelece a associação muitos-para-um entre ProdutoQuantidade e Produto ou Venda.
+ * - @SequenceGenerator: Define o gerador de sequência associado à estratégia de geração de valores, reservando
+ *   ids em blocos de 100 (otimizador pooled-lo), já que cada venda cadastra várias linhas de uma vez.
+ * - @ManyToOne: Estabelece a associação muitos-para-um entre ProdutoQuantidade e Produto ou Venda. A associação com
+ *   Produto não propaga operações, para que gravar uma venda nunca altere o cadastro do produto.
+ * - @Convert: Converte o valor total em centavos para a coluna NUMERIC.
  * - @JoinColumn: Especifica a coluna que será utilizada como chave estrangeira na tabela.
  * - @ForeignKey: Define o nome da chave estrangeira no banco de dados.
  */
 package br.com.pazzini.domain;
 
-import java.math.BigDecimal;
-
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 @Entity
-@Table(name = "TB_PRODUTO_QUANTIDADE")
+@Table(name = "TB_PRODUTO_QUANTIDADE", indexes = @Index(name = "idx_prod_qtd_venda", columnList = "id_venda_fk"))
 public class ProdutoQuantidade {
 	
 	@Id
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="prod_qtd_seq")
-	@SequenceGenerator(name="prod_qtd_seq", sequenceName="sq_prod_qtd", initialValue = 1, allocationSize = 1)
+	@SequenceGenerator(name="prod_qtd_seq", sequenceName="sq_prod_qtd", initialValue = 1, allocationSize = 100)
 	private Long id;
 
-	@ManyToOne(cascade = {CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
+	@ManyToOne
 	private Produto produto;
 	
 	@Column(name = "quantidade", nullable = false)
-	private Integer quantidade;
+	private int quantidade;
 	
+	@Convert(converter = DinheiroConverter.class)
 	@Column(name = "valor_total", nullable = false)
-	private BigDecimal valorTotal;
+	private long valorTotal;
 	
 	@ManyToOne(cascade = {CascadeType.MERGE, CascadeType.PERSIST, CascadeType.REFRESH})
 	@JoinColumn(name = "id_venda_fk", 
@@ -66,7 +74,7 @@ public class ProdutoQuantidade {
 	
 	public ProdutoQuantidade() {
 		this.quantidade = 0;
-		this.valorTotal = BigDecimal.ZERO;
+		this.valorTotal = 0;
 	}
 
 	public Produto getProduto() {
@@ -77,20 +85,24 @@ public class ProdutoQuantidade {
 		this.produto = produto;
 	}
 
-	public Integer getQuantidade() {
+	public int getQuantidade() {
 		return quantidade;
 	}
 
-	public void setQuantidade(Integer quantidade) {
+	public void setQuantidade(int quantidade) {
 		this.quantidade = quantidade;
 	}
 
-	public BigDecimal getValorTotal() {
-		return valorTotal;
+	public Dinheiro getValorTotal() {
+		return Dinheiro.deCentavos(valorTotal);
 	}
 
-	public void setValorTotal(BigDecimal valorTotal) {
-		this.valorTotal = valorTotal;
+	public void setValorTotal(Dinheiro valorTotal) {
+		this.valorTotal = valorTotal.getCentavos();
+	}
+
+	public long getValorTotalCentavos() {
+		return valorTotal;
 	}
 	
 
@@ -110,16 +122,17 @@ public class ProdutoQuantidade {
 		this.venda = venda;
 	}
 
-	public void adicionar(Integer quantidade) {
+	public long adicionar(int quantidade) {
 		this.quantidade += quantidade;
-		BigDecimal novoValor = this.produto.getValor().multiply(BigDecimal.valueOf(quantidade));
-		BigDecimal novoTotal = this.valorTotal.add(novoValor);
-		this.valorTotal = novoTotal;
+		long valor = Math.multiplyExact(this.produto.getValorCentavos(), (long) quantidade);
+		this.valorTotal = Math.addExact(this.valorTotal, valor);
+		return valor;
 	}
 	
-	public void remover(Integer quantidade) {
+	public long remover(int quantidade) {
 		this.quantidade -= quantidade;
-		BigDecimal novoValor = this.produto.getValor().multiply(BigDecimal.valueOf(quantidade));
-		this.valorTotal = this.valorTotal.subtract(novoValor);
+		long valor = Math.multiplyExact(this.produto.getValorCentavos(), (long) quantidade);
+		this.valorTotal = Math.subtractExact(this.valorTotal, valor);
+		return valor;
 	}
 }
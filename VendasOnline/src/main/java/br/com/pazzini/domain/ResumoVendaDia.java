@@ -0,0 +1,140 @@
+/**
+ * A classe ResumoVendaDia representa uma linha do resumo diário de vendas: os totais vendidos de um produto, em um
+ * dia, pelas vendas de um status.
+ * 
+ * O resumo é mantido de forma incremental pelo VendaService, na mesma transação que grava a venda, e pode ser
+ * reconstruído a partir das vendas pelo IResumoVendaDiaService. As gravações são feitas pelo IResumoVendaDiaDAO com
+ * comandos SQL que somam diferenças às linhas existentes; a entidade mapeia a tabela para a geração do esquema e
+ * para consultas.
+ * 
+ * Atributos:
+ * - dia: Dia da venda (DATA_VENDA convertida para data no fuso do banco de dados).
+ * - idProduto: Identificador do produto. Não há associação nem chave estrangeira com TB_PRODUTO, de modo que somar
+ *   ao resumo não bloqueia o cadastro do produto.
+ * - status: Status das vendas somadas na linha.
+ * - vendas: Quantidade de vendas do dia e status que contêm o produto.
+ * - quantidade: Quantidade vendida do produto.
+ * - valorTotal: Valor total vendido do produto, em centavos.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * 
+ * Anotações:
+ * - @Entity: Indica que a classe é uma entidade JPA, ou seja, pode ser persistida no banco de dados.
+ * - @Table: Especifica o nome da tabela no banco de dados que será associada à entidade.
+ * - @Index: Cria o índice (STATUS_VENDA, DIA), usado pelas consultas de um período.
+ * - @IdClass: Define a chave composta (dia, idProduto, status), representada pela classe Chave.
+ * - @Convert: Converte o valor total em centavos para a coluna NUMERIC.
+ * - @Enumerated: Especifica o tipo de enumeração para o atributo status.
+ */
+package br.com.pazzini.domain;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import br.com.pazzini.domain.Venda.Status;
+
+@Entity
+@IdClass(ResumoVendaDia.Chave.class)
+@Table(name = "TB_RESUMO_VENDA_DIA", indexes = @Index(name = "idx_resumo_status_dia", columnList = "STATUS_VENDA, DIA"))
+public class ResumoVendaDia {
+
+	@Id
+	@Column(name = "DIA", nullable = false)
+	private LocalDate dia;
+
+	@Id
+	@Column(name = "produto_id", nullable = false)
+	private Long idProduto;
+
+	@Id
+	@Enumerated(EnumType.STRING)
+	@Column(name = "STATUS_VENDA", nullable = false)
+	private Status status;
+
+	@Column(name = "VENDAS", nullable = false)
+	private long vendas;
+
+	@Column(name = "QUANTIDADE", nullable = false)
+	private long quantidade;
+
+	@Convert(converter = DinheiroConverter.class)
+	@Column(name = "VALOR_TOTAL", nullable = false)
+	private long valorTotal;
+
+	public LocalDate getDia() {
+		return dia;
+	}
+
+	public Long getIdProduto() {
+		return idProduto;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public long getVendas() {
+		return vendas;
+	}
+
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	public Dinheiro getValorTotal() {
+		return Dinheiro.deCentavos(valorTotal);
+	}
+
+	/**
+	 * Chave composta do resumo: dia, produto e status.
+	 */
+	public static class Chave implements Serializable {
+
+		private static final long serialVersionUID = 6120833471585927394L;
+
+		private LocalDate dia;
+
+		private Long idProduto;
+
+		private Status status;
+
+		public Chave() {
+		}
+
+		public Chave(LocalDate dia, Long idProduto, Status status) {
+			this.dia = dia;
+			this.idProduto = idProduto;
+			this.status = status;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Chave)) {
+				return false;
+			}
+			Chave outra = (Chave) obj;
+			return Objects.equals(dia, outra.dia) && Objects.equals(idProduto, outra.idProduto)
+					&& status == outra.status;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(dia, idProduto, status);
+		}
+	}
+}
@@ -6,56 +6,98 @@
  * - codigo: Código identificador único da venda.
  * - cliente: Objeto do tipo Cliente associado à venda.
  * - produtos: Conjunto de objetos ProdutoQuantidade associados à venda.
- * - valorTotal: Valor total da venda, calculado com base nos produtos e suas quantidades.
+ * - valorTotal: Valor total da venda em centavos, atualizado a cada linha adicionada ou removida.
  * - dataVenda: Data e hora em que a venda foi realizada.
  * - status: Status da venda (INICIADA, CONCLUIDA, CANCELADA).
+ * - versao: Versão da venda, incrementada a cada alteração (controle de concorrência otimista).
+ * - linhasPorCodigo: Índice em memória (não persistido) das linhas de produtos pelo código do produto. É montado
+ *   a partir de produtos no primeiro acesso e mantido pelos métodos de alteração de linhas, de modo que localizar,
+ *   somar ou retirar a quantidade de um produto não percorre as demais linhas. É descartado sempre que a coleção é
+ *   trocada por inteiro (setProdutos, removerTodosProdutos e o carregamento ou refresh pelo JPA).
  * 
  * Métodos:
- * - Getters e Setters para todos os atributos.
- * - adicionarProduto(Produto produto, Integer quantidade): Adiciona um produto à venda ou atualiza a quantidade se já existir.
- * - removerProduto(Produto produto, Integer quantidade): Remove a quantidade especificada de um produto da venda.
+ * - Getters e Setters para todos os atributos. getProdutos() retorna uma visão somente leitura: as linhas só mudam
+ *   pelos métodos abaixo ou trocando a coleção com setProdutos, para que o índice nunca fique desatualizado.
+ * - getLinha(String codigo): Retorna a linha do produto com o código informado, ou null.
+ * - adicionarProduto(Produto produto, int quantidade): Adiciona um produto à venda ou atualiza a quantidade se já existir.
+ * - removerProduto(Produto produto, int quantidade): Remove a quantidade especificada de um produto da venda.
  * - removerTodosProdutos(): Remove todos os produtos da venda.
  * - getQuantidadeTotalProdutos(): Obtém a quantidade total de produtos na venda.
- * - recalcularValorTotalVenda(): Recalcula o valor total da venda com base nos produtos e suas quantidades.
+ * - recalcularValorTotalVenda(): Recalcula o valor total da venda com base nos produtos e suas quantidades. Não é
+ *   necessário depois de adicionarProduto/removerProduto, que já atualizam o total somando apenas a diferença.
  * - validarStatus(): Lança uma exceção se a venda estiver finalizada, impedindo alterações.
  * 
  * Anotações:
  * - @Entity: Indica que a classe é uma entidade JPA, ou seja, pode ser persistida no banco de dados.
  * - @Table: Especifica o nome da tabela no banco de dados que será associada à entidade.
+ * - @Index: Cria os índices usados pelos relatórios de vendas (IRelatorioVendaDAO): (STATUS_VENDA, DATA_VENDA) para a
+ *   receita de um status em um período, DATA_VENDA para as vendas de todos os status no período e id_cliente_fk
+ *   para agrupar e buscar as vendas de um cliente.
  * - @Id: Indica o atributo que representa a chave primária.
  * - @GeneratedValue: Especifica a estratégia de geração de valores para a chave primária.
- * - @SequenceGenerator: Define o gerador de sequência associado à estratégia de geração de valores.
+ * - @SequenceGenerator: Define o gerador de sequência associado à estratégia de geração de valores, reservando
+ *   ids em blocos de 50 (otimizador pooled-lo).
  * - @ManyToOne: Estabelece a associação muitos-para-um entre Venda e Cliente.
  * - @OneToMany: Estabelece a associação um-para-muitos entre Venda e ProdutoQuantidade.
  * - @JoinColumn: Especifica a coluna que será utilizada como chave estrangeira na tabela.
  * - @ForeignKey: Define o nome da chave estrangeira no banco de dados.
+ * - @Convert: Converte o valor total em centavos para a coluna NUMERIC.
+ * - @Transient: Indica que o índice de linhas não é persistido.
  * - @Enumerated: Especifica o tipo de enumeração para o atributo status.
+ * - @PostLoad: Descarta o índice de linhas quando a venda é carregada ou atualizada (refresh) pelo JPA.
+ * - @Version: Indica a versão usada no controle de concorrência otimista: alterar só grava a venda se a versão
+ *   lida ainda for a do banco. As transições de status (VendaDAO) também incrementam a versão.
+ * - @NamedEntityGraph: Define o plano de carga GRAFO_COMPLETO ("Venda.completa"), usado em
+ *   IGenericDAO.consultar(id, planoCarga): carrega o cliente, as linhas e o produto de cada linha em uma única consulta.
  */
 package br.com.pazzini.domain;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.OneToMany;
+import javax.persistence.PostLoad;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 
 @Entity
-@Table(name = "TB_VENDA")
+@Table(name = "TB_VENDA", indexes = {
+		@Index(name = "idx_venda_status_data", columnList = "STATUS_VENDA, DATA_VENDA"),
+		@Index(name = "idx_venda_data", columnList = "DATA_VENDA"),
+		@Index(name = "idx_venda_cliente", columnList = "id_cliente_fk") })
+@NamedEntityGraph(name = Venda.GRAFO_COMPLETO,
+	attributeNodes = {
+		@NamedAttributeNode("cliente"),
+		@NamedAttributeNode(value = "produtos", subgraph = "produtos")
+	},
+	subgraphs = @NamedSubgraph(name = "produtos", attributeNodes = @NamedAttributeNode("produto"))
+)
 public class Venda implements Persistente {
+
+    // Plano de carga (entity graph) da venda com o cliente, as linhas e os produtos.
+	public static final String GRAFO_COMPLETO = "Venda.completa";
 	
     // Enumeração para representar os diferentes estados da venda.
 	public enum Status {
@@ -75,7 +117,7 @@ public class Venda implements Persistente {
     // Identificador único da venda.
 	@Id
 	@GeneratedValue(strategy=GenerationType.SEQUENCE, generator="venda_seq")
-	@SequenceGenerator(name="venda_seq", sequenceName="sq_venda", initialValue = 1, allocationSize = 1)
+	@SequenceGenerator(name="venda_seq", sequenceName="sq_venda", initialValue = 1, allocationSize = 50)
 	private Long id;
 
     // Código identificador único da venda.
@@ -95,8 +137,9 @@ public class Venda implements Persistente {
 	private Set<ProdutoQuantidade> produtos;
 	
     // Valor total da venda.
+	@Convert(converter = DinheiroConverter.class)
 	@Column(name = "VALOR_TOTAL", nullable = false)
-	private BigDecimal valorTotal;
+	private long valorTotal;
 	
     // Data e hora da venda.
 	@Column(name = "DATA_VENDA", nullable = false)
@@ -107,10 +150,170 @@ public class Venda implements Persistente {
 	@Column(name = "STATUS_VENDA", nullable = false)
 	private Status status;
 	
+    // Versão da venda, para o controle de concorrência otimista.
+	@Version
+	@Column(name = "VERSAO", nullable = false)
+	private long versao;
+	
+    // Índice das linhas pelo código do produto, montado sob demanda.
+	@Transient
+	private transient Map<String, ProdutoQuantidade> linhasPorCodigo;
+	
     // Construtor padrão para inicializar o conjunto de produtos.
 	public Venda() {
 		produtos = new HashSet<>();
 	}
 
-    // Métodos omitidos para brevidade...
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public long getVersao() {
+		return versao;
+	}
+
+	public void setVersao(long versao) {
+		this.versao = versao;
+	}
+
+	public String getCodigo() {
+		return codigo;
+	}
+
+	public void setCodigo(String codigo) {
+		this.codigo = codigo;
+	}
+
+	public Cliente getCliente() {
+		return cliente;
+	}
+
+	public void setCliente(Cliente cliente) {
+		this.cliente = cliente;
+	}
+
+	public Set<ProdutoQuantidade> getProdutos() {
+		return Collections.unmodifiableSet(produtos);
+	}
+
+	public void setProdutos(Set<ProdutoQuantidade> produtos) {
+		this.produtos = produtos;
+		this.linhasPorCodigo = null;
+	}
+
+	public Dinheiro getValorTotal() {
+		return Dinheiro.deCentavos(valorTotal);
+	}
+
+	public void setValorTotal(Dinheiro valorTotal) {
+		this.valorTotal = valorTotal.getCentavos();
+	}
+
+	public long getValorTotalCentavos() {
+		return valorTotal;
+	}
+
+	public Instant getDataVenda() {
+		return dataVenda;
+	}
+
+	public void setDataVenda(Instant dataVenda) {
+		this.dataVenda = dataVenda;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+	}
+
+    // Retorna a linha do produto com o código informado, ou null.
+	public ProdutoQuantidade getLinha(String codigo) {
+		return getLinhasPorCodigo().get(codigo);
+	}
+
+    // Adiciona um produto à venda ou atualiza a quantidade se já existir.
+	public void adicionarProduto(Produto produto, int quantidade) {
+		validarStatus();
+		ProdutoQuantidade produtoQtd = getLinhasPorCodigo().get(produto.getCodigo());
+		if (produtoQtd == null) {
+			produtoQtd = new ProdutoQuantidade();
+			produtoQtd.setVenda(this);
+			produtoQtd.setProduto(produto);
+			produtos.add(produtoQtd);
+			linhasPorCodigo.put(produto.getCodigo(), produtoQtd);
+		}
+		valorTotal = Math.addExact(valorTotal, produtoQtd.adicionar(quantidade));
+	}
+
+    // Remove a quantidade especificada de um produto da venda.
+	public void removerProduto(Produto produto, int quantidade) {
+		validarStatus();
+		ProdutoQuantidade produtoQtd = getLinhasPorCodigo().get(produto.getCodigo());
+		if (produtoQtd != null) {
+			if (produtoQtd.getQuantidade() > quantidade) {
+				valorTotal = Math.subtractExact(valorTotal, produtoQtd.remover(quantidade));
+			} else {
+				produtos.remove(produtoQtd);
+				linhasPorCodigo.remove(produto.getCodigo());
+				valorTotal = Math.subtractExact(valorTotal, produtoQtd.getValorTotalCentavos());
+			}
+		}
+	}
+
+    // Remove todos os produtos da venda.
+	public void removerTodosProdutos() {
+		validarStatus();
+		produtos.clear();
+		linhasPorCodigo = null;
+		valorTotal = 0;
+	}
+
+    // Obtém a quantidade total de produtos na venda.
+	public int getQuantidadeTotalProdutos() {
+		int quantidade = 0;
+		for (ProdutoQuantidade prod : this.produtos) {
+			quantidade += prod.getQuantidade();
+		}
+		return quantidade;
+	}
+
+    // Recalcula o valor total da venda com base nos produtos e suas quantidades.
+	public void recalcularValorTotalVenda() {
+		long valorTotal = 0;
+		for (ProdutoQuantidade prod : this.produtos) {
+			valorTotal = Math.addExact(valorTotal, prod.getValorTotalCentavos());
+		}
+		this.valorTotal = valorTotal;
+	}
+
+    // Descarta o índice quando o JPA carrega a venda ou a atualiza (refresh), substituindo a coleção de linhas.
+	@PostLoad
+	private void descartarIndiceLinhas() {
+		linhasPorCodigo = null;
+	}
+
+    // Monta o índice das linhas a partir de produtos, se ele foi descartado.
+	private Map<String, ProdutoQuantidade> getLinhasPorCodigo() {
+		if (linhasPorCodigo == null) {
+			linhasPorCodigo = new HashMap<>(Math.max(16, produtos.size() * 2));
+			for (ProdutoQuantidade prod : produtos) {
+				linhasPorCodigo.put(prod.getProduto().getCodigo(), prod);
+			}
+		}
+		return linhasPorCodigo;
+	}
+
+    // Lança uma exceção se a venda estiver finalizada, impedindo alterações.
+	private void validarStatus() {
+		if (this.status == Status.CONCLUIDA) {
+			throw new UnsupportedOperationException("IMPOSSÍVEL ALTERAR VENDA FINALIZADA");
+		}
+	}
 }
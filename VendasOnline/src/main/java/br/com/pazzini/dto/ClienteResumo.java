@@ -0,0 +1,55 @@
+/**
+ * A classe ClienteResumo é uma projeção do cliente com os dados exibidos no autocomplete da venda.
+ * É montada diretamente pela consulta (SELECT NEW), sem carregar o restante do cliente (endereço, e-mail etc.).
+ * 
+ * Atributos:
+ * - id: Identificador do cliente.
+ * - nome: Nome do cliente.
+ * - cpf: Número de CPF do cliente.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * - paraCliente(): Cria um Cliente com o id, o nome e o CPF, suficiente para associar o cliente a uma venda.
+ */
+package br.com.pazzini.dto;
+
+import java.io.Serializable;
+
+import br.com.pazzini.domain.Cliente;
+
+public class ClienteResumo implements Serializable {
+
+    private static final long serialVersionUID = 2836148921749361032L;
+
+    private final Long id;
+
+    private final String nome;
+
+    private final Long cpf;
+
+    public ClienteResumo(Long id, String nome, Long cpf) {
+        this.id = id;
+        this.nome = nome;
+        this.cpf = cpf;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public Long getCpf() {
+        return cpf;
+    }
+
+    public Cliente paraCliente() {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        cliente.setNome(nome);
+        cliente.setCpf(cpf);
+        return cliente;
+    }
+}
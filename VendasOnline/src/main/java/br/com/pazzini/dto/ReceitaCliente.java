@@ -0,0 +1,59 @@
+/**
+ * A classe ReceitaCliente é uma linha do relatório de receita por cliente, montada diretamente a partir da
+ * consulta agrupada, sem carregar vendas nem clientes.
+ * 
+ * Atributos:
+ * - idCliente: Identificador do cliente.
+ * - nome: Nome do cliente.
+ * - vendas: Quantidade de vendas do cliente no período.
+ * - valorCentavos: Soma dos valores das vendas do cliente no período, em centavos.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * - getValor(): Soma dos valores das vendas como Dinheiro.
+ */
+package br.com.pazzini.dto;
+
+import java.io.Serializable;
+
+import br.com.pazzini.domain.Dinheiro;
+
+public class ReceitaCliente implements Serializable {
+
+    private static final long serialVersionUID = -2750163348871025392L;
+
+    private final Long idCliente;
+
+    private final String nome;
+
+    private final long vendas;
+
+    private final long valorCentavos;
+
+    public ReceitaCliente(Long idCliente, String nome, long vendas, long valorCentavos) {
+        this.idCliente = idCliente;
+        this.nome = nome;
+        this.vendas = vendas;
+        this.valorCentavos = valorCentavos;
+    }
+
+    public Long getIdCliente() {
+        return idCliente;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getVendas() {
+        return vendas;
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+
+    public Dinheiro getValor() {
+        return Dinheiro.deCentavos(valorCentavos);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * A classe ReceitaPeriodo é uma linha do relatório de receita por período (dia ou mês), montada diretamente a
+ * partir da consulta agrupada, sem carregar vendas.
+ * 
+ * Atributos:
+ * - periodo: Primeiro dia do período (o próprio dia, ou o dia 1 do mês).
+ * - vendas: Quantidade de vendas do período.
+ * - valorCentavos: Soma dos valores das vendas do período, em centavos.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * - getValor(): Soma dos valores das vendas como Dinheiro.
+ */
+package br.com.pazzini.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import br.com.pazzini.domain.Dinheiro;
+
+public class ReceitaPeriodo implements Serializable {
+
+    private static final long serialVersionUID = 4417260953871290614L;
+
+    /**
+     * Granularidade do período, com a unidade correspondente do date_trunc do PostgreSQL.
+     */
+    public enum Agrupamento {
+        DIA("day"), MES("month");
+
+        private final String unidade;
+
+        Agrupamento(String unidade) {
+            this.unidade = unidade;
+        }
+
+        public String getUnidade() {
+            return unidade;
+        }
+    }
+
+    private final LocalDate periodo;
+
+    private final long vendas;
+
+    private final long valorCentavos;
+
+    public ReceitaPeriodo(LocalDate periodo, long vendas, long valorCentavos) {
+        this.periodo = periodo;
+        this.vendas = vendas;
+        this.valorCentavos = valorCentavos;
+    }
+
+    public LocalDate getPeriodo() {
+        return periodo;
+    }
+
+    public long getVendas() {
+        return vendas;
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+
+    public Dinheiro getValor() {
+        return Dinheiro.deCentavos(valorCentavos);
+    }
+}
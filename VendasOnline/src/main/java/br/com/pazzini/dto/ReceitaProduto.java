@@ -0,0 +1,67 @@
+/**
+ * A classe ReceitaProduto é uma linha do relatório de receita por produto, montada diretamente a partir da
+ * consulta agrupada sobre as linhas das vendas, sem carregar vendas nem produtos.
+ * 
+ * Atributos:
+ * - idProduto: Identificador do produto.
+ * - codigo: Código do produto.
+ * - nome: Nome do produto.
+ * - quantidade: Unidades vendidas do produto no período.
+ * - valorCentavos: Soma dos valores das linhas do produto no período, em centavos.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * - getValor(): Soma dos valores das linhas como Dinheiro.
+ */
+package br.com.pazzini.dto;
+
+import java.io.Serializable;
+
+import br.com.pazzini.domain.Dinheiro;
+
+public class ReceitaProduto implements Serializable {
+
+    private static final long serialVersionUID = 6632084417391285106L;
+
+    private final Long idProduto;
+
+    private final String codigo;
+
+    private final String nome;
+
+    private final long quantidade;
+
+    private final long valorCentavos;
+
+    public ReceitaProduto(Long idProduto, String codigo, String nome, long quantidade, long valorCentavos) {
+        this.idProduto = idProduto;
+        this.codigo = codigo;
+        this.nome = nome;
+        this.quantidade = quantidade;
+        this.valorCentavos = valorCentavos;
+    }
+
+    public Long getIdProduto() {
+        return idProduto;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+
+    public Dinheiro getValor() {
+        return Dinheiro.deCentavos(valorCentavos);
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * A classe ReceitaStatus é uma linha do relatório de vendas por status, montada diretamente a partir da consulta
+ * agrupada, sem carregar vendas.
+ * 
+ * Atributos:
+ * - status: Status das vendas (INICIADA, CONCLUIDA, CANCELADA).
+ * - vendas: Quantidade de vendas com o status no período.
+ * - valorCentavos: Soma dos valores dessas vendas, em centavos.
+ * 
+ * Métodos:
+ * - Getters para todos os atributos.
+ * - getValor(): Soma dos valores das vendas como Dinheiro.
+ */
+package br.com.pazzini.dto;
+
+import java.io.Serializable;
+
+import br.com.pazzini.domain.Dinheiro;
+import br.com.pazzini.domain.Venda;
+
+public class ReceitaStatus implements Serializable {
+
+    private static final long serialVersionUID = 1592837406612948571L;
+
+    private final Venda.Status status;
+
+    private final long vendas;
+
+    private final long valorCentavos;
+
+    public ReceitaStatus(Venda.Status status, long vendas, long valorCentavos) {
+        this.status = status;
+        this.vendas = vendas;
+        this.valorCentavos = valorCentavos;
+    }
+
+    public Venda.Status getStatus() {
+        return status;
+    }
+
+    public long getVendas() {
+        return vendas;
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+
+    public Dinheiro getValor() {
+        return Dinheiro.deCentavos(valorCentavos);
+    }
+}
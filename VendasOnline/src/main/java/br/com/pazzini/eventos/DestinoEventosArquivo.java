@@ -0,0 +1,59 @@
+/**
+ * A classe DestinoEventosArquivo acrescenta os eventos de venda a um arquivo CSV local, uma linha por evento, no
+ * formato:
+ * 
+ *     ID;ID_VENDA;CODIGO_VENDA;TIPO;ID_CLIENTE;VALOR_TOTAL;DATA_EVENTO
+ * 
+ * Cada lote é escrito com uma única gravação e sincronizado com o disco (FileChannel.force) antes de enviar
+ * terminar, para que os eventos apagados da caixa de saída não se percam em uma queda do servidor. Um lote
+ * reenviado aparece de novo no arquivo, com os mesmos ids.
+ * 
+ * Métodos:
+ * - enviar(List<EventoVenda> eventos): Acrescenta os eventos ao arquivo.
+ * - getArquivo(): Caminho do arquivo.
+ */
+package br.com.pazzini.eventos;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import br.com.pazzini.domain.EventoVenda;
+import br.com.pazzini.utils.CsvUtils;
+
+public class DestinoEventosArquivo implements IDestinoEventos {
+
+    private final Path arquivo;
+
+    public DestinoEventosArquivo(Path arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    @Override
+    public synchronized void enviar(List<EventoVenda> eventos) throws IOException {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (EventoVenda evento : eventos) {
+            sb.append(CsvUtils.linha(evento.getId(), evento.getIdVenda(), evento.getCodigoVenda(), evento.getTipo(),
+                    evento.getIdCliente(), evento.getValorTotal().paraBigDecimal(), evento.getDataEvento()));
+        }
+        ByteBuffer conteudo = StandardCharsets.UTF_8.encode(sb.toString());
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (conteudo.hasRemaining()) {
+                canal.write(conteudo);
+            }
+            canal.force(false);
+        }
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * A classe DestinoEventosMemoria guarda em memória os eventos de venda recebidos, na ordem em que chegaram. Serve
+ * para testes e para conferir a publicação sem um destino externo; não deve ser usada em produção, pois os eventos
+ * se perdem quando o servidor para.
+ * 
+ * Métodos:
+ * - enviar(List<EventoVenda> eventos): Acrescenta os eventos à lista.
+ * - getEventos(): Cópia dos eventos recebidos.
+ * - limpar(): Descarta os eventos recebidos.
+ */
+package br.com.pazzini.eventos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.pazzini.domain.EventoVenda;
+
+public class DestinoEventosMemoria implements IDestinoEventos {
+
+    private final List<EventoVenda> eventos = new ArrayList<>();
+
+    @Override
+    public synchronized void enviar(List<EventoVenda> eventos) {
+        this.eventos.addAll(eventos);
+    }
+
+    public synchronized List<EventoVenda> getEventos() {
+        return new ArrayList<>(eventos);
+    }
+
+    public synchronized void limpar() {
+        eventos.clear();
+    }
+}
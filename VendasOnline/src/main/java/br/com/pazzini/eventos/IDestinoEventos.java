@@ -0,0 +1,31 @@
+/**
+ * Interface que define o destino dos eventos de venda publicados a partir da caixa de saída (TB_EVENTO_VENDA), como
+ * um arquivo, uma fila de mensagens ou outro sistema.
+ * 
+ * A entrega é "pelo menos uma vez": os eventos de um lote só são apagados da caixa de saída depois que enviar
+ * termina sem erro, e se a transação da publicação falhar depois disso o lote é enviado de novo. O destino deve,
+ * portanto, aceitar eventos repetidos (o id do evento identifica a repetição). Dentro de cada lote os eventos vêm em
+ * ordem de id, e os lotes são enviados um de cada vez, de modo que os eventos de uma venda chegam na ordem em que
+ * aconteceram.
+ * 
+ * Métodos:
+ * - enviar(List<EventoVenda> eventos): Entrega um lote de eventos.
+ */
+package br.com.pazzini.eventos;
+
+import java.io.IOException;
+import java.util.List;
+
+import br.com.pazzini.domain.EventoVenda;
+
+public interface IDestinoEventos {
+
+    /**
+     * Entrega um lote de eventos, na ordem da lista. Só deve terminar depois que os eventos estiverem guardados de
+     * forma durável no destino; se lançar exceção, o lote inteiro é enviado de novo na próxima publicação.
+     *
+     * @param eventos eventos em ordem de id
+     * @throws IOException se o lote não pôde ser entregue
+     */
+    void enviar(List<EventoVenda> eventos) throws IOException;
+}
@@ -0,0 +1,114 @@
+/**
+ * A classe PublicadorEventosVenda esvazia a caixa de saída de eventos de venda (TB_EVENTO_VENDA) em segundo plano,
+ * entregando os eventos a um IDestinoEventos.
+ * 
+ * Uma única tarefa do ManagedScheduledExecutorService padrão do WildFly
+ * (java:jboss/ee/concurrency/scheduler/default) roda a cada intervaloMs e chama IEventoVendaService.publicarLote
+ * enquanto os lotes vierem cheios, ou seja, até a caixa de saída ficar vazia. Como há uma só tarefa e cada lote é
+ * entregue em ordem de id, os eventos de uma venda chegam ao destino na ordem em que aconteceram. Um lote que
+ * falha é registrado no log e tentado de novo na execução seguinte, a partir do mesmo evento.
+ * 
+ * As requisições que alteram vendas só gravam o evento na própria transação; a entrega ao destino nunca acontece
+ * no caminho da requisição. O atraso entre o commit da venda e a entrega do evento é de até intervaloMs.
+ * 
+ * A configuração vem dos context-params do web.xml, lidos pelo PublicadorEventosVendaListener na subida da
+ * aplicação. Sem destino configurado o publicador fica parado e os eventos se acumulam na caixa de saída até que
+ * ele seja ligado.
+ * 
+ * Métodos:
+ * - iniciar(IDestinoEventos destino, long intervaloMs, int tamanhoLote): Agenda a publicação periódica.
+ * - publicar(): Publica os eventos pendentes até a caixa de saída ficar vazia.
+ * - encerrar(): Cancela a publicação periódica.
+ */
+package br.com.pazzini.eventos;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.service.IEventoVendaService;
+
+@ApplicationScoped
+public class PublicadorEventosVenda {
+
+    private static final Logger LOGGER = Logger.getLogger(PublicadorEventosVenda.class.getName());
+
+    public static final long INTERVALO_PADRAO_MS = 1000;
+
+    public static final int TAMANHO_LOTE_PADRAO = 500;
+
+    @Resource(lookup = "java:jboss/ee/concurrency/scheduler/default")
+    private ManagedScheduledExecutorService agendador;
+
+    @Inject
+    private IEventoVendaService eventoService;
+
+    private volatile IDestinoEventos destino;
+
+    private volatile int tamanhoLote = TAMANHO_LOTE_PADRAO;
+
+    private ScheduledFuture<?> tarefa;
+
+    /**
+     * Agenda a publicação periódica dos eventos. Deve ser chamado uma vez, na subida da aplicação.
+     *
+     * @param destino Destino dos eventos.
+     * @param intervaloMs Espera entre o fim de uma publicação e o início da próxima.
+     * @param tamanhoLote Quantidade máxima de eventos entregues por transação.
+     */
+    public synchronized void iniciar(IDestinoEventos destino, long intervaloMs, int tamanhoLote) {
+        if (intervaloMs < 1 || tamanhoLote < 1) {
+            throw new IllegalArgumentException("CONFIGURAÇÃO DA PUBLICAÇÃO DE EVENTOS INVÁLIDA: intervaloMs="
+                    + intervaloMs + " tamanhoLote=" + tamanhoLote);
+        }
+        if (tarefa != null) {
+            throw new IllegalStateException("PUBLICAÇÃO DE EVENTOS JÁ INICIADA");
+        }
+        this.destino = destino;
+        this.tamanhoLote = tamanhoLote;
+        this.tarefa = agendador.scheduleWithFixedDelay(this::publicar, intervaloMs, intervaloMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publica os eventos pendentes, lote a lote, até a caixa de saída ficar vazia ou um lote falhar.
+     *
+     * @return Quantidade de eventos entregues.
+     */
+    public int publicar() {
+        IDestinoEventos destino = this.destino;
+        int total = 0;
+        if (destino == null) {
+            return total;
+        }
+        try {
+            int publicados;
+            do {
+                publicados = eventoService.publicarLote(destino, tamanhoLote);
+                total += publicados;
+            } while (publicados == tamanhoLote && !Thread.currentThread().isInterrupted());
+        } catch (DAOException | RuntimeException e) {
+            // Nunca propaga: uma exceção cancelaria as próximas execuções do agendador.
+            LOGGER.log(Level.WARNING, "ERRO PUBLICANDO EVENTOS DE VENDA; NOVA TENTATIVA NA PRÓXIMA EXECUÇÃO", e);
+        }
+        return total;
+    }
+
+    /**
+     * Cancela a publicação periódica. Os eventos ainda não entregues continuam na caixa de saída.
+     */
+    public synchronized void encerrar() {
+        if (tarefa != null) {
+            tarefa.cancel(false);
+            tarefa = null;
+        }
+        destino = null;
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * O PublicadorEventosVendaListener inicia o PublicadorEventosVenda quando a aplicação sobe, a partir dos
+ * context-params do web.xml "venda.eventos.arquivo", "venda.eventos.intervaloMs" e "venda.eventos.tamanhoLote", e o
+ * encerra quando a aplicação é desinstalada.
+ * 
+ * O destino é um DestinoEventosArquivo. Um caminho relativo é resolvido no diretório de dados do WildFly
+ * (jboss.server.data.dir), se definido. Sem arquivo configurado a publicação não é iniciada.
+ */
+package br.com.pazzini.eventos;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import javax.inject.Inject;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+public class PublicadorEventosVendaListener implements ServletContextListener {
+
+    @Inject
+    private PublicadorEventosVenda publicador;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ServletContext contexto = sce.getServletContext();
+        String arquivo = contexto.getInitParameter("venda.eventos.arquivo");
+        if (arquivo == null || arquivo.trim().isEmpty()) {
+            return;
+        }
+        Path caminho = Paths.get(arquivo.trim());
+        String dados = System.getProperty("jboss.server.data.dir");
+        if (!caminho.isAbsolute() && dados != null) {
+            caminho = Paths.get(dados).resolve(caminho);
+        }
+        String intervalo = contexto.getInitParameter("venda.eventos.intervaloMs");
+        String tamanhoLote = contexto.getInitParameter("venda.eventos.tamanhoLote");
+        publicador.iniciar(new DestinoEventosArquivo(caminho),
+                intervalo == null ? PublicadorEventosVenda.INTERVALO_PADRAO_MS : Long.parseLong(intervalo.trim()),
+                tamanhoLote == null ? PublicadorEventosVenda.TAMANHO_LOTE_PADRAO : Integer.parseInt(tamanhoLote.trim()));
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        publicador.encerrar();
+    }
+}
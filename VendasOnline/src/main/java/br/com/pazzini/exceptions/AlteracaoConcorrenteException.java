@@ -0,0 +1,27 @@
+/**
+ * A classe AlteracaoConcorrenteException é uma exceção personalizada para indicar que um registro não foi alterado
+ * porque outra transação o alterou depois que ele foi lido (a versão do registro no banco é diferente da versão
+ * alterada). Estende DAOException, de modo que quem já trata DAOException continua tratando o erro; quem quiser
+ * avisar o usuário para recarregar o registro pode tratá-la separadamente.
+ * 
+ * Atributos:
+ * - serialVersionUID: Identificador único para fins de serialização da classe.
+ * 
+ * Construtores:
+ * - AlteracaoConcorrenteException(String msg, Exception ex): Construtor que permite definir uma mensagem e a exceção original que causou a exceção.
+ * 
+ * Anotações:
+ * - Nenhuma anotação específica é usada nesta classe.
+ */
+package br.com.pazzini.exceptions;
+
+public class AlteracaoConcorrenteException extends DAOException {
+
+    // Identificador único para fins de serialização da classe.
+	private static final long serialVersionUID = -3362584091276604417L;
+
+    // Construtor que permite definir uma mensagem e a exceção original que causou a exceção.
+	public AlteracaoConcorrenteException(String msg, Exception ex) {
+		super(msg, ex);
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * A classe EstoqueInsuficienteException é uma exceção personalizada para indicar que uma venda não pôde reservar a
+ * quantidade de um ou mais produtos porque o estoque disponível é menor que a quantidade vendida.
+ * 
+ * Estende DAOException, de modo que pode ser lançada pelos cadastros e alterações de vendas sem mudar os contratos
+ * do IGenericService. Como é uma exceção verificada, o container não desfaria a transação por conta própria; a
+ * anotação @ApplicationException(rollback = true) garante que a venda e as reservas já feitas sejam desfeitas.
+ * 
+ * Atributos:
+ * - serialVersionUID: Identificador único para fins de serialização da classe.
+ * - idsProdutos: Identificadores dos produtos sem estoque suficiente.
+ * 
+ * Construtores:
+ * - EstoqueInsuficienteException(Collection<Long> idsProdutos): Construtor que recebe os produtos sem estoque suficiente.
+ * 
+ * Anotações:
+ * - @ApplicationException: Indica ao container EJB que a transação deve ser desfeita quando a exceção é lançada.
+ */
+package br.com.pazzini.exceptions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ejb.ApplicationException;
+
+@ApplicationException(rollback = true)
+public class EstoqueInsuficienteException extends DAOException {
+
+    // Identificador único para fins de serialização da classe.
+	private static final long serialVersionUID = 5230917764412083318L;
+
+	private final List<Long> idsProdutos;
+
+    // Construtor que recebe os produtos sem estoque suficiente.
+	public EstoqueInsuficienteException(Collection<Long> idsProdutos) {
+		super("ESTOQUE INSUFICIENTE PARA OS PRODUTOS " + idsProdutos, null);
+		this.idsProdutos = Collections.unmodifiableList(new ArrayList<>(idsProdutos));
+    }
+
+	public List<Long> getIdsProdutos() {
+		return idsProdutos;
+	}
+}
@@ -0,0 +1,23 @@
+/**
+ * A classe FilaCheiaException é uma exceção personalizada para indicar que a fila da finalização assíncrona de vendas
+ * está cheia. É a contrapressão da fila: em vez de acumular pedidos sem limite, o pedido é recusado e quem o fez
+ * decide se tenta de novo mais tarde.
+ * 
+ * Atributos:
+ * - serialVersionUID: Identificador único para fins de serialização da classe.
+ * 
+ * Construtores:
+ * - FilaCheiaException(int capacidade): Construtor que recebe a capacidade da fila.
+ */
+package br.com.pazzini.exceptions;
+
+public class FilaCheiaException extends Exception {
+
+    // Identificador único para fins de serialização da classe.
+	private static final long serialVersionUID = -6480151931204471620L;
+
+    // Construtor que recebe a capacidade da fila.
+	public FilaCheiaException(int capacidade) {
+		super("FILA DE FINALIZAÇÃO CHEIA (CAPACIDADE " + capacidade + ")");
+    }
+}
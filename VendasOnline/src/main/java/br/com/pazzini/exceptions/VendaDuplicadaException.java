@@ -0,0 +1,41 @@
+/**
+ * A classe VendaDuplicadaException é uma exceção personalizada para indicar que já existe uma venda com o código
+ * informado e com conteúdo diferente (outro cliente, outros produtos ou outras quantidades). Uma venda repetida com
+ * o mesmo conteúdo não é um erro: o cadastro devolve a venda existente.
+ * 
+ * Estende DAOException, de modo que pode ser lançada pelo cadastro de vendas sem mudar os contratos do
+ * IGenericService.
+ * 
+ * Atributos:
+ * - serialVersionUID: Identificador único para fins de serialização da classe.
+ * - codigo: Código da venda repetido.
+ * 
+ * Construtores:
+ * - VendaDuplicadaException(String codigo): Construtor que recebe o código repetido.
+ * 
+ * Anotações:
+ * - @ApplicationException: Indica ao container EJB que a transação do chamador deve ser desfeita quando a exceção é
+ *   lançada, como aconteceria com a violação da unicidade do código.
+ */
+package br.com.pazzini.exceptions;
+
+import javax.ejb.ApplicationException;
+
+@ApplicationException(rollback = true)
+public class VendaDuplicadaException extends DAOException {
+
+    // Identificador único para fins de serialização da classe.
+	private static final long serialVersionUID = -3361268027450385416L;
+
+	private final String codigo;
+
+    // Construtor que recebe o código repetido.
+	public VendaDuplicadaException(String codigo) {
+		super("JÁ EXISTE OUTRA VENDA COM O CÓDIGO " + codigo, null);
+		this.codigo = codigo;
+    }
+
+	public String getCodigo() {
+		return codigo;
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * A classe EstatisticaConsulta reúne as medições de um formato de comando SQL: o histograma das durações, a
+ * quantidade de execuções lentas e quantas vezes o comando foi apontado como possível N+1.
+ */
+package br.com.pazzini.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class EstatisticaConsulta {
+
+    private final MetricaMetodo execucoes;
+
+    private final LongAdder lentas = new LongAdder();
+
+    private final LongAdder ocorrenciasNMaisUm = new LongAdder();
+
+    public EstatisticaConsulta(String formato) {
+        this.execucoes = new MetricaMetodo(formato);
+    }
+
+    public void registrar(long nanos, boolean lenta) {
+        execucoes.registrar(nanos, false);
+        if (lenta) {
+            lentas.increment();
+        }
+    }
+
+    public void registrarNMaisUm() {
+        ocorrenciasNMaisUm.increment();
+    }
+
+    public String getFormato() {
+        return execucoes.getNome();
+    }
+
+    public long getTempoTotalNanos() {
+        return execucoes.getTempoTotalNanos();
+    }
+
+    public ResumoMetrica getResumo() {
+        return execucoes.getResumo();
+    }
+
+    public long getLentas() {
+        return lentas.sum();
+    }
+
+    public long getOcorrenciasNMaisUm() {
+        return ocorrenciasNMaisUm.sum();
+    }
+}
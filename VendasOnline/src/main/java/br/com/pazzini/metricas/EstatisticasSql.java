@@ -0,0 +1,288 @@
+/**
+ * A classe EstatisticasSql acumula as estatísticas dos comandos SQL enviados pelo Hibernate, no lugar do
+ * hibernate.show_sql.
+ *
+ * Os comandos são agrupados pelo formato: os literais viram "?" e as listas de parâmetros de IN são reduzidas a
+ * "(?...)", de modo que a mesma consulta com valores diferentes é contada junto. Para cada formato são mantidos o
+ * histograma das durações e a quantidade de execuções lentas e de possíveis N+1.
+ *
+ * Os comandos de uma unidade de trabalho (uma requisição HTTP, aberta pelo EstatisticasSqlFilter, ou uma sessão do
+ * Hibernate fora de requisições) são contados por formato; ao final da unidade, cada SELECT executado pelo menos
+ * limiteNMaisUm vezes é registrado no log como possível N+1. A unidade de uma requisição fica na thread da
+ * requisição, aberta e encerrada pelo filtro na mesma thread; a unidade de uma sessão fica no próprio
+ * MonitorSessaoSql, porque a sessão pode ser fechada por outra thread.
+ *
+ * O comando informado pelo InspetorSql é guardado na thread só até a execução seguinte, que o consome: nenhum texto
+ * de comando fica preso à thread depois da execução, nem é atribuído a uma execução de outra sessão.
+ *
+ * A instância é única na aplicação (getInstancia()) porque os ganchos do Hibernate (InspetorSql e
+ * MonitorSessaoSql) são criados pelo próprio Hibernate, fora do CDI. A configuração pode ser alterada em tempo
+ * de execução pela interface JMX EstatisticasSqlMBean.
+ *
+ * Métodos:
+ * - registrarSql(String sql): Guarda, para a thread corrente, o comando que será executado em seguida.
+ * - registrarExecucao(long nanos): Atribui a duração ao último comando registrado na thread e o descarta.
+ * - iniciarUnidade(String descricao) / encerrarUnidade(): Delimitam a unidade de trabalho da thread corrente para a
+ *   detecção de N+1.
+ * - getEstatisticas(): Retorna as estatísticas de todos os formatos, ordenadas pelo tempo total.
+ * - normalizar(String sql): Retorna o formato do comando.
+ */
+package br.com.pazzini.metricas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+public class EstatisticasSql implements EstatisticasSqlMBean {
+
+    public static final String NOME_JMX = "br.com.pazzini:type=EstatisticasSql";
+
+    // Limita a memória quando a aplicação gera comandos com formatos sempre diferentes.
+    static final int MAXIMO_FORMATOS = 1000;
+
+    static final String OUTROS_FORMATOS = "(outros formatos)";
+
+    private static final Logger LOGGER = Logger.getLogger(EstatisticasSql.class.getName());
+
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private static final EstatisticasSql INSTANCIA = new EstatisticasSql();
+
+    private final Map<String, EstatisticaConsulta> estatisticas = new ConcurrentHashMap<>();
+
+    // Cache dos formatos já calculados, pelo texto original do comando.
+    private final Map<String, String> formatos = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<String> ultimoSql = new ThreadLocal<>();
+
+    private final ThreadLocal<UnidadeTrabalho> unidade = new ThreadLocal<>();
+
+    private volatile boolean ativo = true;
+
+    private volatile long limiteConsultaLentaNanos = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private volatile int limiteNMaisUm = 10;
+
+    EstatisticasSql() {
+    }
+
+    public static EstatisticasSql getInstancia() {
+        return INSTANCIA;
+    }
+
+    public void registrarSql(String sql) {
+        if (ativo) {
+            ultimoSql.set(sql);
+        }
+    }
+
+    /**
+     * Atribui a duração ao último comando registrado na thread, registrando no log as execuções lentas e contando
+     * o formato na unidade de trabalho da thread. O comando é descartado da thread.
+     *
+     * @param nanos duração da execução
+     */
+    public void registrarExecucao(long nanos) {
+        registrarExecucao(nanos, null);
+    }
+
+    /**
+     * Como registrarExecucao(long), mas conta o formato na unidade da sessão quando a thread não tem uma unidade
+     * aberta.
+     *
+     * @param nanos duração da execução
+     * @param daSessao unidade de trabalho da sessão, ou null
+     */
+    void registrarExecucao(long nanos, UnidadeTrabalho daSessao) {
+        String sql = ultimoSql.get();
+        ultimoSql.remove();
+        if (!ativo || sql == null) {
+            return;
+        }
+        String formato = getFormato(sql);
+        boolean lenta = nanos >= limiteConsultaLentaNanos;
+        getEstatistica(formato).registrar(nanos, lenta);
+        if (lenta) {
+            LOGGER.log(Level.WARNING, "CONSULTA LENTA ({0} ms): {1}",
+                    new Object[] { TimeUnit.NANOSECONDS.toMillis(nanos), sql });
+        }
+        UnidadeTrabalho atual = unidade.get();
+        if (atual == null) {
+            atual = daSessao;
+        }
+        if (atual != null && formato.regionMatches(true, 0, "select", 0, 6)) {
+            atual.contar(formato);
+        }
+    }
+
+    /**
+     * Abre uma unidade de trabalho na thread corrente, se ainda não houver uma aberta.
+     *
+     * @param descricao descrição usada no log (ex: a URI da requisição)
+     * @return true se a unidade foi aberta por esta chamada e deve ser encerrada por quem chamou
+     */
+    public boolean iniciarUnidade(String descricao) {
+        if (!ativo || unidade.get() != null) {
+            return false;
+        }
+        unidade.set(new UnidadeTrabalho(descricao));
+        return true;
+    }
+
+    /**
+     * Cria a unidade de trabalho de uma sessão do Hibernate aberta fora de uma unidade da thread (ex: em uma tarefa
+     * assíncrona). A unidade não é guardada na thread: quem a criou a repassa a cada execução e a encerra.
+     *
+     * @param descricao descrição usada no log
+     * @return a unidade, ou null se as estatísticas estão desligadas ou a thread já tem uma unidade aberta
+     */
+    UnidadeTrabalho criarUnidadeSessao(String descricao) {
+        if (!ativo || unidade.get() != null) {
+            return null;
+        }
+        return new UnidadeTrabalho(descricao);
+    }
+
+    /**
+     * Encerra a unidade de trabalho da thread corrente e registra no log os SELECTs executados pelo menos
+     * limiteNMaisUm vezes.
+     */
+    public void encerrarUnidade() {
+        UnidadeTrabalho atual = unidade.get();
+        unidade.remove();
+        if (atual != null) {
+            encerrarUnidade(atual);
+        }
+    }
+
+    /**
+     * Encerra uma unidade de trabalho criada por criarUnidadeSessao, em qualquer thread.
+     *
+     * @param atual unidade da sessão
+     */
+    void encerrarUnidade(UnidadeTrabalho atual) {
+        for (Map.Entry<String, int[]> item : atual.contagens.entrySet()) {
+            int execucoes = item.getValue()[0];
+            String formato = item.getKey();
+            if (execucoes >= limiteNMaisUm) {
+                getEstatistica(formato).registrarNMaisUm();
+                LOGGER.log(Level.WARNING, "POSSÍVEL N+1 EM {0}: {1} EXECUÇÕES DE {2}",
+                        new Object[] { atual.descricao, execucoes, formato });
+            }
+        }
+    }
+
+    public List<EstatisticaConsulta> getEstatisticas() {
+        List<EstatisticaConsulta> lista = new ArrayList<>(estatisticas.values());
+        lista.sort(Comparator.comparingLong(EstatisticaConsulta::getTempoTotalNanos).reversed());
+        return lista;
+    }
+
+    /**
+     * Retorna o formato do comando: literais substituídos por "?", listas de parâmetros reduzidas a "(?...)" e
+     * espaços consecutivos reduzidos a um.
+     *
+     * @param sql comando SQL
+     * @return formato do comando
+     */
+    public static String normalizar(String sql) {
+        String formato = TEXTO.matcher(sql).replaceAll("?");
+        formato = NUMERO.matcher(formato).replaceAll("?");
+        formato = LISTA_PARAMETROS.matcher(formato).replaceAll("(?...)");
+        return ESPACOS.matcher(formato).replaceAll(" ").trim();
+    }
+
+    private String getFormato(String sql) {
+        String formato = formatos.get(sql);
+        if (formato == null) {
+            formato = normalizar(sql);
+            if (formatos.size() < MAXIMO_FORMATOS * 4) {
+                formatos.put(sql, formato);
+            }
+        }
+        return formato;
+    }
+
+    private EstatisticaConsulta getEstatistica(String formato) {
+        EstatisticaConsulta estatistica = estatisticas.get(formato);
+        if (estatistica != null) {
+            return estatistica;
+        }
+        String chave = estatisticas.size() < MAXIMO_FORMATOS ? formato : OUTROS_FORMATOS;
+        return estatisticas.computeIfAbsent(chave, EstatisticaConsulta::new);
+    }
+
+    @Override
+    public boolean isAtivo() {
+        return ativo;
+    }
+
+    @Override
+    public void setAtivo(boolean ativo) {
+        this.ativo = ativo;
+        if (!ativo) {
+            ultimoSql.remove();
+        }
+    }
+
+    @Override
+    public long getLimiteConsultaLentaMs() {
+        return TimeUnit.NANOSECONDS.toMillis(limiteConsultaLentaNanos);
+    }
+
+    @Override
+    public void setLimiteConsultaLentaMs(long limite) {
+        this.limiteConsultaLentaNanos = TimeUnit.MILLISECONDS.toNanos(limite);
+    }
+
+    @Override
+    public int getLimiteNMaisUm() {
+        return limiteNMaisUm;
+    }
+
+    @Override
+    public void setLimiteNMaisUm(int limite) {
+        this.limiteNMaisUm = limite;
+    }
+
+    @Override
+    public int getQuantidadeFormatos() {
+        return estatisticas.size();
+    }
+
+    @Override
+    public void limpar() {
+        estatisticas.clear();
+        formatos.clear();
+    }
+
+    // Contagem das execuções de cada SELECT em uma unidade de trabalho; usada por uma thread de cada vez (a da
+    // requisição, ou a que estiver usando a sessão).
+    static class UnidadeTrabalho {
+
+        private final String descricao;
+
+        private final Map<String, int[]> contagens = new HashMap<>();
+
+        UnidadeTrabalho(String descricao) {
+            this.descricao = descricao;
+        }
+
+        void contar(String formato) {
+            contagens.computeIfAbsent(formato, f -> new int[1])[0]++;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * O filtro EstatisticasSqlFilter delimita cada requisição HTTP como uma unidade de trabalho do EstatisticasSql,
+ * de modo que os SELECTs repetidos são contados ao longo de toda a requisição, mesmo quando ela chama vários
+ * serviços (e portanto abre várias sessões do Hibernate).
+ *
+ * Mapeado em web.xml para todas as requisições.
+ */
+package br.com.pazzini.metricas;
+
+import java.io.IOException;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+public class EstatisticasSqlFilter implements Filter {
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        EstatisticasSql estatisticas = EstatisticasSql.getInstancia();
+        boolean iniciada = estatisticas.iniciarUnidade(getDescricao(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (iniciada) {
+                estatisticas.encerrarUnidade();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    private String getDescricao(ServletRequest request) {
+        if (request instanceof HttpServletRequest) {
+            HttpServletRequest http = (HttpServletRequest) request;
+            return http.getMethod() + " " + http.getRequestURI();
+        }
+        return request.getRemoteAddr();
+    }
+}
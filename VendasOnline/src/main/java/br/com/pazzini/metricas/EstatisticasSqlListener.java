@@ -0,0 +1,64 @@
+/**
+ * O EstatisticasSqlListener registra o EstatisticasSql no servidor JMX quando a aplicação sobe, com o nome
+ * "br.com.pazzini:type=EstatisticasSql", e remove o registro quando ela é desinstalada.
+ *
+ * Os valores iniciais podem ser definidos pelos context-params do web.xml "metricas.sql.ativo",
+ * "metricas.sql.limiteConsultaLentaMs" e "metricas.sql.limiteNMaisUm".
+ */
+package br.com.pazzini.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+public class EstatisticasSqlListener implements ServletContextListener {
+
+    private static final Logger LOGGER = Logger.getLogger(EstatisticasSqlListener.class.getName());
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        EstatisticasSql estatisticas = EstatisticasSql.getInstancia();
+        ServletContext contexto = sce.getServletContext();
+        String ativo = contexto.getInitParameter("metricas.sql.ativo");
+        if (ativo != null) {
+            estatisticas.setAtivo(Boolean.parseBoolean(ativo.trim()));
+        }
+        String limiteLenta = contexto.getInitParameter("metricas.sql.limiteConsultaLentaMs");
+        if (limiteLenta != null) {
+            estatisticas.setLimiteConsultaLentaMs(Long.parseLong(limiteLenta.trim()));
+        }
+        String limiteNMaisUm = contexto.getInitParameter("metricas.sql.limiteNMaisUm");
+        if (limiteNMaisUm != null) {
+            estatisticas.setLimiteNMaisUm(Integer.parseInt(limiteNMaisUm.trim()));
+        }
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(EstatisticasSql.NOME_JMX);
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(estatisticas, nome);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "NÃO FOI POSSÍVEL REGISTRAR AS ESTATÍSTICAS DE SQL NO JMX", e);
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(EstatisticasSql.NOME_JMX);
+            if (servidor.isRegistered(nome)) {
+                servidor.unregisterMBean(nome);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "NÃO FOI POSSÍVEL REMOVER AS ESTATÍSTICAS DE SQL DO JMX", e);
+        }
+    }
+}
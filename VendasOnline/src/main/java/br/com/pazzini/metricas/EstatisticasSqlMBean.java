@@ -0,0 +1,36 @@
+/**
+ * Interface de gerenciamento (JMX) das estatísticas de SQL, registrada como "br.com.pazzini:type=EstatisticasSql".
+ *
+ * Permite ligar e desligar a coleta e ajustar os limites com a aplicação em execução, pelo jconsole ou pelo
+ * jboss-cli, sem novo deploy.
+ *
+ * Atributos:
+ * - Ativo: liga ou desliga a coleta. Desligada, cada comando custa apenas a leitura de um campo volatile.
+ * - LimiteConsultaLentaMs: comandos com duração igual ou maior são registrados no log como consulta lenta.
+ * - LimiteNMaisUm: quantidade de execuções do mesmo SELECT em uma requisição a partir da qual é registrado um
+ *   possível N+1.
+ * - QuantidadeFormatos: quantidade de formatos de comando com estatísticas.
+ *
+ * Operações:
+ * - limpar(): Descarta as estatísticas acumuladas.
+ */
+package br.com.pazzini.metricas;
+
+public interface EstatisticasSqlMBean {
+
+    boolean isAtivo();
+
+    void setAtivo(boolean ativo);
+
+    long getLimiteConsultaLentaMs();
+
+    void setLimiteConsultaLentaMs(long limite);
+
+    int getLimiteNMaisUm();
+
+    void setLimiteNMaisUm(int limite);
+
+    int getQuantidadeFormatos();
+
+    void limpar();
+}
@@ -0,0 +1,112 @@
+/**
+ * A classe Histograma acumula valores não negativos (latências em nanossegundos) em faixas de largura crescente,
+ * sem bloqueio: cada registro é um incremento atômico em um AtomicLongArray, e várias threads podem registrar ao
+ * mesmo tempo.
+ *
+ * Os valores até 15 têm uma faixa cada. A partir daí, cada potência de dois é dividida em 16 faixas iguais, então a
+ * faixa de um valor tem largura de no máximo 1/16 do próprio valor e os percentis têm erro relativo de até 6,25%,
+ * com 960 contadores cobrindo todo o intervalo de long.
+ *
+ * Métodos:
+ * - registrar(long valor): Conta o valor na sua faixa e atualiza a soma e o máximo.
+ * - getQuantidade() / getSoma() / getMaximo() / getMedia(): Totais dos valores registrados.
+ * - percentil(double percentil): Limite superior da faixa que contém o percentil informado (ex: 99.9).
+ */
+package br.com.pazzini.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histograma {
+
+    private static final int BITS_SUBFAIXA = 4;
+
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+    private static final int FAIXAS = (Long.SIZE - BITS_SUBFAIXA) * SUBFAIXAS;
+
+    private final AtomicLongArray contagens = new AtomicLongArray(FAIXAS);
+
+    private final LongAdder soma = new LongAdder();
+
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    public void registrar(long valor) {
+        long positivo = Math.max(0, valor);
+        contagens.incrementAndGet(indice(positivo));
+        soma.add(positivo);
+        maximo.accumulate(positivo);
+    }
+
+    public long getQuantidade() {
+        long quantidade = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            quantidade += contagens.get(i);
+        }
+        return quantidade;
+    }
+
+    public long getSoma() {
+        return soma.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long quantidade = getQuantidade();
+        return quantidade == 0 ? 0 : (double) getSoma() / quantidade;
+    }
+
+    /**
+     * Retorna o limite superior da faixa que contém o percentil informado, limitado ao maior valor registrado.
+     * Os contadores são lidos um a um, sem parar os registros, então o resultado pode incluir parte das chamadas
+     * feitas durante a leitura.
+     *
+     * @param percentil percentil entre 0 e 100
+     * @return valor do percentil, ou 0 se nenhum valor foi registrado
+     */
+    public long percentil(double percentil) {
+        long[] copia = new long[FAIXAS];
+        long quantidade = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            copia[i] = contagens.get(i);
+            quantidade += copia[i];
+        }
+        if (quantidade == 0) {
+            return 0;
+        }
+        long posicao = Math.max(1, (long) Math.ceil(percentil / 100.0 * quantidade));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= posicao) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    // Valores menores que SUBFAIXAS ocupam as primeiras faixas; os demais são posicionados pelo expoente (bit mais
+    // alto) e pelos BITS_SUBFAIXA bits seguintes.
+    static int indice(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int expoente = Long.SIZE - 1 - Long.numberOfLeadingZeros(valor);
+        int subfaixa = (int) ((valor >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1));
+        return (expoente - BITS_SUBFAIXA + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    static long limiteSuperior(int indice) {
+        if (indice < SUBFAIXAS) {
+            return indice;
+        }
+        int expoente = indice / SUBFAIXAS + BITS_SUBFAIXA - 1;
+        long largura = 1L << (expoente - BITS_SUBFAIXA);
+        long inicio = (SUBFAIXAS + indice % SUBFAIXAS) * largura;
+        return inicio + largura - 1;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * O InspetorSql é o StatementInspector do Hibernate (hibernate.session_factory.statement_inspector). Ele é chamado
+ * com o texto de cada comando antes da preparação e apenas o repassa ao EstatisticasSql, sem alterá-lo. O texto fica
+ * guardado na thread só até a execução do comando, medida pelo MonitorSessaoSql.
+ */
+package br.com.pazzini.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class InspetorSql implements StatementInspector {
+
+    private static final long serialVersionUID = 8193846017524630193L;
+
+    @Override
+    public String inspect(String sql) {
+        EstatisticasSql.getInstancia().registrarSql(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * O interceptor MedicaoInterceptor mede o tempo de cada chamada aos métodos anotados com @Medido e registra o
+ * resultado no RegistroMetricas, com o nome "Classe.metodo(TipoParametro,...)" (ex: "VendaService.cadastrar(Venda)").
+ *
+ * Chamadas que terminam com exceção são contadas como erro, e a exceção é repassada sem alteração. O custo por
+ * chamada é o de duas leituras de System.nanoTime, uma consulta em mapa e a atualização de contadores atômicos.
+ *
+ * Anotado com @Priority, o interceptor fica habilitado para toda a aplicação sem declaração no beans.xml. Nos
+ * serviços @Stateless ele roda dentro da transação do container, então o tempo do commit não entra na medição do
+ * serviço (mas os comandos enviados pelo flush dentro do método entram).
+ */
+package br.com.pazzini.metricas;
+
+import java.io.Serializable;
+
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+
+@Medido
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE)
+public class MedicaoInterceptor implements Serializable {
+
+    private static final long serialVersionUID = 2760934512318409215L;
+
+    @Inject
+    private RegistroMetricas registro;
+
+    @AroundInvoke
+    public Object medir(InvocationContext ic) throws Exception {
+        MetricaMetodo metrica = registro.getMetrica(ic.getTarget().getClass(), ic.getMethod());
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try {
+            Object retorno = ic.proceed();
+            erro = false;
+            return retorno;
+        } finally {
+            metrica.registrar(System.nanoTime() - inicio, erro);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * A anotação Medido associa o MedicaoInterceptor a uma classe ou método, registrando a quantidade de chamadas, os
+ * erros e a latência de cada método no RegistroMetricas.
+ *
+ * É herdada pelas subclasses: GenericDAO e GenericService são anotadas, de modo que todos os DAOs e serviços são
+ * medidos sem anotar cada um.
+ */
+package br.com.pazzini.metricas;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import javax.interceptor.InterceptorBinding;
+
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface Medido {
+}
@@ -0,0 +1,50 @@
+/**
+ * A classe MetricaMetodo reúne as medições de um método: quantidade de chamadas, erros e o histograma das
+ * latências, em nanossegundos. Todas as atualizações são sem bloqueio.
+ *
+ * Métodos:
+ * - registrar(long nanos, boolean erro): Registra uma chamada.
+ * - getTempoTotalNanos(): Soma das latências de todas as chamadas.
+ * - getResumo(): Retorna um ResumoMetrica com os totais e percentis atuais, em microssegundos.
+ */
+package br.com.pazzini.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class MetricaMetodo {
+
+    private final String nome;
+
+    private final LongAdder erros = new LongAdder();
+
+    private final Histograma latencias = new Histograma();
+
+    public MetricaMetodo(String nome) {
+        this.nome = nome;
+    }
+
+    public void registrar(long nanos, boolean erro) {
+        latencias.registrar(nanos);
+        if (erro) {
+            erros.increment();
+        }
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getTempoTotalNanos() {
+        return latencias.getSoma();
+    }
+
+    public ResumoMetrica getResumo() {
+        return new ResumoMetrica(nome, latencias.getQuantidade(), erros.sum(), micros(latencias.getMedia()),
+                micros(latencias.percentil(50)), micros(latencias.percentil(90)), micros(latencias.percentil(99)),
+                micros(latencias.percentil(99.9)), micros(latencias.getMaximo()));
+    }
+
+    private static double micros(double nanos) {
+        return nanos / 1_000.0;
+    }
+}
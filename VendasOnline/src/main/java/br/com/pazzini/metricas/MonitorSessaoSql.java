@@ -0,0 +1,55 @@
+/**
+ * O MonitorSessaoSql é o SessionEventListener do Hibernate (hibernate.session.events.auto), criado pelo Hibernate
+ * para cada sessão. Ele mede a execução de cada comando e de cada batch JDBC e repassa a duração ao
+ * EstatisticasSql, que a atribui ao último comando informado pelo InspetorSql na mesma thread.
+ *
+ * Quando a sessão é aberta fora de uma requisição HTTP (ex: em uma tarefa assíncrona), a própria sessão é a
+ * unidade de trabalho usada na detecção de N+1. Essa unidade fica no próprio monitor, e não na thread, para que
+ * seja encerrada corretamente mesmo quando a sessão é fechada por outra thread.
+ */
+package br.com.pazzini.metricas;
+
+import org.hibernate.BaseSessionEventListener;
+
+import br.com.pazzini.metricas.EstatisticasSql.UnidadeTrabalho;
+
+public class MonitorSessaoSql extends BaseSessionEventListener {
+
+    private static final long serialVersionUID = -1348269501724417532L;
+
+    // Unidade de trabalho da sessão; null quando a sessão foi aberta dentro de uma requisição.
+    private final UnidadeTrabalho unidade;
+
+    private long inicio;
+
+    public MonitorSessaoSql() {
+        this.unidade = EstatisticasSql.getInstancia().criarUnidadeSessao("sessão " + Thread.currentThread().getName());
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        EstatisticasSql.getInstancia().registrarExecucao(System.nanoTime() - inicio, unidade);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        EstatisticasSql.getInstancia().registrarExecucao(System.nanoTime() - inicio, unidade);
+    }
+
+    @Override
+    public void end() {
+        if (unidade != null) {
+            EstatisticasSql.getInstancia().encerrarUnidade(unidade);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * A classe RegistroMetricas guarda as métricas de todos os métodos medidos pelo MedicaoInterceptor, durante toda a
+ * vida da aplicação.
+ *
+ * As métricas são indexadas pela classe do objeto chamado e pelo método, de modo que um método herdado de
+ * GenericService ou GenericDAO é medido separadamente em cada serviço ou DAO. Os nomes das subclasses geradas pelo
+ * container (ex: "VendaDAO$Proxy$_$$_WeldSubclass") são reduzidos ao nome da classe da aplicação, e os tipos dos
+ * parâmetros entram no nome para separar os métodos sobrecarregados (ex: "VendaDAO.consultar(Serializable)").
+ *
+ * Métodos:
+ * - getMetrica(Class<?> classe, Method metodo): Retorna a métrica do método, criando-a na primeira chamada.
+ * - getResumos(): Retorna o resumo de todas as métricas, ordenado pelo nome.
+ */
+package br.com.pazzini.metricas;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class RegistroMetricas {
+
+    private final Map<Class<?>, Map<Method, MetricaMetodo>> metricas = new ConcurrentHashMap<>();
+
+    public MetricaMetodo getMetrica(Class<?> classe, Method metodo) {
+        return metricas.computeIfAbsent(classe, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(metodo, m -> new MetricaMetodo(getNome(classe, m)));
+    }
+
+    public List<ResumoMetrica> getResumos() {
+        List<ResumoMetrica> resumos = new ArrayList<>();
+        for (Map<Method, MetricaMetodo> porMetodo : metricas.values()) {
+            for (MetricaMetodo metrica : porMetodo.values()) {
+                resumos.add(metrica.getResumo());
+            }
+        }
+        resumos.sort(Comparator.comparing(ResumoMetrica::getNome));
+        return resumos;
+    }
+
+    // Nome no formato "Classe.metodo(TipoParametro,...)", que distingue os métodos sobrecarregados.
+    private static String getNome(Class<?> classe, Method metodo) {
+        String nomeClasse = classe.getSimpleName();
+        int separador = nomeClasse.indexOf('$');
+        StringJoiner nome = new StringJoiner(",",
+                (separador > 0 ? nomeClasse.substring(0, separador) : nomeClasse) + "." + metodo.getName() + "(", ")");
+        for (Class<?> parametro : metodo.getParameterTypes()) {
+            nome.add(parametro.getSimpleName());
+        }
+        return nome.toString();
+    }
+}
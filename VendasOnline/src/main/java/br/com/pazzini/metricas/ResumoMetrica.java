@@ -0,0 +1,83 @@
+/**
+ * A classe ResumoMetrica é uma fotografia das medições de um método, com as latências em microssegundos.
+ *
+ * Atributos:
+ * - nome: método medido, no formato "Classe.metodo(TipoParametro,...)".
+ * - chamadas / erros: quantidade de chamadas e quantas terminaram com exceção.
+ * - media, p50, p90, p99, p999, maximo: latências da chamada, em microssegundos.
+ */
+package br.com.pazzini.metricas;
+
+import java.io.Serializable;
+
+public class ResumoMetrica implements Serializable {
+
+    private static final long serialVersionUID = -6214975046221817523L;
+
+    private final String nome;
+
+    private final long chamadas;
+
+    private final long erros;
+
+    private final double media;
+
+    private final double p50;
+
+    private final double p90;
+
+    private final double p99;
+
+    private final double p999;
+
+    private final double maximo;
+
+    public ResumoMetrica(String nome, long chamadas, long erros, double media, double p50, double p90, double p99,
+            double p999, double maximo) {
+        this.nome = nome;
+        this.chamadas = chamadas;
+        this.erros = erros;
+        this.media = media;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.maximo = maximo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public long getChamadas() {
+        return chamadas;
+    }
+
+    public long getErros() {
+        return erros;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+}
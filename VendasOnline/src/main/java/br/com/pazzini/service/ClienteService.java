@@ -9,7 +9,7 @@
  * 
  * Métodos:
  * - buscarPorCPF(Long cpf): Método que busca um cliente pelo número do CPF.
- * - filtrarClientes(String query): Método que realiza a filtragem de clientes com base em uma consulta.
+ * - filtrarClientes(String query): Método que busca os clientes do autocomplete pelo início do nome ou do CPF.
  * 
  * Anotações:
  * - @Stateless: Indica que a classe é um bean sem estado (stateless) do EJB, ou seja, não mantém estado entre chamadas do cliente.
@@ -22,8 +22,10 @@ import java.util.List;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
 
+import br.com.pazzini.dao.ClienteDAO;
 import br.com.pazzini.dao.IClienteDAO;
 import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.dto.ClienteResumo;
 import br.com.pazzini.exceptions.DAOException;
 import br.com.pazzini.exceptions.MaisDeUmRegistroException;
 import br.com.pazzini.exceptions.TableException;
@@ -54,10 +56,10 @@ public class ClienteService extends GenericService<Cliente, Long> implements ICl
 		return null;
 	}
 
-	// Método que realiza a filtragem de clientes com base em uma consulta.
+	// Método que busca os clientes do autocomplete pelo início do nome ou do CPF.
 	@Override
-	public List<Cliente> filtrarClientes(String query) {
-		return clienteDAO.filtrarClientes(query);
+	public List<ClienteResumo> filtrarClientes(String query) {
+		return clienteDAO.buscarResumos(query, ClienteDAO.LIMITE_SUGESTOES);
 	}
 
 }
@@ -0,0 +1,72 @@
+/**
+ * A classe CodigosVendaRecentes guarda, em memória, os códigos das últimas vendas cadastradas com a impressão do
+ * conteúdo de cada uma (cliente, produtos e quantidades). É o filtro consultado pelo VendaService antes de tocar o
+ * banco quando uma venda é enviada de novo (duplo clique, reenvio após timeout):
+ * - código presente com a mesma impressão: é a mesma venda, que é consultada e devolvida sem gravar nada;
+ * - código presente com outra impressão: é outra venda com o código repetido, recusada sem acessar o banco;
+ * - código ausente: o filtro não sabe nada (outro servidor, reinício ou código antigo) e o banco decide.
+ * 
+ * Os códigos só entram no filtro depois do commit da venda, de modo que um código presente sempre existe no banco.
+ * O filtro guarda no máximo CAPACIDADE códigos; ao passar do limite, os mais antigos são descartados.
+ * 
+ * Métodos:
+ * - getImpressao(String codigo): Retorna a impressão do conteúdo da venda com o código, ou null se o código não
+ *   está no filtro.
+ * - registrar(String codigo, long impressao): Guarda o código de uma venda cadastrada.
+ * - impressao(Venda venda): Calcula a impressão do conteúdo de uma venda.
+ */
+package br.com.pazzini.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.enterprise.context.ApplicationScoped;
+
+import br.com.pazzini.domain.ProdutoQuantidade;
+import br.com.pazzini.domain.Venda;
+
+@ApplicationScoped
+public class CodigosVendaRecentes {
+
+    public static final int CAPACIDADE = 10_000;
+
+    private final Map<String, Long> impressoes = new LinkedHashMap<String, Long>(CAPACIDADE * 4 / 3 + 1) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> maisAntigo) {
+            return size() > CAPACIDADE;
+        }
+    };
+
+    public synchronized Long getImpressao(String codigo) {
+        return impressoes.get(codigo);
+    }
+
+    public synchronized void registrar(String codigo, long impressao) {
+        impressoes.put(codigo, impressao);
+    }
+
+    /**
+     * Calcula a impressão do conteúdo da venda: o cliente e a quantidade de cada produto, sem depender da ordem
+     * das linhas. Vendas com o mesmo conteúdo têm a mesma impressão; vendas com impressões diferentes certamente têm
+     * conteúdos diferentes.
+     *
+     * @param venda Venda com o cliente e as linhas preenchidos.
+     * @return Impressão do conteúdo.
+     */
+    public static long impressao(Venda venda) {
+        Map<Long, Integer> quantidades = new TreeMap<>();
+        for (ProdutoQuantidade prod : venda.getProdutos()) {
+            quantidades.merge(prod.getProduto().getId(), prod.getQuantidade(), Integer::sum);
+        }
+        long impressao = venda.getCliente().getId();
+        for (Map.Entry<Long, Integer> item : quantidades.entrySet()) {
+            impressao = impressao * 31 + item.getKey();
+            impressao = impressao * 31 + item.getValue();
+        }
+        return impressao;
+    }
+}
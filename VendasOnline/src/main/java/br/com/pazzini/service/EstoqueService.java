@@ -0,0 +1,49 @@
+/**
+ * A classe EstoqueService implementa a consulta e o ajuste do estoque dos produtos sobre o IEstoqueDAO.
+ * Anotada como Stateless para indicar que é uma EJB (Enterprise JavaBeans) sem estado.
+ * 
+ * Construtor:
+ * - EstoqueService(IEstoqueDAO dao): Construtor que recebe uma instância de IEstoqueDAO via injeção de dependência.
+ * 
+ * Métodos:
+ * - consultar(Long idProduto) / definir(Long idProduto, long disponivel) / repor(Long idProduto, long quantidade):
+ *   Implementações do contrato da interface IEstoqueService.
+ */
+package br.com.pazzini.service;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+
+import br.com.pazzini.dao.IEstoqueDAO;
+import br.com.pazzini.domain.Estoque;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+@Stateless
+public class EstoqueService implements IEstoqueService {
+
+    private IEstoqueDAO dao;
+
+    @Inject
+    public EstoqueService(IEstoqueDAO dao) {
+        this.dao = dao;
+    }
+
+    @Override
+    public Estoque consultar(Long idProduto) throws DAOException {
+        return dao.consultar(idProduto);
+    }
+
+    @Override
+    public Estoque definir(Long idProduto, long disponivel) throws DAOException {
+        return dao.definir(idProduto, disponivel);
+    }
+
+    @Override
+    public void repor(Long idProduto, long quantidade) throws DAOException {
+        if (!dao.repor(idProduto, quantidade)) {
+            throw new DAOException("PRODUTO SEM CONTROLE DE ESTOQUE: " + idProduto, null);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * A classe EventoVendaService implementa a publicação dos eventos de venda sobre o IEventoVendaDAO.
+ * Anotada como Stateless para indicar que é uma EJB (Enterprise JavaBeans) sem estado.
+ * 
+ * Cada lote é lido, entregue e apagado na mesma transação. Os eventos lidos ficam bloqueados até o commit, de modo
+ * que uma segunda publicação (outro servidor, por exemplo) espera a primeira em vez de entregar os mesmos eventos
+ * em outra ordem. O lote é entregue antes de ser apagado: uma falha depois da entrega desfaz a remoção e o lote é
+ * entregue de novo, nunca perdido.
+ * 
+ * Construtor:
+ * - EventoVendaService(IEventoVendaDAO dao): Construtor que recebe uma instância de IEventoVendaDAO via injeção de
+ *   dependência.
+ * 
+ * Métodos:
+ * - publicarLote(IDestinoEventos destino, int tamanhoLote): Implementação do contrato da interface IEventoVendaService.
+ */
+package br.com.pazzini.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+
+import br.com.pazzini.dao.IEventoVendaDAO;
+import br.com.pazzini.domain.EventoVenda;
+import br.com.pazzini.eventos.IDestinoEventos;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+@Stateless
+public class EventoVendaService implements IEventoVendaService {
+
+    private IEventoVendaDAO dao;
+
+    @Inject
+    public EventoVendaService(IEventoVendaDAO dao) {
+        this.dao = dao;
+    }
+
+    @Override
+    public int publicarLote(IDestinoEventos destino, int tamanhoLote) throws DAOException {
+        List<EventoVenda> eventos = dao.buscarPendentes(tamanhoLote);
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+        try {
+            destino.enviar(eventos);
+        } catch (IOException e) {
+            throw new DAOException("ERRO ENTREGANDO EVENTOS DE VENDA AO DESTINO ", e);
+        }
+        dao.remover(eventos);
+        return eventos.size();
+    }
+}
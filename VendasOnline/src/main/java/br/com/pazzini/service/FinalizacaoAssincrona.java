@@ -0,0 +1,238 @@
+/**
+ * A classe FinalizacaoAssincrona finaliza vendas fora da requisição que pediu a finalização.
+ * 
+ * Os pedidos entram em uma fila limitada (capacidadeFila) e são finalizados por até "trabalhadores" tarefas do
+ * ManagedExecutorService padrão do WildFly (java:jboss/ee/concurrency/executor/default). Cada tarefa retira da fila
+ * até tamanhoLote pedidos de uma vez e os finaliza com uma única chamada a IVendaService.finalizarLote, ou seja, em
+ * uma transação por lote (repetida em caso de conflito) em vez de uma por venda. Quanto mais pedidos chegam, maiores
+ * ficam os lotes. As tarefas só existem enquanto há pedidos: a tarefa que encontra a fila vazia termina e libera a
+ * thread do executor, que é compartilhado com o resto do servidor.
+ * 
+ * Quando a fila está cheia o pedido é recusado na hora com FilaCheiaException (contrapressão), sem bloquear a
+ * requisição e sem acumular pedidos sem limite na memória.
+ * 
+ * Cada pedido devolve um PedidoFinalizacao, que pode ser consultado pelo id enquanto estiver entre os últimos
+ * CAPACIDADE_PEDIDOS pedidos. A configuração vem dos context-params do web.xml, lidos pelo
+ * FinalizacaoAssincronaListener na subida da aplicação; com zero trabalhadores a finalização assíncrona fica
+ * desligada e a tela finaliza as vendas na própria requisição.
+ * 
+ * Métodos:
+ * - configurar(int trabalhadores, int capacidadeFila, int tamanhoLote): Define o tamanho do pool, da fila e do lote;
+ *   recusado depois do primeiro pedido.
+ * - isAtiva(): Indica se a finalização assíncrona está ligada.
+ * - enfileirar(Long idVenda): Enfileira a finalização de uma venda.
+ * - consultarSituacao(String idPedido): Consulta a situação de um pedido pelo id.
+ * - encerrar(): Recusa novos pedidos e termina com erro os pedidos ainda na fila.
+ */
+package br.com.pazzini.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.FilaCheiaException;
+
+@ApplicationScoped
+public class FinalizacaoAssincrona {
+
+    private static final Logger LOGGER = Logger.getLogger(FinalizacaoAssincrona.class.getName());
+
+    public static final int TRABALHADORES_PADRAO = 2;
+
+    public static final int CAPACIDADE_FILA_PADRAO = 1000;
+
+    public static final int TAMANHO_LOTE_PADRAO = 100;
+
+    public static final int CAPACIDADE_PEDIDOS = 10_000;
+
+    @Resource(lookup = "java:jboss/ee/concurrency/executor/default")
+    private ManagedExecutorService executor;
+
+    @Inject
+    private IVendaService vendaService;
+
+    private volatile int trabalhadores = TRABALHADORES_PADRAO;
+
+    private volatile int tamanhoLote = TAMANHO_LOTE_PADRAO;
+
+    private volatile int capacidadeFila = CAPACIDADE_FILA_PADRAO;
+
+    private volatile BlockingQueue<PedidoFinalizacao> fila = new ArrayBlockingQueue<>(CAPACIDADE_FILA_PADRAO);
+
+    private volatile boolean encerrada;
+
+    // Depois do primeiro pedido a fila não pode mais ser trocada, ou os pedidos da fila antiga ficariam perdidos.
+    private volatile boolean iniciada;
+
+    // Tarefas em execução no executor; nunca passa de trabalhadores.
+    private final AtomicInteger ativos = new AtomicInteger();
+
+    private final Map<String, PedidoFinalizacao> pedidos = new LinkedHashMap<String, PedidoFinalizacao>() {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PedidoFinalizacao> maisAntigo) {
+            return size() > CAPACIDADE_PEDIDOS;
+        }
+    };
+
+    /**
+     * Define o tamanho do pool, da fila e do lote. Deve ser chamado na subida da aplicação, antes do primeiro pedido.
+     *
+     * @param trabalhadores Quantidade máxima de tarefas finalizando lotes ao mesmo tempo; 0 desliga a finalização
+     *        assíncrona.
+     * @param capacidadeFila Quantidade máxima de pedidos aguardando na fila.
+     * @param tamanhoLote Quantidade máxima de vendas finalizadas em uma transação.
+     * @throws IllegalStateException Se algum pedido já foi enfileirado.
+     */
+    public synchronized void configurar(int trabalhadores, int capacidadeFila, int tamanhoLote) {
+        if (iniciada) {
+            throw new IllegalStateException("FINALIZAÇÃO ASSÍNCRONA JÁ INICIADA; CONFIGURAÇÃO RECUSADA");
+        }
+        if (trabalhadores < 0 || capacidadeFila < 1 || tamanhoLote < 1) {
+            throw new IllegalArgumentException("CONFIGURAÇÃO DA FINALIZAÇÃO ASSÍNCRONA INVÁLIDA: trabalhadores="
+                    + trabalhadores + " capacidadeFila=" + capacidadeFila + " tamanhoLote=" + tamanhoLote);
+        }
+        this.trabalhadores = trabalhadores;
+        this.tamanhoLote = tamanhoLote;
+        this.capacidadeFila = capacidadeFila;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+    }
+
+    public boolean isAtiva() {
+        return trabalhadores > 0 && !encerrada;
+    }
+
+    /**
+     * Enfileira a finalização de uma venda e devolve o pedido, sem esperar a finalização.
+     *
+     * @param idVenda Identificador da venda.
+     * @return Pedido para acompanhar a finalização.
+     * @throws FilaCheiaException Se a fila está cheia; o pedido não foi aceito.
+     */
+    public PedidoFinalizacao enfileirar(Long idVenda) throws FilaCheiaException {
+        if (!isAtiva()) {
+            throw new IllegalStateException("FINALIZAÇÃO ASSÍNCRONA DESLIGADA");
+        }
+        if (!iniciada) {
+            iniciar();
+        }
+        PedidoFinalizacao pedido = new PedidoFinalizacao(idVenda);
+        synchronized (pedidos) {
+            pedidos.put(pedido.getId(), pedido);
+        }
+        if (!fila.offer(pedido)) {
+            synchronized (pedidos) {
+                pedidos.remove(pedido.getId());
+            }
+            throw new FilaCheiaException(capacidadeFila);
+        }
+        iniciarTrabalhador();
+        return pedido;
+    }
+
+    /**
+     * Consulta a situação de um pedido.
+     *
+     * @param idPedido Identificador do pedido.
+     * @return Situação do pedido, ou null se o pedido não existe ou já foi descartado.
+     */
+    public PedidoFinalizacao.Situacao consultarSituacao(String idPedido) {
+        PedidoFinalizacao pedido;
+        synchronized (pedidos) {
+            pedido = pedidos.get(idPedido);
+        }
+        return pedido == null ? null : pedido.getSituacao();
+    }
+
+    /**
+     * Recusa novos pedidos e termina com erro os pedidos que ainda estão na fila. Os lotes em andamento terminam
+     * normalmente, se o executor permitir.
+     */
+    public void encerrar() {
+        encerrada = true;
+        List<PedidoFinalizacao> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        IllegalStateException erro = new IllegalStateException("APLICAÇÃO ENCERRADA ANTES DA FINALIZAÇÃO");
+        restantes.forEach(pedido -> pedido.falhar(erro));
+    }
+
+    // Marca a primeira chamada de enfileirar, sincronizada com configurar para que nenhum pedido entre em uma fila
+    // que está sendo trocada.
+    private synchronized void iniciar() {
+        iniciada = true;
+    }
+
+    // Inicia uma tarefa se ainda não há "trabalhadores" tarefas em execução.
+    private void iniciarTrabalhador() {
+        if (!reservarTrabalhador()) {
+            return;
+        }
+        try {
+            executor.submit(this::trabalhar);
+        } catch (RejectedExecutionException e) {
+            ativos.decrementAndGet();
+            LOGGER.log(Level.WARNING,
+                    "EXECUTOR RECUSOU A TAREFA DE FINALIZAÇÃO; A FILA SERÁ PROCESSADA NO PRÓXIMO PEDIDO", e);
+        }
+    }
+
+    private boolean reservarTrabalhador() {
+        for (;;) {
+            int atual = ativos.get();
+            if (atual >= trabalhadores) {
+                return false;
+            }
+            if (ativos.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Laço de cada tarefa: finaliza lotes até a fila esvaziar. Depois de liberar a vaga, a fila é conferida de novo,
+    // porque um pedido pode ter chegado quando todas as vagas ainda estavam ocupadas.
+    private void trabalhar() {
+        List<PedidoFinalizacao> lote = new ArrayList<>(tamanhoLote);
+        for (;;) {
+            fila.drainTo(lote, tamanhoLote);
+            if (lote.isEmpty()) {
+                ativos.decrementAndGet();
+                if (fila.isEmpty() || encerrada || !reservarTrabalhador()) {
+                    return;
+                }
+                continue;
+            }
+            finalizar(lote);
+            lote.clear();
+        }
+    }
+
+    private void finalizar(List<PedidoFinalizacao> lote) {
+        Set<Long> ids = new LinkedHashSet<>();
+        lote.forEach(pedido -> ids.add(pedido.getIdVenda()));
+        try {
+            Set<Long> finalizadas = new HashSet<>(vendaService.finalizarLote(ids));
+            lote.forEach(pedido -> pedido.concluir(finalizadas.contains(pedido.getIdVenda())));
+        } catch (DAOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "ERRO FINALIZANDO LOTE DE " + ids.size() + " VENDAS", e);
+            lote.forEach(pedido -> pedido.falhar(e));
+        }
+    }
+}
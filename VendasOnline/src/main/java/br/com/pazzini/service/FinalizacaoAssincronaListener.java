@@ -0,0 +1,37 @@
+/**
+ * O FinalizacaoAssincronaListener configura a FinalizacaoAssincrona quando a aplicação sobe, a partir dos
+ * context-params do web.xml "venda.finalizacao.trabalhadores", "venda.finalizacao.capacidadeFila" e
+ * "venda.finalizacao.tamanhoLote", e a encerra quando a aplicação é desinstalada. Parâmetros ausentes usam os
+ * valores padrão da FinalizacaoAssincrona.
+ */
+package br.com.pazzini.service;
+
+import javax.inject.Inject;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+public class FinalizacaoAssincronaListener implements ServletContextListener {
+
+    @Inject
+    private FinalizacaoAssincrona finalizacao;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        ServletContext contexto = sce.getServletContext();
+        finalizacao.configurar(
+                inteiro(contexto, "venda.finalizacao.trabalhadores", FinalizacaoAssincrona.TRABALHADORES_PADRAO),
+                inteiro(contexto, "venda.finalizacao.capacidadeFila", FinalizacaoAssincrona.CAPACIDADE_FILA_PADRAO),
+                inteiro(contexto, "venda.finalizacao.tamanhoLote", FinalizacaoAssincrona.TAMANHO_LOTE_PADRAO));
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce) {
+        finalizacao.encerrar();
+    }
+
+    private static int inteiro(ServletContext contexto, String nome, int padrao) {
+        String valor = contexto.getInitParameter(nome);
+        return valor == null ? padrao : Integer.parseInt(valor.trim());
+    }
+}
@@ -4,13 +4,14 @@
  * 
  * Métodos:
  * - buscarPorCPF(Long cpf): Método que busca um cliente pelo número do CPF.
- * - filtrarClientes(String query): Método que realiza a filtragem de clientes com base em uma consulta.
+ * - filtrarClientes(String query): Método que busca os clientes do autocomplete pelo início do nome ou do CPF.
  */
 package br.com.pazzini.service;
 
 import java.util.List;
 
 import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.dto.ClienteResumo;
 import br.com.pazzini.exceptions.DAOException;
 import br.com.pazzini.services.generic.IGenericService;
 
@@ -26,11 +27,12 @@ public interface IClienteService extends IGenericService<Cliente, Long> {
     Cliente buscarPorCPF(Long cpf) throws DAOException;
 
     /**
-     * Método que realiza a filtragem de clientes com base em uma consulta.
+     * Método que busca os clientes do autocomplete pelo início do nome ou, para termos numéricos, do CPF.
+     * Retorna no máximo ClienteDAO.LIMITE_SUGESTOES projeções, sem carregar os clientes completos.
      * 
-     * @param query Consulta a ser utilizada para filtrar os clientes.
-     * @return Lista de clientes que correspondem à consulta.
+     * @param query Texto digitado pelo usuário.
+     * @return Lista de projeções dos clientes encontrados.
      */
-    List<Cliente> filtrarClientes(String query);
+    List<ClienteResumo> filtrarClientes(String query);
 
 }
@@ -0,0 +1,45 @@
+/**
+ * A interface IEstoqueService define a consulta e o ajuste do estoque dos produtos. As reservas, liberações e
+ * confirmações do estoque são feitas pelo IVendaService, junto com as vendas.
+ * 
+ * Métodos:
+ * - consultar(Long idProduto): Consulta o estoque de um produto.
+ * - definir(Long idProduto, long disponivel): Define o disponível de um produto, passando a controlar o estoque dele.
+ * - repor(Long idProduto, long quantidade): Soma uma entrada de mercadoria ao disponível de um produto.
+ */
+package br.com.pazzini.service;
+
+import br.com.pazzini.domain.Estoque;
+import br.com.pazzini.exceptions.DAOException;
+
+public interface IEstoqueService {
+
+    /**
+     * Consulta o estoque de um produto.
+     * 
+     * @param idProduto Identificador do produto.
+     * @return Estoque do produto, ou null se o produto não tem controle de estoque.
+     * @throws DAOException
+     */
+    Estoque consultar(Long idProduto) throws DAOException;
+
+    /**
+     * Define o disponível de um produto (ex: inventário). Se o produto ainda não tinha controle de estoque, passa a
+     * ter, com o reservado calculado a partir das vendas INICIADAS dele.
+     * 
+     * @param idProduto Identificador do produto.
+     * @param disponivel Quantidade disponível.
+     * @return Estoque do produto.
+     * @throws DAOException
+     */
+    Estoque definir(Long idProduto, long disponivel) throws DAOException;
+
+    /**
+     * Soma uma entrada de mercadoria ao disponível de um produto.
+     * 
+     * @param idProduto Identificador do produto.
+     * @param quantidade Quantidade recebida.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados ou se o produto não tem controle de estoque.
+     */
+    void repor(Long idProduto, long quantidade) throws DAOException;
+}
@@ -0,0 +1,25 @@
+/**
+ * A interface IEventoVendaService define a publicação dos eventos de venda gravados na caixa de saída
+ * (TB_EVENTO_VENDA). Os eventos são gravados pelo IVendaService, junto com as vendas.
+ * 
+ * Métodos:
+ * - publicarLote(IDestinoEventos destino, int tamanhoLote): Entrega os eventos mais antigos ao destino e os apaga.
+ */
+package br.com.pazzini.service;
+
+import br.com.pazzini.eventos.IDestinoEventos;
+import br.com.pazzini.exceptions.DAOException;
+
+public interface IEventoVendaService {
+
+    /**
+     * Entrega ao destino, em uma transação, até tamanhoLote eventos pendentes em ordem de id, e os apaga da caixa de
+     * saída. Se o destino falhar, nenhum evento é apagado.
+     * 
+     * @param destino Destino dos eventos.
+     * @param tamanhoLote Quantidade máxima de eventos entregues.
+     * @return Quantidade de eventos entregues; menor que tamanhoLote quando a caixa de saída ficou vazia.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados ou na entrega ao destino.
+     */
+    int publicarLote(IDestinoEventos destino, int tamanhoLote) throws DAOException;
+}
@@ -4,6 +4,8 @@
  * 
  * Métodos:
  * - filtrarProdutos(String query): Método que realiza a filtragem de produtos com base em uma consulta.
+ * - buscarPorNome(String termo, int limite): Método que busca produtos por nome, sem diferenciar maiúsculas e acentos.
+ * - consultarPorCodigo(String codigo): Método que consulta um produto pelo código.
  */
 package br.com.pazzini.service;
 
@@ -22,4 +24,22 @@ public interface IProdutoService extends IGenericService<Produto, String> {
      */
     List<Produto> filtrarProdutos(String query);
 
+    /**
+     * Método que busca produtos por nome, sem diferenciar maiúsculas e acentos, com os nomes que começam pelo
+     * termo antes dos que apenas o contêm.
+     * 
+     * @param termo Texto a ser buscado no nome.
+     * @param limite Quantidade máxima de produtos.
+     * @return Lista de produtos encontrados.
+     */
+    List<Produto> buscarPorNome(String termo, int limite);
+
+    /**
+     * Método que consulta um produto pelo código.
+     * 
+     * @param codigo Código do produto.
+     * @return Produto encontrado, ou null se não existir.
+     */
+    Produto consultarPorCodigo(String codigo);
+
 }
@@ -0,0 +1,82 @@
+/**
+ * A interface IRelatorioVendaService define os relatórios de vendas, calculados no banco de dados.
+ * 
+ * A receita considera apenas as vendas CONCLUIDAS. O período é o intervalo [inicio, fim) da data da venda.
+ * 
+ * Métodos:
+ * - receitaPorPeriodo(Agrupamento agrupamento, Instant inicio, Instant fim): Receita por dia ou por mês.
+ * - receitaPorCliente(Instant inicio, Instant fim, int limite): Clientes com maior receita.
+ * - receitaPorProduto(Instant inicio, Instant fim, int limite): Produtos com maior receita.
+ * - receitaPorProduto(LocalDate inicio, LocalDate fim, int limite): Produtos com maior receita em dias inteiros, lidos
+ *   do resumo diário de vendas; indicada para períodos longos, como o acumulado do ano.
+ * - vendasPorStatus(Instant inicio, Instant fim): Quantidade e valor das vendas de cada status.
+ */
+package br.com.pazzini.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import br.com.pazzini.dto.ReceitaCliente;
+import br.com.pazzini.dto.ReceitaPeriodo;
+import br.com.pazzini.dto.ReceitaProduto;
+import br.com.pazzini.dto.ReceitaStatus;
+import br.com.pazzini.exceptions.DAOException;
+
+public interface IRelatorioVendaService {
+
+    /**
+     * Receita das vendas concluídas por dia ou por mês.
+     * 
+     * @param agrupamento Granularidade do período.
+     * @param inicio Início do período (inclusive).
+     * @param fim Fim do período (exclusive).
+     * @return Uma linha por período com vendas, em ordem cronológica.
+     * @throws DAOException
+     */
+    List<ReceitaPeriodo> receitaPorPeriodo(ReceitaPeriodo.Agrupamento agrupamento, Instant inicio, Instant fim)
+            throws DAOException;
+
+    /**
+     * Clientes com maior receita em vendas concluídas no período.
+     * 
+     * @param inicio Início do período (inclusive).
+     * @param fim Fim do período (exclusive).
+     * @param limite Quantidade máxima de clientes.
+     * @return Clientes em ordem decrescente de receita.
+     * @throws DAOException
+     */
+    List<ReceitaCliente> receitaPorCliente(Instant inicio, Instant fim, int limite) throws DAOException;
+
+    /**
+     * Produtos com maior receita em vendas concluídas no período.
+     * 
+     * @param inicio Início do período (inclusive).
+     * @param fim Fim do período (exclusive).
+     * @param limite Quantidade máxima de produtos.
+     * @return Produtos em ordem decrescente de receita.
+     * @throws DAOException
+     */
+    List<ReceitaProduto> receitaPorProduto(Instant inicio, Instant fim, int limite) throws DAOException;
+
+    /**
+     * Produtos com maior receita em vendas concluídas nos dias do período, a partir do resumo diário de vendas.
+     * 
+     * @param inicio Primeiro dia do período (inclusive).
+     * @param fim Último dia do período (inclusive).
+     * @param limite Quantidade máxima de produtos.
+     * @return Produtos em ordem decrescente de receita.
+     * @throws DAOException
+     */
+    List<ReceitaProduto> receitaPorProduto(LocalDate inicio, LocalDate fim, int limite) throws DAOException;
+
+    /**
+     * Quantidade e valor das vendas de cada status no período.
+     * 
+     * @param inicio Início do período (inclusive).
+     * @param fim Fim do período (exclusive).
+     * @return Uma linha por status com vendas no período.
+     * @throws DAOException
+     */
+    List<ReceitaStatus> vendasPorStatus(Instant inicio, Instant fim) throws DAOException;
+}
@@ -0,0 +1,37 @@
+/**
+ * A interface IResumoVendaDiaService define a reconstrução do resumo diário de vendas a partir das vendas, usada para
+ * preencher o resumo na primeira publicação (backfill) e para corrigi-lo depois de alterações feitas direto no banco.
+ * 
+ * Métodos:
+ * - reconstruirDia(LocalDate dia): Reconstrói o resumo de um dia, em uma transação própria.
+ * - reconstruir(LocalDate inicio, LocalDate fim): Reconstrói o resumo de cada dia do período, um dia por transação.
+ */
+package br.com.pazzini.service;
+
+import java.time.LocalDate;
+
+import br.com.pazzini.exceptions.DAOException;
+
+public interface IResumoVendaDiaService {
+
+    /**
+     * Reconstrói o resumo de um dia a partir das vendas do dia, em uma transação própria.
+     * 
+     * @param dia Dia reconstruído.
+     * @return Quantidade de linhas do resumo gravadas.
+     * @throws DAOException
+     */
+    int reconstruirDia(LocalDate dia) throws DAOException;
+
+    /**
+     * Reconstrói o resumo de cada dia do período. Cada dia é reconstruído e confirmado em uma transação própria,
+     * de modo que as vendas ficam bloqueadas para o resumo apenas durante a reconstrução de um dia; se um dia
+     * falhar, os dias anteriores continuam reconstruídos.
+     * 
+     * @param inicio Primeiro dia do período (inclusive).
+     * @param fim Último dia do período (inclusive).
+     * @return Quantidade de linhas do resumo gravadas.
+     * @throws DAOException
+     */
+    int reconstruir(LocalDate inicio, LocalDate fim) throws DAOException;
+}
@@ -1,39 +1,81 @@
 /**
  * A interface IVendaService define os contratos de serviço específicos para a entidade Venda.
- * Estende a interface IGenericDAO, que fornece operações genéricas de CRUD (Create, Read, Update, Delete).
+ * Estende a interface IGenericService, que fornece operações genéricas de CRUD (Create, Read, Update, Delete).
  * 
  * Métodos:
- * - finalizarVenda(Venda venda): Método para finalizar uma venda.
- * - cancelarVenda(Venda venda): Método para cancelar uma venda.
+ * - finalizarVenda(Venda venda): Método para finalizar uma venda, se ela ainda estiver INICIADA.
+ * - cancelarVenda(Venda venda): Método para cancelar uma venda, se ela ainda estiver INICIADA.
+ * - finalizarVendas(Collection<Long> ids) / cancelarVendas(Collection<Long> ids): Métodos para finalizar ou cancelar várias vendas de uma vez.
+ * - finalizarLote(Collection<Long> ids): Método para finalizar várias vendas de uma vez, devolvendo os ids finalizados.
  * - consultarComCollection(Long id): Método que busca uma venda pelo ID, evitando a exceção LazyInitializationException
  *   carregando todos os dados de objetos que possuem coleções de forma antecipada.
+ * - exportarCsv(Writer writer): Método que exporta todas as vendas, com cliente e produtos, em formato CSV.
+ * 
+ * As transições de status chamadas fora de uma transação são repetidas automaticamente, um número limitado de vezes,
+ * quando falham por conflito com outra transação. A alteração (alterar) nunca é repetida: se a venda foi alterada
+ * por outra transação depois de lida, é lançada AlteracaoConcorrenteException.
  */
 package br.com.pazzini.service;
 
-import br.com.pazzini.dao.generic.IGenericDAO;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+
 import br.com.pazzini.domain.Venda;
 import br.com.pazzini.exceptions.DAOException;
 import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
+import br.com.pazzini.services.generic.IGenericService;
 
-public interface IVendaService extends IGenericDAO<Venda, Long> {
+public interface IVendaService extends IGenericService<Venda, Long> {
 
     /**
-     * Método para finalizar uma venda.
+     * Método para finalizar uma venda. A transição só é aplicada se a venda estiver INICIADA.
      * 
      * @param venda Venda a ser finalizada.
+     * @return true se a venda foi finalizada, false se ela já estava finalizada ou cancelada.
      * @throws TipoChaveNaoEncontradaException
      * @throws DAOException
      */
-    void finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
+    boolean finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
 
     /**
-     * Método para cancelar uma venda.
+     * Método para cancelar uma venda. A transição só é aplicada se a venda estiver INICIADA.
      * 
      * @param venda Venda a ser cancelada.
+     * @return true se a venda foi cancelada, false se ela já estava finalizada ou cancelada.
      * @throws TipoChaveNaoEncontradaException
      * @throws DAOException
      */
-    void cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
+    boolean cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException;
+
+    /**
+     * Método para finalizar várias vendas de uma vez, como no fechamento do dia.
+     * 
+     * @param ids Identificadores das vendas.
+     * @return Quantidade de vendas finalizadas.
+     * @throws DAOException
+     */
+    int finalizarVendas(Collection<Long> ids) throws DAOException;
+
+    /**
+     * Método para finalizar várias vendas de uma vez, informando quais foram finalizadas. Usado pela finalização
+     * assíncrona, que responde a cada pedido do lote.
+     * 
+     * @param ids Identificadores das vendas.
+     * @return Identificadores das vendas finalizadas; as demais já estavam finalizadas ou canceladas.
+     * @throws DAOException
+     */
+    List<Long> finalizarLote(Collection<Long> ids) throws DAOException;
+
+    /**
+     * Método para cancelar várias vendas de uma vez.
+     * 
+     * @param ids Identificadores das vendas.
+     * @return Quantidade de vendas canceladas.
+     * @throws DAOException
+     */
+    int cancelarVendas(Collection<Long> ids) throws DAOException;
 
     /**
      * Método que busca uma venda pelo ID, evitando a exceção LazyInitializationException
@@ -41,7 +83,18 @@ public interface IVendaService extends IGenericDAO<Venda, Long> {
      * 
      * @param id ID da venda a ser consultada.
      * @return Venda com os dados carregados.
+     * @throws DAOException
+     */
+    Venda consultarComCollection(Long id) throws DAOException;
+
+    /**
+     * Método que exporta todas as vendas em formato CSV, com uma linha por produto vendido.
+     * As vendas são lidas em lotes, de modo que a memória utilizada não depende do tamanho da tabela.
+     * 
+     * @param writer Destino do conteúdo CSV.
+     * @throws DAOException
+     * @throws IOException
      */
-    Venda consultarComCollection(Long id);
+    void exportarCsv(Writer writer) throws DAOException, IOException;
 
 }
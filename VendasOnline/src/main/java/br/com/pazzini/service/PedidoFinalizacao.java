@@ -0,0 +1,68 @@
+/**
+ * A classe PedidoFinalizacao é o comprovante de um pedido de finalização assíncrona de uma venda, devolvido por
+ * FinalizacaoAssincrona.enfileirar. Pode ser acompanhado de duas formas:
+ * - consultando a situação (getSituacao, ou FinalizacaoAssincrona.consultarSituacao pelo id do pedido), como faz a
+ *   tela de vendas a cada poucos segundos;
+ * - registrando uma ação no resultado (getResultado().thenAccept(...)), chamada assim que o lote do pedido termina.
+ * 
+ * Atributos:
+ * - id: Identificador do pedido.
+ * - idVenda: Identificador da venda a ser finalizada.
+ * - resultado: true se a venda foi finalizada, false se ela já estava finalizada ou cancelada; termina com erro se
+ *   o lote falhou.
+ */
+package br.com.pazzini.service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+public class PedidoFinalizacao {
+
+    /**
+     * Situação do pedido.
+     */
+    public enum Situacao {
+        PENDENTE, FINALIZADA, IGNORADA, ERRO
+    }
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final Long idVenda;
+
+    private final CompletableFuture<Boolean> resultado = new CompletableFuture<>();
+
+    public PedidoFinalizacao(Long idVenda) {
+        this.idVenda = idVenda;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getIdVenda() {
+        return idVenda;
+    }
+
+    public CompletionStage<Boolean> getResultado() {
+        return resultado.minimalCompletionStage();
+    }
+
+    public Situacao getSituacao() {
+        if (!resultado.isDone()) {
+            return Situacao.PENDENTE;
+        }
+        if (resultado.isCompletedExceptionally()) {
+            return Situacao.ERRO;
+        }
+        return resultado.join() ? Situacao.FINALIZADA : Situacao.IGNORADA;
+    }
+
+    void concluir(boolean finalizada) {
+        resultado.complete(finalizada);
+    }
+
+    void falhar(Throwable erro) {
+        resultado.completeExceptionally(erro);
+    }
+}
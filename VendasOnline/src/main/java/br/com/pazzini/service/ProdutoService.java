@@ -3,32 +3,59 @@
  * Estende a classe GenericService, que fornece implementações genéricas de serviços.
  * Anotada como Stateless para indicar que é uma EJB (Enterprise JavaBeans) sem estado.
  * 
+ * As buscas do autocomplete e as consultas por código são respondidas pelo CatalogoProdutos, carregado uma única
+ * vez, na primeira busca. Os cadastros, alterações e exclusões atualizam o catálogo produto a produto, depois do commit
+ * da transação; se a transação for desfeita, o catálogo continua com a versão anterior do produto.
+ * 
  * Construtor:
- * - ProdutoService(IProdutoDAO produtoDao): Construtor que recebe uma instância de IProdutoDAO via injeção de dependência.
+ * - ProdutoService(IProdutoDAO produtoDao, CatalogoProdutos catalogo): Construtor que recebe uma instância de IProdutoDAO
+ *   e o catálogo de produtos via injeção de dependência.
  * 
  * Métodos:
  * - filtrarProdutos(String query): Implementação do contrato da interface IProdutoService para filtrar produtos com base em uma consulta.
+ * - buscarPorNome(String termo, int limite): Implementação do contrato da interface IProdutoService para buscar produtos por nome.
+ * - consultarPorCodigo(String codigo): Implementação do contrato da interface IProdutoService para consultar um produto pelo código.
+ * - cadastrar / alterar / excluir / cadastrarEmLote / alterarEmLote: Gravam os produtos e atualizam o catálogo após o commit.
  */
 package br.com.pazzini.service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import javax.annotation.Resource;
 import javax.ejb.Stateless;
 import javax.inject.Inject;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
+import br.com.pazzini.cache.CatalogoProdutos;
 import br.com.pazzini.dao.IProdutoDAO;
+import br.com.pazzini.dao.ProdutoDAO;
 import br.com.pazzini.domain.Produto;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
 import br.com.pazzini.services.generic.GenericService;
 
 @Stateless
 public class ProdutoService extends GenericService<Produto, String> implements IProdutoService {
 
+    private static final Logger LOGGER = Logger.getLogger(ProdutoService.class.getName());
+
     private IProdutoDAO produtoDao;
 
+    private CatalogoProdutos catalogo;
+
+    @Resource
+    private TransactionSynchronizationRegistry transacoes;
+
     @Inject
-    public ProdutoService(IProdutoDAO produtoDao) {
+    public ProdutoService(IProdutoDAO produtoDao, CatalogoProdutos catalogo) {
         super(produtoDao);
         this.produtoDao = produtoDao;
+        this.catalogo = catalogo;
     }
 
     /**
@@ -39,6 +66,116 @@ public class ProdutoService extends GenericService<Produto, String> implements I
      */
     @Override
     public List<Produto> filtrarProdutos(String query) {
-        return produtoDao.filtrarProdutos(query);
+        return buscarPorNome(query, ProdutoDAO.LIMITE_SUGESTOES);
+    }
+
+    /**
+     * Implementação do contrato da interface IProdutoService para buscar produtos por nome.
+     * A busca é feita no catálogo em memória; o banco de dados só é consultado se o catálogo não puder ser carregado.
+     * 
+     * @param termo Texto a ser buscado no nome.
+     * @param limite Quantidade máxima de produtos.
+     * @return Lista de produtos encontrados.
+     */
+    @Override
+    public List<Produto> buscarPorNome(String termo, int limite) {
+        carregarCatalogo();
+        List<Produto> produtos = catalogo.buscarPorNome(termo, limite);
+        return produtos != null ? produtos : produtoDao.buscarPorNome(termo, limite);
+    }
+
+    /**
+     * Implementação do contrato da interface IProdutoService para consultar um produto pelo código.
+     * Produtos que não estão no catálogo são consultados no banco de dados e adicionados ao catálogo.
+     * 
+     * @param codigo Código do produto.
+     * @return Produto encontrado, ou null se não existir.
+     */
+    @Override
+    public Produto consultarPorCodigo(String codigo) {
+        Produto produto = catalogo.consultarPorCodigo(codigo);
+        if (produto == null) {
+            produto = produtoDao.consultarPorCodigo(codigo);
+            if (produto != null) {
+                aposCommit(produto, false);
+            }
+        }
+        return produto;
+    }
+
+    @Override
+    public Produto cadastrar(Produto entity) throws TipoChaveNaoEncontradaException, DAOException {
+        Produto produto = super.cadastrar(entity);
+        aposCommit(produto, false);
+        return produto;
+    }
+
+    @Override
+    public Produto alterar(Produto entity) throws TipoChaveNaoEncontradaException, DAOException {
+        Produto produto = super.alterar(entity);
+        aposCommit(produto, false);
+        return produto;
+    }
+
+    @Override
+    public void excluir(Produto entity) throws DAOException {
+        super.excluir(entity);
+        aposCommit(entity, true);
+    }
+
+    @Override
+    public List<Produto> cadastrarEmLote(Collection<Produto> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        List<Produto> produtos = super.cadastrarEmLote(entities);
+        produtos.forEach(produto -> aposCommit(produto, false));
+        return produtos;
+    }
+
+    @Override
+    public List<Produto> alterarEmLote(Collection<Produto> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        List<Produto> produtos = super.alterarEmLote(entities);
+        produtos.forEach(produto -> aposCommit(produto, false));
+        return produtos;
+    }
+
+    private void carregarCatalogo() {
+        try {
+            catalogo.carregarSeNecessario(produtoDao::buscarTodos);
+        } catch (DAOException e) {
+            LOGGER.log(Level.WARNING,
+                    "ERRO CARREGANDO O CATÁLOGO DE PRODUTOS; A BUSCA SERÁ FEITA NO BANCO DE DADOS", e);
+        }
+    }
+
+    /**
+     * Agenda a atualização do produto no catálogo para depois do commit da transação corrente.
+     * Fora de uma transação, a atualização é feita imediatamente.
+     * 
+     * @param produto Produto gravado.
+     * @param excluido true se o produto foi excluído.
+     */
+    private void aposCommit(Produto produto, boolean excluido) {
+        Runnable atualizacao = () -> {
+            if (excluido) {
+                catalogo.remover(produto);
+            } else {
+                catalogo.atualizar(produto);
+            }
+        };
+        if (transacoes.getTransactionKey() == null) {
+            atualizacao.run();
+            return;
+        }
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    atualizacao.run();
+                }
+            }
+        });
     }
 }
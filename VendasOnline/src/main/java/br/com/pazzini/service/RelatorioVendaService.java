@@ -0,0 +1,90 @@
+/**
+ * A classe RelatorioVendaService implementa os relatórios de vendas sobre as consultas agregadas do
+ * IRelatorioVendaDAO. Nenhuma venda é carregada: o banco agrupa e soma, e o serviço recebe apenas as linhas do
+ * relatório.
+ * 
+ * Construtor:
+ * - RelatorioVendaService(IRelatorioVendaDAO dao): Construtor que recebe uma instância de IRelatorioVendaDAO via injeção de dependência.
+ * 
+ * Métodos:
+ * - receitaPorPeriodo, receitaPorCliente, receitaPorProduto e vendasPorStatus: Implementações do contrato da
+ *   interface IRelatorioVendaService, validando o período e o limite antes de consultar. A receita por produto em
+ *   dias inteiros é lida do resumo diário de vendas.
+ */
+package br.com.pazzini.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+
+import br.com.pazzini.dao.IRelatorioVendaDAO;
+import br.com.pazzini.domain.Venda.Status;
+import br.com.pazzini.dto.ReceitaCliente;
+import br.com.pazzini.dto.ReceitaPeriodo;
+import br.com.pazzini.dto.ReceitaProduto;
+import br.com.pazzini.dto.ReceitaStatus;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+@Stateless
+public class RelatorioVendaService implements IRelatorioVendaService {
+
+    private IRelatorioVendaDAO dao;
+
+    @Inject
+    public RelatorioVendaService(IRelatorioVendaDAO dao) {
+        this.dao = dao;
+    }
+
+    @Override
+    public List<ReceitaPeriodo> receitaPorPeriodo(ReceitaPeriodo.Agrupamento agrupamento, Instant inicio, Instant fim)
+            throws DAOException {
+        validarPeriodo(inicio, fim);
+        return dao.receitaPorPeriodo(agrupamento, Status.CONCLUIDA, inicio, fim);
+    }
+
+    @Override
+    public List<ReceitaCliente> receitaPorCliente(Instant inicio, Instant fim, int limite) throws DAOException {
+        validarPeriodo(inicio, fim);
+        validarLimite(limite);
+        return dao.receitaPorCliente(Status.CONCLUIDA, inicio, fim, limite);
+    }
+
+    @Override
+    public List<ReceitaProduto> receitaPorProduto(Instant inicio, Instant fim, int limite) throws DAOException {
+        validarPeriodo(inicio, fim);
+        validarLimite(limite);
+        return dao.receitaPorProduto(Status.CONCLUIDA, inicio, fim, limite);
+    }
+
+    @Override
+    public List<ReceitaProduto> receitaPorProduto(LocalDate inicio, LocalDate fim, int limite) throws DAOException {
+        if (inicio == null || fim == null || fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("PERÍODO DO RELATÓRIO INVÁLIDO: " + inicio + " A " + fim);
+        }
+        validarLimite(limite);
+        return dao.receitaPorProduto(Status.CONCLUIDA, inicio, fim, limite);
+    }
+
+    @Override
+    public List<ReceitaStatus> vendasPorStatus(Instant inicio, Instant fim) throws DAOException {
+        validarPeriodo(inicio, fim);
+        return dao.receitaPorStatus(inicio, fim);
+    }
+
+    private void validarPeriodo(Instant inicio, Instant fim) {
+        if (inicio == null || fim == null || !inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("PERÍODO DO RELATÓRIO INVÁLIDO: " + inicio + " A " + fim);
+        }
+    }
+
+    private void validarLimite(int limite) {
+        if (limite <= 0) {
+            throw new IllegalArgumentException("LIMITE DO RELATÓRIO INVÁLIDO: " + limite);
+        }
+    }
+}
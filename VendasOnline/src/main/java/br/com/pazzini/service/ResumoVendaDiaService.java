@@ -0,0 +1,63 @@
+/**
+ * A classe ResumoVendaDiaService implementa a reconstrução do resumo diário de vendas sobre o IResumoVendaDiaDAO.
+ * Anotada como Stateless para indicar que é uma EJB (Enterprise JavaBeans) sem estado.
+ * 
+ * A reconstrução de um período não abre transação; cada dia é reconstruído pela própria EJB (getBusinessObject),
+ * para que reconstruirDia seja executado em uma transação nova.
+ * 
+ * Construtor:
+ * - ResumoVendaDiaService(IResumoVendaDiaDAO dao): Construtor que recebe uma instância de IResumoVendaDiaDAO via injeção de dependência.
+ * 
+ * Métodos:
+ * - reconstruirDia(LocalDate dia) / reconstruir(LocalDate inicio, LocalDate fim): Implementações do contrato da
+ *   interface IResumoVendaDiaService.
+ */
+package br.com.pazzini.service;
+
+import java.time.LocalDate;
+
+import javax.annotation.Resource;
+import javax.ejb.SessionContext;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+
+import br.com.pazzini.dao.IResumoVendaDiaDAO;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.metricas.Medido;
+
+@Medido
+@Stateless
+public class ResumoVendaDiaService implements IResumoVendaDiaService {
+
+    private IResumoVendaDiaDAO dao;
+
+    @Resource
+    private SessionContext contexto;
+
+    @Inject
+    public ResumoVendaDiaService(IResumoVendaDiaDAO dao) {
+        this.dao = dao;
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public int reconstruirDia(LocalDate dia) throws DAOException {
+        return dao.reconstruir(dia);
+    }
+
+    @Override
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public int reconstruir(LocalDate inicio, LocalDate fim) throws DAOException {
+        if (inicio == null || fim == null || fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("PERÍODO DA RECONSTRUÇÃO INVÁLIDO: " + inicio + " A " + fim);
+        }
+        IResumoVendaDiaService self = contexto.getBusinessObject(IResumoVendaDiaService.class);
+        int linhas = 0;
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            linhas += self.reconstruirDia(dia);
+        }
+        return linhas;
+    }
+}
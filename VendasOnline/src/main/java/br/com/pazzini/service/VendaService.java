@@ -3,62 +3,241 @@
  * Estende a classe GenericService, que fornece implementações genéricas de serviços.
  * Anotada como Stateless para indicar que é uma EJB (Enterprise JavaBeans) sem estado.
  * 
+ * Os cadastros, alterações e transições de status mantêm o resumo diário de vendas (IResumoVendaDiaDAO) na mesma
+ * transação: as vendas cadastradas são somadas ao resumo do status INICIADA, as vendas alteradas são subtraídas
+ * antes e somadas depois da alteração, e as vendas finalizadas ou canceladas passam do resumo INICIADA para o do
+ * novo status. Se a transação for desfeita, o resumo volta junto com as vendas.
+ * 
+ * Da mesma forma, as vendas mantêm o estoque dos produtos (IEstoqueDAO): as quantidades das vendas cadastradas são
+ * reservadas, as das vendas finalizadas saem do reservado e as das vendas canceladas voltam ao disponível. A
+ * reserva é o último passo do cadastro, para que as linhas do estoque fiquem bloqueadas só até o commit; se algum
+ * produto não tiver disponível suficiente, a EstoqueInsuficienteException desfaz a venda inteira. A alteração de
+ * uma venda INICIADA libera as quantidades gravadas e reserva as novas; o controle de versão da venda garante que
+ * o status usado nessa decisão é o do banco.
+ * 
+ * Os cadastros e as transições de status também gravam um evento por venda na caixa de saída (IEventoVendaDAO),
+ * na mesma transação: o evento existe se e somente se a alteração foi confirmada. A entrega dos eventos aos
+ * interessados é feita depois, em segundo plano, pelo PublicadorEventosVenda.
+ * 
+ * As transições de status chamadas fora de uma transação (ex: pelos controllers) são repetidas até
+ * MAXIMO_TENTATIVAS vezes quando falham por conflito com outra transação (deadlock, bloqueio não obtido ou versão
+ * desatualizada), cada tentativa em uma transação nova (TransacaoNova) e com uma espera curta e aleatória entre
+ * elas. Como a transição é um UPDATE condicional ao status INICIADA, repetir é seguro: a venda que outra transação
+ * já finalizou ou cancelou simplesmente não é alterada. Dentro de uma transação do chamador não há repetição, pois
+ * a transação é dele.
+ * 
+ * O cadastro de uma venda é idempotente pelo código: uma venda enviada de novo (duplo clique, reenvio após timeout)
+ * com o mesmo código e o mesmo conteúdo devolve a venda já cadastrada, e uma com o mesmo código e outro conteúdo é
+ * recusada com VendaDuplicadaException. O filtro CodigosVendaRecentes responde pelos códigos cadastrados
+ * recentemente sem acessar o banco para a recusa e sem gravar nada para a repetição. Códigos fora do filtro não
+ * geram consulta extra: a venda é gravada em uma transação própria e, se o banco recusar o código repetido, a venda
+ * existente é consultada depois do rollback. Dentro de uma transação do chamador a violação não pode ser
+ * contornada e é repassada.
+ * 
  * Construtor:
- * - VendaService(IVendaDAO dao): Construtor que recebe uma instância de IVendaDAO via injeção de dependência.
+ * - VendaService(IVendaDAO dao, IResumoVendaDiaDAO resumoDao, IEstoqueDAO estoqueDao, IEventoVendaDAO eventoDao):
+ *   Construtor que recebe uma instância de IVendaDAO, uma de IResumoVendaDiaDAO, uma de IEstoqueDAO e uma de
+ *   IEventoVendaDAO via injeção de dependência.
  * 
  * Métodos:
  * - finalizarVenda(Venda venda): Implementação do contrato da interface IVendaService para finalizar uma venda, alterando seu status para CONCLUIDA.
  * - cancelarVenda(Venda venda): Implementação do contrato da interface IVendaService para cancelar uma venda, alterando seu status para CANCELADA.
+ * - finalizarVendas(Collection<Long> ids) / cancelarVendas(Collection<Long> ids): Implementações das transições de status em massa.
+ * - finalizarLote(Collection<Long> ids): Implementação da finalização em massa que devolve os ids finalizados.
  * - consultarComCollection(Long id): Implementação do contrato da interface IVendaService para consultar uma venda incluindo a coleção de produtos.
  * - cadastrar(Venda entity): Implementação do método de cadastro específico para Venda, configurando o status como INICIADA antes de salvar.
+ *   Idempotente pelo código da venda.
+ * - cadastrarEmLote(Collection<Venda> entities): Implementação do cadastro em lote, configurando o status de cada venda como INICIADA.
+ * - alterar(Venda entity) / alterarEmLote(Collection<Venda> entities): Implementações da alteração, refazendo o resumo diário das vendas alteradas.
+ * - exportarCsv(Writer writer): Implementação do contrato da interface IVendaService para exportar as vendas em CSV, percorrendo a tabela em lotes.
  */
 package br.com.pazzini.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.annotation.Resource;
+import javax.ejb.EJBException;
 import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
 import javax.inject.Inject;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
 
+import br.com.pazzini.dao.IEstoqueDAO;
+import br.com.pazzini.dao.IEventoVendaDAO;
+import br.com.pazzini.dao.IResumoVendaDiaDAO;
 import br.com.pazzini.dao.IVendaDAO;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.EventoVenda;
+import br.com.pazzini.domain.ProdutoQuantidade;
 import br.com.pazzini.domain.Venda;
 import br.com.pazzini.domain.Venda.Status;
 import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.EstoqueInsuficienteException;
 import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
+import br.com.pazzini.exceptions.VendaDuplicadaException;
 import br.com.pazzini.services.generic.GenericService;
+import br.com.pazzini.services.generic.TransacaoNova;
+import br.com.pazzini.utils.CsvUtils;
 
 @Stateless
 public class VendaService extends GenericService<Venda, Long> implements IVendaService {
 
+    private static final int TAMANHO_LOTE_EXPORTACAO = 500;
+
+    private static final int MAXIMO_TENTATIVAS = 3;
+
+    private static final long ESPERA_MAXIMA_MS = 20;
+
+    private static final String ESTADO_SQL_UNICIDADE = "23505";
+
     private IVendaDAO dao;
 
+    private IResumoVendaDiaDAO resumoDao;
+
+    private IEstoqueDAO estoqueDao;
+
+    private IEventoVendaDAO eventoDao;
+
+    @Inject
+    private TransacaoNova transacaoNova;
+
+    @Inject
+    private CodigosVendaRecentes codigosRecentes;
+
+    @Resource
+    private TransactionSynchronizationRegistry transacoes;
+
     @Inject
-    public VendaService(IVendaDAO dao) {
+    public VendaService(IVendaDAO dao, IResumoVendaDiaDAO resumoDao, IEstoqueDAO estoqueDao,
+            IEventoVendaDAO eventoDao) {
         super(dao);
         this.dao = dao;
+        this.resumoDao = resumoDao;
+        this.estoqueDao = estoqueDao;
+        this.eventoDao = eventoDao;
     }
 
     /**
      * Implementação do contrato da interface IVendaService para finalizar uma venda, alterando seu status para CONCLUIDA.
+     * O status é alterado com um UPDATE condicional, sem regravar a venda; o objeto recebido só é atualizado se a
+     * transição foi aplicada.
      * 
      * @param venda Venda a ser finalizada.
+     * @return true se a venda foi finalizada.
      * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
      * @throws DAOException Se ocorrer um erro no acesso aos dados.
      */
     @Override
-    public void finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
-        venda.setStatus(Status.CONCLUIDA);
-        dao.finalizarVenda(venda);
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public boolean finalizarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
+        boolean finalizada = repetirEmConflito(() -> {
+            boolean alterada = dao.finalizarVenda(venda);
+            if (alterada) {
+                List<Long> ids = Collections.singletonList(venda.getId());
+                moverNoResumo(ids);
+                estoqueDao.confirmar(ids);
+                eventoDao.registrar(ids, EventoVenda.Tipo.FINALIZADA);
+            }
+            return alterada;
+        });
+        if (finalizada) {
+            venda.setStatus(Status.CONCLUIDA);
+        }
+        return finalizada;
     }
 
     /**
      * Implementação do contrato da interface IVendaService para cancelar uma venda, alterando seu status para CANCELADA.
+     * O status é alterado com um UPDATE condicional, sem regravar a venda; o objeto recebido só é atualizado se a
+     * transição foi aplicada.
      * 
      * @param venda Venda a ser cancelada.
+     * @return true se a venda foi cancelada.
      * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
      * @throws DAOException Se ocorrer um erro no acesso aos dados.
      */
     @Override
-    public void cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
-        venda.setStatus(Status.CANCELADA);
-        dao.cancelarVenda(venda);
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public boolean cancelarVenda(Venda venda) throws TipoChaveNaoEncontradaException, DAOException {
+        boolean cancelada = repetirEmConflito(() -> {
+            boolean alterada = dao.cancelarVenda(venda);
+            if (alterada) {
+                List<Long> ids = Collections.singletonList(venda.getId());
+                moverNoResumo(ids);
+                estoqueDao.liberar(ids);
+                eventoDao.registrar(ids, EventoVenda.Tipo.CANCELADA);
+            }
+            return alterada;
+        });
+        if (cancelada) {
+            venda.setStatus(Status.CANCELADA);
+        }
+        return cancelada;
+    }
+
+    /**
+     * Implementação do contrato da interface IVendaService para finalizar várias vendas de uma vez.
+     * 
+     * @param ids Identificadores das vendas.
+     * @return Quantidade de vendas finalizadas.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public int finalizarVendas(Collection<Long> ids) throws DAOException {
+        return finalizarLote(ids).size();
+    }
+
+    /**
+     * Implementação do contrato da interface IVendaService para finalizar várias vendas de uma vez, informando quais
+     * foram finalizadas.
+     * 
+     * @param ids Identificadores das vendas.
+     * @return Identificadores das vendas finalizadas.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public List<Long> finalizarLote(Collection<Long> ids) throws DAOException {
+        return transitarEmMassa(() -> {
+            List<Long> finalizadas = dao.finalizarVendas(ids);
+            moverNoResumo(finalizadas);
+            estoqueDao.confirmar(finalizadas);
+            eventoDao.registrar(finalizadas, EventoVenda.Tipo.FINALIZADA);
+            return finalizadas;
+        });
+    }
+
+    /**
+     * Implementação do contrato da interface IVendaService para cancelar várias vendas de uma vez.
+     * 
+     * @param ids Identificadores das vendas.
+     * @return Quantidade de vendas canceladas.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
+    public int cancelarVendas(Collection<Long> ids) throws DAOException {
+        return transitarEmMassa(() -> {
+            List<Long> canceladas = dao.cancelarVendas(ids);
+            moverNoResumo(canceladas);
+            estoqueDao.liberar(canceladas);
+            eventoDao.registrar(canceladas, EventoVenda.Tipo.CANCELADA);
+            return canceladas.size();
+        });
     }
 
     /**
@@ -66,23 +245,323 @@ public class VendaService extends GenericService<Venda, Long> implements IVendaS
      * 
      * @param id Identificador único da venda.
      * @return Venda consultada.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
      */
     @Override
-    public Venda consultarComCollection(Long id) {
+    public Venda consultarComCollection(Long id) throws DAOException {
         return dao.consultarComCollection(id);
     }
 
     /**
-     * Implementação do método de cadastro específico para Venda, configurando o status como INICIADA antes de salvar.
+     * Implementação do método de cadastro específico para Venda, configurando o status como INICIADA antes de salvar
+     * e reservando o estoque dos produtos. Se já existe uma venda com o mesmo código e o mesmo conteúdo, ela é
+     * devolvida no lugar de uma nova.
      * 
      * @param entity Venda a ser cadastrada.
-     * @return Venda cadastrada.
+     * @return Venda cadastrada, ou a venda já cadastrada com o mesmo código e conteúdo.
      * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws EstoqueInsuficienteException Se algum produto não tiver estoque disponível suficiente.
+     * @throws VendaDuplicadaException Se já existe uma venda com o mesmo código e outro conteúdo.
      * @throws DAOException Se ocorrer um erro no acesso aos dados.
      */
     @Override
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
     public Venda cadastrar(Venda entity) throws TipoChaveNaoEncontradaException, DAOException {
-        entity.setStatus(Status.INICIADA);
-        return super.cadastrar(entity);
+        long impressao = CodigosVendaRecentes.impressao(entity);
+        Long recente = codigosRecentes == null ? null : codigosRecentes.getImpressao(entity.getCodigo());
+        if (recente != null && recente != impressao) {
+            throw new VendaDuplicadaException(entity.getCodigo());
+        }
+        if (recente != null) {
+            Venda existente = consultarRepetida(entity, impressao);
+            if (existente != null) {
+                return existente;
+            }
+        }
+        try {
+            return emTransacaoPropria(() -> {
+                entity.setStatus(Status.INICIADA);
+                Venda cadastrada = super.cadastrar(entity);
+                List<Long> ids = Collections.singletonList(cadastrada.getId());
+                resumoDao.somar(ids, 1);
+                eventoDao.registrar(ids, EventoVenda.Tipo.CADASTRADA);
+                estoqueDao.reservar(getQuantidadesPorProduto(Collections.singletonList(cadastrada)));
+                lembrar(cadastrada.getCodigo(), impressao);
+                return cadastrada;
+            });
+        } catch (DAOException | EJBException e) {
+            if (!podeAbrirTransacao() || !isCodigoRepetido(e)) {
+                throw e;
+            }
+            Venda existente = consultarRepetida(entity, impressao);
+            if (existente == null) {
+                throw e;
+            }
+            return existente;
+        }
+    }
+
+    /**
+     * Implementação do cadastro em lote específico para Venda, configurando o status de cada venda como INICIADA.
+     * 
+     * @param entities Vendas a serem cadastradas.
+     * @return Vendas cadastradas.
+     * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws EstoqueInsuficienteException Se algum produto não tiver estoque disponível suficiente.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public List<Venda> cadastrarEmLote(Collection<Venda> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        entities.forEach(entity -> entity.setStatus(Status.INICIADA));
+        List<Venda> cadastradas = super.cadastrarEmLote(entities);
+        List<Long> ids = getIds(cadastradas);
+        resumoDao.somar(ids, 1);
+        eventoDao.registrar(ids, EventoVenda.Tipo.CADASTRADA);
+        estoqueDao.reservar(getQuantidadesPorProduto(cadastradas));
+        return cadastradas;
+    }
+
+    /**
+     * Implementação da alteração específica para Venda. As linhas gravadas da venda são subtraídas do resumo diário
+     * antes da alteração e as linhas novas são somadas depois, de modo que o resumo acompanha produtos adicionados
+     * ou removidos e mudanças de data. Se a venda está INICIADA, o estoque reservado pelas linhas gravadas é liberado
+     * e as linhas novas são reservadas.
+     * 
+     * @param entity Venda a ser alterada.
+     * @return Venda alterada.
+     * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws EstoqueInsuficienteException Se algum produto não tiver estoque disponível suficiente.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public Venda alterar(Venda entity) throws TipoChaveNaoEncontradaException, DAOException {
+        List<Long> ids = Collections.singletonList(entity.getId());
+        List<Venda> iniciadas = getIniciadas(Collections.singletonList(entity));
+        resumoDao.somar(ids, -1);
+        estoqueDao.liberar(getIds(iniciadas));
+        Venda alterada = super.alterar(entity);
+        resumoDao.somar(ids, 1);
+        estoqueDao.reservar(getQuantidadesPorProduto(iniciadas));
+        return alterada;
+    }
+
+    /**
+     * Implementação da alteração em lote específica para Venda, refazendo o resumo diário e o estoque reservado das
+     * vendas como em alterar.
+     * 
+     * @param entities Vendas a serem alteradas.
+     * @return Vendas alteradas.
+     * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws EstoqueInsuficienteException Se algum produto não tiver estoque disponível suficiente.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public List<Venda> alterarEmLote(Collection<Venda> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        List<Long> ids = getIds(entities);
+        List<Venda> iniciadas = getIniciadas(entities);
+        resumoDao.somar(ids, -1);
+        estoqueDao.liberar(getIds(iniciadas));
+        List<Venda> alteradas = super.alterarEmLote(entities);
+        resumoDao.somar(ids, 1);
+        estoqueDao.reservar(getQuantidadesPorProduto(iniciadas));
+        return alteradas;
+    }
+
+    /**
+     * Implementação do contrato da interface IVendaService para exportar as vendas em CSV.
+     * Cada linha do arquivo corresponde a um produto de uma venda, com os dados da venda e do cliente repetidos.
+     * As vendas são lidas em lotes pelo cursor do DAO e escritas conforme são lidas, sem montar a lista em memória.
+     * 
+     * @param writer Destino do conteúdo CSV.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     * @throws IOException Se ocorrer um erro ao escrever no destino.
+     */
+    @Override
+    public void exportarCsv(Writer writer) throws DAOException, IOException {
+        writer.write(CsvUtils.linha("ID_VENDA", "CODIGO_VENDA", "DATA_VENDA", "STATUS_VENDA", "VALOR_TOTAL_VENDA",
+                "ID_CLIENTE", "NOME_CLIENTE", "CPF_CLIENTE", "CODIGO_PRODUTO", "NOME_PRODUTO", "QUANTIDADE",
+                "VALOR_TOTAL_PRODUTO"));
+        try {
+            dao.percorrer(TAMANHO_LOTE_EXPORTACAO, venda -> {
+                Cliente cliente = venda.getCliente();
+                try {
+                    for (ProdutoQuantidade prod : venda.getProdutos()) {
+                        writer.write(CsvUtils.linha(venda.getId(), venda.getCodigo(), venda.getDataVenda(),
+                                venda.getStatus(), venda.getValorTotal(), cliente.getId(), cliente.getNome(),
+                                cliente.getCpf(), prod.getProduto().getCodigo(), prod.getProduto().getNome(),
+                                prod.getQuantidade(), prod.getValorTotal()));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Executa a transição de status. Sem transação do chamador, cada tentativa roda em uma transação nova e as
+     * falhas por conflito com outra transação são repetidas até MAXIMO_TENTATIVAS vezes; com transação do chamador
+     * (ou fora do container), a transição roda uma única vez, na transação corrente.
+     */
+    private <R> R repetirEmConflito(TransacaoNova.Operacao<R> transicao)
+            throws TipoChaveNaoEncontradaException, DAOException {
+        if (!podeAbrirTransacao()) {
+            return transicao.executar();
+        }
+        for (int tentativa = 1;; tentativa++) {
+            try {
+                return transacaoNova.executar(transicao);
+            } catch (DAOException | EJBException e) {
+                if (tentativa >= MAXIMO_TENTATIVAS || !TransacaoNova.isConflito(e) || !esperar()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executa a operação uma única vez: em uma transação nova se não há transação do chamador, ou na transação
+     * corrente.
+     */
+    private <R> R emTransacaoPropria(TransacaoNova.Operacao<R> operacao)
+            throws TipoChaveNaoEncontradaException, DAOException {
+        return podeAbrirTransacao() ? transacaoNova.executar(operacao) : operacao.executar();
+    }
+
+    /**
+     * Indica se o serviço foi chamado fora de uma transação e dentro do container, quando cada operação pode rodar
+     * em uma transação nova (TransacaoNova).
+     */
+    private boolean podeAbrirTransacao() {
+        return transacaoNova != null && transacoes.getTransactionKey() == null;
+    }
+
+    /**
+     * Consulta a venda já cadastrada com o código da venda enviada. Se o conteúdo for o mesmo, é a mesma venda
+     * enviada de novo; se não, é outra venda com o código repetido.
+     *
+     * @return a venda cadastrada, ou null se não existe venda com o código.
+     * @throws VendaDuplicadaException Se a venda cadastrada tem outro conteúdo.
+     */
+    private Venda consultarRepetida(Venda entity, long impressao) throws DAOException {
+        Venda existente = dao.consultarPorCodigo(entity.getCodigo());
+        if (existente == null) {
+            return null;
+        }
+        if (!existente.getCliente().getId().equals(entity.getCliente().getId())
+                || !getQuantidadesPorProduto(Collections.singletonList(existente))
+                        .equals(getQuantidadesPorProduto(Collections.singletonList(entity)))) {
+            throw new VendaDuplicadaException(entity.getCodigo());
+        }
+        lembrar(existente.getCodigo(), impressao);
+        return existente;
+    }
+
+    /**
+     * Guarda o código no filtro de códigos recentes. Dentro de uma transação, o código só é guardado depois do
+     * commit, para que o filtro nunca aponte para uma venda desfeita.
+     */
+    private void lembrar(String codigo, long impressao) {
+        if (codigosRecentes == null) {
+            return;
+        }
+        if (transacoes == null || transacoes.getTransactionKey() == null) {
+            codigosRecentes.registrar(codigo, impressao);
+            return;
+        }
+        transacoes.registerInterposedSynchronization(new Synchronization() {
+
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == javax.transaction.Status.STATUS_COMMITTED) {
+                    codigosRecentes.registrar(codigo, impressao);
+                }
+            }
+        });
+    }
+
+    /**
+     * Indica se o erro, ou uma de suas causas, é a violação de uma restrição de unicidade (SQLSTATE 23505). No
+     * cadastro de uma venda, a única restrição de unicidade que uma venda nova pode violar é a do código.
+     */
+    private static boolean isCodigoRepetido(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause() == causa ? null : causa.getCause()) {
+            if (causa instanceof SQLException && ESTADO_SQL_UNICIDADE.equals(((SQLException) causa).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <R> R transitarEmMassa(TransacaoNova.Operacao<R> transicao) throws DAOException {
+        try {
+            return repetirEmConflito(transicao);
+        } catch (TipoChaveNaoEncontradaException e) {
+            throw new DAOException("ERRO ALTERANDO STATUS DAS VENDAS ", e);
+        }
+    }
+
+    /**
+     * Espera um tempo aleatório antes da próxima tentativa, para que as transações em conflito não tentem de novo
+     * ao mesmo tempo.
+     *
+     * @return false se a thread foi interrompida durante a espera.
+     */
+    private static boolean esperar() {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, ESPERA_MAXIMA_MS + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Passa as vendas que acabaram de sair do status INICIADA para o resumo diário do status atual delas.
+     */
+    private void moverNoResumo(List<Long> ids) throws DAOException {
+        resumoDao.somar(ids, Status.INICIADA, -1);
+        resumoDao.somar(ids, 1);
+    }
+
+    /**
+     * Seleciona as vendas INICIADAS, as únicas que reservam estoque. O status é o da versão da venda que será
+     * gravada; se ele estiver desatualizado, a alteração falha pelo controle de versão e a transação é desfeita.
+     */
+    private List<Venda> getIniciadas(Collection<Venda> vendas) {
+        List<Venda> iniciadas = new ArrayList<>(vendas.size());
+        for (Venda venda : vendas) {
+            if (venda.getStatus() == Status.INICIADA) {
+                iniciadas.add(venda);
+            }
+        }
+        return iniciadas;
+    }
+
+    /**
+     * Soma as quantidades das linhas das vendas por produto, em ordem de id do produto.
+     */
+    private Map<Long, Long> getQuantidadesPorProduto(Collection<Venda> vendas) {
+        Map<Long, Long> quantidades = new TreeMap<>();
+        for (Venda venda : vendas) {
+            for (ProdutoQuantidade prod : venda.getProdutos()) {
+                quantidades.merge(prod.getProduto().getId(), (long) prod.getQuantidade(), Long::sum);
+            }
+        }
+        return quantidades;
+    }
+
+    private List<Long> getIds(Collection<Venda> vendas) {
+        List<Long> ids = new ArrayList<>(vendas.size());
+        vendas.forEach(venda -> ids.add(venda.getId()));
+        return ids;
     }
 }
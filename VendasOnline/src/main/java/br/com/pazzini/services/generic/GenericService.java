@@ -9,22 +9,39 @@
  * - cadastrar(T entity): Implementação do contrato da interface IGenericService para cadastrar uma entidade.
  * - excluir(T entity): Implementação do contrato da interface IGenericService para excluir uma entidade.
  * - alterar(T entity): Implementação do contrato da interface IGenericService para alterar uma entidade.
+ * - cadastrarEmLote(Collection<T> entities): Implementação do contrato da interface IGenericService para cadastrar entidades em lote.
+ * - alterarEmLote(Collection<T> entities): Implementação do contrato da interface IGenericService para alterar entidades em lote.
  * - consultar(E valor): Implementação do contrato da interface IGenericService para consultar uma entidade por sua chave primária.
+ * - consultar(E valor, String planoCarga): Implementação do contrato da interface IGenericService para consultar uma entidade com um plano de carga.
  * - buscarTodos(): Implementação do contrato da interface IGenericService para buscar todas as entidades do tipo T.
+ * - buscarPagina(Paginacao paginacao): Implementação do contrato da interface IGenericService para buscar uma página de entidades.
+ * - contar(): Implementação do contrato da interface IGenericService para contar as entidades do tipo T.
+ * - contar(List<Filtro> filtros): Implementação do contrato da interface IGenericService para contar as entidades filtradas.
+ * - percorrer(int tamanhoLote, Consumer<T> consumidor): Implementação do contrato da interface IGenericService para processar as entidades em lotes.
+ * 
+ * A anotação @Medido, herdada por todos os serviços, registra as chamadas, os erros e a latência de cada método no
+ * RegistroMetricas.
  */
 package br.com.pazzini.services.generic;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
+import br.com.pazzini.dao.generic.Filtro;
 import br.com.pazzini.dao.generic.IGenericDAO;
+import br.com.pazzini.dao.generic.Pagina;
+import br.com.pazzini.dao.generic.Paginacao;
 import br.com.pazzini.domain.Persistente;
 import br.com.pazzini.exceptions.DAOException;
 import br.com.pazzini.exceptions.MaisDeUmRegistroException;
 import br.com.pazzini.exceptions.TableException;
 import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
+import br.com.pazzini.metricas.Medido;
 import br.com.pazzini.services.generic.IGenericService;
 
+@Medido
 public abstract class GenericService<T extends Persistente, E extends Serializable> 
     implements IGenericService<T, E> {
     
@@ -77,6 +94,32 @@ public abstract class GenericService<T extends Persistente, E extends Serializab
         return this.dao.alterar(entity);
     }
 
+    /**
+     * Implementação do contrato da interface IGenericService para cadastrar entidades em lote.
+     * 
+     * @param entities Entidades a serem cadastradas.
+     * @return Entidades cadastradas.
+     * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public List<T> cadastrarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        return this.dao.cadastrarEmLote(entities);
+    }
+
+    /**
+     * Implementação do contrato da interface IGenericService para alterar entidades em lote.
+     * 
+     * @param entities Entidades a serem alteradas.
+     * @return Entidades alteradas.
+     * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public List<T> alterarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException {
+        return this.dao.alterarEmLote(entities);
+    }
+
     /**
      * Implementação do contrato da interface IGenericService para consultar uma entidade por sua chave primária.
      * 
@@ -91,6 +134,21 @@ public abstract class GenericService<T extends Persistente, E extends Serializab
         return this.dao.consultar(valor);
     }
 
+    /**
+     * Implementação do contrato da interface IGenericService para consultar uma entidade com um plano de carga.
+     * 
+     * @param valor Valor da chave primária.
+     * @param planoCarga Nome do plano de carga (@NamedEntityGraph da entidade).
+     * @return Entidade consultada.
+     * @throws MaisDeUmRegistroException Se mais de um registro for encontrado.
+     * @throws TableException Se ocorrer um erro relacionado à tabela.
+     * @throws DAOException Se o plano de carga não existir ou ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public T consultar(E valor, String planoCarga) throws MaisDeUmRegistroException, TableException, DAOException {
+        return this.dao.consultar(valor, planoCarga);
+    }
+
     /**
      * Implementação do contrato da interface IGenericService para buscar todas as entidades do tipo T.
      * 
@@ -101,4 +159,51 @@ public abstract class GenericService<T extends Persistente, E extends Serializab
     public Collection<T> buscarTodos() throws DAOException {
         return this.dao.buscarTodos();
     }
+
+    /**
+     * Implementação do contrato da interface IGenericService para buscar uma página de entidades do tipo T.
+     * 
+     * @param paginacao Parâmetros da página.
+     * @return Página com as entidades encontradas.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public Pagina<T> buscarPagina(Paginacao paginacao) throws DAOException {
+        return this.dao.buscarPagina(paginacao);
+    }
+
+    /**
+     * Implementação do contrato da interface IGenericService para contar as entidades do tipo T.
+     * 
+     * @return Quantidade de entidades do tipo T.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public Long contar() throws DAOException {
+        return this.dao.contar();
+    }
+
+    /**
+     * Implementação do contrato da interface IGenericService para contar as entidades do tipo T que atendem aos filtros.
+     * 
+     * @param filtros Restrições aplicadas às entidades.
+     * @return Quantidade de entidades que atendem aos filtros.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public Long contar(List<Filtro> filtros) throws DAOException {
+        return this.dao.contar(filtros);
+    }
+
+    /**
+     * Implementação do contrato da interface IGenericService para processar todas as entidades do tipo T em lotes.
+     * 
+     * @param tamanhoLote Quantidade de entidades lidas por consulta.
+     * @param consumidor Processamento aplicado a cada entidade.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    @Override
+    public void percorrer(int tamanhoLote, Consumer<T> consumidor) throws DAOException {
+        this.dao.percorrer(tamanhoLote, consumidor);
+    }
 }
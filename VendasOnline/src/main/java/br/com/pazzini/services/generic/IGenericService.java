@@ -6,13 +6,25 @@
  * - cadastrar(T entity): Método para cadastrar novos registros no banco de dados.
  * - excluir(T entity): Método para excluir um registro do banco de dados.
  * - alterar(T entity): Método para alterar um registro no banco de dados.
+ * - cadastrarEmLote(Collection<T> entities) / alterarEmLote(Collection<T> entities): Métodos para gravar muitos registros em batches JDBC.
  * - consultar(E valor): Método para consultar um registro no banco de dados por sua chave primária.
+ * - consultar(E valor, String planoCarga): Método para consultar um registro carregando as associações de um plano de carga.
  * - buscarTodos(): Método para buscar todos os registros de uma determinada entidade no banco de dados.
+ * - buscarPagina(Paginacao paginacao): Método para buscar uma página ordenada de registros.
+ * - contar(): Método para contar os registros de uma determinada entidade.
+ * - contar(List<Filtro> filtros): Método para contar os registros que atendem aos filtros.
+ * - percorrer(int tamanhoLote, Consumer<T> consumidor): Método para processar todos os registros em lotes.
  */
 package br.com.pazzini.services.generic;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import br.com.pazzini.dao.generic.Filtro;
+import br.com.pazzini.dao.generic.Pagina;
+import br.com.pazzini.dao.generic.Paginacao;
 
 import br.com.pazzini.domain.Persistente;
 import br.com.pazzini.exceptions.DAOException;
@@ -50,6 +62,26 @@ public interface IGenericService<T extends Persistente, E extends Serializable>
      */
     public T alterar(T entity) throws TipoChaveNaoEncontradaException, DAOException;
 
+    /**
+     * Método para cadastrar muitos registros no banco de dados, enviados em batches JDBC.
+     * 
+     * @param entities Entidades a serem cadastradas.
+     * @return Entidades cadastradas.
+     * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    public List<T> cadastrarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException;
+
+    /**
+     * Método para alterar muitos registros no banco de dados, enviados em batches JDBC.
+     * 
+     * @param entities Entidades a serem atualizadas.
+     * @return Entidades alteradas.
+     * @throws TipoChaveNaoEncontradaException Se ocorrer um erro relacionado ao tipo da chave primária.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    public List<T> alterarEmLote(Collection<T> entities) throws TipoChaveNaoEncontradaException, DAOException;
+
     /**
      * Método para consultar um registro no banco de dados por sua chave primária.
      * 
@@ -61,6 +93,19 @@ public interface IGenericService<T extends Persistente, E extends Serializable>
      */
     public T consultar(E valor) throws MaisDeUmRegistroException, TableException, DAOException;
 
+    /**
+     * Método para consultar um registro no banco de dados carregando as associações de um plano de carga
+     * (@NamedEntityGraph da entidade).
+     * 
+     * @param valor Valor da chave primária.
+     * @param planoCarga Nome do plano de carga.
+     * @return Entidade consultada.
+     * @throws MaisDeUmRegistroException Se mais de um registro for encontrado.
+     * @throws TableException Se ocorrer um erro relacionado à tabela.
+     * @throws DAOException Se o plano de carga não existir ou ocorrer um erro no acesso aos dados.
+     */
+    public T consultar(E valor, String planoCarga) throws MaisDeUmRegistroException, TableException, DAOException;
+
     /**
      * Método para buscar todos os registros de uma determinada entidade no banco de dados.
      * 
@@ -69,4 +114,40 @@ public interface IGenericService<T extends Persistente, E extends Serializable>
      */
     public Collection<T> buscarTodos() throws DAOException;
 
+    /**
+     * Método para buscar uma página ordenada de registros de uma determinada entidade no banco de dados.
+     * 
+     * @param paginacao Parâmetros da página (modo, posição, tamanho, ordenação e contagem).
+     * @return Página com os registros encontrados.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    public Pagina<T> buscarPagina(Paginacao paginacao) throws DAOException;
+
+    /**
+     * Método para contar os registros de uma determinada entidade no banco de dados.
+     * 
+     * @return Quantidade de registros da entidade.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    public Long contar() throws DAOException;
+
+    /**
+     * Método para contar os registros de uma determinada entidade que atendem aos filtros.
+     * 
+     * @param filtros Restrições aplicadas aos registros.
+     * @return Quantidade de registros que atendem aos filtros.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    public Long contar(List<Filtro> filtros) throws DAOException;
+
+    /**
+     * Método para processar todos os registros de uma determinada entidade, lidos do banco em lotes.
+     * A memória utilizada depende do tamanho do lote e não da quantidade de registros.
+     * 
+     * @param tamanhoLote Quantidade de registros lidos por consulta.
+     * @param consumidor Processamento aplicado a cada registro.
+     * @throws DAOException Se ocorrer um erro no acesso aos dados.
+     */
+    public void percorrer(int tamanhoLote, Consumer<T> consumidor) throws DAOException;
+
 }
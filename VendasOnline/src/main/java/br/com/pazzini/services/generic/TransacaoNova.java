@@ -0,0 +1,90 @@
+/**
+ * A classe TransacaoNova executa uma operação em uma transação própria (REQUIRES_NEW), confirmada ao final da
+ * operação. É usada para repetir uma operação que falhou por conflito com outra transação: depois de um conflito a
+ * transação corrente fica marcada para rollback (e, no PostgreSQL, não aceita mais comandos), então cada tentativa
+ * precisa de uma transação nova.
+ * 
+ * Anotada como Stateless para indicar que é uma EJB (Enterprise JavaBeans) sem estado. Deve ser chamada pela
+ * referência injetada, nunca pela própria instância, para que o container abra a transação.
+ * 
+ * Métodos:
+ * - executar(Operacao<R> operacao): Executa a operação em uma transação nova. Se a operação lançar DAOException ou
+ *   TipoChaveNaoEncontradaException, a transação é desfeita e a exceção é repassada.
+ * - isConflito(Throwable erro): Indica se o erro, ou uma de suas causas, é um conflito com outra transação que pode
+ *   ser resolvido repetindo a operação: versão desatualizada (OptimisticLockException), bloqueio não obtido
+ *   (PessimisticLockException, LockTimeoutException) ou deadlock e falha de serialização do banco (SQLSTATE
+ *   40001, 40P01 e 55P03).
+ */
+package br.com.pazzini.services.generic;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Resource;
+import javax.ejb.SessionContext;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.persistence.LockTimeoutException;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PessimisticLockException;
+
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.TipoChaveNaoEncontradaException;
+
+@Stateless
+public class TransacaoNova {
+
+    private static final Set<String> ESTADOS_SQL_CONFLITO = new HashSet<>(Arrays.asList("40001", "40P01", "55P03"));
+
+    @Resource
+    private SessionContext contexto;
+
+    /**
+     * Operação executada em uma transação nova.
+     */
+    @FunctionalInterface
+    public interface Operacao<R> {
+
+        R executar() throws DAOException, TipoChaveNaoEncontradaException;
+    }
+
+    /**
+     * Executa a operação em uma transação nova, confirmada ao final da operação.
+     * 
+     * @param operacao Operação a ser executada.
+     * @return Resultado da operação.
+     * @throws DAOException Se a operação lançar DAOException; a transação é desfeita.
+     * @throws TipoChaveNaoEncontradaException Se a operação lançar TipoChaveNaoEncontradaException; a transação é desfeita.
+     */
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public <R> R executar(Operacao<R> operacao) throws DAOException, TipoChaveNaoEncontradaException {
+        try {
+            return operacao.executar();
+        } catch (DAOException | TipoChaveNaoEncontradaException e) {
+            contexto.setRollbackOnly();
+            throw e;
+        }
+    }
+
+    /**
+     * Indica se o erro, ou uma de suas causas, é um conflito com outra transação.
+     * 
+     * @param erro Erro lançado pela operação ou pelo commit da transação.
+     * @return true se repetir a operação em uma transação nova pode resolver o erro.
+     */
+    public static boolean isConflito(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause() == causa ? null : causa.getCause()) {
+            if (causa instanceof OptimisticLockException || causa instanceof PessimisticLockException
+                    || causa instanceof LockTimeoutException) {
+                return true;
+            }
+            if (causa instanceof SQLException && ESTADOS_SQL_CONFLITO.contains(((SQLException) causa).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
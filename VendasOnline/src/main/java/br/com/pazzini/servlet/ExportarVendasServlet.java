@@ -0,0 +1,49 @@
+/**
+ * Servlet responsável por disponibilizar o download das vendas em formato CSV.
+ * O conteúdo é escrito diretamente na resposta conforme as vendas são lidas do banco pelo cursor do VendaService,
+ * de modo que nem o servidor nem o estado da view precisam manter a tabela inteira em memória.
+ *
+ * Mapeado em web.xml para o caminho /venda/exportar.csv.
+ *
+ * @see IVendaService
+ * @author diego.pazzini
+ */
+package br.com.pazzini.servlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.inject.Inject;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.service.IVendaService;
+
+public class ExportarVendasServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 4693187504519931723L;
+
+    @Inject
+    private IVendaService vendaService;
+
+    /**
+     * Escreve o CSV das vendas na resposta, como anexo.
+     *
+     * @param req Requisição HTTP.
+     * @param resp Resposta HTTP.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("text/csv");
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resp.setHeader("Content-Disposition", "attachment; filename=\"vendas.csv\"");
+        try {
+            vendaService.exportarCsv(resp.getWriter());
+        } catch (DAOException e) {
+            throw new ServletException("Erro ao tentar exportar as vendas", e);
+        }
+    }
+}
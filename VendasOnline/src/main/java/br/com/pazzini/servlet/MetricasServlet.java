@@ -0,0 +1,89 @@
+/**
+ * Servlet somente leitura que disponibiliza as métricas da aplicação em formato JSON.
+ *
+ * - /metricas: métricas dos serviços e DAOs registradas pelo MedicaoInterceptor. Cada item traz o nome do método,
+ *   a quantidade de chamadas e de erros e as latências média, p50, p90, p99, p999 e máxima, em microssegundos,
+ *   acumuladas desde o início da aplicação. O parâmetro opcional "prefixo" restringe os métodos pelo início do nome
+ *   (ex: /metricas?prefixo=VendaService).
+ * - /metricas/sql: estatísticas dos comandos SQL por formato, registradas pelo EstatisticasSql, ordenadas pelo
+ *   tempo total. Além das latências, cada item traz a quantidade de execuções lentas e de possíveis N+1.
+ *
+ * Mapeado em web.xml para os caminhos /metricas e /metricas/sql.
+ *
+ * @see RegistroMetricas
+ * @see EstatisticasSql
+ * @author diego.pazzini
+ */
+package br.com.pazzini.servlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import br.com.pazzini.metricas.EstatisticaConsulta;
+import br.com.pazzini.metricas.EstatisticasSql;
+import br.com.pazzini.metricas.RegistroMetricas;
+import br.com.pazzini.metricas.ResumoMetrica;
+
+public class MetricasServlet extends HttpServlet {
+
+    private static final long serialVersionUID = -3018245671944206813L;
+
+    private static final String CAMINHO_SQL = "/metricas/sql";
+
+    @Inject
+    private RegistroMetricas registro;
+
+    /**
+     * Escreve as métricas do caminho requisitado na resposta.
+     *
+     * @param req Requisição HTTP.
+     * @param resp Resposta HTTP.
+     */
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        String prefixo = req.getParameter("prefixo");
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resp.setHeader("Cache-Control", "no-store");
+        try (JsonGenerator json = Json.createGenerator(resp.getWriter())) {
+            json.writeStartArray();
+            if (CAMINHO_SQL.equals(req.getServletPath())) {
+                for (EstatisticaConsulta estatistica : EstatisticasSql.getInstancia().getEstatisticas()) {
+                    json.writeStartObject().write("sql", estatistica.getFormato());
+                    escreverLatencias(json, estatistica.getResumo());
+                    json.write("lentas", estatistica.getLentas())
+                            .write("nMaisUm", estatistica.getOcorrenciasNMaisUm())
+                            .writeEnd();
+                }
+            } else {
+                for (ResumoMetrica resumo : registro.getResumos()) {
+                    if (prefixo != null && !resumo.getNome().startsWith(prefixo)) {
+                        continue;
+                    }
+                    json.writeStartObject().write("metodo", resumo.getNome());
+                    escreverLatencias(json, resumo);
+                    json.write("erros", resumo.getErros()).writeEnd();
+                }
+            }
+            json.writeEnd();
+        }
+    }
+
+    private void escreverLatencias(JsonGenerator json, ResumoMetrica resumo) {
+        json.write("chamadas", resumo.getChamadas())
+                .write("mediaUs", resumo.getMedia())
+                .write("p50Us", resumo.getP50())
+                .write("p90Us", resumo.getP90())
+                .write("p99Us", resumo.getP99())
+                .write("p999Us", resumo.getP999())
+                .write("maximoUs", resumo.getMaximo());
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Servlet que dispara a reconstrução do resumo diário de vendas de um período, usada para preencher o resumo na
+ * primeira publicação (backfill) ou corrigi-lo depois de alterações feitas direto no banco.
+ *
+ * Aceita apenas POST, com os parâmetros "inicio" e "fim" no formato ISO (ex: inicio=2024-01-01&fim=2024-12-31),
+ * ambos inclusive. Cada dia é reconstruído em uma transação própria; a resposta, em texto, traz a quantidade de
+ * linhas gravadas no resumo. Parâmetros ausentes ou inválidos respondem 400.
+ *
+ * Mapeado em web.xml para o caminho /resumo/reconstruir.
+ *
+ * @see IResumoVendaDiaService
+ * @author diego.pazzini
+ */
+package br.com.pazzini.servlet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import javax.inject.Inject;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.service.IResumoVendaDiaService;
+
+public class ReconstruirResumoServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 7302518846127093365L;
+
+    @Inject
+    private IResumoVendaDiaService resumoService;
+
+    /**
+     * Reconstrói o resumo do período informado e escreve a quantidade de linhas gravadas na resposta.
+     *
+     * @param req Requisição HTTP.
+     * @param resp Resposta HTTP.
+     */
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            inicio = LocalDate.parse(req.getParameter("inicio"));
+            fim = LocalDate.parse(req.getParameter("fim"));
+        } catch (DateTimeParseException | NullPointerException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Informe inicio e fim no formato AAAA-MM-DD");
+            return;
+        }
+        if (fim.isBefore(inicio)) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "O fim do período é anterior ao início");
+            return;
+        }
+        int linhas;
+        try {
+            linhas = resumoService.reconstruir(inicio, fim);
+        } catch (DAOException e) {
+            throw new ServletException("Erro ao tentar reconstruir o resumo diário de vendas", e);
+        }
+        resp.setContentType("text/plain");
+        resp.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resp.getWriter().println("Resumo de " + inicio + " a " + fim + " reconstruído: " + linhas + " linhas");
+    }
+}
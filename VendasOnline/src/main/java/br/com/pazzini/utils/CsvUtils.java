@@ -0,0 +1,52 @@
+/**
+ * A classe CsvUtils fornece funcionalidades para montar linhas de arquivos CSV.
+ *
+ * Métodos:
+ * - linha(Object ...valores): Monta uma linha CSV separada por ponto e vírgula, terminada por quebra de linha.
+ * - escapar(Object valor): Converte o valor em um campo CSV, colocando-o entre aspas quando necessário.
+ */
+
+package br.com.pazzini.utils;
+
+import java.math.BigDecimal;
+
+public class CsvUtils {
+
+    public static final char SEPARADOR = ';';
+
+    /**
+     * Monta uma linha CSV com os valores informados.
+     *
+     * @param valores Valores dos campos da linha; valores nulos geram campos vazios.
+     * @return Linha CSV terminada por quebra de linha.
+     */
+    public static String linha(Object ...valores) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARADOR);
+            }
+            sb.append(escapar(valores[i]));
+        }
+        return sb.append("\r\n").toString();
+    }
+
+    /**
+     * Converte o valor em um campo CSV. Campos que contêm separador, aspas ou quebras de linha são colocados
+     * entre aspas, duplicando as aspas internas.
+     *
+     * @param valor Valor do campo.
+     * @return Campo CSV.
+     */
+    public static String escapar(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor instanceof BigDecimal ? ((BigDecimal) valor).toPlainString() : valor.toString();
+        if (texto.indexOf(SEPARADOR) < 0 && texto.indexOf('"') < 0
+                && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return "\"" + texto.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * A classe TextoUtils fornece funcionalidades para preparar textos para buscas.
+ * 
+ * Métodos:
+ * - normalizar(String valor): Converte o texto para minúsculas, sem acentos e sem espaços nas extremidades.
+ * 
+ * Os nomes de produtos já cadastrados são normalizados pela migração db/migracao/002_busca_produto.sql com
+ * lower(trim(unaccent(nome))), e os cadastrados depois por normalizar. Para as letras dos alfabetos latinos da
+ * Europa (U+00C0 a U+017F) os dois dão o mesmo resultado: as letras que o NFD não decompõe (ø, ß, æ, œ, ł...) são
+ * convertidas pela mesma tabela da extensão unaccent. Fora dessa faixa (símbolos, outros alfabetos) os resultados
+ * podem diferir. A equivalência é conferida no PostgreSQL por ProdutoDAOTest.
+ */
+
+package br.com.pazzini.utils;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class TextoUtils {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    // Letras de U+00C0 a U+017F sem decomposição canônica, com a conversão da extensão unaccent (unaccent.rules).
+    private static final String[] LETRAS = {
+        "Æ", "AE", "Ð", "D", "Ø", "O", "Þ", "TH", "ß", "ss", "æ", "ae", "ð", "d", "ø", "o", "þ", "th",
+        "Đ", "D", "đ", "d", "Ħ", "H", "ħ", "h", "ı", "i", "Ĳ", "IJ", "ĳ", "ij", "ĸ", "q", "Ŀ", "L", "ŀ", "l",
+        "Ł", "L", "ł", "l", "ŉ", "'n", "Ŋ", "N", "ŋ", "n", "Œ", "OE", "œ", "oe", "Ŧ", "T", "ŧ", "t", "ſ", "s"
+    };
+
+    private static final Map<Character, String> SUBSTITUICOES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < LETRAS.length; i += 2) {
+            SUBSTITUICOES.put(LETRAS[i].charAt(0), LETRAS[i + 1]);
+        }
+    }
+
+    /**
+     * Normaliza o texto para comparação em buscas: remove os acentos, converte para minúsculas e remove os espaços
+     * das extremidades. "Café Açúcar " e "cafe acucar" resultam no mesmo valor, assim como "Weißbier" e "weissbier".
+     * 
+     * @param valor Texto de entrada.
+     * @return Texto normalizado, ou string vazia quando o valor é nulo.
+     */
+    public static String normalizar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(valor, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder texto = new StringBuilder(semAcentos.length());
+        for (int i = 0; i < semAcentos.length(); i++) {
+            char letra = semAcentos.charAt(i);
+            String substituta = letra < 'À' ? null : SUBSTITUICOES.get(letra);
+            if (substituta == null) {
+                texto.append(letra);
+            } else {
+                texto.append(substituta);
+            }
+        }
+        return texto.toString().toLowerCase(Locale.ROOT).trim();
+    }
+}
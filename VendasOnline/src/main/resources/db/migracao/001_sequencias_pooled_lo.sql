@@ -0,0 +1,28 @@
+-- Migração das sequências para o otimizador pooled-lo.
+--
+-- As entidades passaram a reservar ids em blocos (allocationSize > 1). Com o pooled-lo, cada nextval devolve o
+-- primeiro id de um bloco de allocationSize ids, então o INCREMENT BY da sequência precisa ser igual ao
+-- allocationSize da entidade. O hbm2ddl.auto=update não altera sequências existentes, por isso este script deve
+-- ser executado uma vez, com a aplicação parada, antes de publicar a nova versão.
+--
+-- O setval posiciona cada sequência logo depois do maior id já utilizado; o próximo nextval começa um bloco
+-- novo a partir dali, sem colidir com os registros gravados com allocationSize = 1.
+--
+-- Para mudar o tamanho do bloco de uma entidade, altere o INCREMENT BY aqui e o allocationSize (ou o
+-- sequence-generator no orm.xml) juntos.
+
+BEGIN;
+
+ALTER SEQUENCE sq_cliente INCREMENT BY 20;
+SELECT setval('sq_cliente', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_cliente), false);
+
+ALTER SEQUENCE sq_produto INCREMENT BY 20;
+SELECT setval('sq_produto', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_produto), false);
+
+ALTER SEQUENCE sq_venda INCREMENT BY 50;
+SELECT setval('sq_venda', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_venda), false);
+
+ALTER SEQUENCE sq_prod_qtd INCREMENT BY 100;
+SELECT setval('sq_prod_qtd', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_produto_quantidade), false);
+
+COMMIT;
@@ -0,0 +1,22 @@
+-- Índice da busca de produtos por nome (autocomplete da venda).
+--
+-- A busca compara a coluna NOME_BUSCA, que guarda o nome em minúsculas e sem acentos (Produto.setNome), com
+-- LIKE 'termo%' e LIKE '%termo%'. O hbm2ddl.auto=update cria a coluna e um índice B-tree comum, que não atende
+-- ao LIKE com curinga no início; o índice GIN com gin_trgm_ops atende às duas formas.
+--
+-- Este script deve ser executado uma vez, depois da primeira publicação com a coluna NOME_BUSCA, para preencher
+-- a coluna dos produtos já cadastrados e criar o índice. O preenchimento usa a extensão unaccent, que dá o mesmo
+-- resultado de TextoUtils.normalizar para as letras latinas de U+00C0 a U+017F (conferido por ProdutoDAOTest).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+BEGIN;
+
+ALTER TABLE tb_produto ADD COLUMN IF NOT EXISTS nome_busca VARCHAR(50);
+UPDATE tb_produto SET nome_busca = lower(trim(unaccent(nome))) WHERE nome_busca IS NULL;
+
+COMMIT;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_produto_nome_busca_trgm
+    ON tb_produto USING gin (nome_busca gin_trgm_ops);
@@ -0,0 +1,26 @@
+-- Índice da busca de clientes por nome (autocomplete da venda).
+--
+-- A busca compara a coluna NOME_BUSCA, que guarda o nome em minúsculas e sem acentos (Cliente.setNome), com
+-- LIKE 'termo%' e ordena por (NOME_BUSCA, id), parando no limite de sugestões. Para que o mesmo índice atenda ao
+-- LIKE e à ordenação, a coluna usa a collation "C": com a collation padrão do banco, o PostgreSQL não usa o
+-- índice B-tree para LIKE e teria que ordenar todos os clientes encontrados.
+--
+-- A busca por CPF usa o índice único já existente na coluna CPF.
+--
+-- Este script deve ser executado uma vez, depois da primeira publicação com a coluna NOME_BUSCA, para preencher
+-- a coluna dos clientes já cadastrados e recriar o índice criado pelo hbm2ddl.
+
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+BEGIN;
+
+ALTER TABLE tb_cliente ADD COLUMN IF NOT EXISTS nome_busca VARCHAR(50);
+ALTER TABLE tb_cliente ALTER COLUMN nome_busca TYPE VARCHAR(50) COLLATE "C";
+UPDATE tb_cliente SET nome_busca = lower(trim(unaccent(nome))) WHERE nome_busca IS NULL;
+
+DROP INDEX IF EXISTS idx_cliente_nome_busca;
+CREATE INDEX idx_cliente_nome_busca ON tb_cliente (nome_busca, id);
+
+COMMIT;
+
+ANALYZE tb_cliente;
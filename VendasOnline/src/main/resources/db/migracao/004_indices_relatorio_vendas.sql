@@ -0,0 +1,29 @@
+-- Índices dos relatórios de vendas (RelatorioVendaDAO).
+--
+-- Os relatórios agregam no banco as vendas de um período: filtram TB_VENDA por STATUS_VENDA e DATA_VENDA, agrupam
+-- por dia, mês, cliente ou status e somam as linhas de TB_PRODUTO_QUANTIDADE das vendas encontradas. Sem estes
+-- índices, cada relatório percorre as duas tabelas inteiras.
+--
+-- O hbm2ddl.auto=update cria os mesmos índices (declarados em @Table de Venda e ProdutoQuantidade) em bancos novos,
+-- mas com CREATE INDEX comum, que bloqueia as gravações na tabela durante a criação. Em produção, execute este
+-- script antes de publicar a nova versão: CREATE INDEX CONCURRENTLY não bloqueia as vendas em andamento, mas não
+-- pode ser executado dentro de uma transação, por isso não há BEGIN/COMMIT.
+--
+-- Se a criação concorrente falhar, o índice fica marcado como inválido; remova-o com DROP INDEX CONCURRENTLY e
+-- execute o script novamente. O INCLUDE (valor_total) exige PostgreSQL 11 ou superior; ele permite somar a receita
+-- de um status no período lendo apenas o índice.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_venda_status_data
+    ON tb_venda (status_venda, data_venda) INCLUDE (valor_total);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_venda_data
+    ON tb_venda (data_venda);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_venda_cliente
+    ON tb_venda (id_cliente_fk);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_prod_qtd_venda
+    ON tb_produto_quantidade (id_venda_fk);
+
+ANALYZE tb_venda;
+ANALYZE tb_produto_quantidade;
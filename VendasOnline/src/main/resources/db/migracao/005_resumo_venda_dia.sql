@@ -0,0 +1,42 @@
+-- Resumo diário de vendas por dia, produto e status (ResumoVendaDia).
+--
+-- O VendaService mantém o resumo na mesma transação das vendas: cadastros somam as linhas da venda no status
+-- INICIADA, finalizações e cancelamentos passam as linhas para o novo status e alterações refazem a venda. Os
+-- relatórios de períodos longos (IRelatorioVendaService.receitaPorProduto por dias) leem o resumo em vez das linhas.
+--
+-- O hbm2ddl.auto=update cria a tabela em bancos novos. Este script cria a tabela em produção e preenche o resumo
+-- com todas as vendas já gravadas; deve ser executado uma vez, antes de publicar a versão que mantém o resumo, para
+-- que as vendas gravadas depois da publicação não sejam contadas duas vezes. O LOCK impede que o resumo seja
+-- alterado durante o preenchimento.
+--
+-- Para corrigir um período depois (por exemplo, após alterações feitas direto no banco), use a reconstrução por dia:
+-- POST /resumo/reconstruir?inicio=AAAA-MM-DD&fim=AAAA-MM-DD, que reconstrói um dia por transação com a aplicação
+-- no ar.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tb_resumo_venda_dia (
+    dia          DATE           NOT NULL,
+    produto_id   BIGINT         NOT NULL,
+    status_venda VARCHAR(255)   NOT NULL,
+    vendas       BIGINT         NOT NULL,
+    quantidade   BIGINT         NOT NULL,
+    valor_total  NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (dia, produto_id, status_venda)
+);
+
+CREATE INDEX IF NOT EXISTS idx_resumo_status_dia ON tb_resumo_venda_dia (status_venda, dia);
+
+LOCK TABLE tb_resumo_venda_dia IN SHARE ROW EXCLUSIVE MODE;
+
+TRUNCATE tb_resumo_venda_dia;
+
+INSERT INTO tb_resumo_venda_dia (dia, produto_id, status_venda, vendas, quantidade, valor_total)
+SELECT CAST(v.data_venda AS DATE), pq.produto_id, v.status_venda, COUNT(*), SUM(pq.quantidade), SUM(pq.valor_total)
+FROM tb_venda v
+JOIN tb_produto_quantidade pq ON pq.id_venda_fk = v.id
+GROUP BY 1, 2, 3;
+
+COMMIT;
+
+ANALYZE tb_resumo_venda_dia;
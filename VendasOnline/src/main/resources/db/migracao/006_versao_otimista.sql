@@ -0,0 +1,17 @@
+-- Colunas de versão do controle de concorrência otimista (@Version em Venda, Produto e Cliente).
+--
+-- Cada alteração grava a versão lida na condição do UPDATE e a incrementa; se outra transação alterou o registro
+-- antes, nenhuma linha é alterada e a aplicação recusa a alteração (AlteracaoConcorrenteException) em vez de
+-- sobrescrever a outra. As transições de status das vendas também incrementam a versão.
+--
+-- O hbm2ddl.auto=update tentaria criar as colunas como NOT NULL sem valor padrão, o que falha em tabelas com
+-- registros. Este script deve ser executado uma vez, antes de publicar a versão com @Version. No PostgreSQL 11 ou
+-- superior, ADD COLUMN com DEFAULT constante não reescreve a tabela, então o bloqueio de cada ALTER é breve.
+
+BEGIN;
+
+ALTER TABLE tb_venda ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tb_produto ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tb_cliente ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
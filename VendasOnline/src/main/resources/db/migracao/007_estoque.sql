@@ -0,0 +1,22 @@
+-- Estoque dos produtos (Estoque / TB_ESTOQUE).
+--
+-- O estoque fica em uma tabela própria, uma linha por produto, e não em uma coluna de tb_produto: as reservas
+-- alteram a linha a cada venda, e uma coluna em tb_produto invalidaria o cache de segundo nível dos produtos e
+-- conflitaria com a versão (@Version) usada na edição do cadastro. Produtos sem linha não têm controle de estoque.
+--
+-- As reservas são UPDATEs condicionais (DISPONIVEL >= quantidade); o CHECK é a última barreira contra um
+-- disponível negativo, caso o estoque seja alterado direto no banco.
+--
+-- A tabela começa vazia. O controle de cada produto começa pelo IEstoqueService (definir), que grava o disponível
+-- informado e calcula o reservado a partir das vendas INICIADAS do produto, para que a finalização ou o
+-- cancelamento delas não desequilibre o estoque.
+
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS tb_estoque (
+    produto_id BIGINT PRIMARY KEY REFERENCES tb_produto (id),
+    disponivel BIGINT NOT NULL CHECK (disponivel >= 0),
+    reservado BIGINT NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,27 @@
+-- Caixa de saída de eventos de venda (EventoVenda / TB_EVENTO_VENDA).
+--
+-- O VendaService grava um evento por venda cadastrada, finalizada ou cancelada, na mesma transação da venda. O
+-- PublicadorEventosVenda lê os eventos em ordem de id, entrega cada lote ao destino configurado no web.xml
+-- (venda.eventos.arquivo) e apaga o lote; em operação normal a tabela tem só os eventos dos últimos segundos.
+--
+-- Os ids são obtidos pelo próprio INSERT (nextval), um por evento, por isso a sequência tem incremento 1, ao
+-- contrário das sequências das entidades (001_sequencias_pooled_lo.sql). Uma única sequência para todos os
+-- servidores garante que os eventos de uma venda têm ids crescentes.
+--
+-- A tabela começa vazia: as vendas gravadas antes desta versão não geram eventos.
+
+BEGIN;
+
+CREATE SEQUENCE IF NOT EXISTS sq_evento_venda INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS tb_evento_venda (
+    id           BIGINT         PRIMARY KEY,
+    id_venda     BIGINT         NOT NULL,
+    codigo_venda VARCHAR(255)   NOT NULL,
+    tipo         VARCHAR(255)   NOT NULL,
+    id_cliente   BIGINT         NOT NULL,
+    valor_total  NUMERIC(19, 2) NOT NULL,
+    data_evento  TIMESTAMP      NOT NULL
+);
+
+COMMIT;
@@ -0,0 +1,82 @@
+/**
+ * A classe AlteracaoVendaTest contém testes da alteração de vendas pelo VendaService, gravando em um banco H2 em
+ * memória (unidade de persistência "teste").
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import javax.persistence.EntityManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.cache.CatalogoProdutos;
+import br.com.pazzini.dao.EstoqueDAO;
+import br.com.pazzini.dao.EventoVendaDAO;
+import br.com.pazzini.dao.VendaDAO;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.service.VendaService;
+
+public class AlteracaoVendaTest {
+
+    private BancoTeste banco;
+
+    private EntityManager em;
+
+    private VendaService vendaService;
+
+    @Before
+    public void init() throws ReflectiveOperationException {
+        banco = new BancoTeste();
+        em = banco.getEntityManager();
+        vendaService = new VendaService(banco.dao(VendaDAO.class), new ResumoIgnorado(), banco.dao(EstoqueDAO.class),
+                banco.dao(EventoVendaDAO.class));
+    }
+
+    @After
+    public void fechar() {
+        banco.fechar();
+    }
+
+    /**
+     * Testa a alteração de uma venda com um produto obtido do catálogo em memória, depois que o produto foi editado
+     * no cadastro: a venda é gravada e o produto não é alterado.
+     */
+    @Test
+    public void alterarVendaComProdutoDoCatalogo() throws Exception {
+        Cliente cliente = MassaTeste.cliente("Cliente", 12345678901L);
+        Produto arroz = MassaTeste.produto(null, "A", "Arroz", new BigDecimal("19.90"));
+        Produto feijao = MassaTeste.produto(null, "F", "Feijão", new BigDecimal("8.35"));
+        banco.emTransacao(() -> {
+            em.persist(cliente);
+            em.persist(arroz);
+            em.persist(feijao);
+        });
+        banco.emTransacao(() -> em.find(Produto.class, feijao.getId()).setDescricao("Feijão carioca"));
+        Venda venda = MassaTeste.venda("V1", cliente, arroz);
+        banco.emTransacao(() -> vendaService.cadastrar(venda));
+        em.clear();
+
+        CatalogoProdutos catalogo = new CatalogoProdutos();
+        catalogo.carregar(em.createQuery("SELECT p FROM Produto p", Produto.class).getResultList());
+        Venda editada = vendaService.consultarComCollection(venda.getId());
+        em.clear();
+        editada.adicionarProduto(catalogo.consultarPorCodigo("F"), 2);
+        banco.emTransacao(() -> vendaService.alterar(editada));
+        em.clear();
+
+        Venda gravada = vendaService.consultarComCollection(venda.getId());
+        assertEquals(2, gravada.getProdutos().size());
+        assertEquals(1990 + 2 * 835, gravada.getValorTotalCentavos());
+        Produto feijaoGravado = em.find(Produto.class, feijao.getId());
+        assertEquals(1, feijaoGravado.getVersao());
+        assertEquals("Feijão carioca", feijaoGravado.getDescricao());
+    }
+}
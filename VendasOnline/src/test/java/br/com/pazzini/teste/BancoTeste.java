@@ -0,0 +1,137 @@
+/**
+ * A classe BancoTeste abre a unidade de persistência "teste" (banco H2 em memória, recriado a cada abertura) para os
+ * testes que gravam no banco.
+ * 
+ * Os testes que dependem do comportamento do PostgreSQL (ON CONFLICT, LOCK TABLE, bloqueio de linha, unaccent)
+ * usam postgres(), que abre a mesma unidade sobre um PostgreSQL embutido (embedded-postgres), iniciado uma única vez
+ * e compartilhado pelos testes. Onde o PostgreSQL não pode ser iniciado (ex: o initdb recusa rodar como root), esses
+ * testes são ignorados (Assume) em vez de falhar.
+ * 
+ * Métodos:
+ * - postgres(): Abre a unidade sobre o PostgreSQL embutido, com as tabelas recriadas.
+ * - getEntityManager(): Retorna o EntityManager do teste.
+ * - criarEntityManager(): Cria outro EntityManager da mesma fábrica, para uso em outra thread.
+ * - dao(Class<D> tipo) / dao(Class<D> tipo, EntityManager em): Instancia o DAO com o EntityManager do teste (ou o
+ *   informado), no lugar da injeção feita pelo container.
+ * - emTransacao(Operacao operacao) / emTransacao(EntityManager em, Operacao operacao): Executa a operação em uma
+ *   transação, confirmada ao final.
+ * - fechar(): Fecha o EntityManager e a fábrica.
+ */
+
+package br.com.pazzini.teste;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.Assume;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+public final class BancoTeste {
+
+    private static EmbeddedPostgres postgres;
+
+    private static Exception falhaPostgres;
+
+    private final EntityManagerFactory fabrica;
+
+    private final EntityManager em;
+
+    public BancoTeste() {
+        this(new HashMap<>());
+    }
+
+    private BancoTeste(Map<String, Object> propriedades) {
+        fabrica = Persistence.createEntityManagerFactory("teste", propriedades);
+        em = fabrica.createEntityManager();
+    }
+
+    public static BancoTeste postgres() {
+        String url = iniciarPostgres();
+        Assume.assumeTrue("PostgreSQL embutido indisponível: " + falhaPostgres, url != null);
+        Map<String, Object> propriedades = new HashMap<>();
+        propriedades.put("javax.persistence.jdbc.driver", "org.postgresql.Driver");
+        propriedades.put("javax.persistence.jdbc.url", url);
+        propriedades.put("javax.persistence.jdbc.user", "postgres");
+        propriedades.put("javax.persistence.jdbc.password", "");
+        propriedades.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQL95Dialect");
+        return new BancoTeste(propriedades);
+    }
+
+    private static synchronized String iniciarPostgres() {
+        if (postgres == null && falhaPostgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        postgres.close();
+                    } catch (IOException e) {
+                        // o processo do PostgreSQL termina junto com a JVM
+                    }
+                }));
+            } catch (IOException | RuntimeException e) {
+                falhaPostgres = e;
+            }
+        }
+        return postgres == null ? null : postgres.getJdbcUrl("postgres", "postgres");
+    }
+
+    public EntityManager getEntityManager() {
+        return em;
+    }
+
+    public EntityManager criarEntityManager() {
+        return fabrica.createEntityManager();
+    }
+
+    public <D> D dao(Class<D> tipo) throws ReflectiveOperationException {
+        return dao(tipo, em);
+    }
+
+    public <D> D dao(Class<D> tipo, EntityManager em) throws ReflectiveOperationException {
+        D dao = tipo.getDeclaredConstructor().newInstance();
+        for (Class<?> classe = tipo; classe != null; classe = classe.getSuperclass()) {
+            try {
+                Field campo = classe.getDeclaredField("entityManager");
+                campo.setAccessible(true);
+                campo.set(dao, em);
+                return dao;
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+        }
+        throw new NoSuchFieldException("entityManager");
+    }
+
+    public void emTransacao(Operacao operacao) throws Exception {
+        emTransacao(em, operacao);
+    }
+
+    public static void emTransacao(EntityManager em, Operacao operacao) throws Exception {
+        em.getTransaction().begin();
+        try {
+            operacao.executar();
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+        }
+    }
+
+    public void fechar() {
+        em.close();
+        fabrica.close();
+    }
+
+    @FunctionalInterface
+    public interface Operacao {
+        void executar() throws Exception;
+    }
+}
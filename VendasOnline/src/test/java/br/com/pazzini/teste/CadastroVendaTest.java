@@ -0,0 +1,86 @@
+/**
+ * A classe CadastroVendaTest contém testes do cadastro de vendas pelo VendaDAO, gravando em um banco H2 em memória
+ * (unidade de persistência "teste").
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.dao.VendaDAO;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.ProdutoQuantidade;
+import br.com.pazzini.domain.Venda;
+
+public class CadastroVendaTest {
+
+    private BancoTeste banco;
+
+    private EntityManager em;
+
+    private VendaDAO vendaDao;
+
+    @Before
+    public void init() throws ReflectiveOperationException {
+        banco = new BancoTeste();
+        em = banco.getEntityManager();
+        vendaDao = banco.dao(VendaDAO.class);
+    }
+
+    @After
+    public void fechar() {
+        banco.fechar();
+    }
+
+    /**
+     * Testa o cadastro de uma venda com o cliente e os produtos fora do contexto de persistência: nenhum cadastro é
+     * consultado, e a venda do chamador continua com as mesmas instâncias, utilizáveis depois da transação.
+     */
+    @Test
+    public void cadastrarSemConsultarCadastros() throws Exception {
+        Cliente cliente = MassaTeste.cliente("Cliente", 12345678901L);
+        Produto arroz = MassaTeste.produto(null, "A", "Arroz", new BigDecimal("19.90"));
+        Produto feijao = MassaTeste.produto(null, "F", "Feijão", new BigDecimal("8.35"));
+        banco.emTransacao(() -> {
+            em.persist(cliente);
+            em.persist(arroz);
+            em.persist(feijao);
+        });
+        em.clear();
+
+        Statistics estatisticas = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+        Venda venda = MassaTeste.venda("V1", cliente, arroz, feijao);
+        banco.emTransacao(() -> vendaDao.cadastrar(venda));
+        em.clear();
+
+        assertEquals(0, estatisticas.getEntityLoadCount() + estatisticas.getEntityFetchCount());
+        assertEquals(0, estatisticas.getEntityUpdateCount());
+        assertEquals(3, estatisticas.getEntityInsertCount());
+        assertSame(cliente, venda.getCliente());
+        assertEquals("Cliente", venda.getCliente().getNome());
+        for (ProdutoQuantidade linha : venda.getProdutos()) {
+            assertSame(linha, venda.getLinha(linha.getProduto().getCodigo()));
+        }
+        venda.adicionarProduto(arroz, 1);
+        assertEquals(2, venda.getLinha("A").getQuantidade());
+
+        Venda gravada = vendaDao.consultarComCollection(venda.getId());
+        assertEquals(cliente.getId(), gravada.getCliente().getId());
+        assertEquals(2, gravada.getProdutos().size());
+        assertEquals(1990 + 835, gravada.getValorTotalCentavos());
+    }
+}
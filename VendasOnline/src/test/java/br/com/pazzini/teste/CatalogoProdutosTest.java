@@ -0,0 +1,138 @@
+/**
+ * A classe CatalogoProdutosTest contém testes unitários para a classe CatalogoProdutos.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.cache.CatalogoProdutos;
+import br.com.pazzini.domain.Produto;
+
+public class CatalogoProdutosTest {
+
+    private CatalogoProdutos catalogo;
+
+    @Before
+    public void init() {
+        catalogo = new CatalogoProdutos();
+        catalogo.carregar(Arrays.asList(
+                MassaTeste.produto(1L, "P1", "Café Torrado", BigDecimal.TEN),
+                MassaTeste.produto(2L, "P2", "Açúcar Cristal", BigDecimal.TEN),
+                MassaTeste.produto(3L, "P3", "Pó de Café", BigDecimal.TEN),
+                MassaTeste.produto(4L, "P4", "Cafeteira", BigDecimal.TEN)));
+    }
+
+    /**
+     * Testa a busca por nome sem acentos, com os nomes que começam pelo termo antes dos que o contêm.
+     */
+    @Test
+    public void buscarPorNomeComPrefixoPrimeiro() {
+        assertEquals(Arrays.asList("Café Torrado", "Cafeteira", "Pó de Café"), nomes(catalogo.buscarPorNome("CAFE", 10)));
+        assertEquals(Arrays.asList("Café Torrado"), nomes(catalogo.buscarPorNome("cafe", 1)));
+        assertEquals(Arrays.asList("Açúcar Cristal"), nomes(catalogo.buscarPorNome("acucar", 10)));
+    }
+
+    /**
+     * Testa a atualização e a remoção incremental de produtos, inclusive a troca do nome.
+     */
+    @Test
+    public void atualizarERemover() {
+        catalogo.atualizar(MassaTeste.produto(4L, "P4", "Chaleira", BigDecimal.TEN));
+        catalogo.remover(MassaTeste.produto(1L, "P1", "Café Torrado", BigDecimal.TEN));
+
+        assertEquals(Arrays.asList("Pó de Café"), nomes(catalogo.buscarPorNome("caf", 10)));
+        assertEquals("Chaleira", catalogo.consultarPorCodigo("P4").getNome());
+        assertNull(catalogo.consultarPorCodigo("P1"));
+        assertEquals(3, catalogo.getTamanho());
+    }
+
+    /**
+     * Testa as métricas de acertos e falhas.
+     */
+    @Test
+    public void metricas() {
+        catalogo.consultarPorCodigo("P2");
+        catalogo.consultarPorCodigo("XX");
+        catalogo.invalidar();
+        assertNull(catalogo.buscarPorNome("cafe", 10));
+
+        assertEquals(1, catalogo.getAcertos());
+        assertEquals(2, catalogo.getFalhas());
+    }
+
+    /**
+     * Testa que alterações nos produtos retornados não alteram o catálogo, e que as cópias mantêm a versão do
+     * produto.
+     */
+    @Test
+    public void retornaCopias() {
+        Produto editado = MassaTeste.produto(2L, "P2", "Açúcar Cristal", BigDecimal.TEN);
+        editado.setVersao(3);
+        catalogo.atualizar(editado);
+        catalogo.consultarPorCodigo("P2").setValor(BigDecimal.ZERO);
+
+        assertEquals(new BigDecimal("10.00"), catalogo.consultarPorCodigo("P2").getValor());
+        assertEquals(3, catalogo.consultarPorCodigo("P2").getVersao());
+    }
+
+    /**
+     * Testa que um produto lido antes de uma alteração confirmada não substitui a versão mais nova do catálogo.
+     */
+    @Test
+    public void ignorarVersaoAntiga() {
+        Produto alterado = MassaTeste.produto(2L, "P2", "Açúcar Refinado", BigDecimal.ONE);
+        alterado.setVersao(2);
+        assertTrue(catalogo.atualizar(alterado));
+
+        Produto lidoAntes = MassaTeste.produto(2L, "P2", "Açúcar Cristal", BigDecimal.TEN);
+        lidoAntes.setVersao(1);
+        assertFalse(catalogo.atualizar(lidoAntes));
+
+        assertEquals("Açúcar Refinado", catalogo.consultarPorCodigo("P2").getNome());
+        assertEquals(2, catalogo.consultarPorCodigo("P2").getVersao());
+    }
+
+    /**
+     * Testa que o carregamento sob demanda lê os produtos uma única vez e que uma atualização feita durante a leitura
+     * é aplicada depois do carregamento, sem ser sobrescrita pela lista lida antes dela.
+     */
+    @Test
+    public void carregarSobDemandaSemPerderAtualizacao() throws Exception {
+        CatalogoProdutos novo = new CatalogoProdutos();
+        AtomicInteger leituras = new AtomicInteger();
+        Thread[] atualizacao = new Thread[1];
+
+        assertTrue(novo.carregarSeNecessario(() -> {
+            leituras.incrementAndGet();
+            atualizacao[0] = new Thread(() -> novo.atualizar(
+                    MassaTeste.produto(1L, "P1", "Café Extra Forte", BigDecimal.TEN)));
+            atualizacao[0].start();
+            return Arrays.asList(MassaTeste.produto(1L, "P1", "Café Torrado", BigDecimal.TEN));
+        }));
+        atualizacao[0].join();
+
+        assertFalse(novo.carregarSeNecessario(() -> {
+            leituras.incrementAndGet();
+            return Arrays.asList();
+        }));
+        assertEquals(1, leituras.get());
+        assertEquals("Café Extra Forte", novo.consultarPorCodigo("P1").getNome());
+    }
+
+    private List<String> nomes(List<Produto> produtos) {
+        return produtos.stream().map(Produto::getNome).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * A classe ClienteDAOTest contém testes da busca do autocomplete de clientes (ClienteDAO.buscarResumos), pelo início
+ * do CPF ou do nome, executando as consultas em um banco H2 em memória no modo PostgreSQL (unidade de persistência
+ * "teste").
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.dao.ClienteDAO;
+import br.com.pazzini.dto.ClienteResumo;
+
+public class ClienteDAOTest {
+
+    private BancoTeste banco;
+
+    private ClienteDAO clienteDao;
+
+    @Before
+    public void init() throws Exception {
+        banco = new BancoTeste();
+        clienteDao = banco.dao(ClienteDAO.class);
+        EntityManager em = banco.getEntityManager();
+        banco.emTransacao(() -> {
+            em.persist(MassaTeste.cliente("José da Silva", 12345678901L));
+            em.persist(MassaTeste.cliente("Joana Souza", 1234567890L));
+            em.persist(MassaTeste.cliente("Ana Paula", 9876543210L));
+            em.persist(MassaTeste.cliente("Jose Carlos", 19999999999L));
+            em.persist(MassaTeste.cliente("123 Mercearia", 20000000000L));
+        });
+        em.clear();
+    }
+
+    @After
+    public void fechar() {
+        banco.fechar();
+    }
+
+    /**
+     * Testa um prefixo de um dígito: o intervalo cobre os CPFs de 11 dígitos que começam pelo dígito, e os CPFs com
+     * zeros à esquerda (guardados como número menor) entram no prefixo "0".
+     */
+    @Test
+    public void buscarPorPrefixoDeUmDigito() {
+        assertEquals(Arrays.asList(12345678901L, 19999999999L), cpfs(clienteDao.buscarResumos("1", 10)));
+        assertEquals(Arrays.asList(1234567890L, 9876543210L), cpfs(clienteDao.buscarResumos("0", 10)));
+    }
+
+    /**
+     * Testa um CPF completo, com ou sem a pontuação: o intervalo tem um único valor.
+     */
+    @Test
+    public void buscarPorCpfCompleto() {
+        assertEquals(Collections.singletonList(12345678901L),
+                cpfs(clienteDao.buscarResumos("123.456.789-01", 10)));
+        assertEquals(Collections.singletonList(1234567890L), cpfs(clienteDao.buscarResumos("01234567890", 10)));
+        List<ClienteResumo> resumos = clienteDao.buscarResumos(" 12345678901 ", 10);
+        assertEquals("José da Silva", resumos.get(0).getNome());
+    }
+
+    /**
+     * Testa que um termo com letras, ou com mais de 11 dígitos, é procurado no início do nome e não no CPF.
+     */
+    @Test
+    public void buscarTermoNaoNumericoPeloNome() {
+        assertEquals(Collections.singletonList("123 Mercearia"), nomes(clienteDao.buscarResumos("123 m", 10)));
+        assertEquals(Collections.emptyList(), nomes(clienteDao.buscarResumos("123456789012", 10)));
+        assertEquals(Collections.emptyList(), nomes(clienteDao.buscarResumos("1a", 10)));
+    }
+
+    /**
+     * Testa a busca pelo nome normalizado (nomeBusca): sem diferenciar maiúsculas e acentos, em ordem de nome e
+     * respeitando o limite.
+     */
+    @Test
+    public void buscarPeloNomeNormalizado() {
+        assertEquals(Arrays.asList("Jose Carlos", "José da Silva"), nomes(clienteDao.buscarResumos("JOSÉ", 10)));
+        assertEquals(Arrays.asList("Joana Souza", "Jose Carlos", "José da Silva"),
+                nomes(clienteDao.buscarResumos("jo", 10)));
+        assertEquals(Arrays.asList("Joana Souza", "Jose Carlos"), nomes(clienteDao.buscarResumos("jo", 2)));
+        assertEquals(Collections.emptyList(), nomes(clienteDao.buscarResumos("silva", 10)));
+    }
+
+    private static List<Long> cpfs(List<ClienteResumo> resumos) {
+        List<Long> cpfs = new ArrayList<>();
+        resumos.forEach(resumo -> cpfs.add(resumo.getCpf()));
+        return cpfs;
+    }
+
+    private static List<String> nomes(List<ClienteResumo> resumos) {
+        List<String> nomes = new ArrayList<>();
+        resumos.forEach(resumo -> nomes.add(resumo.getNome()));
+        return nomes;
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * A classe CodigosVendaRecentesTest contém testes unitários para o filtro de códigos de venda recentes.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.service.CodigosVendaRecentes;
+
+public class CodigosVendaRecentesTest {
+
+    /**
+     * Testa que a impressão não depende da ordem dos produtos e muda com o cliente ou as quantidades.
+     */
+    @Test
+    public void impressaoDoConteudo() {
+        long impressao = CodigosVendaRecentes.impressao(venda(1L, 10L, 2, 20L, 1));
+
+        assertEquals(impressao, CodigosVendaRecentes.impressao(venda(1L, 20L, 1, 10L, 2)));
+        assertNotEquals(impressao, CodigosVendaRecentes.impressao(venda(2L, 10L, 2, 20L, 1)));
+        assertNotEquals(impressao, CodigosVendaRecentes.impressao(venda(1L, 10L, 2, 20L, 2)));
+    }
+
+    /**
+     * Testa que o filtro descarta os códigos mais antigos ao passar da capacidade.
+     */
+    @Test
+    public void descartarMaisAntigos() {
+        CodigosVendaRecentes codigos = new CodigosVendaRecentes();
+        for (int i = 0; i <= CodigosVendaRecentes.CAPACIDADE; i++) {
+            codigos.registrar("V" + i, i);
+        }
+
+        assertNull(codigos.getImpressao("V0"));
+        assertEquals(Long.valueOf(1), codigos.getImpressao("V1"));
+        assertEquals(Long.valueOf(CodigosVendaRecentes.CAPACIDADE),
+                codigos.getImpressao("V" + CodigosVendaRecentes.CAPACIDADE));
+    }
+
+    private Venda venda(Long idCliente, Long idProduto1, int quantidade1, Long idProduto2, int quantidade2) {
+        Venda venda = new Venda();
+        venda.setCliente(MassaTeste.cliente(idCliente));
+        venda.adicionarProduto(
+                MassaTeste.produto(idProduto1, "P" + idProduto1, "P" + idProduto1, BigDecimal.ONE), quantidade1);
+        venda.adicionarProduto(
+                MassaTeste.produto(idProduto2, "P" + idProduto2, "P" + idProduto2, BigDecimal.ONE), quantidade2);
+        return venda;
+    }
+}
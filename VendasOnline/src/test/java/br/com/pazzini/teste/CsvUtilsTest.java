@@ -0,0 +1,36 @@
+/**
+ * A classe CsvUtilsTest contém testes unitários para a classe CsvUtils.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import br.com.pazzini.utils.CsvUtils;
+
+public class CsvUtilsTest {
+
+    /**
+     * Testa a montagem de uma linha com valores simples, nulos e decimais.
+     */
+    @Test
+    public void linhaSimples() {
+        String linha = CsvUtils.linha("A1", null, 3, new BigDecimal("1E+2"));
+
+        assertEquals("A1;;3;100\r\n", linha);
+    }
+
+    /**
+     * Testa o escape de campos com separador, aspas e quebra de linha.
+     */
+    @Test
+    public void escaparCaracteresEspeciais() {
+        assertEquals("\"Rua A; 10\"", CsvUtils.escapar("Rua A; 10"));
+        assertEquals("\"Produto \"\"X\"\"\"", CsvUtils.escapar("Produto \"X\""));
+        assertEquals("\"linha\nquebrada\"", CsvUtils.escapar("linha\nquebrada"));
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * A classe DinheiroTest contém testes unitários para a classe Dinheiro e para o total incremental da Venda.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import br.com.pazzini.domain.Dinheiro;
+import br.com.pazzini.domain.DinheiroConverter;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+
+public class DinheiroTest {
+
+    /**
+     * Testa a conversão entre centavos e a coluna NUMERIC, com arredondamento para 2 casas.
+     */
+    @Test
+    public void converter() {
+        DinheiroConverter converter = new DinheiroConverter();
+
+        assertEquals(new BigDecimal("10.50"), converter.convertToDatabaseColumn(1050L));
+        assertEquals(Long.valueOf(1050), converter.convertToEntityAttribute(new BigDecimal("10.5")));
+        assertEquals(1002, Dinheiro.centavos(new BigDecimal("10.025")));
+        assertEquals("-0.05", Dinheiro.deCentavos(-5).toString());
+    }
+
+    /**
+     * Testa que o total da venda acompanha as linhas adicionadas e removidas.
+     */
+    @Test
+    public void totalIncrementalDaVenda() {
+        Produto arroz = MassaTeste.produto(null, "A", "A", new BigDecimal("19.90"));
+        Produto feijao = MassaTeste.produto(null, "F", "F", new BigDecimal("8.35"));
+        Venda venda = new Venda();
+
+        venda.adicionarProduto(arroz, 2);
+        venda.adicionarProduto(feijao, 3);
+        venda.adicionarProduto(arroz, 1);
+        assertEquals(Dinheiro.de(new BigDecimal("84.75")), venda.getValorTotal());
+
+        venda.removerProduto(arroz, 1);
+        venda.removerProduto(feijao, 3);
+        assertEquals(Dinheiro.de(new BigDecimal("39.80")), venda.getValorTotal());
+
+        venda.recalcularValorTotalVenda();
+        assertEquals(3980, venda.getValorTotalCentavos());
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * A classe EstatisticasSqlTest contém testes unitários para o agrupamento de comandos da classe EstatisticasSql, para
+ * a detecção de N+1 e de consultas lentas e para a configuração em tempo de execução pelo JMX.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.metricas.EstatisticaConsulta;
+import br.com.pazzini.metricas.EstatisticasSql;
+import br.com.pazzini.metricas.InspetorSql;
+import br.com.pazzini.metricas.MonitorSessaoSql;
+
+public class EstatisticasSqlTest {
+
+    private static final String SQL_PRODUTO = "select produto0_.id from TB_PRODUTO produto0_ where produto0_.id=";
+
+    private final EstatisticasSql estatisticas = EstatisticasSql.getInstancia();
+
+    private final Logger logger = Logger.getLogger(EstatisticasSql.class.getName());
+
+    private final List<String> avisos = new ArrayList<>();
+
+    private final Handler coletor = new Handler() {
+
+        @Override
+        public void publish(LogRecord registro) {
+            avisos.add(new MessageFormat(registro.getMessage()).format(registro.getParameters()));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @Before
+    public void init() {
+        estatisticas.setAtivo(true);
+        estatisticas.setLimiteConsultaLentaMs(500);
+        estatisticas.setLimiteNMaisUm(10);
+        estatisticas.limpar();
+        logger.addHandler(coletor);
+    }
+
+    @After
+    public void restaurar() {
+        logger.removeHandler(coletor);
+        estatisticas.setAtivo(true);
+        estatisticas.setLimiteConsultaLentaMs(500);
+        estatisticas.setLimiteNMaisUm(10);
+        estatisticas.limpar();
+    }
+
+    /**
+     * Testa a substituição de literais e a redução das listas de parâmetros do IN.
+     */
+    @Test
+    public void normalizarLiteraisEListas() {
+        assertEquals("select v.id from TB_VENDA v where v.id in (?...) and v.STATUS_VENDA=? and v.codigo=?",
+                EstatisticasSql.normalizar("select v.id from TB_VENDA v\n  where v.id in (?, ?,?) "
+                        + "and v.STATUS_VENDA='INICIADA' and v.codigo=?"));
+        assertEquals("select produto0_.id from TB_PRODUTO produto0_ limit ?",
+                EstatisticasSql.normalizar("select produto0_.id from TB_PRODUTO produto0_ limit 10"));
+    }
+
+    /**
+     * Testa que uma sessão aberta fora de requisição que repete o mesmo SELECT limiteNMaisUm vezes é registrada
+     * como possível N+1 ao ser fechada, mesmo que por outra thread, sem deixar unidade de trabalho na thread que
+     * executou os comandos.
+     */
+    @Test
+    public void detectarNMaisUmNaSessao() throws Exception {
+        MonitorSessaoSql sessao = new MonitorSessaoSql();
+        for (int id = 1; id <= 10; id++) {
+            executar(sessao, SQL_PRODUTO + id);
+        }
+        CompletableFuture.runAsync(sessao::end).get(5, TimeUnit.SECONDS);
+
+        EstatisticaConsulta estatistica = getEstatistica(SQL_PRODUTO + "?");
+        assertEquals(10, estatistica.getResumo().getChamadas());
+        assertEquals(1, estatistica.getOcorrenciasNMaisUm());
+        assertTrue(avisos.toString(), avisos.stream().anyMatch(aviso -> aviso.startsWith("POSSÍVEL N+1")));
+        assertTrue("A thread não deveria ter uma unidade aberta", estatisticas.iniciarUnidade("teste"));
+        estatisticas.encerrarUnidade();
+    }
+
+    /**
+     * Testa que SELECTs repetidos menos de limiteNMaisUm vezes não são registrados como N+1, e que o comando
+     * informado pelo inspetor é consumido pela execução.
+     */
+    @Test
+    public void ignorarRepeticoesAbaixoDoLimite() {
+        MonitorSessaoSql sessao = new MonitorSessaoSql();
+        for (int id = 1; id <= 9; id++) {
+            executar(sessao, SQL_PRODUTO + id);
+        }
+        sessao.jdbcExecuteStatementStart();
+        sessao.jdbcExecuteStatementEnd();
+        sessao.end();
+
+        EstatisticaConsulta estatistica = getEstatistica(SQL_PRODUTO + "?");
+        assertEquals(9, estatistica.getResumo().getChamadas());
+        assertEquals(0, estatistica.getOcorrenciasNMaisUm());
+        assertTrue(avisos.toString(), avisos.isEmpty());
+    }
+
+    /**
+     * Testa que só as execuções a partir do limite de consulta lenta são contadas como lentas e registradas no log.
+     */
+    @Test
+    public void registrarConsultaLenta() {
+        estatisticas.setLimiteConsultaLentaMs(200);
+        new InspetorSql().inspect(SQL_PRODUTO + 1);
+        estatisticas.registrarExecucao(TimeUnit.MILLISECONDS.toNanos(199));
+        new InspetorSql().inspect(SQL_PRODUTO + 2);
+        estatisticas.registrarExecucao(TimeUnit.MILLISECONDS.toNanos(200));
+
+        EstatisticaConsulta estatistica = getEstatistica(SQL_PRODUTO + "?");
+        assertEquals(2, estatistica.getResumo().getChamadas());
+        assertEquals(1, estatistica.getLentas());
+        assertEquals(1, avisos.size());
+        assertEquals("CONSULTA LENTA (200 ms): " + SQL_PRODUTO + 2, avisos.get(0));
+    }
+
+    /**
+     * Testa que as estatísticas podem ser desligadas e religadas pelo MBean, sem registrar nada enquanto estão
+     * desligadas.
+     */
+    @Test
+    public void ligarEDesligarPeloJmx() throws Exception {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nome = new ObjectName(EstatisticasSql.NOME_JMX);
+        boolean registrado = !servidor.isRegistered(nome);
+        if (registrado) {
+            servidor.registerMBean(estatisticas, nome);
+        }
+        try {
+            servidor.setAttribute(nome, new Attribute("Ativo", false));
+            assertFalse(estatisticas.isAtivo());
+            new InspetorSql().inspect(SQL_PRODUTO + 1);
+            estatisticas.registrarExecucao(1000);
+            assertEquals(0, servidor.getAttribute(nome, "QuantidadeFormatos"));
+
+            servidor.setAttribute(nome, new Attribute("Ativo", true));
+            new InspetorSql().inspect(SQL_PRODUTO + 2);
+            estatisticas.registrarExecucao(1000);
+            assertEquals(1, servidor.getAttribute(nome, "QuantidadeFormatos"));
+            assertEquals(1, getEstatistica(SQL_PRODUTO + "?").getResumo().getChamadas());
+
+            servidor.invoke(nome, "limpar", null, null);
+            assertEquals(0, estatisticas.getQuantidadeFormatos());
+        } finally {
+            if (registrado) {
+                servidor.unregisterMBean(nome);
+            }
+        }
+    }
+
+    // Simula o Hibernate executando um comando na sessão: o inspetor recebe o texto e o monitor mede a execução.
+    private static void executar(MonitorSessaoSql sessao, String sql) {
+        new InspetorSql().inspect(sql);
+        sessao.jdbcExecuteStatementStart();
+        sessao.jdbcExecuteStatementEnd();
+    }
+
+    private EstatisticaConsulta getEstatistica(String formato) {
+        return estatisticas.getEstatisticas().stream().filter(estatistica -> estatistica.getFormato().equals(formato))
+                .findFirst().orElseThrow(() -> new AssertionError("Formato não registrado: " + formato));
+    }
+}
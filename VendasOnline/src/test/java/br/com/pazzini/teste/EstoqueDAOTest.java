@@ -0,0 +1,156 @@
+/**
+ * A classe EstoqueDAOTest contém testes das reservas de estoque concorrentes (EstoqueDAO.reservar) no PostgreSQL,
+ * que bloqueia a linha do estoque alterada até o fim da transação e reavalia a condição do UPDATE depois da espera.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.dao.EstoqueDAO;
+import br.com.pazzini.domain.Estoque;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.exceptions.EstoqueInsuficienteException;
+
+public class EstoqueDAOTest {
+
+    private static final int THREADS = 16;
+
+    private BancoTeste banco;
+
+    private Long idArroz;
+
+    private Long idFeijao;
+
+    @Before
+    public void init() throws Exception {
+        banco = BancoTeste.postgres();
+        EntityManager em = banco.getEntityManager();
+        Produto arroz = MassaTeste.produto(null, "A", "Arroz", new BigDecimal("19.90"));
+        Produto feijao = MassaTeste.produto(null, "F", "Feijão", new BigDecimal("8.35"));
+        banco.emTransacao(() -> {
+            em.persist(arroz);
+            em.persist(feijao);
+        });
+        idArroz = arroz.getId();
+        idFeijao = feijao.getId();
+        em.clear();
+    }
+
+    @After
+    public void fechar() {
+        if (banco != null) {
+            banco.fechar();
+        }
+    }
+
+    /**
+     * Testa THREADS transações reservando 3 unidades do mesmo produto ao mesmo tempo, com 10 disponíveis: exatamente
+     * 3 reservam, as demais recebem EstoqueInsuficienteException, e o reservado somado ao disponível continua igual
+     * ao estoque inicial.
+     */
+    @Test
+    public void reservarMesmoProdutoConcorrentemente() throws Exception {
+        definir(idArroz, 10);
+
+        List<Boolean> resultados = reservarEmParalelo(Collections.singletonMap(idArroz, 3L));
+
+        assertEquals(3, Collections.frequency(resultados, true));
+        assertEquals(THREADS - 3, Collections.frequency(resultados, false));
+        Estoque estoque = banco.dao(EstoqueDAO.class).consultar(idArroz);
+        assertEquals(1, estoque.getDisponivel());
+        assertEquals(9, estoque.getReservado());
+        assertEquals(10, estoque.getDisponivel() + estoque.getReservado());
+    }
+
+    /**
+     * Testa reservas concorrentes de dois produtos com estoque suficiente para todas: nenhuma falha por deadlock, já
+     * que os produtos são bloqueados em ordem de id, e todas as quantidades são reservadas.
+     */
+    @Test
+    public void reservarDoisProdutosSemDeadlock() throws Exception {
+        definir(idArroz, 100);
+        definir(idFeijao, 100);
+        Map<Long, Long> quantidades = new TreeMap<>(Collections.reverseOrder());
+        quantidades.put(idArroz, 2L);
+        quantidades.put(idFeijao, 5L);
+
+        List<Boolean> resultados = reservarEmParalelo(quantidades);
+
+        assertEquals(THREADS, Collections.frequency(resultados, true));
+        EstoqueDAO estoqueDao = banco.dao(EstoqueDAO.class);
+        assertEquals(100 - 2 * THREADS, estoqueDao.consultar(idArroz).getDisponivel());
+        assertEquals(2 * THREADS, estoqueDao.consultar(idArroz).getReservado());
+        assertEquals(100 - 5 * THREADS, estoqueDao.consultar(idFeijao).getDisponivel());
+        assertEquals(5 * THREADS, estoqueDao.consultar(idFeijao).getReservado());
+    }
+
+    private void definir(Long idProduto, long disponivel) throws Exception {
+        EstoqueDAO estoqueDao = banco.dao(EstoqueDAO.class);
+        banco.emTransacao(() -> estoqueDao.definir(idProduto, disponivel));
+        banco.getEntityManager().clear();
+    }
+
+    // Cada thread abre a sua transação e espera as demais antes de reservar, para que as reservas disputem a linha
+    // do estoque. Retorna true para cada reserva feita e false para cada EstoqueInsuficienteException.
+    private List<Boolean> reservarEmParalelo(Map<Long, Long> quantidades) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier largada = new CyclicBarrier(THREADS);
+        List<Future<Boolean>> reservas = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                reservas.add(executor.submit(() -> reservar(quantidades, largada)));
+            }
+            List<Boolean> resultados = new ArrayList<>();
+            for (Future<Boolean> reserva : reservas) {
+                try {
+                    resultados.add(reserva.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof EstoqueInsuficienteException)) {
+                        throw e;
+                    }
+                    assertEquals(Collections.singletonList(idArroz),
+                            ((EstoqueInsuficienteException) e.getCause()).getIdsProdutos());
+                    resultados.add(false);
+                }
+            }
+            banco.getEntityManager().clear();
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean reservar(Map<Long, Long> quantidades, CyclicBarrier largada) throws Exception {
+        EntityManager em = banco.criarEntityManager();
+        try {
+            EstoqueDAO estoqueDao = banco.dao(EstoqueDAO.class, em);
+            BancoTeste.emTransacao(em, () -> {
+                largada.await(10, TimeUnit.SECONDS);
+                estoqueDao.reservar(quantidades);
+            });
+            return true;
+        } finally {
+            em.close();
+        }
+    }
+}
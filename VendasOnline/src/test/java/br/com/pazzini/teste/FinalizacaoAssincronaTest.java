@@ -0,0 +1,469 @@
+/**
+ * A classe FinalizacaoAssincronaTest contém testes da finalização assíncrona de vendas (FinalizacaoAssincrona), com
+ * um executor controlado pelo teste no lugar do executor do WildFly e um IVendaService simulado, e do
+ * VendaService.finalizarLote, que responde a cada pedido do lote, gravando em um banco H2 em memória.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+
+import org.junit.Test;
+
+import br.com.pazzini.dao.EstoqueDAO;
+import br.com.pazzini.dao.EventoVendaDAO;
+import br.com.pazzini.dao.VendaDAO;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.exceptions.FilaCheiaException;
+import br.com.pazzini.service.FinalizacaoAssincrona;
+import br.com.pazzini.service.IVendaService;
+import br.com.pazzini.service.PedidoFinalizacao;
+import br.com.pazzini.service.VendaService;
+
+public class FinalizacaoAssincronaTest {
+
+    /**
+     * Testa que, com a fila cheia, o pedido é recusado na hora com FilaCheiaException, e que a fila volta a aceitar
+     * pedidos depois de processada.
+     */
+    @Test
+    public void recusarComFilaCheia() throws Exception {
+        ExecutorManual executor = new ExecutorManual();
+        FinalizacaoAssincrona finalizacao = finalizacao(executor, new VendasSimuladas(), 1, 2, 10);
+
+        PedidoFinalizacao primeiro = finalizacao.enfileirar(1L);
+        PedidoFinalizacao segundo = finalizacao.enfileirar(2L);
+        try {
+            finalizacao.enfileirar(3L);
+            fail("O pedido deveria ser recusado com a fila cheia");
+        } catch (FilaCheiaException e) {
+            assertEquals(PedidoFinalizacao.Situacao.PENDENTE, primeiro.getSituacao());
+        }
+
+        executor.executarPendentes();
+        assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, primeiro.getSituacao());
+        assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, segundo.getSituacao());
+        PedidoFinalizacao depois = finalizacao.enfileirar(3L);
+        executor.executarPendentes();
+        assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, depois.getSituacao());
+    }
+
+    /**
+     * Testa que cada pedido não inicia uma tarefa nova: com dois trabalhadores, dez pedidos ocupam só duas tarefas do
+     * executor, que finalizam todos eles.
+     */
+    @Test
+    public void limitarTarefasAosTrabalhadores() throws Exception {
+        ExecutorManual executor = new ExecutorManual();
+        FinalizacaoAssincrona finalizacao = finalizacao(executor, new VendasSimuladas(), 2, 100, 3);
+
+        List<PedidoFinalizacao> pedidos = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            pedidos.add(finalizacao.enfileirar(id));
+        }
+        assertEquals(2, executor.getPendentes());
+
+        executor.executarPendentes();
+        pedidos.forEach(pedido -> assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, pedido.getSituacao()));
+    }
+
+    /**
+     * Testa, com um pool de threads maior que o número de trabalhadores e vários produtores ao mesmo tempo, que nunca
+     * há mais lotes em andamento que trabalhadores e que nenhum pedido fica esquecido na fila.
+     */
+    @Test
+    public void limitarLotesSimultaneos() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        ExecutorService produtores = Executors.newFixedThreadPool(4);
+        try {
+            VendasSimuladas vendas = new VendasSimuladas();
+            FinalizacaoAssincrona finalizacao = finalizacao(new ExecutorDelegado(pool), vendas, 3, 10_000, 5);
+
+            List<Future<List<PedidoFinalizacao>>> envios = new ArrayList<>();
+            for (int produtor = 0; produtor < 4; produtor++) {
+                long inicio = produtor * 1000L;
+                envios.add(produtores.submit(() -> {
+                    List<PedidoFinalizacao> pedidos = new ArrayList<>();
+                    for (long id = inicio; id < inicio + 500; id++) {
+                        pedidos.add(finalizacao.enfileirar(id));
+                    }
+                    return pedidos;
+                }));
+            }
+            List<CompletableFuture<Boolean>> resultados = new ArrayList<>();
+            for (Future<List<PedidoFinalizacao>> envio : envios) {
+                envio.get().forEach(pedido -> resultados.add(pedido.getResultado().toCompletableFuture()));
+            }
+            CompletableFuture.allOf(resultados.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+            assertEquals(2000, vendas.getFinalizadas().size());
+            assertTrue("Lotes simultâneos: " + vendas.getMaximoSimultaneos(), vendas.getMaximoSimultaneos() <= 3);
+        } finally {
+            produtores.shutdownNow();
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Testa que um pedido que chega depois de a última tarefa encontrar a fila vazia, mas antes de ela liberar a
+     * vaga, é finalizado pela própria tarefa, que confere a fila de novo depois de liberar a vaga.
+     */
+    @Test
+    public void conferirFilaDepoisDeLiberarVaga() throws Exception {
+        ExecutorManual executor = new ExecutorManual();
+        FinalizacaoAssincrona finalizacao = finalizacao(executor, new VendasSimuladas(), 1, 10, 10);
+        FilaComChegada fila = new FilaComChegada(10);
+        injetar(finalizacao, "fila", fila);
+
+        PedidoFinalizacao primeiro = finalizacao.enfileirar(1L);
+        AtomicReference<PedidoFinalizacao> atrasado = new AtomicReference<>();
+        fila.chegada = () -> {
+            try {
+                atrasado.set(finalizacao.enfileirar(2L));
+            } catch (FilaCheiaException e) {
+                throw new AssertionError(e);
+            }
+        };
+        assertEquals(1, executor.getPendentes());
+
+        executor.executarPendentes();
+        assertEquals(1, executor.getExecutadas());
+        assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, primeiro.getSituacao());
+        assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, atrasado.get().getSituacao());
+    }
+
+    /**
+     * Testa que os pedidos da fila são finalizados em lotes de até tamanhoLote vendas, na ordem de chegada.
+     */
+    @Test
+    public void dividirEmLotes() throws Exception {
+        ExecutorManual executor = new ExecutorManual();
+        VendasSimuladas vendas = new VendasSimuladas();
+        FinalizacaoAssincrona finalizacao = finalizacao(executor, vendas, 1, 100, 3);
+
+        for (long id = 1; id <= 7; id++) {
+            finalizacao.enfileirar(id);
+        }
+        executor.executarPendentes();
+
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L, 3L), Arrays.asList(4L, 5L, 6L), Arrays.asList(7L)),
+                vendas.getLotes());
+    }
+
+    /**
+     * Testa a conclusão dos pedidos: FINALIZADA para as vendas finalizadas pelo lote, IGNORADA para as que já
+     * estavam finalizadas ou canceladas, e ERRO com a causa quando o lote falha.
+     */
+    @Test
+    public void concluirEFalharPedidos() throws Exception {
+        ExecutorManual executor = new ExecutorManual();
+        VendasSimuladas vendas = new VendasSimuladas();
+        FinalizacaoAssincrona finalizacao = finalizacao(executor, vendas, 1, 10, 10);
+        vendas.ignoradas.add(2L);
+
+        PedidoFinalizacao finalizada = finalizacao.enfileirar(1L);
+        PedidoFinalizacao ignorada = finalizacao.enfileirar(2L);
+        assertEquals(PedidoFinalizacao.Situacao.PENDENTE, finalizacao.consultarSituacao(finalizada.getId()));
+        executor.executarPendentes();
+
+        assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, finalizacao.consultarSituacao(finalizada.getId()));
+        assertEquals(PedidoFinalizacao.Situacao.IGNORADA, finalizacao.consultarSituacao(ignorada.getId()));
+        assertEquals(Boolean.TRUE, finalizada.getResultado().toCompletableFuture().join());
+        assertEquals(Boolean.FALSE, ignorada.getResultado().toCompletableFuture().join());
+
+        DAOException erro = new DAOException("BANCO FORA DO AR", null);
+        vendas.erro = erro;
+        PedidoFinalizacao falha = finalizacao.enfileirar(3L);
+        executor.executarPendentes();
+
+        assertEquals(PedidoFinalizacao.Situacao.ERRO, finalizacao.consultarSituacao(falha.getId()));
+        try {
+            falha.getResultado().toCompletableFuture().join();
+            fail("O resultado deveria terminar com o erro do lote");
+        } catch (CompletionException e) {
+            assertSame(erro, e.getCause());
+        }
+    }
+
+    /**
+     * Testa que a configuração é recusada depois do primeiro pedido, quando trocar a fila perderia os pedidos.
+     */
+    @Test
+    public void recusarConfiguracaoDepoisDoPrimeiroPedido() throws Exception {
+        ExecutorManual executor = new ExecutorManual();
+        FinalizacaoAssincrona finalizacao = finalizacao(executor, new VendasSimuladas(), 1, 10, 10);
+        finalizacao.configurar(2, 20, 5);
+
+        PedidoFinalizacao pedido = finalizacao.enfileirar(1L);
+        try {
+            finalizacao.configurar(1, 10, 10);
+            fail("A configuração deveria ser recusada depois do primeiro pedido");
+        } catch (IllegalStateException e) {
+            executor.executarPendentes();
+            assertEquals(PedidoFinalizacao.Situacao.FINALIZADA, pedido.getSituacao());
+        }
+    }
+
+    /**
+     * Testa que VendaService.finalizarLote devolve só os ids das vendas que ele finalizou, e não os das vendas já
+     * canceladas ou finalizadas.
+     */
+    @Test
+    public void finalizarLoteDevolveSoAsFinalizadas() throws Exception {
+        BancoTeste banco = new BancoTeste();
+        try {
+            VendaService vendaService = new VendaService(banco.dao(VendaDAO.class), new ResumoIgnorado(),
+                    banco.dao(EstoqueDAO.class), banco.dao(EventoVendaDAO.class));
+            Cliente cliente = MassaTeste.cliente("Cliente", 12345678901L);
+            Produto arroz = MassaTeste.produto(null, "A", "Arroz", new BigDecimal("19.90"));
+            banco.emTransacao(() -> {
+                banco.getEntityManager().persist(cliente);
+                banco.getEntityManager().persist(arroz);
+            });
+            Venda cancelada = MassaTeste.venda("V1", cliente, arroz);
+            Venda iniciada = MassaTeste.venda("V2", cliente, arroz);
+            Venda finalizada = MassaTeste.venda("V3", cliente, arroz);
+            banco.emTransacao(() -> {
+                vendaService.cadastrar(cancelada);
+                vendaService.cadastrar(iniciada);
+                vendaService.cadastrar(finalizada);
+            });
+            banco.getEntityManager().clear();
+            banco.emTransacao(() -> {
+                vendaService.cancelarVenda(cancelada);
+                vendaService.finalizarVenda(finalizada);
+            });
+
+            List<Long> ids = Arrays.asList(cancelada.getId(), iniciada.getId(), finalizada.getId());
+            List<List<Long>> finalizadas = new ArrayList<>();
+            banco.emTransacao(() -> finalizadas.add(vendaService.finalizarLote(ids)));
+
+            assertEquals(Collections.singletonList(iniciada.getId()), finalizadas.get(0));
+            banco.getEntityManager().clear();
+            assertEquals(Venda.Status.CANCELADA,
+                    banco.getEntityManager().find(Venda.class, cancelada.getId()).getStatus());
+        } finally {
+            banco.fechar();
+        }
+    }
+
+    private static FinalizacaoAssincrona finalizacao(ManagedExecutorService executor, VendasSimuladas vendas,
+            int trabalhadores, int capacidadeFila, int tamanhoLote) throws ReflectiveOperationException {
+        FinalizacaoAssincrona finalizacao = new FinalizacaoAssincrona();
+        injetar(finalizacao, "executor", executor);
+        injetar(finalizacao, "vendaService", vendas.servico());
+        finalizacao.configurar(trabalhadores, capacidadeFila, tamanhoLote);
+        return finalizacao;
+    }
+
+    private static void injetar(Object alvo, String nome, Object valor) throws ReflectiveOperationException {
+        Field campo = alvo.getClass().getDeclaredField(nome);
+        campo.setAccessible(true);
+        campo.set(alvo, valor);
+    }
+
+    // IVendaService simulado: só finalizarLote é usado pela finalização assíncrona. Finaliza os ids recebidos, menos
+    // os ignorados, ou lança o erro configurado, e registra os lotes e quantos estiveram em andamento ao mesmo tempo.
+    private static class VendasSimuladas implements InvocationHandler {
+
+        private final Set<Long> ignoradas = new HashSet<>();
+
+        private volatile DAOException erro;
+
+        private final List<List<Long>> lotes = Collections.synchronizedList(new ArrayList<>());
+
+        private final Set<Long> finalizadas = Collections.synchronizedSet(new HashSet<>());
+
+        private final AtomicInteger simultaneos = new AtomicInteger();
+
+        private final AtomicInteger maximoSimultaneos = new AtomicInteger();
+
+        IVendaService servico() {
+            return (IVendaService) Proxy.newProxyInstance(IVendaService.class.getClassLoader(),
+                    new Class<?>[] { IVendaService.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (!metodo.getName().equals("finalizarLote")) {
+                throw new UnsupportedOperationException(metodo.getName());
+            }
+            maximoSimultaneos.accumulateAndGet(simultaneos.incrementAndGet(), Math::max);
+            try {
+                @SuppressWarnings("unchecked")
+                List<Long> ids = new ArrayList<>((Collection<Long>) args[0]);
+                lotes.add(ids);
+                if (erro != null) {
+                    throw erro;
+                }
+                Thread.yield();
+                List<Long> resultado = new ArrayList<>(ids);
+                resultado.removeAll(ignoradas);
+                finalizadas.addAll(resultado);
+                return resultado;
+            } finally {
+                simultaneos.decrementAndGet();
+            }
+        }
+
+        List<List<Long>> getLotes() {
+            return lotes;
+        }
+
+        Set<Long> getFinalizadas() {
+            return finalizadas;
+        }
+
+        int getMaximoSimultaneos() {
+            return maximoSimultaneos.get();
+        }
+    }
+
+    // Executor que guarda as tarefas até o teste mandar executá-las, na thread do teste.
+    private static class ExecutorManual extends AbstractExecutorService implements ManagedExecutorService {
+
+        private final Deque<Runnable> tarefas = new ArrayDeque<>();
+
+        private int executadas;
+
+        @Override
+        public void execute(Runnable tarefa) {
+            tarefas.add(tarefa);
+        }
+
+        void executarPendentes() {
+            while (!tarefas.isEmpty()) {
+                tarefas.poll().run();
+                executadas++;
+            }
+        }
+
+        int getPendentes() {
+            return tarefas.size();
+        }
+
+        int getExecutadas() {
+            return executadas;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>(tarefas);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long tempo, TimeUnit unidade) {
+            return true;
+        }
+    }
+
+    // Executor que repassa as tarefas a um pool de threads do teste.
+    private static class ExecutorDelegado extends AbstractExecutorService implements ManagedExecutorService {
+
+        private final ExecutorService pool;
+
+        ExecutorDelegado(ExecutorService pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public void execute(Runnable tarefa) {
+            pool.execute(tarefa);
+        }
+
+        @Override
+        public void shutdown() {
+            pool.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return pool.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return pool.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return pool.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long tempo, TimeUnit unidade) throws InterruptedException {
+            return pool.awaitTermination(tempo, unidade);
+        }
+    }
+
+    // Fila que simula um pedido chegando logo depois de a tarefa encontrar a fila vazia, antes de ela liberar a vaga.
+    private static class FilaComChegada extends ArrayBlockingQueue<PedidoFinalizacao> {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient Runnable chegada;
+
+        FilaComChegada(int capacidade) {
+            super(capacidade);
+        }
+
+        @Override
+        public int drainTo(Collection<? super PedidoFinalizacao> destino, int maximo) {
+            int retirados = super.drainTo(destino, maximo);
+            if (retirados == 0 && chegada != null) {
+                Runnable pedido = chegada;
+                chegada = null;
+                pedido.run();
+            }
+            return retirados;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * A classe HistogramaTest contém testes unitários para a classe Histograma.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.pazzini.metricas.Histograma;
+
+public class HistogramaTest {
+
+    /**
+     * Testa os percentis de uma distribuição uniforme, dentro do erro relativo das faixas.
+     */
+    @Test
+    public void percentisDentroDoErro() {
+        Histograma histograma = new Histograma();
+        for (long i = 1; i <= 100_000; i++) {
+            histograma.registrar(i * 1_000);
+        }
+
+        assertEquals(100_000, histograma.getQuantidade());
+        assertEquals(100_000_000, histograma.getMaximo());
+        assertProximo(50_000_000, histograma.percentil(50));
+        assertProximo(99_000_000, histograma.percentil(99));
+        assertProximo(99_900_000, histograma.percentil(99.9));
+        assertEquals(100_000_000, histograma.percentil(100));
+    }
+
+    /**
+     * Testa valores pequenos, que têm uma faixa cada, e o histograma vazio.
+     */
+    @Test
+    public void valoresPequenosEVazio() {
+        Histograma histograma = new Histograma();
+        assertEquals(0, histograma.percentil(99));
+
+        histograma.registrar(3);
+        histograma.registrar(7);
+        histograma.registrar(-1);
+
+        assertEquals(3, histograma.getQuantidade());
+        assertEquals(0, histograma.percentil(1));
+        assertEquals(3, histograma.percentil(50));
+        assertEquals(7, histograma.percentil(100));
+    }
+
+    private void assertProximo(long esperado, long obtido) {
+        assertTrue("esperado " + esperado + ", obtido " + obtido,
+                obtido >= esperado && obtido <= esperado + esperado / 16);
+    }
+}
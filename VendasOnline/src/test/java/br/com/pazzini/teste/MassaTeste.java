@@ -0,0 +1,65 @@
+/**
+ * A classe MassaTeste monta as entidades usadas pelos testes unitários.
+ * 
+ * Métodos:
+ * - produto(Long id, String codigo, String nome, BigDecimal valor): Monta um produto, com a descrição igual ao nome.
+ * - cliente(Long id): Monta um cliente com o id informado.
+ * - cliente(String nome, long cpf): Monta um cliente com todos os campos obrigatórios, para ser gravado no banco.
+ * - venda(String codigo, Cliente cliente, Produto ...produtos): Monta uma venda INICIADA com uma unidade de cada produto.
+ */
+
+package br.com.pazzini.teste;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+
+public final class MassaTeste {
+
+    private MassaTeste() {
+    }
+
+    public static Produto produto(Long id, String codigo, String nome, BigDecimal valor) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setCodigo(codigo);
+        produto.setNome(nome);
+        produto.setDescricao(nome);
+        produto.setValor(valor);
+        return produto;
+    }
+
+    public static Cliente cliente(Long id) {
+        Cliente cliente = new Cliente();
+        cliente.setId(id);
+        return cliente;
+    }
+
+    public static Cliente cliente(String nome, long cpf) {
+        Cliente cliente = new Cliente();
+        cliente.setNome(nome);
+        cliente.setCpf(cpf);
+        cliente.setTel(11999990000L);
+        cliente.setEmail("cliente@vendas.com");
+        cliente.setEnd("Rua A");
+        cliente.setNumero(10);
+        cliente.setCidade("São Paulo");
+        cliente.setEstado("SP");
+        return cliente;
+    }
+
+    public static Venda venda(String codigo, Cliente cliente, Produto ...produtos) {
+        Venda venda = new Venda();
+        venda.setCodigo(codigo);
+        venda.setCliente(cliente);
+        venda.setDataVenda(Instant.now());
+        venda.setStatus(Venda.Status.INICIADA);
+        for (Produto produto : produtos) {
+            venda.adicionarProduto(produto, 1);
+        }
+        return venda;
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * A classe ProdutoDAOTest contém testes da busca de produtos por nome (ProdutoDAO.buscarPorNome) em um banco H2 em
+ * memória no modo PostgreSQL (unidade de persistência "teste"), e da equivalência entre a normalização feita pela
+ * aplicação (TextoUtils.normalizar) e a feita pela migração db/migracao/002_busca_produto.sql no PostgreSQL.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.junit.After;
+import org.junit.Test;
+
+import br.com.pazzini.dao.ProdutoDAO;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.utils.TextoUtils;
+
+public class ProdutoDAOTest {
+
+    private BancoTeste banco;
+
+    @After
+    public void fechar() {
+        if (banco != null) {
+            banco.fechar();
+        }
+    }
+
+    /**
+     * Testa que a busca não diferencia maiúsculas e acentos e que os nomes que começam pelo termo vêm antes dos que
+     * apenas o contêm, cada grupo em ordem de nome.
+     */
+    @Test
+    public void buscarPrefixoAntesDoTrecho() throws Exception {
+        banco = new BancoTeste();
+        cadastrar("Feijão com Arroz", "Arroz Parboilizado", "Açúcar", "ARROZ INTEGRAL", "Bolinho de Arroz");
+        ProdutoDAO dao = banco.dao(ProdutoDAO.class);
+
+        assertEquals(Arrays.asList("ARROZ INTEGRAL", "Arroz Parboilizado", "Bolinho de Arroz", "Feijão com Arroz"),
+                nomes(dao.buscarPorNome(" ÁrRoz", 10)));
+        assertEquals(Arrays.asList("Açúcar"), nomes(dao.buscarPorNome("acucar", 10)));
+    }
+
+    /**
+     * Testa que o limite vale para os dois grupos juntos: o trecho só completa as vagas deixadas pelo prefixo.
+     */
+    @Test
+    public void limitarResultados() throws Exception {
+        banco = new BancoTeste();
+        cadastrar("Arroz Integral", "Arroz Parboilizado", "Bolinho de Arroz", "Feijão com Arroz");
+        ProdutoDAO dao = banco.dao(ProdutoDAO.class);
+
+        assertEquals(Arrays.asList("Arroz Integral"), nomes(dao.buscarPorNome("arroz", 1)));
+        assertEquals(Arrays.asList("Arroz Integral", "Arroz Parboilizado", "Bolinho de Arroz"),
+                nomes(dao.buscarPorNome("arroz", 3)));
+    }
+
+    /**
+     * Testa que % e _ digitados no termo são procurados literalmente, e não como curingas do LIKE.
+     */
+    @Test
+    public void escaparCuringas() throws Exception {
+        banco = new BancoTeste();
+        cadastrar("Desconto 50%", "Desconto 500", "Leite_Integral", "Leite Integral");
+        ProdutoDAO dao = banco.dao(ProdutoDAO.class);
+
+        assertEquals(Arrays.asList("Desconto 50%"), nomes(dao.buscarPorNome("50%", 10)));
+        assertEquals(Arrays.asList("Leite_Integral"), nomes(dao.buscarPorNome("leite_", 10)));
+    }
+
+    /**
+     * Testa, no PostgreSQL, que a migração 002 preenche NOME_BUSCA dos produtos antigos com o mesmo valor que
+     * Produto.setNome (TextoUtils.normalizar) grava para todas as letras de U+00C0 a U+017F, e que a busca encontra
+     * esses produtos pelo termo sem acentos.
+     */
+    @Test
+    public void normalizarComoAMigracao() throws Exception {
+        banco = BancoTeste.postgres();
+        List<String> nomes = new ArrayList<>();
+        StringBuilder nome = new StringBuilder();
+        for (char letra = 'À'; letra <= 'ſ'; letra++) {
+            if (Character.isLetter(letra)) {
+                nome.append(letra);
+            }
+            if (nome.length() == 20 || letra == 'ſ') {
+                nomes.add(nome.toString());
+                nome.setLength(0);
+            }
+        }
+        nomes.add("Smørrebrød Weißbier Œuvre Łódź");
+        cadastrar(nomes.toArray(new String[0]));
+        EntityManager em = banco.getEntityManager();
+        banco.emTransacao(() -> em.createNativeQuery("UPDATE TB_PRODUTO SET NOME_BUSCA = NULL").executeUpdate());
+        executarScript("db/migracao/002_busca_produto.sql");
+        em.clear();
+
+        for (Produto produto : em.createQuery("SELECT p FROM Produto p", Produto.class).getResultList()) {
+            assertEquals(produto.getNome(), TextoUtils.normalizar(produto.getNome()), produto.getNomeBusca());
+        }
+        assertEquals(Arrays.asList("Smørrebrød Weißbier Œuvre Łódź"),
+                nomes(banco.dao(ProdutoDAO.class).buscarPorNome("smorrebrod weissbier oeuvre lodz", 10)));
+    }
+
+    private void cadastrar(String... nomes) throws Exception {
+        EntityManager em = banco.getEntityManager();
+        banco.emTransacao(() -> {
+            for (int i = 0; i < nomes.length; i++) {
+                em.persist(MassaTeste.produto(null, "P" + i, nomes[i], BigDecimal.ONE));
+            }
+        });
+        em.clear();
+    }
+
+    // Executa o script fora de transação, um comando por vez, como o psql; CREATE INDEX CONCURRENTLY não pode rodar
+    // dentro de uma transação.
+    private void executarScript(String recurso) throws IOException {
+        StringBuilder script = new StringBuilder();
+        try (InputStream entrada = getClass().getClassLoader().getResourceAsStream(recurso)) {
+            for (String linha : new String(entrada.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                if (!linha.startsWith("--")) {
+                    script.append(linha).append('\n');
+                }
+            }
+        }
+        banco.getEntityManager().unwrap(Session.class).doWork(conexao -> {
+            boolean autoCommit = conexao.getAutoCommit();
+            conexao.setAutoCommit(true);
+            try (Statement comando = conexao.createStatement()) {
+                for (String sql : script.toString().split(";")) {
+                    if (!sql.isBlank()) {
+                        comando.execute(sql);
+                    }
+                }
+            } finally {
+                conexao.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    private static List<String> nomes(List<Produto> produtos) {
+        List<String> nomes = new ArrayList<>();
+        produtos.forEach(produto -> nomes.add(produto.getNome()));
+        return nomes;
+    }
+}
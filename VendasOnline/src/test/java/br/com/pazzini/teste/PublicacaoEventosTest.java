@@ -0,0 +1,115 @@
+/**
+ * A classe PublicacaoEventosTest contém testes unitários para a publicação dos eventos de venda (EventoVendaService)
+ * e para os destinos de eventos.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import br.com.pazzini.dao.IEventoVendaDAO;
+import br.com.pazzini.domain.Dinheiro;
+import br.com.pazzini.domain.EventoVenda;
+import br.com.pazzini.eventos.DestinoEventosArquivo;
+import br.com.pazzini.eventos.DestinoEventosMemoria;
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.service.EventoVendaService;
+
+public class PublicacaoEventosTest {
+
+    @Rule
+    public TemporaryFolder pasta = new TemporaryFolder();
+
+    /**
+     * Testa que os lotes são entregues em ordem de id e apagados, e que um lote recusado pelo destino continua na
+     * caixa de saída e é entregue na publicação seguinte.
+     */
+    @Test
+    public void entregaPeloMenosUmaVezEmOrdem() throws DAOException {
+        CaixaSaida caixa = new CaixaSaida(evento(1L, 10L, EventoVenda.Tipo.CADASTRADA),
+                evento(2L, 11L, EventoVenda.Tipo.CADASTRADA), evento(3L, 10L, EventoVenda.Tipo.FINALIZADA));
+        EventoVendaService service = new EventoVendaService(caixa);
+        DestinoEventosMemoria destino = new DestinoEventosMemoria();
+
+        try {
+            service.publicarLote(eventos -> {
+                throw new IOException("destino fora do ar");
+            }, 2);
+            fail("A falha do destino deveria ser repassada");
+        } catch (DAOException e) {
+            assertEquals(3, caixa.pendentes.size());
+        }
+
+        assertEquals(2, service.publicarLote(destino, 2));
+        assertEquals(1, service.publicarLote(destino, 2));
+        assertEquals(0, service.publicarLote(destino, 2));
+
+        List<Long> ids = new ArrayList<>();
+        destino.getEventos().forEach(evento -> ids.add(evento.getId()));
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+        assertEquals(0, caixa.pendentes.size());
+    }
+
+    /**
+     * Testa que o destino em arquivo acrescenta cada lote ao final do arquivo, uma linha CSV por evento.
+     */
+    @Test
+    public void destinoArquivoAcrescentaLinhas() throws IOException {
+        Path arquivo = pasta.getRoot().toPath().resolve("eventos.csv");
+        DestinoEventosArquivo destino = new DestinoEventosArquivo(arquivo);
+
+        destino.enviar(Arrays.asList(evento(1L, 10L, EventoVenda.Tipo.CADASTRADA)));
+        destino.enviar(Arrays.asList(evento(2L, 10L, EventoVenda.Tipo.CANCELADA)));
+
+        assertEquals(Arrays.asList(
+                "1;10;V10;CADASTRADA;7;12.50;2024-01-02T10:00:00Z",
+                "2;10;V10;CANCELADA;7;12.50;2024-01-02T10:00:00Z"),
+                Files.readAllLines(arquivo, StandardCharsets.UTF_8));
+    }
+
+    private static EventoVenda evento(Long id, Long idVenda, EventoVenda.Tipo tipo) {
+        return new EventoVenda(id, idVenda, "V" + idVenda, tipo, 7L, Dinheiro.de(new BigDecimal("12.50")),
+                Instant.parse("2024-01-02T10:00:00Z"));
+    }
+
+    // Caixa de saída em memória, em ordem de id.
+    private static class CaixaSaida implements IEventoVendaDAO {
+
+        private final List<EventoVenda> pendentes;
+
+        CaixaSaida(EventoVenda... eventos) {
+            this.pendentes = new ArrayList<>(Arrays.asList(eventos));
+        }
+
+        @Override
+        public void registrar(Collection<Long> idsVendas, EventoVenda.Tipo tipo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<EventoVenda> buscarPendentes(int limite) {
+            return new ArrayList<>(pendentes.subList(0, Math.min(limite, pendentes.size())));
+        }
+
+        @Override
+        public void remover(Collection<EventoVenda> eventos) {
+            pendentes.removeAll(eventos);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * A classe RelatorioVendaDAOTest contém testes da conversão das linhas dos relatórios de vendas nos DTOs de receita
+ * (valores em centavos, contagens e agrupamento por dia ou mês), executando as consultas nativas em um banco H2 em
+ * memória no modo PostgreSQL (unidade de persistência "teste").
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.dao.RelatorioVendaDAO;
+import br.com.pazzini.dao.VendaDAO;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.domain.Venda.Status;
+import br.com.pazzini.dto.ReceitaCliente;
+import br.com.pazzini.dto.ReceitaPeriodo;
+import br.com.pazzini.dto.ReceitaProduto;
+import br.com.pazzini.dto.ReceitaStatus;
+
+public class RelatorioVendaDAOTest {
+
+    private static final Instant INICIO = instante(2024, 3, 1, 0);
+
+    private static final Instant FIM = instante(2024, 5, 1, 0);
+
+    private BancoTeste banco;
+
+    private RelatorioVendaDAO relatorioDao;
+
+    private Cliente ana;
+
+    private Cliente bruno;
+
+    private Produto arroz;
+
+    private Produto feijao;
+
+    @Before
+    public void init() throws Exception {
+        banco = new BancoTeste();
+        relatorioDao = banco.dao(RelatorioVendaDAO.class);
+        VendaDAO vendaDao = banco.dao(VendaDAO.class);
+        EntityManager em = banco.getEntityManager();
+
+        ana = MassaTeste.cliente("Ana", 11111111111L);
+        bruno = MassaTeste.cliente("Bruno", 22222222222L);
+        arroz = MassaTeste.produto(null, "A", "Arroz", new BigDecimal("19.90"));
+        feijao = MassaTeste.produto(null, "F", "Feijão", new BigDecimal("8.35"));
+        banco.emTransacao(() -> {
+            em.persist(ana);
+            em.persist(bruno);
+            em.persist(arroz);
+            em.persist(feijao);
+            vendaDao.cadastrar(venda("V1", ana, Status.CONCLUIDA, instante(2024, 3, 5, 10), arroz, feijao));
+            vendaDao.cadastrar(venda("V2", ana, Status.CONCLUIDA, instante(2024, 3, 5, 15), arroz));
+            vendaDao.cadastrar(venda("V3", bruno, Status.CONCLUIDA, instante(2024, 4, 10, 9), feijao));
+            vendaDao.cadastrar(venda("V4", bruno, Status.CANCELADA, instante(2024, 3, 6, 11), arroz));
+            vendaDao.cadastrar(venda("V5", bruno, Status.CONCLUIDA, instante(2024, 5, 2, 9), arroz));
+        });
+        em.clear();
+    }
+
+    @After
+    public void fechar() {
+        banco.fechar();
+    }
+
+    /**
+     * Testa o agrupamento por dia: as vendas do mesmo dia ficam em uma linha, com a contagem e a soma em centavos.
+     */
+    @Test
+    public void receitaPorDia() throws Exception {
+        List<ReceitaPeriodo> receitas = relatorioDao.receitaPorPeriodo(ReceitaPeriodo.Agrupamento.DIA,
+                Status.CONCLUIDA, INICIO, FIM);
+
+        assertEquals(2, receitas.size());
+        assertPeriodo(receitas.get(0), LocalDate.of(2024, 3, 5), 2, 1990 + 835 + 1990);
+        assertPeriodo(receitas.get(1), LocalDate.of(2024, 4, 10), 1, 835);
+        assertEquals(new BigDecimal("48.15"), receitas.get(0).getValor().paraBigDecimal());
+    }
+
+    /**
+     * Testa o agrupamento por mês: cada linha começa no dia 1 do mês.
+     */
+    @Test
+    public void receitaPorMes() throws Exception {
+        List<ReceitaPeriodo> receitas = relatorioDao.receitaPorPeriodo(ReceitaPeriodo.Agrupamento.MES,
+                Status.CONCLUIDA, INICIO, FIM);
+
+        assertEquals(2, receitas.size());
+        assertPeriodo(receitas.get(0), LocalDate.of(2024, 3, 1), 2, 4815);
+        assertPeriodo(receitas.get(1), LocalDate.of(2024, 4, 1), 1, 835);
+    }
+
+    /**
+     * Testa a receita por cliente, do maior para o menor valor, respeitando o limite.
+     */
+    @Test
+    public void receitaPorCliente() throws Exception {
+        List<ReceitaCliente> receitas = relatorioDao.receitaPorCliente(Status.CONCLUIDA, INICIO, FIM, 10);
+
+        assertEquals(2, receitas.size());
+        assertEquals(ana.getId(), receitas.get(0).getIdCliente());
+        assertEquals("Ana", receitas.get(0).getNome());
+        assertEquals(2, receitas.get(0).getVendas());
+        assertEquals(4815, receitas.get(0).getValorCentavos());
+        assertEquals(bruno.getId(), receitas.get(1).getIdCliente());
+        assertEquals(835, receitas.get(1).getValorCentavos());
+
+        assertEquals(1, relatorioDao.receitaPorCliente(Status.CONCLUIDA, INICIO, FIM, 1).size());
+    }
+
+    /**
+     * Testa a receita por produto a partir das linhas das vendas, com a quantidade vendida e o valor de cada produto.
+     */
+    @Test
+    public void receitaPorProduto() throws Exception {
+        List<ReceitaProduto> receitas = relatorioDao.receitaPorProduto(Status.CONCLUIDA, INICIO, FIM, 10);
+
+        assertEquals(2, receitas.size());
+        assertProduto(receitas.get(0), arroz, 2, 3980);
+        assertProduto(receitas.get(1), feijao, 2, 1670);
+    }
+
+    /**
+     * Testa a receita por produto a partir do resumo diário: os dias do período são somados e os produtos sem vendas
+     * restantes (todas desfeitas) não aparecem.
+     */
+    @Test
+    public void receitaPorProdutoDoResumo() throws Exception {
+        banco.emTransacao(() -> {
+            inserirResumo(LocalDate.of(2024, 3, 5), arroz, 2, 2, "39.80");
+            inserirResumo(LocalDate.of(2024, 3, 6), arroz, 1, 3, "59.70");
+            inserirResumo(LocalDate.of(2024, 3, 8), arroz, 1, 1, "19.90");
+            inserirResumo(LocalDate.of(2024, 3, 5), feijao, 0, 0, "0.00");
+        });
+
+        List<ReceitaProduto> receitas = relatorioDao.receitaPorProduto(Status.CONCLUIDA, LocalDate.of(2024, 3, 5),
+                LocalDate.of(2024, 3, 6), 10);
+
+        assertEquals(1, receitas.size());
+        assertProduto(receitas.get(0), arroz, 5, 9950);
+    }
+
+    /**
+     * Testa a receita por status, com todas as vendas do período.
+     */
+    @Test
+    public void receitaPorStatus() throws Exception {
+        List<ReceitaStatus> receitas = relatorioDao.receitaPorStatus(INICIO, FIM);
+
+        assertEquals(2, receitas.size());
+        assertEquals(Status.CANCELADA, receitas.get(0).getStatus());
+        assertEquals(1, receitas.get(0).getVendas());
+        assertEquals(1990, receitas.get(0).getValorCentavos());
+        assertEquals(Status.CONCLUIDA, receitas.get(1).getStatus());
+        assertEquals(3, receitas.get(1).getVendas());
+        assertEquals(5650, receitas.get(1).getValorCentavos());
+    }
+
+    private void inserirResumo(LocalDate dia, Produto produto, long vendas, long quantidade, String valor) {
+        banco.getEntityManager().createNativeQuery("INSERT INTO TB_RESUMO_VENDA_DIA "
+                + "(DIA, produto_id, STATUS_VENDA, VENDAS, QUANTIDADE, VALOR_TOTAL) VALUES (?1, ?2, ?3, ?4, ?5, ?6)")
+                .setParameter(1, java.sql.Date.valueOf(dia))
+                .setParameter(2, produto.getId())
+                .setParameter(3, Status.CONCLUIDA.name())
+                .setParameter(4, vendas)
+                .setParameter(5, quantidade)
+                .setParameter(6, new BigDecimal(valor))
+                .executeUpdate();
+    }
+
+    private static Venda venda(String codigo, Cliente cliente, Status status, Instant data, Produto ...produtos) {
+        Venda venda = MassaTeste.venda(codigo, cliente, produtos);
+        venda.setStatus(status);
+        venda.setDataVenda(data);
+        return venda;
+    }
+
+    // As consultas agrupam DATA_VENDA no fuso do banco, que no H2 em memória é o fuso da JVM.
+    private static Instant instante(int ano, int mes, int dia, int hora) {
+        return LocalDateTime.of(ano, mes, dia, hora, 0).atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static void assertPeriodo(ReceitaPeriodo receita, LocalDate periodo, long vendas, long valorCentavos) {
+        assertEquals(periodo, receita.getPeriodo());
+        assertEquals(vendas, receita.getVendas());
+        assertEquals(valorCentavos, receita.getValorCentavos());
+    }
+
+    private static void assertProduto(ReceitaProduto receita, Produto produto, long quantidade, long valorCentavos) {
+        assertEquals(produto.getId(), receita.getIdProduto());
+        assertEquals(produto.getCodigo(), receita.getCodigo());
+        assertEquals(produto.getNome(), receita.getNome());
+        assertEquals(quantidade, receita.getQuantidade());
+        assertEquals(valorCentavos, receita.getValorCentavos());
+    }
+}
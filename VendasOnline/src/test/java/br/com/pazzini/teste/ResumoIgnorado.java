@@ -0,0 +1,28 @@
+/**
+ * A classe ResumoIgnorado substitui o ResumoVendaDiaDAO nos testes que usam o VendaService com o banco H2: o resumo
+ * diário usa INSERT ... ON CONFLICT, que o H2 não aceita, e aqui as alterações do resumo são ignoradas.
+ */
+
+package br.com.pazzini.teste;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import br.com.pazzini.dao.IResumoVendaDiaDAO;
+import br.com.pazzini.domain.Venda;
+
+public class ResumoIgnorado implements IResumoVendaDiaDAO {
+
+    @Override
+    public void somar(Collection<Long> idsVendas, int sinal) {
+    }
+
+    @Override
+    public void somar(Collection<Long> idsVendas, Venda.Status status, int sinal) {
+    }
+
+    @Override
+    public int reconstruir(LocalDate dia) {
+        return 0;
+    }
+}
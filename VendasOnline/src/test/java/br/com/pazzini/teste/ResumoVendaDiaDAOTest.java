@@ -0,0 +1,207 @@
+/**
+ * A classe ResumoVendaDiaDAOTest contém testes do resumo diário de vendas (ResumoVendaDiaDAO) no PostgreSQL, único
+ * banco que executa os comandos do DAO (INSERT ... ON CONFLICT e LOCK TABLE).
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import br.com.pazzini.dao.EstoqueDAO;
+import br.com.pazzini.dao.EventoVendaDAO;
+import br.com.pazzini.dao.ResumoVendaDiaDAO;
+import br.com.pazzini.dao.VendaDAO;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.service.VendaService;
+
+public class ResumoVendaDiaDAOTest {
+
+    private static final int THREADS = 4;
+
+    private static final int VENDAS_POR_THREAD = 30;
+
+    private static final String SQL_ESPERADO =
+            "SELECT CAST(v.DATA_VENDA AS DATE) AS DIA, pq.produto_id, v.STATUS_VENDA, "
+            + "       COUNT(*) AS VENDAS, SUM(pq.quantidade) AS QUANTIDADE, SUM(pq.valor_total) AS VALOR_TOTAL "
+            + "FROM TB_VENDA v "
+            + "JOIN TB_PRODUTO_QUANTIDADE pq ON pq.id_venda_fk = v.id "
+            + "GROUP BY 1, 2, 3";
+
+    private static final String SQL_GRAVADO =
+            "SELECT DIA, produto_id, STATUS_VENDA, VENDAS, QUANTIDADE, VALOR_TOTAL FROM TB_RESUMO_VENDA_DIA";
+
+    private BancoTeste banco;
+
+    private Long idCliente;
+
+    private final List<Long> idsProdutos = new ArrayList<>();
+
+    @Before
+    public void init() throws Exception {
+        banco = BancoTeste.postgres();
+        EntityManager em = banco.getEntityManager();
+        Cliente cliente = MassaTeste.cliente("Cliente", 12345678901L);
+        Produto[] produtos = {
+            MassaTeste.produto(null, "A", "Arroz", new BigDecimal("19.90")),
+            MassaTeste.produto(null, "F", "Feijão", new BigDecimal("8.35")),
+            MassaTeste.produto(null, "C", "Café", new BigDecimal("14.99"))
+        };
+        banco.emTransacao(() -> {
+            em.persist(cliente);
+            for (Produto produto : produtos) {
+                em.persist(produto);
+            }
+        });
+        idCliente = cliente.getId();
+        for (Produto produto : produtos) {
+            idsProdutos.add(produto.getId());
+        }
+        em.clear();
+    }
+
+    @After
+    public void fechar() {
+        if (banco != null) {
+            banco.fechar();
+        }
+    }
+
+    /**
+     * Testa que o resumo é igual à agregação das vendas depois de cadastros, finalizações e cancelamentos feitos
+     * por várias threads ao mesmo tempo que reconstruções do dia, e que a reconstrução final não altera os totais
+     * e só remove as linhas zeradas.
+     */
+    @Test
+    public void manterResumoIgualAsVendas() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch terminadas = new CountDownLatch(THREADS);
+        List<Future<Integer>> resultados = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                resultados.add(executor.submit(() -> {
+                    try {
+                        largada.await();
+                        return vender(thread);
+                    } finally {
+                        terminadas.countDown();
+                    }
+                }));
+            }
+            Future<Integer> reconstrucoes = executor.submit(() -> {
+                largada.await();
+                return reconstruirAte(terminadas);
+            });
+            largada.countDown();
+            for (Future<Integer> resultado : resultados) {
+                assertEquals(VENDAS_POR_THREAD, resultado.get(60, TimeUnit.SECONDS).intValue());
+            }
+            assertTrue(reconstrucoes.get(60, TimeUnit.SECONDS) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, String> esperado = totais(SQL_ESPERADO);
+        assertTrue(esperado.size() >= 3 * 3);
+        assertEquals(esperado, semZerados(totais(SQL_GRAVADO)));
+
+        EntityManager em = banco.getEntityManager();
+        ResumoVendaDiaDAO resumoDao = banco.dao(ResumoVendaDiaDAO.class);
+        List<?> dias = em.createNativeQuery("SELECT DISTINCT CAST(DATA_VENDA AS DATE) FROM TB_VENDA").getResultList();
+        banco.emTransacao(() -> {
+            for (Object dia : dias) {
+                resumoDao.reconstruir(((Date) dia).toLocalDate());
+            }
+        });
+        assertEquals(esperado, totais(SQL_GRAVADO));
+    }
+
+    // Cadastra as vendas da thread, cada uma com dois dos três produtos, e finaliza ou cancela duas de cada três,
+    // cada operação em sua própria transação.
+    private int vender(int thread) throws Exception {
+        EntityManager em = banco.criarEntityManager();
+        try {
+            VendaService vendaService = new VendaService(banco.dao(VendaDAO.class, em),
+                    banco.dao(ResumoVendaDiaDAO.class, em), banco.dao(EstoqueDAO.class, em),
+                    banco.dao(EventoVendaDAO.class, em));
+            int alteradas = 0;
+            for (int i = 0; i < VENDAS_POR_THREAD; i++) {
+                Venda venda = MassaTeste.venda("T" + thread + "-" + i, em.find(Cliente.class, idCliente),
+                        em.find(Produto.class, idsProdutos.get(i % 3)),
+                        em.find(Produto.class, idsProdutos.get((i + 1 + thread % 2) % 3)));
+                BancoTeste.emTransacao(em, () -> vendaService.cadastrar(venda));
+                em.clear();
+                if (i % 3 == 1) {
+                    BancoTeste.emTransacao(em, () -> assertTrue(vendaService.finalizarVenda(venda)));
+                } else if (i % 3 == 2) {
+                    BancoTeste.emTransacao(em, () -> assertTrue(vendaService.cancelarVenda(venda)));
+                }
+                em.clear();
+                alteradas++;
+            }
+            return alteradas;
+        } finally {
+            em.close();
+        }
+    }
+
+    // Reconstrói o resumo do dia repetidamente enquanto as threads de vendas não terminam.
+    private int reconstruirAte(CountDownLatch terminadas) throws Exception {
+        EntityManager em = banco.criarEntityManager();
+        try {
+            ResumoVendaDiaDAO resumoDao = banco.dao(ResumoVendaDiaDAO.class, em);
+            int reconstrucoes = 0;
+            do {
+                BancoTeste.emTransacao(em, () -> resumoDao.reconstruir(LocalDate.now()));
+                reconstrucoes++;
+            } while (!terminadas.await(20, TimeUnit.MILLISECONDS));
+            return reconstrucoes;
+        } finally {
+            em.close();
+        }
+    }
+
+    // Lê as linhas (dia, produto, status, vendas, quantidade, valor) em um mapa ordenado da chave para os totais,
+    // com os números sem zeros à direita para que os tipos das colunas não influenciem a comparação.
+    private Map<String, String> totais(String sql) {
+        Map<String, String> totais = new TreeMap<>();
+        for (Object linha : banco.getEntityManager().createNativeQuery(sql).getResultList()) {
+            Object[] colunas = (Object[]) linha;
+            totais.put(colunas[0] + " " + colunas[1] + " " + colunas[2],
+                    numero(colunas[3]) + " " + numero(colunas[4]) + " " + numero(colunas[5]));
+        }
+        return totais;
+    }
+
+    private static Map<String, String> semZerados(Map<String, String> totais) {
+        totais.values().removeIf("0 0 0"::equals);
+        return totais;
+    }
+
+    private static String numero(Object valor) {
+        return new BigDecimal(valor.toString()).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * A classe TextoUtilsTest contém testes unitários para a classe TextoUtils.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import br.com.pazzini.utils.TextoUtils;
+
+public class TextoUtilsTest {
+
+    /**
+     * Testa a remoção de acentos e a conversão para minúsculas.
+     */
+    @Test
+    public void normalizarAcentosEMaiusculas() {
+        assertEquals("cafe acucar", TextoUtils.normalizar(" Café AÇÚCAR "));
+        assertEquals("pao de queijo", TextoUtils.normalizar("Pão de Queijo"));
+    }
+
+    /**
+     * Testa as letras que o NFD não decompõe, convertidas como na extensão unaccent do PostgreSQL.
+     */
+    @Test
+    public void normalizarLetrasSemDecomposicao() {
+        assertEquals("smorrebrod", TextoUtils.normalizar("Smørrebrød"));
+        assertEquals("weissbier", TextoUtils.normalizar("WEIßBIER"));
+        assertEquals("oeuvre lodz", TextoUtils.normalizar("Œuvre Łódź"));
+    }
+
+    /**
+     * Testa a normalização de um valor nulo.
+     */
+    @Test
+    public void normalizarNulo() {
+        assertEquals("", TextoUtils.normalizar(null));
+    }
+}
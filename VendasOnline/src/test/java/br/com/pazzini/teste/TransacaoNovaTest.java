@@ -0,0 +1,44 @@
+/**
+ * A classe TransacaoNovaTest contém testes unitários para a identificação de conflitos da classe TransacaoNova.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+
+import javax.ejb.EJBException;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceException;
+
+import org.junit.Test;
+
+import br.com.pazzini.exceptions.DAOException;
+import br.com.pazzini.services.generic.TransacaoNova;
+
+public class TransacaoNovaTest {
+
+    /**
+     * Testa que versões desatualizadas e deadlocks, mesmo encapsulados, são conflitos.
+     */
+    @Test
+    public void conflitos() {
+        assertTrue(TransacaoNova.isConflito(new OptimisticLockException()));
+        SQLException deadlock = new SQLException("deadlock detected", "40P01");
+        assertTrue(TransacaoNova.isConflito(
+                new DAOException("ERRO ALTERANDO STATUS DAS VENDAS ", new PersistenceException(deadlock))));
+        assertTrue(TransacaoNova.isConflito(new EJBException(new PersistenceException(deadlock))));
+    }
+
+    /**
+     * Testa que os demais erros não são repetidos.
+     */
+    @Test
+    public void outrosErros() {
+        SQLException chaveDuplicada = new SQLException("duplicate key", "23505");
+        assertFalse(TransacaoNova.isConflito(new DAOException("ERRO SALVANDO VENDA ", new PersistenceException(chaveDuplicada))));
+        assertFalse(TransacaoNova.isConflito(new IllegalStateException()));
+    }
+}
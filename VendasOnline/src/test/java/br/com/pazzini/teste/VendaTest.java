@@ -0,0 +1,104 @@
+/**
+ * A classe VendaTest contém testes unitários para as linhas de produtos da classe Venda.
+ */
+
+package br.com.pazzini.teste;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.ProdutoQuantidade;
+import br.com.pazzini.domain.Venda;
+
+public class VendaTest {
+
+    /**
+     * Testa que produtos com o mesmo código são agrupados na mesma linha, mesmo em instâncias diferentes.
+     */
+    @Test
+    public void agruparLinhasPorCodigo() {
+        Venda venda = new Venda();
+        venda.adicionarProduto(MassaTeste.produto(null, "A", "A", BigDecimal.ONE), 2);
+        venda.adicionarProduto(MassaTeste.produto(null, "B", "B", BigDecimal.ONE), 1);
+        venda.adicionarProduto(MassaTeste.produto(null, "A", "A", BigDecimal.ONE), 3);
+
+        assertEquals(2, venda.getProdutos().size());
+        assertEquals(5, venda.getLinha("A").getQuantidade());
+
+        venda.removerProduto(MassaTeste.produto(null, "A", "A", BigDecimal.ONE), 5);
+        assertNull(venda.getLinha("A"));
+        assertEquals(1, venda.getProdutos().size());
+        assertEquals(100, venda.getValorTotalCentavos());
+    }
+
+    /**
+     * Testa que o índice é refeito a partir de uma coleção atribuída diretamente, como no carregamento pelo JPA.
+     */
+    @Test
+    public void indiceDeColecaoCarregada() {
+        ProdutoQuantidade linha = new ProdutoQuantidade();
+        linha.setProduto(MassaTeste.produto(null, "C", "C", BigDecimal.ONE));
+        linha.adicionar(4);
+        Set<ProdutoQuantidade> produtos = new HashSet<>();
+        produtos.add(linha);
+
+        Venda venda = new Venda();
+        venda.setProdutos(produtos);
+
+        assertSame(linha, venda.getLinha("C"));
+    }
+
+    /**
+     * Testa a troca da coleção por outra do mesmo tamanho depois de o índice ter sido montado: as linhas antigas
+     * deixam de ser encontradas e as alterações passam a atuar sobre as linhas novas.
+     */
+    @Test
+    public void trocarColecaoDeMesmoTamanho() {
+        Venda venda = new Venda();
+        venda.adicionarProduto(MassaTeste.produto(null, "A", "A", BigDecimal.ONE), 1);
+        venda.adicionarProduto(MassaTeste.produto(null, "B", "B", BigDecimal.ONE), 1);
+        assertEquals(1, venda.getLinha("B").getQuantidade());
+
+        Set<ProdutoQuantidade> produtos = new HashSet<>();
+        produtos.add(linha(venda, MassaTeste.produto(null, "A", "A", BigDecimal.ONE), 2));
+        ProdutoQuantidade linhaC = linha(venda, MassaTeste.produto(null, "C", "C", BigDecimal.TEN), 1);
+        produtos.add(linhaC);
+        venda.setProdutos(produtos);
+        venda.recalcularValorTotalVenda();
+
+        assertNull(venda.getLinha("B"));
+        assertSame(linhaC, venda.getLinha("C"));
+        venda.adicionarProduto(MassaTeste.produto(null, "C", "C", BigDecimal.TEN), 1);
+        venda.removerProduto(MassaTeste.produto(null, "A", "A", BigDecimal.ONE), 2);
+
+        assertEquals(1, venda.getProdutos().size());
+        assertEquals(2, linhaC.getQuantidade());
+        assertEquals(2000, venda.getValorTotalCentavos());
+    }
+
+    /**
+     * Testa que as linhas não podem ser alteradas diretamente pela coleção, sem passar pelo índice.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void colecaoSomenteLeitura() {
+        Venda venda = MassaTeste.venda("V1", MassaTeste.cliente(1L),
+                MassaTeste.produto(null, "A", "A", BigDecimal.ONE));
+        venda.getProdutos().clear();
+    }
+
+    private static ProdutoQuantidade linha(Venda venda, Produto produto, int quantidade) {
+        ProdutoQuantidade linha = new ProdutoQuantidade();
+        linha.setVenda(venda);
+        linha.setProduto(produto);
+        linha.adicionar(quantidade);
+        return linha;
+    }
+}
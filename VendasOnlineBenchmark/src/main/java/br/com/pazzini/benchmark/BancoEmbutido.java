@@ -0,0 +1,158 @@
+/**
+ * A classe BancoEmbutido prepara o banco H2 em memória usado pelos benchmarks e pelo teste de carga, fora do
+ * servidor.
+ *
+ * No WildFly o EntityManager é injetado pelo container (@PersistenceContext) e as transações são JTA. Aqui a
+ * unidade de persistência "benchmark" é RESOURCE_LOCAL e o DAO recebe, por reflexão, um EntityManager que delega
+ * para um EntityManager próprio de cada thread, do mesmo modo que o proxy do container delega para o contexto de
+ * persistência da transação corrente. Assim uma única instância de DAO ou de serviço pode ser usada por várias
+ * threads, como um EJB @Stateless.
+ *
+ * Métodos:
+ * - abrir() / abrir(Map<String, Object> propriedades): Cria o EntityManagerFactory da unidade "benchmark",
+ *   opcionalmente sobrescrevendo propriedades do persistence.xml (ex: a URL do banco ou o tamanho do pool).
+ * - criarDAO(Class<D> tipo): Instancia o DAO e atribui a ele o EntityManager do banco.
+ * - emTransacao(Operacao<R> operacao): Executa a operação em uma transação da thread corrente, confirmando ou
+ *   desfazendo ao final.
+ * - limpar(): Desanexa as entidades do contexto de persistência da thread corrente.
+ * - fechar(): Fecha os EntityManagers de todas as threads e o EntityManagerFactory.
+ */
+package br.com.pazzini.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+
+public class BancoEmbutido {
+
+    public static final String UNIDADE_PERSISTENCIA = "benchmark";
+
+    private final EntityManagerFactory fabrica;
+
+    private final ThreadLocal<EntityManager> entityManagerDaThread;
+
+    private final Queue<EntityManager> abertos = new ConcurrentLinkedQueue<>();
+
+    private final EntityManager entityManager;
+
+    /**
+     * Operação executada dentro de uma transação.
+     */
+    @FunctionalInterface
+    public interface Operacao<R> {
+        R executar() throws Exception;
+    }
+
+    private BancoEmbutido(EntityManagerFactory fabrica) {
+        this.fabrica = fabrica;
+        this.entityManagerDaThread = ThreadLocal.withInitial(() -> {
+            EntityManager em = fabrica.createEntityManager();
+            abertos.add(em);
+            return em;
+        });
+        this.entityManager = (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(),
+                new Class<?>[] { EntityManager.class }, (proxy, metodo, argumentos) -> {
+                    try {
+                        return metodo.invoke(entityManagerDaThread.get(), argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    public static BancoEmbutido abrir() {
+        return abrir(Collections.emptyMap());
+    }
+
+    public static BancoEmbutido abrir(Map<String, Object> propriedades) {
+        return new BancoEmbutido(Persistence.createEntityManagerFactory(UNIDADE_PERSISTENCIA, propriedades));
+    }
+
+    /**
+     * Retorna o EntityManager compartilhado, que delega para o EntityManager da thread corrente.
+     *
+     * @return EntityManager compartilhado
+     */
+    public EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    /**
+     * Instancia o DAO pelo construtor padrão e atribui a ele o EntityManager compartilhado, no lugar da injeção
+     * feita pelo container. O campo "entityManager" é procurado na classe do DAO e nas superclasses (GenericDAO ou
+     * os DAOs de consultas nativas, como o RelatorioVendaDAO).
+     *
+     * @param tipo classe do DAO
+     * @return DAO pronto para uso
+     */
+    public <D> D criarDAO(Class<D> tipo) {
+        try {
+            D dao = tipo.getDeclaredConstructor().newInstance();
+            Field campo = getCampoEntityManager(tipo);
+            campo.setAccessible(true);
+            campo.set(dao, entityManager);
+            return dao;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível criar o DAO " + tipo.getName(), e);
+        }
+    }
+
+    private static Field getCampoEntityManager(Class<?> tipo) throws NoSuchFieldException {
+        for (Class<?> classe = tipo; classe != null; classe = classe.getSuperclass()) {
+            try {
+                return classe.getDeclaredField("entityManager");
+            } catch (NoSuchFieldException e) {
+                continue;
+            }
+        }
+        throw new NoSuchFieldException("entityManager");
+    }
+
+    /**
+     * Executa a operação em uma transação local da thread corrente. Se a operação lançar uma exceção, a transação
+     * é desfeita, o contexto de persistência é limpo e a exceção é repassada como IllegalStateException.
+     *
+     * @param operacao operação a ser executada
+     * @return retorno da operação
+     */
+    public <R> R emTransacao(Operacao<R> operacao) {
+        EntityTransaction transacao = entityManagerDaThread.get().getTransaction();
+        transacao.begin();
+        try {
+            R retorno = operacao.executar();
+            transacao.commit();
+            return retorno;
+        } catch (Exception e) {
+            if (transacao.isActive()) {
+                transacao.rollback();
+            }
+            limpar();
+            throw new IllegalStateException("Erro executando a operação no banco embutido", e);
+        }
+    }
+
+    public void limpar() {
+        entityManagerDaThread.get().clear();
+    }
+
+    public void fechar() {
+        for (EntityManager em : abertos) {
+            if (em.isOpen()) {
+                em.close();
+            }
+        }
+        abertos.clear();
+        if (fabrica.isOpen()) {
+            fabrica.close();
+        }
+    }
+}
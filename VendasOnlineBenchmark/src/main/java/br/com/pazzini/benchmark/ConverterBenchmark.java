@@ -0,0 +1,110 @@
+/**
+ * Benchmarks dos converters do JSF, chamados para cada item exibido nos autocompletes e nas tabelas.
+ *
+ * Os converters guardam as entidades no mapa da view; aqui o FacesContext é o FacesContextBenchmark, com o mapa
+ * da view em memória. O parâmetro itens é a quantidade de entidades já convertidas na view.
+ *
+ * Benchmarks:
+ * - produtoGetAsString / produtoGetAsObject: ProdutoConverter.
+ * - clienteGetAsString / clienteGetAsObject: ClienteConverter.
+ */
+package br.com.pazzini.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.pazzini.converter.ClienteConverter;
+import br.com.pazzini.converter.ProdutoConverter;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Param({ "10", "1000" })
+    private int itens;
+
+    private FacesContextBenchmark context;
+
+    private ProdutoConverter produtoConverter = new ProdutoConverter();
+
+    private ClienteConverter clienteConverter = new ClienteConverter();
+
+    private Produto[] produtos;
+
+    private Cliente[] clientes;
+
+    private String[] ids;
+
+    private int proximo;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        context = new FacesContextBenchmark();
+        produtos = new Produto[itens];
+        clientes = new Cliente[itens];
+        ids = new String[itens];
+        for (int i = 0; i < itens; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i + 1);
+            produto.setCodigo("P" + i);
+            produto.setNome("Produto " + i);
+            produto.setValor(BigDecimal.TEN);
+            produtos[i] = produto;
+
+            Cliente cliente = new Cliente();
+            cliente.setId((long) i + 1);
+            cliente.setNome("Cliente " + i);
+            cliente.setCpf(10000000000L + i);
+            clientes[i] = cliente;
+
+            ids[i] = produtoConverter.getAsString(context, null, produto);
+            clienteConverter.getAsString(context, null, cliente);
+        }
+        proximo = 0;
+    }
+
+    @Benchmark
+    public String produtoGetAsString() {
+        return produtoConverter.getAsString(context, null, produtos[proximo()]);
+    }
+
+    @Benchmark
+    public Object produtoGetAsObject() {
+        return produtoConverter.getAsObject(context, null, ids[proximo()]);
+    }
+
+    @Benchmark
+    public String clienteGetAsString() {
+        return clienteConverter.getAsString(context, null, clientes[proximo()]);
+    }
+
+    @Benchmark
+    public Object clienteGetAsObject() {
+        return clienteConverter.getAsObject(context, null, ids[proximo()]);
+    }
+
+    private int proximo() {
+        int atual = proximo;
+        proximo = proximo + 1 == itens ? 0 : proximo + 1;
+        return atual;
+    }
+}
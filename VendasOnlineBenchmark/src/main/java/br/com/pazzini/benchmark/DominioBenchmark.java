@@ -0,0 +1,186 @@
+/**
+ * Benchmarks das operações de linha e de total da venda.
+ *
+ * Cada operação é medida na versão atual (valores em centavos, em long, e linhas indexadas pelo código do produto)
+ * e na versão anterior, reproduzida em LinhaDecimal e VendaDecimal (valores em BigDecimal, busca linear da linha e
+ * recálculo do total a cada alteração). O parâmetro linhas é a quantidade de produtos distintos na venda.
+ *
+ * Benchmarks:
+ * - adicionarQuantidadeCentavos / adicionarQuantidadeDecimal: ProdutoQuantidade.adicionar.
+ * - recalcularTotalCentavos / recalcularTotalDecimal: Venda.recalcularValorTotalVenda.
+ * - adicionarProdutoIndexado / adicionarProdutoLinear: Venda.adicionarProduto de um produto já presente na venda,
+ *   incluindo a localização da linha e a atualização do total.
+ * - localizarLinhaIndexada / localizarLinhaLinear: apenas a localização da linha pelo código do produto.
+ */
+package br.com.pazzini.benchmark;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.ProdutoQuantidade;
+import br.com.pazzini.domain.Venda;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DominioBenchmark {
+
+    @Param({ "1", "10", "100", "1000" })
+    private int linhas;
+
+    private Produto[] produtos;
+
+    private Venda venda;
+
+    private VendaDecimal vendaDecimal;
+
+    private ProdutoQuantidade linha;
+
+    private LinhaDecimal linhaDecimal;
+
+    private int proximo;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        produtos = new Produto[linhas];
+        venda = new Venda();
+        vendaDecimal = new VendaDecimal();
+        for (int i = 0; i < linhas; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i + 1);
+            produto.setCodigo("P" + i);
+            produto.setNome("Produto " + i);
+            produto.setValor(new BigDecimal("19.99").add(BigDecimal.valueOf(i, 2)));
+            produtos[i] = produto;
+            venda.adicionarProduto(produto, 1);
+            vendaDecimal.adicionarProduto(produto, 1);
+        }
+        linha = venda.getLinha(produtos[0].getCodigo());
+        linhaDecimal = vendaDecimal.localizar(produtos[0].getCodigo()).get();
+        proximo = 0;
+    }
+
+    @Benchmark
+    public long adicionarQuantidadeCentavos() {
+        return linha.adicionar(1);
+    }
+
+    @Benchmark
+    public BigDecimal adicionarQuantidadeDecimal() {
+        return linhaDecimal.adicionar(1);
+    }
+
+    @Benchmark
+    public long recalcularTotalCentavos() {
+        venda.recalcularValorTotalVenda();
+        return venda.getValorTotalCentavos();
+    }
+
+    @Benchmark
+    public BigDecimal recalcularTotalDecimal() {
+        vendaDecimal.recalcularValorTotalVenda();
+        return vendaDecimal.valorTotal;
+    }
+
+    @Benchmark
+    public long adicionarProdutoIndexado() {
+        venda.adicionarProduto(proximoProduto(), 1);
+        return venda.getValorTotalCentavos();
+    }
+
+    @Benchmark
+    public BigDecimal adicionarProdutoLinear() {
+        vendaDecimal.adicionarProduto(proximoProduto(), 1);
+        return vendaDecimal.valorTotal;
+    }
+
+    @Benchmark
+    public ProdutoQuantidade localizarLinhaIndexada() {
+        return venda.getLinha(proximoProduto().getCodigo());
+    }
+
+    @Benchmark
+    public Optional<LinhaDecimal> localizarLinhaLinear() {
+        return vendaDecimal.localizar(proximoProduto().getCodigo());
+    }
+
+    // Percorre os produtos da venda em ordem, para que a busca linear não encontre sempre a mesma linha.
+    private Produto proximoProduto() {
+        Produto produto = produtos[proximo];
+        proximo = proximo + 1 == linhas ? 0 : proximo + 1;
+        return produto;
+    }
+
+    // Linha de venda com o valor em BigDecimal, como era antes da conversão para centavos.
+    static class LinhaDecimal {
+
+        private final Produto produto;
+
+        private Integer quantidade = 0;
+
+        private BigDecimal valorTotal = BigDecimal.ZERO;
+
+        LinhaDecimal(Produto produto) {
+            this.produto = produto;
+        }
+
+        BigDecimal adicionar(Integer quantidade) {
+            this.quantidade += quantidade;
+            BigDecimal novoValor = this.produto.getValor().multiply(BigDecimal.valueOf(quantidade));
+            this.valorTotal = this.valorTotal.add(novoValor);
+            return this.valorTotal;
+        }
+    }
+
+    // Venda com busca linear da linha e recálculo do total a cada alteração, como era antes do índice de linhas.
+    static class VendaDecimal {
+
+        private final Set<LinhaDecimal> produtos = new HashSet<>();
+
+        private BigDecimal valorTotal = BigDecimal.ZERO;
+
+        Optional<LinhaDecimal> localizar(String codigo) {
+            return produtos.stream().filter(filter -> filter.produto.getCodigo().equals(codigo)).findAny();
+        }
+
+        void adicionarProduto(Produto produto, Integer quantidade) {
+            Optional<LinhaDecimal> op = localizar(produto.getCodigo());
+            if (op.isPresent()) {
+                op.get().adicionar(quantidade);
+            } else {
+                LinhaDecimal prod = new LinhaDecimal(produto);
+                prod.adicionar(quantidade);
+                produtos.add(prod);
+            }
+            recalcularValorTotalVenda();
+        }
+
+        void recalcularValorTotalVenda() {
+            BigDecimal valorTotal = BigDecimal.ZERO;
+            for (LinhaDecimal prod : this.produtos) {
+                valorTotal = valorTotal.add(prod.valorTotal);
+            }
+            this.valorTotal = valorTotal;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * A classe FacesContextBenchmark é um FacesContext mínimo para executar os converters fora do servidor.
+ *
+ * Apenas getViewRoot é implementado: a raiz da view devolve um mapa da view em memória, que é onde os converters
+ * guardam as entidades convertidas. Os demais métodos não são usados pelos converters e retornam valores vazios.
+ */
+package br.com.pazzini.benchmark;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.faces.application.Application;
+import javax.faces.application.FacesMessage;
+import javax.faces.application.FacesMessage.Severity;
+import javax.faces.component.UIViewRoot;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.faces.context.ResponseStream;
+import javax.faces.context.ResponseWriter;
+import javax.faces.render.RenderKit;
+
+public class FacesContextBenchmark extends FacesContext {
+
+    private UIViewRoot viewRoot = new ViewRootBenchmark();
+
+    @Override
+    public UIViewRoot getViewRoot() {
+        return viewRoot;
+    }
+
+    @Override
+    public void setViewRoot(UIViewRoot root) {
+        this.viewRoot = root;
+    }
+
+    @Override
+    public Application getApplication() {
+        return null;
+    }
+
+    @Override
+    public Iterator<String> getClientIdsWithMessages() {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public ExternalContext getExternalContext() {
+        return null;
+    }
+
+    @Override
+    public Severity getMaximumSeverity() {
+        return null;
+    }
+
+    @Override
+    public Iterator<FacesMessage> getMessages() {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public Iterator<FacesMessage> getMessages(String clientId) {
+        return Collections.emptyIterator();
+    }
+
+    @Override
+    public RenderKit getRenderKit() {
+        return null;
+    }
+
+    @Override
+    public boolean getRenderResponse() {
+        return false;
+    }
+
+    @Override
+    public boolean getResponseComplete() {
+        return false;
+    }
+
+    @Override
+    public ResponseStream getResponseStream() {
+        return null;
+    }
+
+    @Override
+    public void setResponseStream(ResponseStream responseStream) {
+    }
+
+    @Override
+    public ResponseWriter getResponseWriter() {
+        return null;
+    }
+
+    @Override
+    public void setResponseWriter(ResponseWriter responseWriter) {
+    }
+
+    @Override
+    public void addMessage(String clientId, FacesMessage message) {
+    }
+
+    @Override
+    public void release() {
+    }
+
+    @Override
+    public void renderResponse() {
+    }
+
+    @Override
+    public void responseComplete() {
+    }
+
+    // Raiz da view com o mapa da view em memória, sem depender do ciclo de vida do JSF.
+    static class ViewRootBenchmark extends UIViewRoot {
+
+        private final Map<String, Object> viewMap = new HashMap<>();
+
+        @Override
+        public Map<String, Object> getViewMap() {
+            return viewMap;
+        }
+
+        @Override
+        public Map<String, Object> getViewMap(boolean create) {
+            return viewMap;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Benchmarks das operações do GenericDAO contra o banco H2 em memória (unidade de persistência "benchmark").
+ *
+ * O banco é populado uma vez por execução com o número de registros do parâmetro registros (produtos, clientes e
+ * vendas com três linhas cada). As consultas limpam o contexto de persistência antes de executar, para medir a ida
+ * ao banco e não o cache de primeiro nível.
+ *
+ * Benchmarks de consulta (tempo médio por operação):
+ * - consultarVenda: IGenericDAO.consultar(id), carregando apenas a venda.
+ * - consultarVendaCompleta: IVendaDAO.consultarComCollection(id), com o plano de carga Venda.completa.
+ * - buscarPaginaPorOffset / buscarPaginaPorChave: a última página da tabela de produtos nos dois modos de
+ *   Paginacao, onde a diferença entre percorrer as linhas puladas e buscar pelo índice é maior.
+ * - contar: IGenericDAO.contar().
+ *
+ * Benchmarks de cadastro (vazão em registros por segundo, por @OperationsPerInvocation):
+ * - cadastrarProdutosEmLote: IGenericDAO.cadastrarEmLote com LOTE produtos em uma transação, com batch JDBC.
+ * - cadastrarProdutosUmPorTransacao: os mesmos LOTE produtos, cada um em sua própria transação.
+ * - cadastrarVendasEmLote: IVendaDAO.cadastrarEmLote com LOTE vendas de três linhas.
+ */
+package br.com.pazzini.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.pazzini.dao.ClienteDAO;
+import br.com.pazzini.dao.ProdutoDAO;
+import br.com.pazzini.dao.VendaDAO;
+import br.com.pazzini.dao.generic.Pagina;
+import br.com.pazzini.dao.generic.Paginacao;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenericDAOBenchmark {
+
+    public static final int LOTE = 500;
+
+    private static final int TAMANHO_PAGINA = 20;
+
+    @Param({ "10000" })
+    private int registros;
+
+    private BancoEmbutido banco;
+
+    private ProdutoDAO produtoDAO;
+
+    private ClienteDAO clienteDAO;
+
+    private VendaDAO vendaDAO;
+
+    private List<Long> idsVendas;
+
+    private Long idAntesUltimaPagina;
+
+    private List<Cliente> clientes;
+
+    private List<Produto> produtos;
+
+    private long proximoNumero;
+
+    private int proximaVenda;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        banco = BancoEmbutido.abrir();
+        produtoDAO = banco.criarDAO(ProdutoDAO.class);
+        clienteDAO = banco.criarDAO(ClienteDAO.class);
+        vendaDAO = banco.criarDAO(VendaDAO.class);
+
+        clientes = new ArrayList<>(registros);
+        produtos = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            clientes.add(MassaDados.novoCliente(i));
+            produtos.add(MassaDados.novoProduto(i));
+        }
+        banco.emTransacao(() -> clienteDAO.cadastrarEmLote(clientes));
+        banco.emTransacao(() -> produtoDAO.cadastrarEmLote(produtos));
+
+        List<Venda> vendas = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            vendas.add(novaVenda(MassaDados.codigo("V", i)));
+        }
+        banco.emTransacao(() -> vendaDAO.cadastrarEmLote(vendas));
+        idsVendas = new ArrayList<>(registros);
+        vendas.forEach(venda -> idsVendas.add(venda.getId()));
+        idAntesUltimaPagina = produtos.get(registros - TAMANHO_PAGINA - 1).getId();
+        proximoNumero = registros;
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        banco.fechar();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Venda consultarVenda() throws Exception {
+        banco.limpar();
+        return vendaDAO.consultar(proximaVenda());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Venda consultarVendaCompleta() throws Exception {
+        banco.limpar();
+        return vendaDAO.consultarComCollection(proximaVenda());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Pagina<Produto> buscarPaginaPorOffset() throws Exception {
+        banco.limpar();
+        return produtoDAO.buscarPagina(Paginacao.porOffset(registros - TAMANHO_PAGINA, TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Pagina<Produto> buscarPaginaPorChave() throws Exception {
+        banco.limpar();
+        return produtoDAO.buscarPagina(Paginacao.porChave(idAntesUltimaPagina, TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Long contar() throws Exception {
+        return produtoDAO.contar();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(LOTE)
+    public List<Produto> cadastrarProdutosEmLote() {
+        List<Produto> lote = novosProdutos();
+        return banco.emTransacao(() -> produtoDAO.cadastrarEmLote(lote));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(LOTE)
+    public int cadastrarProdutosUmPorTransacao() {
+        for (Produto produto : novosProdutos()) {
+            banco.emTransacao(() -> produtoDAO.cadastrar(produto));
+        }
+        banco.limpar();
+        return LOTE;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(LOTE)
+    public List<Venda> cadastrarVendasEmLote() {
+        List<Venda> lote = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            lote.add(novaVenda(MassaDados.codigo("W", proximoNumero++)));
+        }
+        return banco.emTransacao(() -> vendaDAO.cadastrarEmLote(lote));
+    }
+
+    private List<Produto> novosProdutos() {
+        List<Produto> lote = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            lote.add(MassaDados.novoProduto(proximoNumero++));
+        }
+        return lote;
+    }
+
+    // Venda de três linhas para um cliente e produtos já cadastrados, escolhidos a partir do código.
+    private Venda novaVenda(String codigo) {
+        int base = Math.floorMod(codigo.hashCode(), registros);
+        return MassaDados.novaVenda(codigo, clientes.get(base),
+                produtos.get(base), produtos.get((base + 1) % registros), produtos.get((base + 2) % registros));
+    }
+
+    private Long proximaVenda() {
+        Long id = idsVendas.get(proximaVenda);
+        proximaVenda = proximaVenda + 1 == idsVendas.size() ? 0 : proximaVenda + 1;
+        return id;
+    }
+}
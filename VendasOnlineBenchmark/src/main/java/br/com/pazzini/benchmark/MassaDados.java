@@ -0,0 +1,71 @@
+/**
+ * A classe MassaDados monta as entidades usadas para popular o banco embutido dos benchmarks.
+ *
+ * Os valores são determinísticos a partir do número informado, de modo que duas execuções com os mesmos
+ * parâmetros gravam os mesmos dados. Os códigos e CPFs são únicos para números distintos.
+ *
+ * Métodos:
+ * - novoCliente(long numero): Cliente com todos os campos obrigatórios preenchidos.
+ * - novoProduto(long numero): Produto com código em base 36 e valor entre 1,00 e 100,99.
+ * - novaVenda(String codigo, Cliente cliente, Produto ...produtos): Venda INICIADA com uma unidade de cada produto.
+ * - codigo(String prefixo, long numero): Código curto e único para o número informado.
+ */
+package br.com.pazzini.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+
+public class MassaDados {
+
+    private static final long CPF_INICIAL = 10000000000L;
+
+    public static Cliente novoCliente(long numero) {
+        Cliente cliente = new Cliente();
+        cliente.setNome("Cliente " + numero);
+        cliente.setCpf(CPF_INICIAL + numero);
+        cliente.setTel(11900000000L + numero);
+        cliente.setEmail("cliente" + numero + "@vendas.com");
+        cliente.setEnd("Rua " + numero);
+        cliente.setNumero((int) (numero % 1000) + 1);
+        cliente.setCidade("São Paulo");
+        cliente.setEstado("SP");
+        return cliente;
+    }
+
+    public static Produto novoProduto(long numero) {
+        Produto produto = new Produto();
+        produto.setCodigo(codigo("P", numero));
+        produto.setNome("Produto " + numero);
+        produto.setDescricao("Produto de teste " + numero);
+        produto.setValor(BigDecimal.valueOf(100 + numero % 10000, 2));
+        return produto;
+    }
+
+    public static Venda novaVenda(String codigo, Cliente cliente, Produto ...produtos) {
+        Venda venda = new Venda();
+        venda.setCodigo(codigo);
+        venda.setCliente(cliente);
+        venda.setDataVenda(Instant.now());
+        venda.setStatus(Venda.Status.INICIADA);
+        for (Produto produto : produtos) {
+            venda.adicionarProduto(produto, 1);
+        }
+        return venda;
+    }
+
+    /**
+     * Monta um código com o prefixo e o número em base 36. Com prefixo de um caractere, cabe nos 10 caracteres da
+     * coluna codigo de tb_produto para números até 36^9.
+     *
+     * @param prefixo prefixo do código
+     * @param numero número do registro
+     * @return código único para o número
+     */
+    public static String codigo(String prefixo, long numero) {
+        return prefixo + Long.toString(numero, 36).toUpperCase();
+    }
+}
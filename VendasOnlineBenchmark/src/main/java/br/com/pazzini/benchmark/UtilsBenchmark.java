@@ -0,0 +1,46 @@
+/**
+ * Benchmarks dos utilitários de texto chamados a cada digitação nos campos de busca e a cada cadastro.
+ *
+ * Benchmarks:
+ * - replaceCpf: ReplaceUtils.replace removendo a máscara de um CPF, como em ClienteDAO.buscarResumos.
+ * - normalizarNome: TextoUtils.normalizar de um nome acentuado, como em Produto.setNome e Cliente.setNome.
+ */
+package br.com.pazzini.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.pazzini.utils.ReplaceUtils;
+import br.com.pazzini.utils.TextoUtils;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+
+    private String cpf = "123.456.789-09";
+
+    private String nome = "  Pão de Açúcar Integral Orgânico  ";
+
+    @Benchmark
+    public String replaceCpf() {
+        return ReplaceUtils.replace(cpf, ".", "-");
+    }
+
+    @Benchmark
+    public String normalizarNome() {
+        return TextoUtils.normalizar(nome);
+    }
+}
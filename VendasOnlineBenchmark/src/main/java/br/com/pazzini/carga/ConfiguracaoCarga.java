@@ -0,0 +1,168 @@
+/**
+ * A classe ConfiguracaoCarga reúne os parâmetros do teste de carga, informados na linha de comando no formato
+ * chave=valor. Parâmetros não informados usam os valores padrão abaixo.
+ *
+ * Parâmetros:
+ * - threads (16): quantidade de threads que chamam os serviços ao mesmo tempo.
+ * - aquecimento (10): segundos de execução descartados antes da medição.
+ * - duracao (30): segundos de medição.
+ * - mix (cadastrar=40,finalizar=20,cancelar=10,filtrar=30): peso de cada operação no sorteio.
+ * - clientes (1000) / produtos (1000): registros cadastrados antes do teste.
+ * - vendas (5000): vendas INICIADAS cadastradas antes do teste, disponíveis para finalizar e cancelar.
+ * - linhas (5): quantidade máxima de produtos por venda cadastrada.
+ * - estoque (0): estoque disponível de cada produto; com 0 os produtos não têm controle de estoque. Com estoque, ao
+ *   final o teste confere se nenhuma reserva se perdeu e os cadastros recusados por falta de estoque aparecem como
+ *   erros de CADASTRAR.
+ * - url (H2 em memória em modo PostgreSQL): URL JDBC do banco; pode apontar para um PostgreSQL local
+ *   (jdbc:postgresql://...), com o usuário e a senha nos parâmetros user e password da própria URL.
+ * - saida (nenhuma): arquivo CSV onde o resultado também é gravado.
+ */
+package br.com.pazzini.carga;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ConfiguracaoCarga {
+
+    public static final String URL_PADRAO = "jdbc:h2:mem:carga;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000";
+
+    private static final String MIX_PADRAO = "cadastrar=40,finalizar=20,cancelar=10,filtrar=30";
+
+    private final int threads;
+
+    private final int aquecimento;
+
+    private final int duracao;
+
+    private final Map<Operacao, Integer> mix;
+
+    private final int clientes;
+
+    private final int produtos;
+
+    private final int vendas;
+
+    private final int linhas;
+
+    private final int estoque;
+
+    private final String url;
+
+    private final String saida;
+
+    private ConfiguracaoCarga(Map<String, String> valores) {
+        this.threads = inteiro(valores, "threads", 16);
+        this.aquecimento = inteiro(valores, "aquecimento", 10);
+        this.duracao = inteiro(valores, "duracao", 30);
+        this.mix = lerMix(valores.getOrDefault("mix", MIX_PADRAO));
+        this.clientes = inteiro(valores, "clientes", 1000);
+        this.produtos = inteiro(valores, "produtos", 1000);
+        this.vendas = inteiro(valores, "vendas", 5000);
+        this.linhas = inteiro(valores, "linhas", 5);
+        this.estoque = inteiro(valores, "estoque", 0);
+        this.url = valores.getOrDefault("url", URL_PADRAO);
+        this.saida = valores.get("saida");
+        if (threads < 1 || duracao < 1 || clientes < 1 || produtos < linhas || linhas < 1 || estoque < 0) {
+            throw new IllegalArgumentException("PARÂMETROS DO TESTE DE CARGA INVÁLIDOS: " + valores);
+        }
+    }
+
+    /**
+     * Lê os parâmetros no formato chave=valor.
+     *
+     * @param argumentos argumentos da linha de comando
+     * @return configuração do teste
+     */
+    public static ConfiguracaoCarga ler(String ...argumentos) {
+        Map<String, String> valores = new HashMap<>();
+        for (String argumento : argumentos) {
+            int separador = argumento.indexOf('=');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("PARÂMETRO DEVE ESTAR NO FORMATO chave=valor: " + argumento);
+            }
+            valores.put(argumento.substring(0, separador).trim(), argumento.substring(separador + 1).trim());
+        }
+        return new ConfiguracaoCarga(valores);
+    }
+
+    private static int inteiro(Map<String, String> valores, String chave, int padrao) {
+        String valor = valores.get(chave);
+        return valor == null ? padrao : Integer.parseInt(valor);
+    }
+
+    // Lê o mix no formato operacao=peso,operacao=peso. Operações não informadas têm peso zero.
+    private static Map<Operacao, Integer> lerMix(String texto) {
+        Map<Operacao, Integer> mix = new EnumMap<>(Operacao.class);
+        for (String item : texto.split(",")) {
+            String[] partes = item.split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("MIX DEVE ESTAR NO FORMATO operacao=peso: " + item);
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("PESO NEGATIVO NO MIX: " + item);
+            }
+            mix.put(Operacao.valueOf(partes[0].trim().toUpperCase()), peso);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("O MIX PRECISA DE PELO MENOS UMA OPERAÇÃO COM PESO POSITIVO");
+        }
+        return mix;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getAquecimento() {
+        return aquecimento;
+    }
+
+    public int getDuracao() {
+        return duracao;
+    }
+
+    public Map<Operacao, Integer> getMix() {
+        return mix;
+    }
+
+    public int getClientes() {
+        return clientes;
+    }
+
+    public int getProdutos() {
+        return produtos;
+    }
+
+    public int getVendas() {
+        return vendas;
+    }
+
+    public int getLinhas() {
+        return linhas;
+    }
+
+    public int getEstoque() {
+        return estoque;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isPostgresql() {
+        return url.startsWith("jdbc:postgresql:");
+    }
+
+    public String getSaida() {
+        return saida;
+    }
+
+    @Override
+    public String toString() {
+        return "threads=" + threads + " aquecimento=" + aquecimento + "s duracao=" + duracao + "s mix=" + mix
+                + " clientes=" + clientes + " produtos=" + produtos + " vendas=" + vendas + " linhas=" + linhas
+                + " estoque=" + estoque + " url=" + url;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * A classe Latencias acumula as latências, em nanossegundos, das chamadas de uma operação feitas por uma thread do
+ * teste de carga.
+ *
+ * Cada thread tem a sua instância, então o registro não precisa de sincronização. Ao final do teste as instâncias
+ * das threads são juntadas e ordenadas, e os percentis são exatos (sem a aproximação de um histograma).
+ *
+ * Métodos:
+ * - registrar(long nanos): Acumula a latência de uma chamada.
+ * - registrarErro(): Conta uma chamada que terminou com erro.
+ * - juntar(Latencias outra): Acrescenta as latências e os erros de outra instância.
+ * - percentil(double percentil): Latência do percentil informado (ex: 99.9), em nanossegundos. Exige ordenar().
+ */
+package br.com.pazzini.carga;
+
+import java.util.Arrays;
+
+public class Latencias {
+
+    private long[] valores = new long[1024];
+
+    private int quantidade;
+
+    private long erros;
+
+    private boolean ordenado;
+
+    public void registrar(long nanos) {
+        if (quantidade == valores.length) {
+            valores = Arrays.copyOf(valores, valores.length * 2);
+        }
+        valores[quantidade++] = nanos;
+        ordenado = false;
+    }
+
+    public void registrarErro() {
+        erros++;
+    }
+
+    public void juntar(Latencias outra) {
+        if (quantidade + outra.quantidade > valores.length) {
+            valores = Arrays.copyOf(valores, Math.max(valores.length * 2, quantidade + outra.quantidade));
+        }
+        System.arraycopy(outra.valores, 0, valores, quantidade, outra.quantidade);
+        quantidade += outra.quantidade;
+        erros += outra.erros;
+        ordenado = false;
+    }
+
+    public void ordenar() {
+        if (!ordenado) {
+            Arrays.sort(valores, 0, quantidade);
+            ordenado = true;
+        }
+    }
+
+    /**
+     * Retorna a latência do percentil informado pelo método nearest-rank.
+     *
+     * @param percentil percentil entre 0 e 100
+     * @return latência em nanossegundos, ou 0 se não houve chamadas
+     */
+    public long percentil(double percentil) {
+        if (quantidade == 0) {
+            return 0;
+        }
+        if (!ordenado) {
+            throw new IllegalStateException("AS LATÊNCIAS PRECISAM SER ORDENADAS ANTES DO CÁLCULO DOS PERCENTIS");
+        }
+        int posicao = (int) Math.ceil(percentil / 100.0 * quantidade) - 1;
+        return valores[Math.max(0, Math.min(posicao, quantidade - 1))];
+    }
+
+    public long getMaximo() {
+        return percentil(100);
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public long getErros() {
+        return erros;
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Operações do fluxo de vendas executadas pelo teste de carga.
+ *
+ * - CADASTRAR: IVendaService.cadastrar de uma venda nova, com até "linhas" produtos.
+ * - FINALIZAR: IVendaService.finalizarVenda de uma venda INICIADA.
+ * - CANCELAR: IVendaService.cancelarVenda de uma venda INICIADA.
+ * - FILTRAR: IVendaService.buscarPagina com contagem, filtrando pelo início do nome do cliente e pelo status, como
+ *   a tabela de vendas faz ao filtrar as colunas.
+ */
+package br.com.pazzini.carga;
+
+public enum Operacao {
+    CADASTRAR, FINALIZAR, CANCELAR, FILTRAR;
+}
@@ -0,0 +1,601 @@
+/**
+ * A classe TesteCarga executa um teste de carga do fluxo de vendas fora do servidor.
+ *
+ * Os DAOs e o VendaService são instanciados como no container, mas sobre o BancoEmbutido: por padrão um H2 em
+ * memória em modo PostgreSQL no lugar do java:/PostGreDS, sem acesso à rede. Cada chamada a um serviço roda na sua
+ * própria transação, como um método de EJB @Stateless com REQUIRED, e as threads compartilham as mesmas instâncias
+ * de DAO e de serviço.
+ *
+ * O resumo diário de vendas (ResumoVendaDiaDAO) usa INSERT ... ON CONFLICT DO UPDATE, que o H2 não aceita; ele só é
+ * mantido quando a url aponta para um PostgreSQL. No H2 o VendaService recebe um resumo que ignora as alterações.
+ * No PostgreSQL o teste confere ao final o resumo contra as linhas das vendas: primeiro o resumo mantido pelas
+ * somas incrementais das threads, depois o resumo reconstruído dia a dia. Uma soma perdida ou repetida entre
+ * transações concorrentes, ou uma reconstrução que não reproduz as linhas, aparece como diferença e termina o
+ * processo com código 1:
+ *     java -cp target/benchmarks.jar br.com.pazzini.carga.TesteCarga threads=32 produtos=10 \
+ *         "url=jdbc:postgresql://localhost/vendas?user=vendas&password=vendas"
+ *
+ * Com o parâmetro estoque, cada produto passa a ter controle de estoque depois do cadastro das vendas iniciais, e
+ * as threads disputam as mesmas linhas de TB_ESTOQUE. Ao final o teste confere, produto a produto, que o reservado é
+ * igual à soma das vendas INICIADAS e que o disponível, o reservado e o vendido somam o estoque inicial; qualquer
+ * reserva, liberação ou confirmação perdida aparece como diferença, e o processo termina com código 1.
+ * A conferência só vale para bancos que reavaliam a condição do UPDATE sobre a versão confirmada da linha, como o
+ * PostgreSQL. O H2 1.4.200 com o armazenamento padrão (MVStore) perde alterações concorrentes da mesma linha mesmo
+ * com SQL correto; para conferir no H2, use o armazenamento antigo, que bloqueia a tabela inteira:
+ *     java -cp target/benchmarks.jar br.com.pazzini.carga.TesteCarga threads=4 produtos=10 estoque=20 \
+ *         "url=jdbc:h2:mem:carga;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;MV_STORE=FALSE"
+ *
+ * Ao final o teste também publica a caixa de saída de eventos (TB_EVENTO_VENDA) em um DestinoEventosMemoria e
+ * confere que cada venda tem exatamente os eventos do seu status, em ordem: CADASTRADA e, se a venda saiu de
+ * INICIADA, um único FINALIZADA ou CANCELADA depois dele. Um evento perdido, repetido ou fora de ordem também
+ * termina o processo com código 1.
+ *
+ * Cada thread sorteia as operações conforme o mix e as executa sem pausa (carga em malha fechada). As chamadas do
+ * aquecimento são descartadas; ao final são impressos, por operação, a quantidade de chamadas, os erros, a vazão e
+ * as latências p50, p99, p999 e máxima. A vazão divide as chamadas pelo tempo de medição realmente decorrido, do
+ * início da medição até o fim da última chamada medida, e não pela duração configurada. A primeira falha de cada
+ * operação (inclusive no aquecimento) é impressa com o stack trace em System.err quando acontece e repetida no
+ * resultado; as demais são apenas contadas.
+ *
+ * Execução (ver ConfiguracaoCarga para os parâmetros):
+ *     mvn -B package
+ *     java -cp target/benchmarks.jar br.com.pazzini.carga.TesteCarga threads=32 duracao=60 saida=target/carga.csv
+ *
+ * Métodos:
+ * - main(String[] args): Lê a configuração, popula o banco, executa o teste e imprime o resultado.
+ * - executar(): Executa o teste e retorna as latências de cada operação.
+ * - verificarEstoque(PrintStream saida): Confere o estoque de cada produto contra as vendas gravadas.
+ * - verificarEventos(PrintStream saida): Publica os eventos de venda e os confere contra o status das vendas.
+ * - verificarResumo(PrintStream saida): Confere o resumo diário contra as vendas, antes e depois de reconstruí-lo.
+ */
+package br.com.pazzini.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import br.com.pazzini.benchmark.BancoEmbutido;
+import br.com.pazzini.benchmark.MassaDados;
+import br.com.pazzini.dao.ClienteDAO;
+import br.com.pazzini.dao.EstoqueDAO;
+import br.com.pazzini.dao.EventoVendaDAO;
+import br.com.pazzini.dao.IResumoVendaDiaDAO;
+import br.com.pazzini.dao.ProdutoDAO;
+import br.com.pazzini.dao.ResumoVendaDiaDAO;
+import br.com.pazzini.dao.VendaDAO;
+import br.com.pazzini.dao.generic.Filtro;
+import br.com.pazzini.dao.generic.Paginacao;
+import br.com.pazzini.domain.Cliente;
+import br.com.pazzini.domain.Dinheiro;
+import br.com.pazzini.domain.Estoque;
+import br.com.pazzini.domain.EventoVenda;
+import br.com.pazzini.domain.Produto;
+import br.com.pazzini.domain.Venda;
+import br.com.pazzini.eventos.DestinoEventosMemoria;
+import br.com.pazzini.service.EventoVendaService;
+import br.com.pazzini.service.IEventoVendaService;
+import br.com.pazzini.service.IVendaService;
+import br.com.pazzini.service.VendaService;
+import br.com.pazzini.utils.CsvUtils;
+
+public class TesteCarga {
+
+    private static final int TAMANHO_PAGINA = 10;
+
+    private static final int TAMANHO_LOTE_EVENTOS = 500;
+
+    // Totais esperados do resumo, calculados das linhas das vendas como na reconstrução do ResumoVendaDiaDAO.
+    private static final String SQL_RESUMO_ESPERADO =
+            "SELECT CAST(v.DATA_VENDA AS DATE), pq.produto_id, v.STATUS_VENDA, "
+            + "       COUNT(*), SUM(pq.quantidade), SUM(pq.valor_total) "
+            + "FROM TB_VENDA v "
+            + "JOIN TB_PRODUTO_QUANTIDADE pq ON pq.id_venda_fk = v.id "
+            + "GROUP BY 1, 2, 3";
+
+    private static final String SQL_RESUMO_GRAVADO =
+            "SELECT DIA, produto_id, STATUS_VENDA, VENDAS, QUANTIDADE, VALOR_TOTAL FROM TB_RESUMO_VENDA_DIA";
+
+    private final ConfiguracaoCarga configuracao;
+
+    private final BancoEmbutido banco;
+
+    private final EstoqueDAO estoqueDao;
+
+    private final IResumoVendaDiaDAO resumoDao;
+
+    private final IVendaService vendaService;
+
+    private final IEventoVendaService eventoService;
+
+    private final List<Cliente> clientes = new ArrayList<>();
+
+    private final List<Produto> produtos = new ArrayList<>();
+
+    // Disponível mais reservado de cada produto no início do controle de estoque.
+    private final Map<Long, Long> estoqueInicial = new HashMap<>();
+
+    // Vendas INICIADAS disponíveis para finalizar ou cancelar; cada id é retirado por uma única thread.
+    private final Queue<Long> pendentes = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong proximoCodigo = new AtomicLong();
+
+    private final Operacao[] sorteio;
+
+    // Primeira falha de cada operação, guardada para o resultado; as seguintes só são contadas.
+    private final Map<Operacao, RuntimeException> primeirasFalhas = new ConcurrentHashMap<>();
+
+    // Tempo decorrido entre o início da medição e o fim da última chamada medida.
+    private long duracaoMedidaNanos;
+
+    private volatile boolean medindo;
+
+    private volatile boolean encerrado;
+
+    public TesteCarga(ConfiguracaoCarga configuracao) {
+        this.configuracao = configuracao;
+        Map<String, Object> propriedades = new HashMap<>();
+        propriedades.put("javax.persistence.jdbc.url", configuracao.getUrl());
+        propriedades.put("hibernate.connection.pool_size", String.valueOf(configuracao.getThreads() + 2));
+        propriedades.put("hibernate.hbm2ddl.auto", "create");
+        if (configuracao.isPostgresql()) {
+            propriedades.put("javax.persistence.jdbc.driver", "org.postgresql.Driver");
+            propriedades.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQL95Dialect");
+        }
+        this.banco = BancoEmbutido.abrir(propriedades);
+        this.resumoDao = configuracao.isPostgresql()
+                ? banco.criarDAO(ResumoVendaDiaDAO.class) : new ResumoIgnorado();
+        this.estoqueDao = banco.criarDAO(EstoqueDAO.class);
+        EventoVendaDAO eventoDao = banco.criarDAO(EventoVendaDAO.class);
+        this.vendaService = new VendaService(banco.criarDAO(VendaDAO.class), resumoDao, estoqueDao, eventoDao);
+        this.eventoService = new EventoVendaService(eventoDao);
+        this.sorteio = montarSorteio(configuracao.getMix());
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.ler(args);
+        TesteCarga teste = new TesteCarga(configuracao);
+        boolean consistente = true;
+        try {
+            System.out.println("Teste de carga: " + configuracao);
+            teste.popular();
+            Map<Operacao, Latencias> resultado = teste.executar();
+            teste.imprimir(resultado, System.out);
+            if (configuracao.getSaida() != null) {
+                teste.gravarCsv(resultado, configuracao.getSaida());
+            }
+            if (configuracao.getEstoque() > 0) {
+                consistente = teste.verificarEstoque(System.out);
+            }
+            consistente &= teste.verificarEventos(System.out);
+            if (configuracao.isPostgresql()) {
+                consistente &= teste.verificarResumo(System.out);
+            }
+        } finally {
+            teste.banco.fechar();
+        }
+        if (!consistente) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Cadastra os clientes, os produtos e as vendas INICIADAS usados pelo teste.
+     */
+    public void popular() {
+        ClienteDAO clienteDAO = banco.criarDAO(ClienteDAO.class);
+        ProdutoDAO produtoDAO = banco.criarDAO(ProdutoDAO.class);
+        for (int i = 0; i < configuracao.getClientes(); i++) {
+            clientes.add(MassaDados.novoCliente(i));
+        }
+        for (int i = 0; i < configuracao.getProdutos(); i++) {
+            produtos.add(MassaDados.novoProduto(i));
+        }
+        banco.emTransacao(() -> clienteDAO.cadastrarEmLote(clientes));
+        banco.emTransacao(() -> produtoDAO.cadastrarEmLote(produtos));
+
+        List<Venda> vendas = new ArrayList<>(configuracao.getVendas());
+        for (int i = 0; i < configuracao.getVendas(); i++) {
+            vendas.add(novaVenda(ThreadLocalRandom.current()));
+        }
+        banco.emTransacao(() -> vendaService.cadastrarEmLote(vendas));
+        vendas.forEach(venda -> pendentes.add(venda.getId()));
+
+        if (configuracao.getEstoque() > 0) {
+            for (Produto produto : produtos) {
+                Estoque estoque = banco.emTransacao(() -> estoqueDao.definir(produto.getId(), configuracao.getEstoque()));
+                estoqueInicial.put(produto.getId(), estoque.getDisponivel() + estoque.getReservado());
+            }
+            banco.limpar();
+        }
+    }
+
+    /**
+     * Confere o estoque de cada produto contra as vendas gravadas: o disponível não pode ser negativo, o reservado
+     * deve ser a soma das linhas das vendas INICIADAS e o disponível, o reservado e a soma das linhas das vendas
+     * CONCLUIDAS devem somar o estoque do início do controle. Deve ser chamado com as threads do teste encerradas.
+     *
+     * @param saida destino das diferenças encontradas
+     * @return true se o estoque de todos os produtos está consistente
+     */
+    public boolean verificarEstoque(PrintStream saida) {
+        Map<Long, Long> iniciadas = new HashMap<>();
+        Map<Long, Long> concluidas = new HashMap<>();
+        List<Estoque> estoques = banco.emTransacao(() -> {
+            List<Object[]> linhas = banco.getEntityManager().createQuery(
+                    "SELECT l.produto.id, l.venda.status, SUM(l.quantidade) FROM ProdutoQuantidade l "
+                    + "GROUP BY l.produto.id, l.venda.status", Object[].class)
+                    .getResultList();
+            for (Object[] linha : linhas) {
+                if (Venda.Status.INICIADA.equals(linha[1])) {
+                    iniciadas.put((Long) linha[0], ((Number) linha[2]).longValue());
+                } else if (Venda.Status.CONCLUIDA.equals(linha[1])) {
+                    concluidas.put((Long) linha[0], ((Number) linha[2]).longValue());
+                }
+            }
+            return banco.getEntityManager().createQuery("SELECT e FROM Estoque e", Estoque.class).getResultList();
+        });
+        banco.limpar();
+
+        int diferencas = 0;
+        long reservado = 0;
+        long vendido = 0;
+        for (Estoque estoque : estoques) {
+            Long id = estoque.getIdProduto();
+            long esperadoReservado = iniciadas.getOrDefault(id, 0L);
+            long vendidoProduto = concluidas.getOrDefault(id, 0L);
+            long total = estoque.getDisponivel() + estoque.getReservado() + vendidoProduto;
+            if (estoque.getDisponivel() < 0 || estoque.getReservado() != esperadoReservado
+                    || total != estoqueInicial.get(id)) {
+                diferencas++;
+                saida.printf("ESTOQUE INCONSISTENTE: produto=%d disponivel=%d reservado=%d (esperado %d) "
+                        + "vendido=%d total=%d (esperado %d)%n", id, estoque.getDisponivel(), estoque.getReservado(),
+                        esperadoReservado, vendidoProduto, total, estoqueInicial.get(id));
+            }
+            reservado += estoque.getReservado();
+            vendido += vendidoProduto;
+        }
+        saida.printf("ESTOQUE: %d produtos, %d reservados, %d vendidos, %d inconsistentes%n", estoques.size(),
+                reservado, vendido, diferencas);
+        return diferencas == 0 && estoques.size() == produtos.size();
+    }
+
+    /**
+     * Publica todos os eventos da caixa de saída em um DestinoEventosMemoria e confere, venda a venda, que os
+     * eventos recebidos correspondem ao status gravado: CADASTRADA para as vendas INICIADAS, e CADASTRADA seguido de
+     * FINALIZADA ou CANCELADA para as vendas CONCLUIDAS ou CANCELADAS. Deve ser chamado com as threads do teste
+     * encerradas.
+     *
+     * @param saida destino das diferenças encontradas
+     * @return true se os eventos de todas as vendas estão corretos
+     */
+    public boolean verificarEventos(PrintStream saida) {
+        DestinoEventosMemoria destino = new DestinoEventosMemoria();
+        while (banco.emTransacao(() -> eventoService.publicarLote(destino, TAMANHO_LOTE_EVENTOS))
+                == TAMANHO_LOTE_EVENTOS) {
+            banco.limpar();
+        }
+        banco.limpar();
+        Map<Long, List<EventoVenda.Tipo>> recebidos = new HashMap<>();
+        for (EventoVenda evento : destino.getEventos()) {
+            recebidos.computeIfAbsent(evento.getIdVenda(), id -> new ArrayList<>()).add(evento.getTipo());
+        }
+        List<Object[]> vendas = banco.emTransacao(() -> banco.getEntityManager()
+                .createQuery("SELECT v.id, v.status FROM Venda v", Object[].class)
+                .getResultList());
+
+        int diferencas = 0;
+        for (Object[] venda : vendas) {
+            List<EventoVenda.Tipo> esperados = new ArrayList<>();
+            esperados.add(EventoVenda.Tipo.CADASTRADA);
+            if (Venda.Status.CONCLUIDA.equals(venda[1])) {
+                esperados.add(EventoVenda.Tipo.FINALIZADA);
+            } else if (Venda.Status.CANCELADA.equals(venda[1])) {
+                esperados.add(EventoVenda.Tipo.CANCELADA);
+            }
+            List<EventoVenda.Tipo> tipos = recebidos.remove(venda[0]);
+            if (!esperados.equals(tipos)) {
+                diferencas++;
+                saida.printf("EVENTOS INCONSISTENTES: venda=%d status=%s eventos=%s (esperado %s)%n", venda[0],
+                        venda[1], tipos, esperados);
+            }
+        }
+        diferencas += recebidos.size();
+        recebidos.forEach((id, tipos) -> saida.printf("EVENTOS DE VENDA INEXISTENTE: venda=%d eventos=%s%n", id,
+                tipos));
+        saida.printf("EVENTOS: %d publicados, %d vendas, %d inconsistentes%n", destino.getEventos().size(),
+                vendas.size(), diferencas);
+        return diferencas == 0;
+    }
+
+    /**
+     * Confere o resumo diário de vendas contra as linhas das vendas gravadas, por dia, produto e status. A primeira
+     * conferência é do resumo mantido pelas somas incrementais (INSERT ... ON CONFLICT) das threads do teste, e
+     * ignora as linhas zeradas, que só a reconstrução remove. Em seguida cada dia é reconstruído e a conferência é
+     * repetida sem ignorar nenhuma linha. Só vale para o PostgreSQL e deve ser chamado com as threads do teste
+     * encerradas.
+     *
+     * @param saida destino das diferenças encontradas
+     * @return true se o resumo está consistente antes e depois da reconstrução
+     */
+    public boolean verificarResumo(PrintStream saida) {
+        Map<String, String> esperado = lerResumo(SQL_RESUMO_ESPERADO);
+        int diferencas = compararResumo(esperado, lerResumo(SQL_RESUMO_GRAVADO), true, saida);
+
+        TreeSet<LocalDate> dias = new TreeSet<>();
+        esperado.keySet().forEach(chave -> dias.add(LocalDate.parse(chave.substring(0, chave.indexOf(' ')))));
+        lerResumo(SQL_RESUMO_GRAVADO).keySet()
+                .forEach(chave -> dias.add(LocalDate.parse(chave.substring(0, chave.indexOf(' ')))));
+        long reconstruidas = 0;
+        for (LocalDate dia : dias) {
+            reconstruidas += banco.emTransacao(() -> resumoDao.reconstruir(dia));
+        }
+        int diferencasReconstrucao = compararResumo(esperado, lerResumo(SQL_RESUMO_GRAVADO), false, saida);
+
+        saida.printf("RESUMO: %d linhas esperadas, %d inconsistentes; %d dias reconstruídos em %d linhas, "
+                + "%d inconsistentes%n", esperado.size(), diferencas, dias.size(), reconstruidas,
+                diferencasReconstrucao);
+        return diferencas == 0 && diferencasReconstrucao == 0;
+    }
+
+    // Lê as linhas do resumo como "dia produto status" -> "vendas quantidade centavos".
+    private Map<String, String> lerResumo(String sql) {
+        List<?> linhas = banco.emTransacao(() -> banco.getEntityManager().createNativeQuery(sql).getResultList());
+        Map<String, String> resumo = new HashMap<>();
+        for (Object linha : linhas) {
+            Object[] colunas = (Object[]) linha;
+            resumo.put(((Date) colunas[0]).toLocalDate() + " " + colunas[1] + " " + colunas[2],
+                    ((Number) colunas[3]).longValue() + " " + ((Number) colunas[4]).longValue() + " "
+                    + Dinheiro.centavos((BigDecimal) colunas[5]));
+        }
+        return resumo;
+    }
+
+    private static int compararResumo(Map<String, String> esperado, Map<String, String> gravado,
+            boolean ignorarZeradas, PrintStream saida) {
+        int diferencas = 0;
+        for (Map.Entry<String, String> linha : esperado.entrySet()) {
+            String valores = gravado.get(linha.getKey());
+            if (!linha.getValue().equals(valores)) {
+                diferencas++;
+                saida.printf("RESUMO INCONSISTENTE: %s valores=%s (esperado %s)%n", linha.getKey(), valores,
+                        linha.getValue());
+            }
+        }
+        for (Map.Entry<String, String> linha : gravado.entrySet()) {
+            if (!esperado.containsKey(linha.getKey()) && !(ignorarZeradas && linha.getValue().equals("0 0 0"))) {
+                diferencas++;
+                saida.printf("RESUMO SEM VENDAS: %s valores=%s%n", linha.getKey(), linha.getValue());
+            }
+        }
+        return diferencas;
+    }
+
+    /**
+     * Executa o aquecimento e a medição com as threads configuradas.
+     *
+     * @return latências de cada operação, somando todas as threads
+     */
+    public Map<Operacao, Latencias> executar() throws InterruptedException {
+        int threads = configuracao.getThreads();
+        List<Map<Operacao, Latencias>> porThread = new ArrayList<>(threads);
+        CountDownLatch terminadas = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Map<Operacao, Latencias> latencias = novasLatencias();
+            porThread.add(latencias);
+            Thread thread = new Thread(() -> {
+                try {
+                    executarChamadas(latencias);
+                } finally {
+                    terminadas.countDown();
+                }
+            }, "carga-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        TimeUnit.SECONDS.sleep(configuracao.getAquecimento());
+        long inicioMedicao = System.nanoTime();
+        medindo = true;
+        TimeUnit.SECONDS.sleep(configuracao.getDuracao());
+        medindo = false;
+        encerrado = true;
+        terminadas.await();
+        duracaoMedidaNanos = System.nanoTime() - inicioMedicao;
+
+        Map<Operacao, Latencias> resultado = novasLatencias();
+        for (Map<Operacao, Latencias> latencias : porThread) {
+            latencias.forEach((operacao, valores) -> resultado.get(operacao).juntar(valores));
+        }
+        resultado.values().forEach(Latencias::ordenar);
+        return resultado;
+    }
+
+    // Laço de cada thread: sorteia a operação, executa em uma transação e registra a latência durante a medição.
+    private void executarChamadas(Map<Operacao, Latencias> latencias) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        while (!encerrado) {
+            Operacao operacao = sorteio[aleatorio.nextInt(sorteio.length)];
+            Long id = null;
+            if (Operacao.FINALIZAR.equals(operacao) || Operacao.CANCELAR.equals(operacao)) {
+                id = pendentes.poll();
+                if (id == null) {
+                    operacao = Operacao.CADASTRAR;
+                }
+            }
+            boolean medir = medindo;
+            long inicio = System.nanoTime();
+            try {
+                executarOperacao(operacao, id, aleatorio);
+                if (medir) {
+                    latencias.get(operacao).registrar(System.nanoTime() - inicio);
+                }
+            } catch (RuntimeException e) {
+                if (medir) {
+                    latencias.get(operacao).registrarErro();
+                }
+                if (primeirasFalhas.putIfAbsent(operacao, e) == null) {
+                    synchronized (System.err) {
+                        System.err.println("PRIMEIRA FALHA EM " + operacao + ":");
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    private void executarOperacao(Operacao operacao, Long id, ThreadLocalRandom aleatorio) {
+        switch (operacao) {
+        case CADASTRAR:
+            Venda venda = novaVenda(aleatorio);
+            banco.emTransacao(() -> vendaService.cadastrar(venda));
+            pendentes.add(venda.getId());
+            break;
+        case FINALIZAR:
+            banco.emTransacao(() -> vendaService.finalizarVenda(vendaComId(id)));
+            break;
+        case CANCELAR:
+            banco.emTransacao(() -> vendaService.cancelarVenda(vendaComId(id)));
+            break;
+        case FILTRAR:
+            String nome = "cliente " + aleatorio.nextInt(configuracao.getClientes());
+            Paginacao paginacao = Paginacao.porOffset(0, TAMANHO_PAGINA)
+                    .ordenarPor("dataVenda", false)
+                    .filtrarPor("cliente.nome", nome, Filtro.Tipo.COMECA_COM)
+                    .filtrarPor("status", Venda.Status.INICIADA, Filtro.Tipo.IGUAL)
+                    .comTotal();
+            banco.emTransacao(() -> vendaService.buscarPagina(paginacao));
+            break;
+        }
+        banco.limpar();
+    }
+
+    // Venda para um cliente sorteado, com produtos distintos e consecutivos a partir de um produto sorteado.
+    private Venda novaVenda(ThreadLocalRandom aleatorio) {
+        int quantidade = 1 + aleatorio.nextInt(configuracao.getLinhas());
+        int inicio = aleatorio.nextInt(produtos.size());
+        Produto[] itens = new Produto[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            itens[i] = produtos.get((inicio + i) % produtos.size());
+        }
+        Cliente cliente = clientes.get(aleatorio.nextInt(clientes.size()));
+        return MassaDados.novaVenda(MassaDados.codigo("L", proximoCodigo.incrementAndGet()), cliente, itens);
+    }
+
+    private Venda vendaComId(Long id) {
+        Venda venda = new Venda();
+        venda.setId(id);
+        return venda;
+    }
+
+    // Cada operação aparece no vetor tantas vezes quanto o seu peso, de modo que o sorteio é um único nextInt.
+    private static Operacao[] montarSorteio(Map<Operacao, Integer> mix) {
+        List<Operacao> operacoes = new ArrayList<>();
+        mix.forEach((operacao, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                operacoes.add(operacao);
+            }
+        });
+        return operacoes.toArray(new Operacao[0]);
+    }
+
+    private static Map<Operacao, Latencias> novasLatencias() {
+        Map<Operacao, Latencias> latencias = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new Latencias());
+        }
+        return latencias;
+    }
+
+    /**
+     * Imprime o resultado em uma tabela, com as latências em milissegundos.
+     *
+     * @param resultado latências de cada operação
+     * @param saida destino da tabela
+     */
+    public void imprimir(Map<Operacao, Latencias> resultado, PrintStream saida) {
+        saida.printf("%-10s %10s %8s %12s %10s %10s %10s %10s%n",
+                "OPERACAO", "CHAMADAS", "ERROS", "OPS/S", "P50 MS", "P99 MS", "P999 MS", "MAX MS");
+        long total = 0;
+        for (Map.Entry<Operacao, Latencias> item : resultado.entrySet()) {
+            Latencias latencias = item.getValue();
+            total += latencias.getQuantidade();
+            saida.printf("%-10s %10d %8d %12.1f %10.3f %10.3f %10.3f %10.3f%n", item.getKey(),
+                    latencias.getQuantidade(), latencias.getErros(), vazao(latencias.getQuantidade()),
+                    milis(latencias.percentil(50)), milis(latencias.percentil(99)),
+                    milis(latencias.percentil(99.9)), milis(latencias.getMaximo()));
+        }
+        saida.printf("%-10s %10d %8s %12.1f%n", "TOTAL", total, "", vazao(total));
+        saida.printf("DURACAO MEDIDA: %.3f s%n", segundosMedidos());
+        primeirasFalhas.forEach((operacao, falha) -> saida.printf("PRIMEIRA FALHA EM %s: %s%n", operacao, falha));
+    }
+
+    /**
+     * Grava o resultado em CSV, com as latências em milissegundos.
+     *
+     * @param resultado latências de cada operação
+     * @param arquivo caminho do arquivo
+     */
+    public void gravarCsv(Map<Operacao, Latencias> resultado, String arquivo) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            writer.write(CsvUtils.linha("OPERACAO", "THREADS", "DURACAO_S", "CHAMADAS", "ERROS", "OPS_S",
+                    "P50_MS", "P99_MS", "P999_MS", "MAX_MS"));
+            for (Map.Entry<Operacao, Latencias> item : resultado.entrySet()) {
+                Latencias latencias = item.getValue();
+                writer.write(CsvUtils.linha(item.getKey(), configuracao.getThreads(), segundosMedidos(),
+                        latencias.getQuantidade(), latencias.getErros(), vazao(latencias.getQuantidade()),
+                        milis(latencias.percentil(50)), milis(latencias.percentil(99)),
+                        milis(latencias.percentil(99.9)), milis(latencias.getMaximo())));
+            }
+        }
+    }
+
+    private double vazao(long chamadas) {
+        return duracaoMedidaNanos == 0 ? 0 : chamadas / segundosMedidos();
+    }
+
+    private double segundosMedidos() {
+        return duracaoMedidaNanos / 1_000_000_000.0;
+    }
+
+    private static double milis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Resumo diário que ignora as alterações, usado quando o banco do teste não é PostgreSQL.
+     */
+    private static class ResumoIgnorado implements IResumoVendaDiaDAO {
+
+        @Override
+        public void somar(Collection<Long> idsVendas, int sinal) {
+        }
+
+        @Override
+        public void somar(Collection<Long> idsVendas, Venda.Status status, int sinal) {
+        }
+
+        @Override
+        public int reconstruir(LocalDate dia) {
+            return 0;
+        }
+    }
+}